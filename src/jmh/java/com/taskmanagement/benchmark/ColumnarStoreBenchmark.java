@@ -0,0 +1,106 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.repository.ColumnarTaskRepository;
+import com.taskmanagement.repository.InMemoryTaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Filtered listing on the memory-mapped column store against the object-based
+ * in-memory repository over the same tasks. Run with {@code -prof gc} to compare
+ * allocation; the columnar store keeps only the id table on the heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class ColumnarStoreBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"STATUS_AND_PRIORITY", "DUE_DATE_HOUR"})
+    public FilteredListingBenchmark.Selectivity selectivity;
+
+    private Path directory;
+    private ColumnarTaskRepository columnar;
+    private InMemoryTaskRepository inMemory;
+    private TaskQuery query;
+    private TaskQuery firstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("columnar-benchmark");
+        columnar = new ColumnarTaskRepository(directory);
+        inMemory = new InMemoryTaskRepository();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < size; i++) {
+            Task task = new Task.Builder()
+                    .title("Task " + i)
+                    .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                    .status(Status.values()[random.nextInt(Status.values().length)])
+                    .dueDate(FilteredListingBenchmark.BASE.plusMinutes(random.nextInt(FilteredListingBenchmark.DUE_DATE_MINUTES)))
+                    .build();
+            columnar.save(task);
+            inMemory.save(task);
+        }
+        TaskFilter filter = FilteredListingBenchmark.filter(selectivity);
+        query = TaskQuery.of(filter);
+        firstPage = new TaskQuery.Builder().filter(filter).limit(50).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        columnar.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<Task> columnarQuery() {
+        return columnar.query(query);
+    }
+
+    @Benchmark
+    public List<Task> inMemoryQuery() {
+        return inMemory.query(query);
+    }
+
+    @Benchmark
+    public List<Task> columnarFirstPage() {
+        return columnar.query(firstPage);
+    }
+
+    @Benchmark
+    public List<Task> inMemoryFirstPage() {
+        return inMemory.query(firstPage);
+    }
+}
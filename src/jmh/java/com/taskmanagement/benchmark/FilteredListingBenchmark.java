@@ -0,0 +1,108 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.repository.InMemoryTaskRepository;
+import com.taskmanagement.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Filtered listing through TaskService against the raw predicate scan, across data
+ * set sizes and filter selectivities. The 10M case needs a large heap; override
+ * it with {@code -jvmArgsAppend} or narrow the sizes with {@code -p size=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class FilteredListingBenchmark {
+
+    static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+    static final int DUE_DATE_MINUTES = 525_600;
+
+    public enum Selectivity {
+        // roughly 33%, 11%, 0.1% and 0.01% of all tasks
+        STATUS,
+        STATUS_AND_PRIORITY,
+        DUE_DATE_DAY_AND_STATUS,
+        DUE_DATE_HOUR
+    }
+
+    @Param({"10000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"STATUS", "STATUS_AND_PRIORITY", "DUE_DATE_DAY_AND_STATUS", "DUE_DATE_HOUR"})
+    public Selectivity selectivity;
+
+    private InMemoryTaskRepository repository;
+    private TaskService service;
+    private TaskFilter filter;
+    private Predicate<Task> predicate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new InMemoryTaskRepository();
+        service = new TaskService(repository);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < size; i++) {
+            repository.save(new Task.Builder()
+                    .title("Task " + i)
+                    .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                    .status(Status.values()[random.nextInt(Status.values().length)])
+                    .dueDate(BASE.plusMinutes(random.nextInt(DUE_DATE_MINUTES)))
+                    .build());
+        }
+        filter = filter(selectivity);
+        predicate = filter.build();
+    }
+
+    static TaskFilter filter(Selectivity selectivity) {
+        LocalDateTime day = BASE.plusDays(100);
+        switch (selectivity) {
+            case STATUS:
+                return TaskFilter.builder().byStatus(Status.PENDING);
+            case STATUS_AND_PRIORITY:
+                return TaskFilter.builder().byStatus(Status.PENDING).byPriority(Priority.HIGH);
+            case DUE_DATE_DAY_AND_STATUS:
+                return TaskFilter.builder().byStatus(Status.IN_PROGRESS).byDueDateRange(day, day.plusDays(1));
+            default:
+                return TaskFilter.builder().byDueDateRange(day, day.plusMinutes(53));
+        }
+    }
+
+    @Benchmark
+    public List<Task> serviceListTasks() {
+        return service.listTasks(filter);
+    }
+
+    @Benchmark
+    public List<Task> predicateScan() {
+        return repository.findAll(predicate);
+    }
+
+    @Benchmark
+    public List<Task> buildFilterAndScan() {
+        return repository.findAll(filter(selectivity).build());
+    }
+}
@@ -0,0 +1,87 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.repository.InMemoryTaskRepository;
+import com.taskmanagement.service.SortOption;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Full-scan listings with and without fork-join execution, to find the repository
+ * size at which parallel scans start to pay off on this machine. The text filter
+ * matches about a third of the tasks and has no index, so every query scans.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ParallelQueryBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private InMemoryTaskRepository repository;
+    private Predicate<Task> predicate;
+    private TaskQuery sorted;
+    private TaskQuery page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new InMemoryTaskRepository.Builder()
+                .parallelQueryThreshold(parallel ? 0 : Integer.MAX_VALUE)
+                .build();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < size; i++) {
+            repository.save(new Task.Builder()
+                    .title("Task " + random.nextInt(1_000_000))
+                    .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                    .status(Status.values()[random.nextInt(Status.values().length)])
+                    .dueDate(FilteredListingBenchmark.BASE
+                            .plusMinutes(random.nextInt(FilteredListingBenchmark.DUE_DATE_MINUTES)))
+                    .build());
+        }
+        TaskFilter filter = TaskFilter.builder().byText("7");
+        predicate = filter.build();
+        sorted = new TaskQuery.Builder().filter(filter).sortBy(SortOption.DUE_DATE_ASC).build();
+        page = new TaskQuery.Builder().filter(filter).sortBy(SortOption.PRIORITY_DESC).offset(100).limit(50).build();
+    }
+
+    @Benchmark
+    public List<Task> filter() {
+        return repository.findAll(predicate);
+    }
+
+    @Benchmark
+    public List<Task> filterAndSort() {
+        return repository.query(sorted);
+    }
+
+    @Benchmark
+    public List<Task> filterAndPage() {
+        return repository.query(page);
+    }
+}
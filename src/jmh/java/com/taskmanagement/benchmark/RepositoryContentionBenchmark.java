@@ -0,0 +1,150 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.repository.InMemoryTaskRepository;
+import com.taskmanagement.repository.ShardedTaskRepository;
+import com.taskmanagement.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-operation throughput of InMemoryTaskRepository with several threads
+ * hitting the same map and indexes, and of ShardedTaskRepository spreading them
+ * over independent shards. Change the thread count with {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RepositoryContentionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Repository {
+        @Param({"100000"})
+        public int size;
+
+        @Param({"false", "true"})
+        public boolean sortedViews;
+
+        // 1 benchmarks a plain InMemoryTaskRepository.
+        @Param({"1", "16"})
+        public int shards;
+
+        TaskRepository repository;
+        Task[] tasks;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            InMemoryTaskRepository.Builder builder = new InMemoryTaskRepository.Builder().sortedViews(sortedViews);
+            repository = shards == 1 ? builder.build()
+                    : new ShardedTaskRepository.Builder().shards(shards).shard(builder).build();
+            tasks = new Task[size];
+            for (int i = 0; i < size; i++) {
+                tasks[i] = randomTask(ThreadLocalRandom.current());
+                repository.save(tasks[i]);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Updates {
+        Task[] updates;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(Repository state) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            updates = new Task[1024];
+            for (int i = 0; i < updates.length; i++) {
+                Task existing = state.tasks[random.nextInt(state.tasks.length)];
+                updates[i] = new Task.Builder(existing)
+                        .status(Status.values()[random.nextInt(Status.values().length)])
+                        .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                        .build();
+            }
+        }
+
+        Task next() {
+            Task task = updates[next];
+            next = (next + 1) & (updates.length - 1);
+            return task;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Deletes {
+        Task next;
+
+        // Puts back the task deleted by the last call, outside the measured time, so
+        // the data set stays stable and the score covers the delete alone.
+        @Setup(Level.Invocation)
+        public void setUp(Repository state) {
+            if (next != null) {
+                state.repository.save(next);
+            }
+            next = state.tasks[ThreadLocalRandom.current().nextInt(state.tasks.length)];
+        }
+    }
+
+    @Benchmark
+    public Task save(Repository state, Updates updates) {
+        return state.repository.save(updates.next());
+    }
+
+    @Benchmark
+    public Task findById(Repository state) {
+        Task[] tasks = state.tasks;
+        return state.repository.findById(tasks[ThreadLocalRandom.current().nextInt(tasks.length)].getId());
+    }
+
+    @Benchmark
+    public boolean deleteById(Repository state, Deletes deletes) {
+        return state.repository.deleteById(deletes.next.getId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Task mixedReader(Repository state) {
+        return findById(state);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Task mixedWriter(Repository state, Updates updates) {
+        return save(state, updates);
+    }
+
+    static Task randomTask(ThreadLocalRandom random) {
+        return new Task.Builder()
+                .title("Task " + random.nextInt(1_000_000))
+                .description(random.nextBoolean() ? "Description " + random.nextInt(1000) : null)
+                .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                .status(Status.values()[random.nextInt(Status.values().length)])
+                .dueDate(random.nextInt(10) == 0 ? null
+                        : LocalDateTime.of(2030, 1, 1, 0, 0).plusMinutes(random.nextInt(525_600)))
+                .build();
+    }
+}
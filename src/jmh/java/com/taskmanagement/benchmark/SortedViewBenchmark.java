@@ -0,0 +1,88 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.repository.InMemoryTaskRepository;
+import com.taskmanagement.service.SortOption;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorted listing through a maintained sorted view against sorting on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortedViewBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"DUE_DATE_ASC", "DUE_DATE_DESC", "PRIORITY_ASC", "PRIORITY_DESC", "TITLE_ASC", "TITLE_DESC"})
+    public SortOption sortOption;
+
+    private InMemoryTaskRepository sortPerCall;
+    private InMemoryTaskRepository sortedView;
+    private TaskQuery fullListing;
+    private TaskQuery firstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sortPerCall = new InMemoryTaskRepository();
+        sortedView = new InMemoryTaskRepository.Builder().sortedViews(true).build();
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task.Builder()
+                    .title("Task " + random.nextInt(size))
+                    .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                    .status(Status.values()[random.nextInt(Status.values().length)])
+                    .dueDate(random.nextInt(10) == 0 ? null : base.plusMinutes(random.nextInt(500_000)))
+                    .build();
+            sortPerCall.save(task);
+            sortedView.save(task);
+        }
+        fullListing = new TaskQuery.Builder().sortBy(sortOption).build();
+        firstPage = new TaskQuery.Builder().sortBy(sortOption).limit(50).build();
+    }
+
+    @Benchmark
+    public List<Task> fullListingSortPerCall() {
+        return sortPerCall.query(fullListing);
+    }
+
+    @Benchmark
+    public List<Task> fullListingSortedView() {
+        return sortedView.query(fullListing);
+    }
+
+    @Benchmark
+    public List<Task> firstPageSortPerCall() {
+        return sortPerCall.query(firstPage);
+    }
+
+    @Benchmark
+    public List<Task> firstPageSortedView() {
+        return sortedView.query(firstPage);
+    }
+}
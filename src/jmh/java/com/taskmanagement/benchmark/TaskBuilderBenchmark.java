@@ -0,0 +1,63 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task construction cost. Run with {@code -prof gc} to see bytes allocated per op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskBuilderBenchmark {
+
+    private final LocalDateTime dueDate = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private final Task existing = new Task.Builder()
+            .title("Existing task")
+            .description("Existing description")
+            .dueDate(dueDate)
+            .priority(Priority.MEDIUM)
+            .build();
+
+    @Benchmark
+    public Task buildMinimal() {
+        return new Task.Builder()
+                .title("Minimal task")
+                .priority(Priority.LOW)
+                .build();
+    }
+
+    @Benchmark
+    public Task buildAllFields() {
+        return new Task.Builder()
+                .title("Full task")
+                .description("Full description")
+                .dueDate(dueDate)
+                .priority(Priority.HIGH)
+                .status(Status.IN_PROGRESS)
+                .build();
+    }
+
+    @Benchmark
+    public Task copyWithStatusChange() {
+        return new Task.Builder(existing)
+                .status(Status.COMPLETED)
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Scanning tasks with a compiled {@link TaskFilter} predicate against the chain of
+ * {@code Predicate.and} lambdas it used to build. Every selectivity is tested in
+ * the same fork so the call site sees several filters, as a server would. Add
+ * {@code -prof gc} to confirm neither allocates per task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskFilterBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    private Task[] tasks;
+    private Predicate<Task>[] compiled;
+    private Predicate<Task>[] chained;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        tasks = new Task[size];
+        for (int i = 0; i < size; i++) {
+            tasks[i] = new Task.Builder()
+                    .title("Task " + i)
+                    .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                    .status(Status.values()[random.nextInt(Status.values().length)])
+                    .dueDate(random.nextInt(10) == 0 ? null : FilteredListingBenchmark.BASE
+                            .plusMinutes(random.nextInt(FilteredListingBenchmark.DUE_DATE_MINUTES)))
+                    .build();
+        }
+        FilteredListingBenchmark.Selectivity[] selectivities = FilteredListingBenchmark.Selectivity.values();
+        compiled = new Predicate[selectivities.length];
+        chained = new Predicate[selectivities.length];
+        for (int i = 0; i < selectivities.length; i++) {
+            TaskFilter filter = FilteredListingBenchmark.filter(selectivities[i]);
+            compiled[i] = filter.build();
+            chained[i] = chain(filter);
+        }
+    }
+
+    @Benchmark
+    public int compiled() {
+        return countAll(compiled);
+    }
+
+    @Benchmark
+    public int lambdaChain() {
+        return countAll(chained);
+    }
+
+    private int countAll(Predicate<Task>[] predicates) {
+        int matches = 0;
+        for (Predicate<Task> predicate : predicates) {
+            for (Task task : tasks) {
+                if (predicate.test(task)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    // The predicate TaskFilter.build() returned before filters were compiled.
+    private static Predicate<Task> chain(TaskFilter filter) {
+        Predicate<Task> predicate = task -> true;
+        Status status = filter.getStatus().orElse(null);
+        if (status != null) {
+            predicate = predicate.and(task -> task.getStatus() == status);
+        }
+        Priority priority = filter.getPriority().orElse(null);
+        if (priority != null) {
+            predicate = predicate.and(task -> task.getPriority() == priority);
+        }
+        if (filter.hasDueDateRange()) {
+            LocalDateTime start = filter.getDueDateStart().orElse(null);
+            LocalDateTime end = filter.getDueDateEnd().orElse(null);
+            predicate = predicate.and(task -> {
+                if (!task.getDueDate().isPresent()) {
+                    return false;
+                }
+                LocalDateTime dueDate = task.getDueDate().get();
+                return (start == null || !dueDate.isBefore(start)) && (end == null || !dueDate.isAfter(end));
+            });
+        }
+        return predicate;
+    }
+}
@@ -0,0 +1,53 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.model.TaskId;
+import com.taskmanagement.model.TaskIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id generation throughput with concurrent callers: the time-ordered generator
+ * against {@code UUID.randomUUID()}, with and without rendering the string form.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class TaskIdGeneratorBenchmark {
+
+    private final TaskIdGenerator timeOrdered = TaskIdGenerator.defaultGenerator();
+    private final TaskIdGenerator randomUuid = TaskIdGenerator.randomUuid();
+
+    @Benchmark
+    public TaskId timeOrdered() {
+        return timeOrdered.next();
+    }
+
+    @Benchmark
+    public TaskId randomUuid() {
+        return randomUuid.next();
+    }
+
+    @Benchmark
+    public String timeOrderedRendered() {
+        return timeOrdered.next().toString();
+    }
+
+    @Benchmark
+    public String randomUuidRendered() {
+        return java.util.UUID.randomUUID().toString();
+    }
+}
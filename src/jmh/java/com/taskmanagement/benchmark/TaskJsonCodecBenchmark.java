@@ -0,0 +1,144 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.codec.TaskJsonCodec;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskJsonCodec} against the obvious hand-written alternative: a
+ * {@code StringBuilder} fed with {@code toString()} values and turned into bytes
+ * at the end, read back with {@code substring}, {@code valueOf} and
+ * {@code LocalDateTime.parse}. A size of 1 encodes a single task object, larger
+ * sizes an array. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TaskJsonCodecBenchmark {
+
+    @Param({"1", "1000000"})
+    public int size;
+
+    private final TaskJsonCodec codec = new TaskJsonCodec();
+    private List<Task> tasks;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = new ArrayList<>(size);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Task.Builder()
+                    .title("Quarterly report " + i)
+                    .description(i % 4 == 0 ? null : "Numbers for the board, draft " + i)
+                    .dueDate(i % 5 == 0 ? null : base.plusMinutes(i * 7L))
+                    .priority(Priority.values()[i % 3])
+                    .status(Status.values()[i % 3])
+                    .version(i % 10)
+                    .build());
+        }
+        json = naiveEncode();
+    }
+
+    @Benchmark
+    public int codecEncode() {
+        return size == 1 ? codec.encode(tasks.get(0)).size() : codec.encodeArray(tasks).size();
+    }
+
+    @Benchmark
+    public byte[] naiveEncode() {
+        StringBuilder out = new StringBuilder();
+        if (size == 1) {
+            naiveWrite(out, tasks.get(0));
+        } else {
+            out.append('[');
+            for (int i = 0; i < tasks.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                naiveWrite(out, tasks.get(i));
+            }
+            out.append(']');
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object codecDecode() {
+        return size == 1 ? codec.decode(json) : codec.decodeArray(json);
+    }
+
+    @Benchmark
+    public Object naiveDecode() {
+        String text = new String(json, StandardCharsets.UTF_8);
+        if (size == 1) {
+            return naiveRead(text);
+        }
+        List<Task> decoded = new ArrayList<>(size);
+        for (String object : text.substring(2, text.length() - 2).split("\\},\\{")) {
+            decoded.add(naiveRead(object));
+        }
+        return decoded;
+    }
+
+    // Titles and descriptions here need no escaping, which flatters the naive side.
+    private static void naiveWrite(StringBuilder out, Task task) {
+        out.append("{\"id\":\"").append(task.getId())
+                .append("\",\"title\":\"").append(task.getTitle())
+                .append("\",\"description\":").append(task.getDescription().map(d -> '"' + d + '"').orElse("null"))
+                .append(",\"dueDate\":").append(task.getDueDate().map(d -> '"' + d.toString() + '"').orElse("null"))
+                .append(",\"priority\":\"").append(task.getPriority().toString())
+                .append("\",\"status\":\"").append(task.getStatus().toString())
+                .append("\",\"version\":").append(task.getVersion())
+                .append('}');
+    }
+
+    private static Task naiveRead(String object) {
+        String description = field(object, "description");
+        String dueDate = field(object, "dueDate");
+        return new Task.Builder()
+                .id(field(object, "id"))
+                .title(field(object, "title"))
+                .description(description)
+                .dueDate(dueDate == null ? null : LocalDateTime.parse(dueDate))
+                .priority(Priority.valueOf(field(object, "priority")))
+                .status(Status.valueOf(field(object, "status")))
+                .version(Long.parseLong(field(object, "version")))
+                .build();
+    }
+
+    private static String field(String object, String name) {
+        int start = object.indexOf("\"" + name + "\":") + name.length() + 3;
+        if (object.charAt(start) == '"') {
+            return object.substring(start + 1, object.indexOf('"', start + 1));
+        }
+        int end = start;
+        while (end < object.length() && object.charAt(end) != ',' && object.charAt(end) != '}') {
+            end++;
+        }
+        String value = object.substring(start, end);
+        return value.equals("null") ? null : value;
+    }
+}
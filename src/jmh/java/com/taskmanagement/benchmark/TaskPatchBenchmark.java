@@ -0,0 +1,89 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.repository.InMemoryTaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a status change, the most frequent update: a full builder copy plus
+ * save, versus {@code TaskRepository.patch}. Run with {@code -prof gc} to compare
+ * bytes allocated per status change.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskPatchBenchmark {
+
+    private static final TaskPatch[] STATUS_PATCHES = {
+            TaskPatch.builder().status(Status.PENDING).build(),
+            TaskPatch.builder().status(Status.IN_PROGRESS).build(),
+            TaskPatch.builder().status(Status.COMPLETED).build()
+    };
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean sortedViews;
+
+    private InMemoryTaskRepository repository;
+    private String[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new InMemoryTaskRepository.Builder().sortedViews(sortedViews).build();
+        ids = new String[size];
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+        for (int i = 0; i < size; i++) {
+            ids[i] = repository.save(new Task.Builder()
+                    .title("Task " + i)
+                    .description("Description " + i)
+                    .dueDate(base.plusMinutes(i))
+                    .priority(Priority.values()[i % 3])
+                    .build()).getId();
+        }
+    }
+
+    @Benchmark
+    public Task builderCopyAndSave() {
+        int i = next++;
+        Task existing = repository.findById(ids[i % ids.length]);
+        return repository.save(new Task.Builder(existing)
+                .status(Status.values()[i % 3])
+                .build());
+    }
+
+    @Benchmark
+    public Task patchStatus() {
+        int i = next++;
+        return repository.patch(ids[i % ids.length], STATUS_PATCHES[i % 3]);
+    }
+
+    @Benchmark
+    public Task applyPatchOnly() {
+        int i = next++;
+        Task existing = repository.findById(ids[i % ids.length]);
+        return STATUS_PATCHES[i % 3].applyTo(existing, existing.getVersion() + 1);
+    }
+}
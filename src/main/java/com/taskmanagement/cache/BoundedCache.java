@@ -0,0 +1,157 @@
+package com.taskmanagement.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A cache bounded by the total weight of its values. Eviction is least recently
+ * used, but a new entry is only admitted over the entry it would evict if it has
+ * been asked for more often (TinyLFU), so a scan of one-off keys cannot flush the
+ * entries that are actually hot.
+ *
+ * <p>Every operation synchronizes on the cache instance. The cache sits in front
+ * of calls that are far more expensive than that lock, and an access-ordered map
+ * cannot be read without writing to it anyway. Callers can hold the same monitor
+ * to make a check and a {@link #put} atomic.
+ */
+public class BoundedCache<K, V> {
+    private final long maximumWeight;
+    private final ToIntFunction<V> weigher;
+    private final BiConsumer<? super K, ? super V> evictionListener;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maximumWeight   upper bound on the summed weight of all values; 0 caches nothing
+     * @param expectedEntries roughly how many entries fit, which sizes the frequency sketch
+     * @param weigher         weight of one value, in whatever unit {@code maximumWeight} uses
+     */
+    public BoundedCache(long maximumWeight, int expectedEntries, ToIntFunction<V> weigher) {
+        this(maximumWeight, expectedEntries, weigher, (key, value) -> { });
+    }
+
+    /**
+     * @param evictionListener called with every entry evicted to make room for
+     *                         another, while the cache's monitor is held
+     */
+    public BoundedCache(long maximumWeight, int expectedEntries, ToIntFunction<V> weigher,
+                        BiConsumer<? super K, ? super V> evictionListener) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight cannot be negative");
+        }
+        if (weigher == null) {
+            throw new IllegalArgumentException("Weigher cannot be null");
+        }
+        if (evictionListener == null) {
+            throw new IllegalArgumentException("Eviction listener cannot be null");
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.evictionListener = evictionListener;
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    public synchronized V get(K key) {
+        sketch.increment(key);
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+
+    /**
+     * Returns the cached value without counting a hit or miss or touching recency.
+     */
+    public synchronized V peek(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Adds or replaces the value for {@code key}, evicting least recently used
+     * entries as needed. Returns false if the value was not admitted.
+     */
+    public synchronized boolean put(K key, V value) {
+        int valueWeight = Math.max(0, weigher.applyAsInt(value));
+        Entry<V> previous = entries.remove(key);
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        if (valueWeight > maximumWeight) {
+            evictionCount++;
+            return false;
+        }
+        if (previous == null && weight + valueWeight > maximumWeight
+                && sketch.frequency(entries.keySet().iterator().next()) >= sketch.frequency(key)) {
+            // The least recently used entry has been in demand at least as often.
+            evictionCount++;
+            return false;
+        }
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (weight + valueWeight > maximumWeight) {
+            Map.Entry<K, Entry<V>> victim = eldest.next();
+            eldest.remove();
+            weight -= victim.getValue().weight;
+            evictionCount++;
+            evictionListener.accept(victim.getKey(), victim.getValue().value);
+        }
+        entries.put(key, new Entry<>(value, valueWeight));
+        weight += valueWeight;
+        return true;
+    }
+
+    public synchronized void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    /**
+     * Removes every entry matching {@code condition}.
+     */
+    public synchronized void removeIf(BiPredicate<? super K, ? super V> condition) {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (condition.test(entry.getKey(), entry.getValue().value)) {
+                iterator.remove();
+                weight -= entry.getValue().weight;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, evictionCount, entries.size(), weight);
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final int weight;
+
+        Entry(V value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
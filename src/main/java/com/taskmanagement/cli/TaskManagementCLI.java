@@ -5,15 +5,18 @@ import com.taskmanagement.model.Priority;
 import com.taskmanagement.model.Status;
 import com.taskmanagement.model.Task;
 import com.taskmanagement.repository.InMemoryTaskRepository;
+import com.taskmanagement.repository.PersistentTaskRepository;
+import com.taskmanagement.repository.TaskRepository;
 import com.taskmanagement.service.SortOption;
 import com.taskmanagement.service.TaskService;
 
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.stream.Stream;
 
 
 public class TaskManagementCLI {
@@ -22,7 +25,11 @@ public class TaskManagementCLI {
     private final DateTimeFormatter dateFormatter;
 
     public TaskManagementCLI() {
-        this.taskService = new TaskService(new InMemoryTaskRepository());
+        this(new InMemoryTaskRepository());
+    }
+
+    public TaskManagementCLI(TaskRepository repository) {
+        this.taskService = new TaskService(repository);
         this.scanner = new Scanner(System.in);
         this.dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     }
@@ -290,18 +297,20 @@ public class TaskManagementCLI {
             }
         }
 
-        List<Task> tasks;
-        if (sortOption != null) {
-            tasks = taskService.listTasks(filter, sortOption);
-        } else {
-            tasks = taskService.listTasks(filter);
+        long[] found = {0};
+        try (Stream<Task> tasks = taskService.streamTasks(filter, sortOption)) {
+            tasks.forEach(task -> {
+                if (found[0]++ == 0) {
+                    System.out.println();
+                }
+                printTask(task);
+            });
         }
 
-        if (tasks.isEmpty()) {
+        if (found[0] == 0) {
             System.out.println("No tasks found.");
         } else {
-            System.out.println("\nFound " + tasks.size() + " task(s):");
-            tasks.forEach(this::printTask);
+            System.out.println("Found " + found[0] + " task(s).");
         }
     }
 
@@ -330,8 +339,14 @@ public class TaskManagementCLI {
     }
 
     public static void main(String[] args) {
-        TaskManagementCLI cli = new TaskManagementCLI();
-        cli.run();
+        String dataDir = System.getProperty("task.data.dir", System.getenv("TASK_DATA_DIR"));
+        if (dataDir == null || dataDir.isBlank()) {
+            new TaskManagementCLI().run();
+            return;
+        }
+        try (PersistentTaskRepository repository = PersistentTaskRepository.open(Paths.get(dataDir))) {
+            new TaskManagementCLI(repository).run();
+        }
     }
 }
 
@@ -0,0 +1,824 @@
+package com.taskmanagement.codec;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskId;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes tasks as JSON objects with the fields {@code id}, {@code title},
+ * {@code description}, {@code dueDate}, {@code priority}, {@code status} and
+ * {@code version}, straight from and to UTF-8 bytes.
+ *
+ * <p>Output goes to a buffer the codec keeps, so once it has grown to fit, encoding
+ * allocates nothing. Field names and enum constants are written from pre-encoded
+ * bytes and due dates digit by digit, in the format of
+ * {@link LocalDateTime#toString()}. Decoding matches field names and constants
+ * without creating strings, parses canonical ids into a {@link TaskId} and skips
+ * fields it does not know.
+ *
+ * <p>Not thread-safe; keep one codec per thread or pool them.
+ */
+public final class TaskJsonCodec {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+    private static final byte[][] PRIORITY_NAMES = names(PRIORITIES);
+    private static final byte[][] STATUS_NAMES = names(STATUSES);
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] TITLE = ascii(",\"title\":");
+    private static final byte[] DESCRIPTION = ascii(",\"description\":");
+    private static final byte[] DUE_DATE = ascii(",\"dueDate\":");
+    private static final byte[] PRIORITY = ascii(",\"priority\":\"");
+    private static final byte[] STATUS = ascii("\",\"status\":\"");
+    private static final byte[] VERSION = ascii("\",\"version\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private static final String[] FIELDS = {"id", "title", "description", "dueDate", "priority", "status", "version"};
+    private static final byte[][] FIELD_NAMES = Arrays.stream(FIELDS).map(TaskJsonCodec::ascii).toArray(byte[][]::new);
+    private static final int FIELD_ID = 0;
+    private static final int FIELD_TITLE = 1;
+    private static final int FIELD_DESCRIPTION = 2;
+    private static final int FIELD_DUE_DATE = 3;
+    private static final int FIELD_PRIORITY = 4;
+    private static final int FIELD_STATUS = 5;
+    private static final int FIELD_VERSION = 6;
+
+    private static final int[] FRACTION_SCALE = {0, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1};
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    // Decoding state, only set during a decode call.
+    private byte[] input;
+    private int offset;
+    private int position;
+    private int limit;
+    private char[] chars = new char[64];
+
+    /**
+     * Replaces the buffer's content with {@code task}.
+     */
+    public TaskJsonCodec encode(Task task) {
+        size = 0;
+        writeTask(task);
+        return this;
+    }
+
+    /**
+     * Replaces the buffer's content with a JSON array of {@code tasks}.
+     */
+    public TaskJsonCodec encodeArray(Iterable<? extends Task> tasks) {
+        try {
+            writeArray(tasks, null);
+        } catch (IOException e) {
+            throw new AssertionError("No stream to fail", e);
+        }
+        return this;
+    }
+
+    /**
+     * Streams a JSON array of {@code tasks} to {@code out}, handing it the buffer
+     * whenever it fills up rather than holding the whole array in memory. The
+     * buffer is empty afterwards.
+     */
+    public void encodeArray(Iterable<? extends Task> tasks, OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream cannot be null");
+        }
+        writeArray(tasks, out);
+    }
+
+    /**
+     * The codec's buffer; only the first {@link #size()} bytes are encoded output,
+     * and they stay valid until the next encode call.
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    public Task decode(byte[] bytes) {
+        return decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not one JSON task object
+     */
+    public Task decode(byte[] bytes, int offset, int length) {
+        begin(bytes, offset, length);
+        try {
+            Task task = readTask();
+            end();
+            return task;
+        } finally {
+            input = null;
+        }
+    }
+
+    public List<Task> decodeArray(byte[] bytes) {
+        List<Task> tasks = new ArrayList<>();
+        decodeArray(bytes, 0, bytes.length, tasks::add);
+        return tasks;
+    }
+
+    /**
+     * Hands each task of a JSON array to {@code consumer} as soon as it is read.
+     *
+     * @throws IllegalArgumentException if the bytes are not a JSON array of task objects
+     */
+    public void decodeArray(byte[] bytes, int offset, int length, Consumer<? super Task> consumer) {
+        begin(bytes, offset, length);
+        try {
+            skipWhitespace();
+            expect('[');
+            skipWhitespace();
+            if (peek() == ']') {
+                position++;
+            } else {
+                while (true) {
+                    consumer.accept(readTask());
+                    skipWhitespace();
+                    if (peek() != ',') {
+                        expect(']');
+                        break;
+                    }
+                    position++;
+                }
+            }
+            end();
+        } finally {
+            input = null;
+        }
+    }
+
+    private void writeArray(Iterable<? extends Task> tasks, OutputStream out) throws IOException {
+        size = 0;
+        ensure(1);
+        buffer[size++] = '[';
+        boolean first = true;
+        for (Task task : tasks) {
+            if (!first) {
+                ensure(1);
+                buffer[size++] = ',';
+            }
+            first = false;
+            writeTask(task);
+            if (out != null && size >= FLUSH_THRESHOLD) {
+                out.write(buffer, 0, size);
+                size = 0;
+            }
+        }
+        ensure(1);
+        buffer[size++] = ']';
+        if (out != null) {
+            out.write(buffer, 0, size);
+            size = 0;
+        }
+    }
+
+    private void writeTask(Task task) {
+        writeBytes(ID);
+        writeString(task.getId());
+        writeBytes(TITLE);
+        writeString(task.getTitle());
+        writeBytes(DESCRIPTION);
+        if (task.getDescription().isPresent()) {
+            writeString(task.getDescription().get());
+        } else {
+            writeBytes(NULL);
+        }
+        writeBytes(DUE_DATE);
+        if (task.getDueDate().isPresent()) {
+            writeDateTime(task.getDueDate().get());
+        } else {
+            writeBytes(NULL);
+        }
+        writeBytes(PRIORITY);
+        writeBytes(PRIORITY_NAMES[task.getPriority().ordinal()]);
+        writeBytes(STATUS);
+        writeBytes(STATUS_NAMES[task.getStatus().ordinal()]);
+        writeBytes(VERSION);
+        writeLong(task.getVersion());
+        ensure(1);
+        buffer[size++] = '}';
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void writeString(String value) {
+        int length = value.length();
+        // At most six bytes per char, for a \\u escape.
+        ensure(length * 6 + 2);
+        byte[] out = buffer;
+        int pos = size;
+        out[pos++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    out[pos++] = (byte) c;
+                    continue;
+                }
+                out[pos++] = '\\';
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        out[pos++] = (byte) c;
+                        break;
+                    case '\n':
+                        out[pos++] = 'n';
+                        break;
+                    case '\r':
+                        out[pos++] = 'r';
+                        break;
+                    case '\t':
+                        out[pos++] = 't';
+                        break;
+                    case '\b':
+                        out[pos++] = 'b';
+                        break;
+                    case '\f':
+                        out[pos++] = 'f';
+                        break;
+                    default:
+                        out[pos++] = 'u';
+                        out[pos++] = '0';
+                        out[pos++] = '0';
+                        out[pos++] = HEX[c >> 4];
+                        out[pos++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                out[pos++] = (byte) (0xC0 | c >> 6);
+                out[pos++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out[pos++] = (byte) (0xF0 | codePoint >> 18);
+                out[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                out[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                out[pos++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired, replaced as String.getBytes does.
+                out[pos++] = '?';
+            } else {
+                out[pos++] = (byte) (0xE0 | c >> 12);
+                out[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                out[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        out[pos++] = '"';
+        size = pos;
+    }
+
+    private void writeDateTime(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            // Signed and five-digit years are rare enough to render the slow way.
+            writeBytes(ascii('"' + dateTime.toString() + '"'));
+            return;
+        }
+        ensure(31);
+        buffer[size++] = '"';
+        writeDigits(year, 4);
+        buffer[size++] = '-';
+        writeDigits(dateTime.getMonthValue(), 2);
+        buffer[size++] = '-';
+        writeDigits(dateTime.getDayOfMonth(), 2);
+        buffer[size++] = 'T';
+        writeDigits(dateTime.getHour(), 2);
+        buffer[size++] = ':';
+        writeDigits(dateTime.getMinute(), 2);
+        int second = dateTime.getSecond();
+        int nano = dateTime.getNano();
+        if (second > 0 || nano > 0) {
+            buffer[size++] = ':';
+            writeDigits(second, 2);
+            if (nano > 0) {
+                buffer[size++] = '.';
+                if (nano % 1_000_000 == 0) {
+                    writeDigits(nano / 1_000_000, 3);
+                } else if (nano % 1_000 == 0) {
+                    writeDigits(nano / 1_000, 6);
+                } else {
+                    writeDigits(nano, 9);
+                }
+            }
+        }
+        buffer[size++] = '"';
+    }
+
+    // Zero-padded; the caller has ensured the room.
+    private void writeDigits(int value, int width) {
+        for (int i = size + width - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += width;
+    }
+
+    private void writeLong(long value) {
+        ensure(20);
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                writeBytes(ascii(Long.toString(value)));
+                return;
+            }
+            buffer[size++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value; rest >= 10; rest /= 10) {
+            digits++;
+        }
+        for (int i = size + digits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    private void ensure(int bytes) {
+        if (size + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+        }
+    }
+
+    private void begin(byte[] bytes, int offset, int length) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Bytes cannot be null");
+        }
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IllegalArgumentException("Range " + offset + "+" + length + " is outside the array");
+        }
+        this.input = bytes;
+        this.offset = offset;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    private void end() {
+        skipWhitespace();
+        if (position != limit) {
+            throw error("Unexpected trailing content");
+        }
+    }
+
+    private Task readTask() {
+        skipWhitespace();
+        expect('{');
+        Task.Builder builder = new Task.Builder();
+        boolean hasId = false;
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                int field = readFieldName();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                switch (field) {
+                    case FIELD_ID:
+                        readId(builder);
+                        hasId = true;
+                        break;
+                    case FIELD_TITLE:
+                        builder.title(readNullableString());
+                        break;
+                    case FIELD_DESCRIPTION:
+                        builder.description(readNullableString());
+                        break;
+                    case FIELD_DUE_DATE:
+                        builder.dueDate(readNullableDateTime());
+                        break;
+                    case FIELD_PRIORITY:
+                        builder.priority(PRIORITIES[readConstant(PRIORITY_NAMES)]);
+                        break;
+                    case FIELD_STATUS:
+                        builder.status(STATUSES[readConstant(STATUS_NAMES)]);
+                        break;
+                    case FIELD_VERSION:
+                        builder.version(readLong());
+                        break;
+                    default:
+                        skipValue();
+                }
+                skipWhitespace();
+                if (peek() != ',') {
+                    expect('}');
+                    break;
+                }
+                position++;
+            }
+        }
+        if (!hasId) {
+            throw error("Missing field 'id'");
+        }
+        return builder.build();
+    }
+
+    private int readFieldName() {
+        expect('"');
+        int start = position;
+        while (position < limit && input[position] != '"' && input[position] != '\\') {
+            position++;
+        }
+        if (position < limit && input[position] == '"') {
+            int index = indexOf(FIELD_NAMES, start, position);
+            position++;
+            return index;
+        }
+        // Escaped names are legal, if unusual.
+        position = start - 1;
+        return Arrays.asList(FIELDS).indexOf(readString());
+    }
+
+    private int readConstant(byte[][] names) {
+        expect('"');
+        int start = position;
+        while (position < limit && input[position] != '"') {
+            position++;
+        }
+        if (position >= limit) {
+            throw error("Unterminated string");
+        }
+        int index = indexOf(names, start, position);
+        if (index < 0) {
+            throw error("Unknown constant '" + new String(input, start, position - start, StandardCharsets.UTF_8) + "'");
+        }
+        position++;
+        return index;
+    }
+
+    private int indexOf(byte[][] names, int start, int end) {
+        for (int i = 0; i < names.length; i++) {
+            if (Arrays.equals(names[i], 0, names[i].length, input, start, end)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void readId(Task.Builder builder) {
+        if (position + 37 < limit && input[position] == '"' && input[position + 37] == '"') {
+            TaskId id = parseTaskId(position + 1);
+            if (id != null) {
+                builder.id(id);
+                position += 38;
+                return;
+            }
+        }
+        builder.id(readString());
+    }
+
+    // Same rules as TaskId.tryParse, without creating the string first.
+    private TaskId parseTaskId(int start) {
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            byte c = input[start + i];
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else {
+                return null;
+            }
+            if (digits++ < 16) {
+                high = high << 4 | digit;
+            } else {
+                low = low << 4 | digit;
+            }
+        }
+        return TaskId.of(high, low);
+    }
+
+    private String readNullableString() {
+        return readNull() ? null : readString();
+    }
+
+    private String readString() {
+        expect('"');
+        int start = position;
+        for (int i = start; i < limit; i++) {
+            byte b = input[i];
+            if (b == '"') {
+                position = i + 1;
+                return new String(input, start, i - start, StandardCharsets.ISO_8859_1);
+            }
+            if (b == '\\' || b < 0) {
+                break;
+            }
+        }
+        return readEscapedString(start);
+    }
+
+    // Decodes UTF-8 and escapes into the scratch chars.
+    private String readEscapedString(int start) {
+        position = start;
+        int length = 0;
+        while (true) {
+            if (position >= limit) {
+                throw error("Unterminated string");
+            }
+            int b = input[position++];
+            if (b == '"') {
+                return new String(chars, 0, length);
+            }
+            if (length + 2 > chars.length) {
+                chars = Arrays.copyOf(chars, chars.length * 2);
+            }
+            if (b == '\\') {
+                chars[length++] = readEscape();
+            } else if (b >= 0) {
+                chars[length++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[length++] = (char) ((b & 0x1F) << 6 | continuation());
+            } else if ((b & 0xF0) == 0xE0) {
+                chars[length++] = (char) ((b & 0x0F) << 12 | continuation() << 6 | continuation());
+            } else if ((b & 0xF8) == 0xF0) {
+                int codePoint = (b & 0x07) << 18 | continuation() << 12 | continuation() << 6 | continuation();
+                chars[length++] = Character.highSurrogate(codePoint);
+                chars[length++] = Character.lowSurrogate(codePoint);
+            } else {
+                throw error("Invalid UTF-8");
+            }
+        }
+    }
+
+    private char readEscape() {
+        if (position >= limit) {
+            throw error("Unterminated escape");
+        }
+        byte escaped = input[position++];
+        switch (escaped) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) escaped;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                if (position + 4 > limit) {
+                    throw error("Truncated unicode escape");
+                }
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(input[position++], 16);
+                    if (digit < 0) {
+                        throw error("Invalid unicode escape");
+                    }
+                    value = value << 4 | digit;
+                }
+                return (char) value;
+            default:
+                throw error("Invalid escape '\\" + (char) escaped + "'");
+        }
+    }
+
+    private int continuation() {
+        if (position >= limit || (input[position] & 0xC0) != 0x80) {
+            throw error("Invalid UTF-8");
+        }
+        return input[position++] & 0x3F;
+    }
+
+    private LocalDateTime readNullableDateTime() {
+        return readNull() ? null : readDateTime();
+    }
+
+    private LocalDateTime readDateTime() {
+        expect('"');
+        int start = position;
+        int end = start;
+        while (end < limit && input[end] != '"') {
+            end++;
+        }
+        if (end >= limit) {
+            throw error("Unterminated string");
+        }
+        int length = end - start;
+        if (length >= 16 && length <= 29 && input[start + 4] == '-' && input[start + 7] == '-'
+                && input[start + 10] == 'T' && input[start + 13] == ':') {
+            int year = digits(start, 4);
+            int month = digits(start + 5, 2);
+            int day = digits(start + 8, 2);
+            int hour = digits(start + 11, 2);
+            int minute = digits(start + 14, 2);
+            int second = 0;
+            int nano = 0;
+            boolean valid = (year | month | day | hour | minute) >= 0;
+            if (length > 16) {
+                valid &= length >= 19 && input[start + 16] == ':';
+                second = valid ? digits(start + 17, 2) : -1;
+                if (length > 19) {
+                    valid &= length > 20 && input[start + 19] == '.';
+                    nano = valid ? digits(start + 20, length - 20) * FRACTION_SCALE[length - 20] : -1;
+                }
+            }
+            if (valid && second >= 0 && nano >= 0) {
+                position = end + 1;
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+                } catch (DateTimeException e) {
+                    throw error("Invalid date-time: " + e.getMessage());
+                }
+            }
+        }
+        // Signed or five-digit years, or a malformed value: let the JDK sort it out.
+        String text = new String(input, start, length, StandardCharsets.UTF_8);
+        try {
+            LocalDateTime dateTime = LocalDateTime.parse(text);
+            position = end + 1;
+            return dateTime;
+        } catch (DateTimeParseException e) {
+            throw error("Invalid date-time '" + text + "'");
+        }
+    }
+
+    // The value of count decimal digits, or -1 if any is not a digit.
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = input[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private long readLong() {
+        int start = position;
+        boolean negative = peek() == '-';
+        if (negative) {
+            position++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (position < limit && input[position] >= '0' && input[position] <= '9') {
+            value = value * 10 + (input[position++] - '0');
+            digits++;
+        }
+        byte next = peek();
+        if (digits == 0 || next == '.' || next == 'e' || next == 'E') {
+            throw error("Expected an integer");
+        }
+        if (digits > 18) {
+            String text = new String(input, start, position - start, StandardCharsets.US_ASCII);
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                throw error("Integer out of range: " + text);
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    private boolean readNull() {
+        if (position + 4 <= limit && input[position] == 'n') {
+            if (input[position + 1] == 'u' && input[position + 2] == 'l' && input[position + 3] == 'l') {
+                position += 4;
+                return true;
+            }
+            throw error("Unexpected token");
+        }
+        return false;
+    }
+
+    private void skipValue() {
+        byte b = peek();
+        if (b == '"') {
+            skipString();
+        } else if (b == '{' || b == '[') {
+            int depth = 0;
+            do {
+                if (position >= limit) {
+                    throw error("Unterminated value");
+                }
+                byte c = input[position];
+                if (c == '"') {
+                    skipString();
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+                position++;
+            } while (depth > 0);
+        } else {
+            int start = position;
+            while (position < limit && isScalar(input[position])) {
+                position++;
+            }
+            if (position == start) {
+                throw error("Unexpected character");
+            }
+        }
+    }
+
+    private void skipString() {
+        position++;
+        while (position < limit) {
+            byte c = input[position++];
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                position++;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private static boolean isScalar(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'E';
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        position++;
+    }
+
+    private byte peek() {
+        return position < limit ? input[position] : 0;
+    }
+
+    private void skipWhitespace() {
+        while (position < limit) {
+            byte b = input[position];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + (position - offset));
+    }
+
+    private static byte[][] names(Enum<?>[] constants) {
+        byte[][] names = new byte[constants.length][];
+        for (int i = 0; i < constants.length; i++) {
+            names[i] = ascii(constants[i].name());
+        }
+        return names;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,62 @@
+package com.taskmanagement.event;
+
+import com.taskmanagement.model.Task;
+
+import java.util.Optional;
+
+/**
+ * One committed change to a task, with the task as it was before and after.
+ */
+public final class TaskChangeEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final long sequence;
+    private final Task before;
+    private final Task after;
+
+    TaskChangeEvent(long sequence, Task before, Task after) {
+        this.sequence = sequence;
+        this.before = before;
+        this.after = after;
+    }
+
+    /**
+     * Position in the change log; consecutive events differ by one.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        if (before == null) {
+            return Type.CREATED;
+        }
+        return after == null ? Type.DELETED : Type.UPDATED;
+    }
+
+    public String getTaskId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    public Optional<Task> getBefore() {
+        return Optional.ofNullable(before);
+    }
+
+    public Optional<Task> getAfter() {
+        return Optional.ofNullable(after);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskChangeEvent{" +
+                "sequence=" + sequence +
+                ", type=" + getType() +
+                ", taskId='" + getTaskId() + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,151 @@
+package com.taskmanagement.event;
+
+import com.taskmanagement.model.Task;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps something derived from a repository's tasks (counts, an index, timers)
+ * in step with it: {@link #catchUp} feeds it the current tasks, {@link #poll}
+ * the changes made since, each as a transition from a before to an after state
+ * that the listener receives exactly once per task state.
+ *
+ * <p>The subscription is opened before the scan, so every change the scan might
+ * miss is also delivered as an event, and some changes are both seen by the scan
+ * and delivered. Each task's events form a chain of before/after states and the
+ * scan sees one state of that chain, so while catching up an event is passed on
+ * only if the task was last seen in the event's before state. Events claimed
+ * after the scan finished cannot overlap with it and are passed on as they are.
+ *
+ * <p>Not thread-safe: call {@link #catchUp} and {@link #poll} from one thread at
+ * a time; the listener runs on that thread.
+ */
+public final class TaskChangeFollower implements AutoCloseable {
+    private static final int CATCH_UP_BATCH = 1024;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final TaskChangeLog log;
+    private final TaskChangeLog.Subscription subscription;
+    private final BiConsumer<Task, Task> listener;
+    private volatile long appliedSequence;
+    private volatile boolean closed;
+
+    // While catching up, the last state each task was passed on in.
+    private Map<String, Task> seen = new HashMap<>();
+    private long catchUpSequence = Long.MAX_VALUE;
+
+    /**
+     * @param listener called with the before and after state of each change;
+     *        one of them is null for a created or a deleted task
+     */
+    public TaskChangeFollower(TaskChangeLog log, BiConsumer<Task, Task> listener) {
+        if (log == null || listener == null) {
+            throw new IllegalArgumentException("Change log and listener cannot be null");
+        }
+        this.log = log;
+        this.listener = listener;
+        this.subscription = log.subscribe();
+        this.appliedSequence = subscription.getNextSequence() - 1;
+    }
+
+    /**
+     * Passes on every task of a scan started after this follower was created,
+     * and closes the stream. Changes are drained as it goes, since writers wait
+     * once the change log is full.
+     */
+    public void catchUp(Stream<Task> tasks) {
+        if (seen == null || catchUpSequence != Long.MAX_VALUE) {
+            throw new IllegalStateException("Already caught up");
+        }
+        try (tasks) {
+            Iterator<Task> iterator = tasks.iterator();
+            int scanned = 0;
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                // A weakly consistent scan may return a task again in a later state.
+                listener.accept(seen.put(task.getId(), task), task);
+                if (++scanned % CATCH_UP_BATCH == 0) {
+                    subscription.poll(Integer.MAX_VALUE, this::apply);
+                }
+            }
+        }
+        catchUpSequence = log.lastSequence();
+        if (appliedSequence >= catchUpSequence) {
+            seen = null;
+        }
+    }
+
+    /**
+     * Passes on up to {@code maxEvents} published changes without waiting.
+     */
+    public int poll(int maxEvents) {
+        return subscription.poll(maxEvents, this::apply);
+    }
+
+    /**
+     * Like {@link #poll(int)}, but waits up to {@code timeout} for the first change.
+     */
+    public int poll(int maxEvents, long timeout, TimeUnit unit) throws InterruptedException {
+        return subscription.poll(maxEvents, this::apply, timeout, unit);
+    }
+
+    /**
+     * Sequence of the last change passed on.
+     */
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Waits until the thread polling this follower has passed on every change
+     * claimed on the log before this call.
+     */
+    public void awaitCurrent() throws InterruptedException {
+        long target = log.lastSequence();
+        while (appliedSequence < target) {
+            if (closed) {
+                throw new IllegalStateException("Follower is closed");
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        subscription.close();
+    }
+
+    private void apply(TaskChangeEvent event) {
+        Task before = event.getBefore().orElse(null);
+        Task after = event.getAfter().orElse(null);
+        if (seen == null) {
+            listener.accept(before, after);
+        } else if (isSeenAs(event.getTaskId(), before)) {
+            if (after == null) {
+                seen.remove(event.getTaskId());
+            } else {
+                seen.put(event.getTaskId(), after);
+            }
+            listener.accept(before, after);
+        }
+        appliedSequence = event.getSequence();
+        if (appliedSequence >= catchUpSequence) {
+            seen = null;
+        }
+    }
+
+    private boolean isSeenAs(String id, Task state) {
+        Task current = seen.get(id);
+        return current == null ? state == null : state != null && current.getVersion() == state.getVersion();
+    }
+}
@@ -0,0 +1,276 @@
+package com.taskmanagement.event;
+
+import com.taskmanagement.exception.ChangeSequenceUnavailableException;
+import com.taskmanagement.model.Task;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Ordered stream of {@link TaskChangeEvent}s kept in a fixed-size ring buffer.
+ *
+ * <p>Publishing is two-phase so that repositories can fix the order of events
+ * while they hold whatever serializes writes to a task, and do the rest after
+ * releasing it: {@link #claim()} takes the next sequence with a single atomic
+ * increment, {@link #publish} fills the slot. Subscribers read slots in sequence
+ * order and wait at a claimed slot until it is published.
+ *
+ * <p>Each open {@link Subscription} holds back publishers: a slot is not reused
+ * until every subscription has read it, so a slow subscriber slows writers down
+ * instead of missing events. Without subscriptions the buffer just keeps the most
+ * recent {@code capacity} events, which is how far back
+ * {@link #subscribe(long)} can resume.
+ */
+public class TaskChangeLog {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int SPINS_BEFORE_PARKING = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final AtomicReferenceArray<TaskChangeEvent> slots;
+    private final int mask;
+    // Sequences start at 1; this is the last one handed out.
+    private final AtomicLong claimed = new AtomicLong();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger waitingSubscribers = new AtomicInteger();
+    private final Object published = new Object();
+
+    public TaskChangeLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of events retained, rounded up to a power of two
+     */
+    public TaskChangeLog(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Sequence of the most recently claimed event, 0 if there was none.
+     */
+    public long lastSequence() {
+        return claimed.get();
+    }
+
+    /**
+     * Reserves the next sequence. Every claimed sequence must be published, or
+     * subscribers stop at it.
+     */
+    public long claim() {
+        return claimed.incrementAndGet();
+    }
+
+    /**
+     * Publishes the event for a claimed sequence; {@code before} is null for a
+     * created task and {@code after} for a deleted one. Waits while the slot still
+     * holds an event that a subscription has not read.
+     */
+    public void publish(long sequence, Task before, Task after) {
+        if (before == null && after == null) {
+            throw new IllegalArgumentException("A change needs a before or an after image");
+        }
+        awaitCapacity(sequence);
+        store(new TaskChangeEvent(sequence, before, after));
+        if (waitingSubscribers.get() > 0) {
+            synchronized (published) {
+                published.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Claims and publishes in one step, for callers that already serialize writes.
+     */
+    public long publish(Task before, Task after) {
+        long sequence = claim();
+        publish(sequence, before, after);
+        return sequence;
+    }
+
+    /**
+     * Subscribes to events published from now on.
+     */
+    public Subscription subscribe() {
+        Subscription subscription = register(claimed.get() + 1);
+        // A publisher that checked the gate before the registration may still
+        // overwrite slots up to the sequence it claimed, so start after every
+        // sequence claimed by then.
+        subscription.next = claimed.get() + 1;
+        return subscription;
+    }
+
+    /**
+     * Resumes from {@code fromSequence}, typically the sequence after the last
+     * event a consumer processed.
+     *
+     * @throws ChangeSequenceUnavailableException if that event has already been
+     *         overwritten and the consumer has to rebuild from a full scan
+     */
+    public Subscription subscribe(long fromSequence) {
+        if (fromSequence < 1 || fromSequence > claimed.get() + 1) {
+            throw new IllegalArgumentException("Sequence " + fromSequence + " has not been reached");
+        }
+        // Register first so the slot cannot be reused while we check it.
+        Subscription subscription = register(fromSequence);
+        TaskChangeEvent event = slots.get((int) fromSequence & mask);
+        if (event != null && event.getSequence() > fromSequence) {
+            subscription.close();
+            throw unavailable(fromSequence);
+        }
+        return subscription;
+    }
+
+    private Subscription register(long next) {
+        Subscription subscription = new Subscription(next);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    private void awaitCapacity(long sequence) {
+        long wrapPoint = sequence - capacity();
+        int spins = 0;
+        while (wrapPoint >= gatingSequence()) {
+            if (spins++ < SPINS_BEFORE_PARKING) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    // Without a subscription to gate them, a stalled publisher could otherwise put
+    // its event over the newer one a later publisher already stored in the slot. No
+    // subscription can be waiting for the older event by then: the later publisher
+    // passed the gate, and later subscriptions start after both.
+    private void store(TaskChangeEvent event) {
+        int index = (int) event.getSequence() & mask;
+        while (true) {
+            TaskChangeEvent current = slots.get(index);
+            if ((current != null && current.getSequence() > event.getSequence())
+                    || slots.compareAndSet(index, current, event)) {
+                return;
+            }
+        }
+    }
+
+    // Lowest sequence some subscription has yet to read. Subscriptions are few, so
+    // this is cheaper than keeping a cached minimum correct under concurrent subscribes.
+    private long gatingSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (Subscription subscription : subscriptions) {
+            minimum = Math.min(minimum, subscription.next);
+        }
+        return minimum;
+    }
+
+    private static ChangeSequenceUnavailableException unavailable(long sequence) {
+        return new ChangeSequenceUnavailableException("Change " + sequence + " is no longer retained");
+    }
+
+    /**
+     * A cursor over the log. Not thread-safe: poll it from one thread at a time.
+     */
+    public final class Subscription implements AutoCloseable {
+        private volatile long next;
+        private volatile boolean closed;
+
+        private Subscription(long next) {
+            this.next = next;
+        }
+
+        /**
+         * Sequence of the next event this subscription will deliver; pass it to
+         * {@link TaskChangeLog#subscribe(long)} to resume later.
+         */
+        public long getNextSequence() {
+            return next;
+        }
+
+        /**
+         * Hands up to {@code maxEvents} published events to {@code consumer}
+         * without waiting, and returns how many there were.
+         *
+         * @throws ChangeSequenceUnavailableException if a resumed subscription lost
+         *         the race with a publisher reusing its first slot
+         */
+        public int poll(int maxEvents, Consumer<? super TaskChangeEvent> consumer) {
+            if (closed) {
+                throw new IllegalStateException("Subscription is closed");
+            }
+            int delivered = 0;
+            while (delivered < maxEvents) {
+                long sequence = next;
+                TaskChangeEvent event = slots.get((int) sequence & mask);
+                if (event == null || event.getSequence() < sequence) {
+                    break;
+                }
+                if (event.getSequence() > sequence) {
+                    throw unavailable(sequence);
+                }
+                consumer.accept(event);
+                next = sequence + 1;
+                delivered++;
+            }
+            return delivered;
+        }
+
+        /**
+         * Like {@link #poll(int, Consumer)}, but waits up to {@code timeout} for the
+         * first event.
+         */
+        public int poll(int maxEvents, Consumer<? super TaskChangeEvent> consumer, long timeout, TimeUnit unit)
+                throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            int delivered = poll(maxEvents, consumer);
+            while (delivered == 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return 0;
+                }
+                waitingSubscribers.incrementAndGet();
+                try {
+                    synchronized (published) {
+                        if (!isAvailable(next)) {
+                            TimeUnit.NANOSECONDS.timedWait(published, remaining);
+                        }
+                    }
+                } finally {
+                    waitingSubscribers.decrementAndGet();
+                }
+                delivered = poll(maxEvents, consumer);
+            }
+            return delivered;
+        }
+
+        private boolean isAvailable(long sequence) {
+            TaskChangeEvent event = slots.get((int) sequence & mask);
+            return event != null && event.getSequence() >= sequence;
+        }
+
+        /**
+         * Stops holding back publishers.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.taskmanagement.exception;
+
+public class ChangeSequenceUnavailableException extends RuntimeException {
+    public ChangeSequenceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ChangeSequenceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
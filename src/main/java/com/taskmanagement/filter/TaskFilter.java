@@ -5,13 +5,17 @@ import com.taskmanagement.model.Status;
 import com.taskmanagement.model.Task;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 public class TaskFilter {
+    private static final Predicate<Task> ALL = new TaskMatcher(new TaskFilter());
+
     private Status status;
     private Priority priority;
     private LocalDateTime dueDateStart;
     private LocalDateTime dueDateEnd;
+    private String text;
 
     private TaskFilter() {
     }
@@ -39,33 +43,52 @@ public class TaskFilter {
         return this;
     }
 
-    public Predicate<Task> build() {
-        Predicate<Task> predicate = task -> true;
+    /**
+     * Keeps tasks whose title or description has a word starting with each word
+     * of {@code text}, ignoring case; null or blank text removes the criterion.
+     */
+    public TaskFilter byText(String text) {
+        this.text = text == null || text.trim().isEmpty() ? null : text;
+        return this;
+    }
 
-        if (status != null) {
-            predicate = predicate.and(task -> task.getStatus() == status);
-        }
+    public Optional<Status> getStatus() {
+        return Optional.ofNullable(status);
+    }
 
-        if (priority != null) {
-            predicate = predicate.and(task -> task.getPriority() == priority);
-        }
+    public Optional<Priority> getPriority() {
+        return Optional.ofNullable(priority);
+    }
 
-        if (dueDateStart != null || dueDateEnd != null) {
-            predicate = predicate.and(task -> {
-                if (!task.getDueDate().isPresent()) {
-                    return false;
-                }
-                LocalDateTime taskDueDate = task.getDueDate().get();
-                boolean afterStart = dueDateStart == null || !taskDueDate.isBefore(dueDateStart);
-                boolean beforeEnd = dueDateEnd == null || !taskDueDate.isAfter(dueDateEnd);
-                return afterStart && beforeEnd;
-            });
-        }
+    public Optional<LocalDateTime> getDueDateStart() {
+        return Optional.ofNullable(dueDateStart);
+    }
 
-        return predicate;
+    public Optional<LocalDateTime> getDueDateEnd() {
+        return Optional.ofNullable(dueDateEnd);
+    }
+
+    public Optional<String> getText() {
+        return Optional.ofNullable(text);
+    }
+
+    public boolean hasDueDateRange() {
+        return dueDateStart != null || dueDateEnd != null;
+    }
+
+    public boolean isEmpty() {
+        return status == null && priority == null && !hasDueDateRange() && text == null;
+    }
+
+    /**
+     * Compiles the current criteria into a predicate; later changes to this filter
+     * do not affect it.
+     */
+    public Predicate<Task> build() {
+        return isEmpty() ? ALL : new TaskMatcher(this);
     }
 
     public static Predicate<Task> all() {
-        return task -> true;
+        return ALL;
     }
-}
\ No newline at end of file
+}
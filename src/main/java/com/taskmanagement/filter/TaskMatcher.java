@@ -0,0 +1,68 @@
+package com.taskmanagement.filter;
+
+import com.taskmanagement.model.Task;
+import com.taskmanagement.search.TextTokenizer;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * A {@link TaskFilter} compiled into one predicate: status and priority are bit
+ * masks over their ordinals and due-date bounds are epoch seconds and nanos, so a
+ * match reads a few fields and compares primitives. Every filter compiles to this
+ * class, which keeps call sites that test filters monomorphic.
+ */
+final class TaskMatcher implements Predicate<Task> {
+    private static final int ANY = -1;
+
+    private final int statusMask;
+    private final int priorityMask;
+    private final boolean dueDateRange;
+    private final long startSecond;
+    private final int startNano;
+    private final long endSecond;
+    private final int endNano;
+    private final List<String> terms;
+
+    TaskMatcher(TaskFilter filter) {
+        this.statusMask = filter.getStatus().map(status -> 1 << status.ordinal()).orElse(ANY);
+        this.priorityMask = filter.getPriority().map(priority -> 1 << priority.ordinal()).orElse(ANY);
+        this.dueDateRange = filter.hasDueDateRange();
+        LocalDateTime start = filter.getDueDateStart().orElse(null);
+        LocalDateTime end = filter.getDueDateEnd().orElse(null);
+        this.startSecond = start == null ? Long.MIN_VALUE : start.toEpochSecond(ZoneOffset.UTC);
+        this.startNano = start == null ? 0 : start.getNano();
+        this.endSecond = end == null ? Long.MAX_VALUE : end.toEpochSecond(ZoneOffset.UTC);
+        this.endNano = end == null ? Integer.MAX_VALUE : end.getNano();
+        this.terms = filter.getText().map(TextTokenizer::tokenize).orElse(null);
+    }
+
+    @Override
+    public boolean test(Task task) {
+        if (statusMask != ANY && (task.getStatus() == null || (statusMask & 1 << task.getStatus().ordinal()) == 0)) {
+            return false;
+        }
+        if (priorityMask != ANY
+                && (task.getPriority() == null || (priorityMask & 1 << task.getPriority().ordinal()) == 0)) {
+            return false;
+        }
+        if (dueDateRange && !inRange(task.getDueDate())) {
+            return false;
+        }
+        return terms == null || TextTokenizer.matches(terms, task);
+    }
+
+    private boolean inRange(Optional<LocalDateTime> dueDate) {
+        if (dueDate.isEmpty()) {
+            return false;
+        }
+        LocalDateTime value = dueDate.get();
+        long second = value.toEpochSecond(ZoneOffset.UTC);
+        int nano = value.getNano();
+        return (second > startSecond || second == startSecond && nano >= startNano)
+                && (second < endSecond || second == endSecond && nano <= endNano);
+    }
+}
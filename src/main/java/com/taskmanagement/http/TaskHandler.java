@@ -0,0 +1,329 @@
+package com.taskmanagement.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.taskmanagement.codec.TaskJsonCodec;
+import com.taskmanagement.exception.ConcurrentUpdateException;
+import com.taskmanagement.exception.InvalidTaskException;
+import com.taskmanagement.exception.TaskNotFoundException;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskCursor;
+import com.taskmanagement.query.TaskPage;
+import com.taskmanagement.service.SortOption;
+import com.taskmanagement.service.TaskService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Routes {@code /tasks} and {@code /tasks/{id}} to the {@link TaskService}.
+ *
+ * <p>Every response has a known length and every request body is read to the
+ * end, which is what lets the server keep the connection open for the next,
+ * possibly already pipelined, request. The exception are bodies longer than the
+ * configured limit, which are refused with 413 once one byte past it is read.
+ */
+class TaskHandler implements HttpHandler {
+    static final String PATH = "/tasks";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 10_000;
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final byte[] TASKS_PREFIX = "{\"tasks\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EMPTY = new byte[0];
+    private static final int POOLED_CODECS = 64;
+    private static final int MAX_POOLED_BUFFER = 1 << 20;
+
+    private final TaskService service;
+    private final int maxBodyBytes;
+    // Codecs keep their buffers, so reusing them across requests avoids regrowing one each time.
+    private final BlockingQueue<TaskJsonCodec> codecs = new ArrayBlockingQueue<>(POOLED_CODECS);
+
+    TaskHandler(TaskService service, int maxBodyBytes) {
+        this.service = service;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String body = readBody(exchange.getRequestBody(), maxBodyBytes);
+            if (body == null) {
+                send(exchange, 413, error("Request body exceeds " + maxBodyBytes + " bytes"));
+                return;
+            }
+            String path = exchange.getRequestURI().getRawPath();
+            String id = null;
+            if (path.startsWith(PATH + "/") && path.length() > PATH.length() + 1) {
+                id = URLDecoder.decode(path.substring(PATH.length() + 1), StandardCharsets.UTF_8);
+            } else if (!path.equals(PATH) && !path.equals(PATH + "/")) {
+                send(exchange, 404, error("No such resource"));
+                return;
+            }
+            route(exchange, exchange.getRequestMethod(), id, body);
+        } catch (TaskNotFoundException e) {
+            sendError(exchange, 404, e.getMessage());
+        } catch (ConcurrentUpdateException e) {
+            sendError(exchange, 412, e.getMessage());
+        } catch (InvalidTaskException | IllegalArgumentException | DateTimeParseException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, String id, String body) throws IOException {
+        if (id == null) {
+            switch (method) {
+                case "GET":
+                    list(exchange);
+                    return;
+                case "POST":
+                    Task created = create(object(body));
+                    exchange.getResponseHeaders().set("Location", PATH + "/" + created.getId());
+                    sendTask(exchange, 201, created);
+                    return;
+                default:
+                    methodNotAllowed(exchange, "GET, POST");
+                    return;
+            }
+        }
+        switch (method) {
+            case "GET":
+                sendTask(exchange, 200, service.getTask(id));
+                return;
+            case "PATCH":
+                sendTask(exchange, 200, update(exchange, id, object(body)));
+                return;
+            case "DELETE":
+                service.deleteTask(id);
+                send(exchange, 204, null);
+                return;
+            default:
+                methodNotAllowed(exchange, "GET, PATCH, DELETE");
+        }
+    }
+
+    private void list(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = queryParameters(exchange.getRequestURI().getRawQuery());
+        TaskFilter filter = TaskFilter.builder()
+                .byStatus(parameter(parameters, "status", Status::valueOf))
+                .byPriority(parameter(parameters, "priority", Priority::valueOf))
+                .byDueDateRange(parameter(parameters, "dueFrom", LocalDateTime::parse),
+                        parameter(parameters, "dueTo", LocalDateTime::parse))
+                .byText(parameters.get("q"));
+        SortOption sortOption = parameter(parameters, "sort", SortOption::valueOf);
+        TaskCursor cursor = parameter(parameters, "cursor", TaskCursor::decode);
+        Integer limit = parameter(parameters, "limit", Integer::valueOf);
+        if (limit != null && (limit <= 0 || limit > MAX_PAGE_SIZE)) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TaskPage page = service.listTaskPage(filter, sortOption, cursor, limit == null ? DEFAULT_PAGE_SIZE : limit);
+
+        StringBuilder suffix = new StringBuilder(",\"nextCursor\":");
+        Json.writeString(suffix, page.getNextCursor().map(TaskCursor::encode).orElse(null));
+        suffix.append('}');
+        TaskJsonCodec codec = borrowCodec();
+        try {
+            codec.encodeArray(page.getTasks());
+            send(exchange, 200, TASKS_PREFIX, codec, suffix.toString().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            returnCodec(codec);
+        }
+    }
+
+    private Task create(Map<String, Object> fields) {
+        return service.createTask(
+                string(fields, "title"),
+                Optional.ofNullable(string(fields, "description")),
+                Optional.ofNullable(dateTime(fields, "dueDate")),
+                fields.containsKey("priority") ? Priority.valueOf(string(fields, "priority")) : null);
+    }
+
+    /**
+     * Only the fields present are changed; null clears the description or due
+     * date. An {@code If-Match} header makes the update conditional: {@code *}
+     * matches any version, and weak tags never match, as If-Match compares
+     * entity tags strongly.
+     */
+    private Task update(HttpExchange exchange, String id, Map<String, Object> fields) {
+        TaskPatch.Builder patch = TaskPatch.builder();
+        if (fields.containsKey("title")) {
+            patch.title(string(fields, "title"));
+        }
+        if (fields.containsKey("description")) {
+            patch.description(string(fields, "description"));
+        }
+        if (fields.containsKey("dueDate")) {
+            patch.dueDate(dateTime(fields, "dueDate"));
+        }
+        if (fields.containsKey("priority")) {
+            patch.priority(Priority.valueOf(string(fields, "priority")));
+        }
+        if (fields.containsKey("status")) {
+            patch.status(Status.valueOf(string(fields, "status")));
+        }
+        String ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+        if (ifMatch == null) {
+            return service.updateTask(id, patch.build());
+        }
+        long version = service.getTask(id).getVersion();
+        if (!matches(ifMatch, version)) {
+            throw new ConcurrentUpdateException("Task with ID '" + id + "' is at version " + version
+                    + ", which does not match " + ifMatch.trim());
+        }
+        return service.updateTask(id, version, patch.build());
+    }
+
+    // Whether the comma-separated entity tags include the version's tag or "*".
+    private static boolean matches(String ifMatch, long version) {
+        String expected = "\"" + version + "\"";
+        boolean matched = false;
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            String opaque = tag.startsWith("W/") ? tag.substring(2) : tag;
+            if (!tag.equals("*") && (opaque.length() < 2 || !opaque.startsWith("\"") || !opaque.endsWith("\""))) {
+                throw new IllegalArgumentException("Invalid entity tag in If-Match: " + tag);
+            }
+            matched |= tag.equals("*") || tag.equals(expected);
+        }
+        return matched;
+    }
+
+    private void sendTask(HttpExchange exchange, int status, Task task) throws IOException {
+        exchange.getResponseHeaders().set("ETag", "\"" + task.getVersion() + "\"");
+        TaskJsonCodec codec = borrowCodec();
+        try {
+            send(exchange, status, EMPTY, codec.encode(task), EMPTY);
+        } finally {
+            returnCodec(codec);
+        }
+    }
+
+    private TaskJsonCodec borrowCodec() {
+        TaskJsonCodec codec = codecs.poll();
+        return codec != null ? codec : new TaskJsonCodec();
+    }
+
+    // Codecs whose buffer grew past the limit are left to the collector.
+    private void returnCodec(TaskJsonCodec codec) {
+        if (codec.buffer().length <= MAX_POOLED_BUFFER) {
+            codecs.offer(codec);
+        }
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange, String allowed) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        send(exchange, 405, error("Method not allowed"));
+    }
+
+    // Once the headers are out the status cannot change; closing the exchange
+    // then cuts the response short, which the client sees as a failed request.
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        if (exchange.getResponseCode() == -1) {
+            send(exchange, status, error(message));
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Writes the codec's output between prefix and suffix, without copying it. The
+    // stream refuses even empty writes once the declared length is reached.
+    private static void send(HttpExchange exchange, int status, byte[] prefix, TaskJsonCodec codec, byte[] suffix)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, prefix.length + codec.size() + suffix.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (prefix.length > 0) {
+                out.write(prefix);
+            }
+            codec.writeTo(out);
+            if (suffix.length > 0) {
+                out.write(suffix);
+            }
+        }
+    }
+
+    private static String error(String message) {
+        StringBuilder out = new StringBuilder("{\"error\":");
+        Json.writeString(out, message);
+        return out.append('}').toString();
+    }
+
+    // Null if the body is longer than maxBytes.
+    private static String readBody(InputStream in, int maxBytes) throws IOException {
+        try (in) {
+            byte[] body = in.readNBytes(maxBytes + 1);
+            return body.length > maxBytes ? null : new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(String body) {
+        Object value = Json.parse(body);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Request body must be a JSON object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static String string(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("Field '" + name + "' must be a string");
+        }
+        return (String) value;
+    }
+
+    private static LocalDateTime dateTime(Map<String, Object> fields, String name) {
+        String value = string(fields, name);
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+
+    private static Map<String, String> queryParameters(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            parameters.put(name, value);
+        }
+        return parameters;
+    }
+
+    private static <T> T parameter(Map<String, String> parameters, String name, Function<String, T> parser) {
+        String value = parameters.get(name);
+        return value == null || value.isEmpty() ? null : parser.apply(value);
+    }
+}
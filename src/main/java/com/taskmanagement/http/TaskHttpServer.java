@@ -0,0 +1,218 @@
+package com.taskmanagement.http;
+
+import com.sun.net.httpserver.HttpServer;
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.model.TaskIdGenerator;
+import com.taskmanagement.repository.InMemoryTaskRepository;
+import com.taskmanagement.repository.PersistentTaskRepository;
+import com.taskmanagement.repository.TaskRepository;
+import com.taskmanagement.search.TaskSearchIndex;
+import com.taskmanagement.service.TaskService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JSON REST API over a {@link TaskService}, served by the JDK's built-in HTTP
+ * server:
+ *
+ * <pre>
+ * GET    /tasks?status=&amp;priority=&amp;dueFrom=&amp;dueTo=&amp;q=&amp;sort=&amp;limit=&amp;cursor=
+ * POST   /tasks
+ * GET    /tasks/{id}
+ * PATCH  /tasks/{id}        (If-Match: "version" makes it conditional; 412 if it fails)
+ * DELETE /tasks/{id}
+ * </pre>
+ *
+ * <p>Each request runs on its own virtual thread where the runtime has them, so
+ * a request blocked on an fsync does not hold a platform thread. Older runtimes
+ * fall back to a bounded pool that runs requests on the accepting thread once
+ * its queue is full. Connections are kept alive between requests.
+ */
+public class TaskHttpServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private TaskHttpServer(Builder builder) {
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(builder.bindAddress, builder.port), builder.backlog);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not bind to port " + builder.port, e);
+        }
+        this.executor = builder.virtualThreads ? virtualThreadExecutor() : null;
+        server.setExecutor(executor != null ? executor : boundedExecutor(builder.maxThreads));
+        server.createContext(TaskHandler.PATH, new TaskHandler(builder.service, builder.maxBodyBytes));
+    }
+
+    public TaskHttpServer start() {
+        server.start();
+        return this;
+    }
+
+    /**
+     * The bound port, useful when the server was built with port 0.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Whether requests run on virtual threads rather than the fallback pool.
+     */
+    public boolean usesVirtualThreads() {
+        return executor != null;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        ExecutorService running = (ExecutorService) server.getExecutor();
+        running.shutdown();
+        try {
+            running.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Looked up reflectively so the code still compiles for and runs on Java 11.
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService boundedExecutor(int maxThreads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threads = runnable -> {
+            Thread thread = new Thread(runnable, "task-http-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxThreads * 16), threads, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public static void main(String[] args) {
+        int port = Integer.parseInt(setting("task.http.port", "TASK_HTTP_PORT", "8080"));
+        String dataDir = setting("task.data.dir", "TASK_DATA_DIR", "");
+        TaskChangeLog changes = new TaskChangeLog();
+        TaskRepository repository = dataDir.isBlank()
+                ? new InMemoryTaskRepository.Builder().changeLog(changes).build()
+                : new PersistentTaskRepository.Builder(Paths.get(dataDir)).changeLog(changes).build();
+        TaskSearchIndex searchIndex = TaskSearchIndex.attach(repository);
+        TaskService service = new TaskService(repository, TaskIdGenerator.defaultGenerator(), searchIndex);
+        TaskHttpServer server = new Builder(service).port(port).build().start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            searchIndex.close();
+            if (repository instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) repository).close();
+                } catch (Exception e) {
+                    System.err.println("Failed to close repository: " + e.getMessage());
+                }
+            }
+        }));
+        System.out.println("Listening on port " + server.getPort()
+                + (server.usesVirtualThreads() ? " (virtual threads)" : ""));
+    }
+
+    private static String setting(String property, String environment, String defaultValue) {
+        String value = System.getProperty(property, System.getenv(environment));
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    public static class Builder {
+        private final TaskService service;
+        private int port = 8080;
+        private InetAddress bindAddress;
+        private int backlog;
+        private int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 8);
+        private boolean virtualThreads = true;
+        private int maxBodyBytes = 1 << 20;
+
+        public Builder(TaskService service) {
+            if (service == null) {
+                throw new IllegalArgumentException("Service cannot be null");
+            }
+            this.service = service;
+        }
+
+        /**
+         * Port to listen on; 0 picks a free one.
+         */
+        public Builder port(int port) {
+            if (port < 0 || port > 65535) {
+                throw new IllegalArgumentException("Port must be between 0 and 65535");
+            }
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Address to listen on; by default every interface.
+         */
+        public Builder bindAddress(InetAddress bindAddress) {
+            this.bindAddress = bindAddress;
+            return this;
+        }
+
+        /**
+         * Pending connections the operating system queues; 0 keeps its default.
+         */
+        public Builder backlog(int backlog) {
+            if (backlog < 0) {
+                throw new IllegalArgumentException("Backlog cannot be negative");
+            }
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * Size of the pool used when virtual threads are unavailable or off.
+         */
+        public Builder maxThreads(int maxThreads) {
+            if (maxThreads <= 0) {
+                throw new IllegalArgumentException("Max threads must be positive");
+            }
+            this.maxThreads = maxThreads;
+            return this;
+        }
+
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Longest request body accepted, 1 MiB by default; longer ones get 413.
+         */
+        public Builder maxBodyBytes(int maxBodyBytes) {
+            if (maxBodyBytes <= 0 || maxBodyBytes == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Max body bytes must be between 1 and " + (Integer.MAX_VALUE - 1));
+            }
+            this.maxBodyBytes = maxBodyBytes;
+            return this;
+        }
+
+        /**
+         * Binds the port; call {@link TaskHttpServer#start()} to accept requests.
+         */
+        public TaskHttpServer build() {
+            return new TaskHttpServer(this);
+        }
+    }
+}
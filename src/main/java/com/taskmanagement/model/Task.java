@@ -3,28 +3,57 @@ package com.taskmanagement.model;
 import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
 
 
 public class Task {
-    private final String id;
+    // Generated ids are kept as a TaskId and only rendered to a String on first use.
+    private final TaskId taskId;
+    private String id;
     private final String title;
     private final Optional<String> description;
     private final Optional<LocalDateTime> dueDate;
     private final Priority priority;
     private final Status status;
+    private final long version;
 
     private Task(Builder builder) {
+        this.taskId = builder.taskId;
         this.id = builder.id;
         this.title = builder.title;
         this.description = builder.description;
         this.dueDate = builder.dueDate;
         this.priority = builder.priority;
         this.status = builder.status;
+        this.version = builder.version;
+    }
+
+    // Copies the id of base; the other fields are taken as they are, already validated.
+    private Task(Task base, String title, Optional<String> description, Optional<LocalDateTime> dueDate,
+                 Priority priority, Status status, long version) {
+        this.taskId = base.taskId;
+        this.id = base.id;
+        this.title = title;
+        this.description = description;
+        this.dueDate = dueDate;
+        this.priority = priority;
+        this.status = status;
+        this.version = version;
     }
 
     public String getId() {
-        return id;
+        String result = id;
+        if (result == null && taskId != null) {
+            result = taskId.toString();
+            id = result;
+        }
+        return result;
+    }
+
+    /**
+     * The id as two longs, if it is in canonical form.
+     */
+    public Optional<TaskId> getTaskId() {
+        return taskId != null ? Optional.of(taskId) : Optional.ofNullable(TaskId.tryParse(id));
     }
 
     public String getTitle() {
@@ -47,25 +76,51 @@ public class Task {
         return status;
     }
 
+    /**
+     * Incremented by the repository on every write; 0 for a task that was never saved.
+     */
+    public long getVersion() {
+        return version;
+    }
 
-    public Task updateWith(Task updates) {
-        Builder builder = new Builder(this);
-        if (updates.title != null && !updates.title.isEmpty()) {
-            builder.title(updates.title);
+    public Task withVersion(long version) {
+        if (version < 0) {
+            throw new IllegalArgumentException("Version cannot be negative");
         }
-        if (updates.description.isPresent()) {
-            builder.description(updates.description.orElse(null));
-        }
-        if (updates.dueDate.isPresent()) {
-            builder.dueDate(updates.dueDate.orElse(null));
+        return version == this.version ? this : new Task(this, title, description, dueDate, priority, status, version);
+    }
+
+    /**
+     * Copies this task with the given fields, without going through a builder;
+     * callers pass values that a builder has already normalized.
+     */
+    Task with(String title, Optional<String> description, Optional<LocalDateTime> dueDate,
+              Priority priority, Status status, long version) {
+        if (title == this.title && description == this.description && dueDate == this.dueDate
+                && priority == this.priority && status == this.status && version == this.version) {
+            return this;
         }
-        if (updates.priority != null) {
-            builder.priority(updates.priority);
+        return new Task(this, title, description, dueDate, priority, status, version);
+    }
+
+
+    public Task updateWith(Task updates) {
+        // Fields of updates were normalized by its builder, so they are copied as they are.
+        String newTitle = updates.title != null && !updates.title.isEmpty() ? updates.title : title;
+        Priority newPriority = updates.priority != null ? updates.priority : priority;
+        if (newTitle == null || newTitle.trim().isEmpty()) {
+            throw new IllegalArgumentException("Title is required for the task");
         }
-        if (updates.status != null) {
-            builder.status(updates.status);
+        if (newPriority == null) {
+            throw new IllegalArgumentException("Priority is required for the task");
         }
-        return builder.build();
+        return new Task(this,
+                newTitle,
+                updates.description.isPresent() ? updates.description : description,
+                updates.dueDate.isPresent() ? updates.dueDate : dueDate,
+                newPriority,
+                updates.status != null ? updates.status : status,
+                version);
     }
 
     @Override
@@ -73,50 +128,76 @@ public class Task {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Task task = (Task) o;
-        return Objects.equals(id, task.id);
+        return Objects.equals(getId(), task.getId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Objects.hash(getId());
     }
 
     @Override
     public String toString() {
         return "Task{" +
-                "id='" + id + '\'' +
+                "id='" + getId() + '\'' +
                 ", title='" + title + '\'' +
                 ", description=" + description.orElse("") +
                 ", dueDate=" + dueDate.map(LocalDateTime::toString).orElse("") +
                 ", priority=" + priority +
                 ", status=" + status +
+                ", version=" + version +
                 '}';
     }
 
 
     public static class Builder {
         private String id;
+        private TaskId taskId;
+        private TaskIdGenerator idGenerator;
         private String title;
         private Optional<String> description = Optional.empty();
         private Optional<LocalDateTime> dueDate = Optional.empty();
         private Priority priority;
         private Status status = Status.PENDING;
+        private long version;
 
         public Builder() {
-            this.id = UUID.randomUUID().toString();
+            this(TaskIdGenerator.defaultGenerator());
+        }
+
+        /**
+         * The id is drawn from {@code idGenerator} when the task is built, unless one
+         * is set explicitly before that.
+         */
+        public Builder(TaskIdGenerator idGenerator) {
+            if (idGenerator == null) {
+                throw new IllegalArgumentException("Id generator cannot be null");
+            }
+            this.idGenerator = idGenerator;
         }
 
         public Builder(Task task) {
             this.id = task.id;
+            this.taskId = task.taskId;
             this.title = task.title;
             this.description = task.description;
             this.dueDate = task.dueDate;
             this.priority = task.priority;
             this.status = task.status;
+            this.version = task.version;
         }
 
         public Builder id(String id) {
             this.id = id;
+            this.taskId = null;
+            this.idGenerator = null;
+            return this;
+        }
+
+        public Builder id(TaskId taskId) {
+            this.taskId = taskId;
+            this.id = null;
+            this.idGenerator = null;
             return this;
         }
 
@@ -171,6 +252,14 @@ public class Task {
             return this;
         }
 
+        public Builder version(long version) {
+            if (version < 0) {
+                throw new IllegalArgumentException("Version cannot be negative");
+            }
+            this.version = version;
+            return this;
+        }
+
         public Task build() {
             if (title == null || title.trim().isEmpty()) {
                 throw new IllegalArgumentException("Title is required for the task");
@@ -178,13 +267,22 @@ public class Task {
             if (priority == null) {
                 throw new IllegalArgumentException("Priority is required for the task");
             }
+            assignId();
             return new Task(this);
         }
 
         public Task buildForUpdate() {
             // Allow building with null/empty values for update scenarios
+            assignId();
             return new Task(this);
         }
+
+        private void assignId() {
+            if (idGenerator != null) {
+                taskId = idGenerator.next();
+                idGenerator = null;
+            }
+        }
     }
 }
 
@@ -0,0 +1,111 @@
+package com.taskmanagement.model;
+
+/**
+ * A 128-bit task identifier held as two longs. Its string form is the canonical
+ * lower-case UUID layout, so ids round-trip through the CLI and any stored data
+ * unchanged, and ordering by {@link #compareTo} matches ordering by that string.
+ */
+public final class TaskId implements Comparable<TaskId> {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long high;
+    private final long low;
+
+    private TaskId(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public static TaskId of(long high, long low) {
+        return new TaskId(high, low);
+    }
+
+    /**
+     * Parses the canonical form, throwing {@link IllegalArgumentException} otherwise.
+     */
+    public static TaskId parse(String value) {
+        TaskId id = tryParse(value);
+        if (id == null) {
+            throw new IllegalArgumentException("Not a task id: " + value);
+        }
+        return id;
+    }
+
+    /**
+     * Parses the canonical form, or returns {@code null}. Upper-case hex is rejected
+     * so that a parsed id always renders back to the exact input.
+     */
+    public static TaskId tryParse(String value) {
+        if (value == null || value.length() != 36) {
+            return null;
+        }
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else {
+                return null;
+            }
+            if (digits < 16) {
+                high = (high << 4) | digit;
+            } else {
+                low = (low << 4) | digit;
+            }
+            digits++;
+        }
+        return new TaskId(high, low);
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public int compareTo(TaskId other) {
+        int result = Long.compareUnsigned(high, other.high);
+        return result != 0 ? result : Long.compareUnsigned(low, other.low);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TaskId taskId = (TaskId) o;
+        return high == taskId.high && low == taskId.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high ^ low);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[36];
+        int position = 0;
+        for (int i = 0; i < 32; i++) {
+            if (i == 8 || i == 12 || i == 16 || i == 20) {
+                chars[position++] = '-';
+            }
+            long bits = i < 16 ? high : low;
+            chars[position++] = HEX[(int) (bits >>> (60 - 4 * (i & 15))) & 0xF];
+        }
+        return new String(chars);
+    }
+}
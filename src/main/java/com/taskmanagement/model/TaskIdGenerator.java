@@ -0,0 +1,28 @@
+package com.taskmanagement.model;
+
+import java.util.UUID;
+
+@FunctionalInterface
+public interface TaskIdGenerator {
+
+    TaskId next();
+
+    /**
+     * The generator used by {@code new Task.Builder()}: time-ordered and cheap to
+     * call from many threads.
+     */
+    static TaskIdGenerator defaultGenerator() {
+        return TimeOrderedTaskIdGenerator.INSTANCE;
+    }
+
+    /**
+     * Random version 4 UUIDs from {@link UUID#randomUUID()}, which draws on
+     * {@code SecureRandom}. Slower, but the ids reveal nothing about creation time.
+     */
+    static TaskIdGenerator randomUuid() {
+        return () -> {
+            UUID uuid = UUID.randomUUID();
+            return TaskId.of(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        };
+    }
+}
@@ -0,0 +1,153 @@
+package com.taskmanagement.model;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * A partial update: only the fields that were set on the builder are changed.
+ * Description and due date can also be cleared, which is why they are tracked
+ * separately from their values. Values are normalized once, when the patch is
+ * built, and applying it copies the task in a single allocation.
+ */
+public final class TaskPatch {
+    private final String title;
+    private final boolean descriptionSet;
+    private final Optional<String> description;
+    private final boolean dueDateSet;
+    private final Optional<LocalDateTime> dueDate;
+    private final Priority priority;
+    private final Status status;
+
+    private TaskPatch(Builder builder) {
+        this.title = builder.title;
+        this.descriptionSet = builder.descriptionSet;
+        this.description = Optional.ofNullable(builder.description);
+        this.dueDateSet = builder.dueDateSet;
+        this.dueDate = Optional.ofNullable(builder.dueDate);
+        this.priority = builder.priority;
+        this.status = builder.status;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Optional<String> getTitle() {
+        return Optional.ofNullable(title);
+    }
+
+    public boolean changesDescription() {
+        return descriptionSet;
+    }
+
+    public Optional<String> getDescription() {
+        return description;
+    }
+
+    public boolean changesDueDate() {
+        return dueDateSet;
+    }
+
+    public Optional<LocalDateTime> getDueDate() {
+        return dueDate;
+    }
+
+    public Optional<Priority> getPriority() {
+        return Optional.ofNullable(priority);
+    }
+
+    public Optional<Status> getStatus() {
+        return Optional.ofNullable(status);
+    }
+
+    public boolean isEmpty() {
+        return title == null && !descriptionSet && !dueDateSet && priority == null && status == null;
+    }
+
+    public Task applyTo(Task task) {
+        return applyTo(task, task.getVersion());
+    }
+
+    /**
+     * Like {@link #applyTo(Task)}, also setting the version in the same copy.
+     */
+    public Task applyTo(Task task, long version) {
+        if (version < 0) {
+            throw new IllegalArgumentException("Version cannot be negative");
+        }
+        return task.with(
+                title != null ? title : task.getTitle(),
+                descriptionSet ? description : task.getDescription(),
+                dueDateSet ? dueDate : task.getDueDate(),
+                priority != null ? priority : task.getPriority(),
+                status != null ? status : task.getStatus(),
+                version);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskPatch{" +
+                "title=" + title +
+                ", description=" + (descriptionSet ? String.valueOf(description.orElse(null)) : "unchanged") +
+                ", dueDate=" + (dueDateSet ? String.valueOf(dueDate.orElse(null)) : "unchanged") +
+                ", priority=" + priority +
+                ", status=" + status +
+                '}';
+    }
+
+    public static class Builder {
+        private String title;
+        private boolean descriptionSet;
+        private String description;
+        private boolean dueDateSet;
+        private LocalDateTime dueDate;
+        private Priority priority;
+        private Status status;
+
+        public Builder title(String title) {
+            if (title == null || title.trim().isEmpty()) {
+                throw new IllegalArgumentException("Title cannot be null or empty for the task");
+            }
+            this.title = title.trim();
+            return this;
+        }
+
+        /**
+         * Sets the description; {@code null} or blank clears it, as on {@link Task.Builder}.
+         */
+        public Builder description(String description) {
+            this.descriptionSet = true;
+            this.description = description == null || description.trim().isEmpty() ? null : description.trim();
+            return this;
+        }
+
+        /**
+         * Sets the due date; {@code null} clears it.
+         */
+        public Builder dueDate(LocalDateTime dueDate) {
+            this.dueDateSet = true;
+            this.dueDate = dueDate;
+            return this;
+        }
+
+        public Builder priority(Priority priority) {
+            if (priority == null) {
+                throw new IllegalArgumentException("Priority cannot be null for the task");
+            }
+            this.priority = priority;
+            return this;
+        }
+
+        public Builder status(Status status) {
+            if (status == null) {
+                throw new IllegalArgumentException("Status cannot be null for the task");
+            }
+            this.status = status;
+            return this;
+        }
+
+        public TaskPatch build() {
+            return new TaskPatch(this);
+        }
+    }
+}
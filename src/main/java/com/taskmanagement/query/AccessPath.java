@@ -0,0 +1,9 @@
+package com.taskmanagement.query;
+
+public enum AccessPath {
+    FULL_SCAN,
+    STATUS_INDEX,
+    PRIORITY_INDEX,
+    DUE_DATE_INDEX,
+    SORTED_VIEW
+}
@@ -0,0 +1,77 @@
+package com.taskmanagement.query;
+
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.service.SortOption;
+
+/**
+ * Estimates the rows each access path would read and picks the cheapest, charging
+ * n log n for paths that still have to sort. Ordered walks (the due-date index for
+ * due-date sorts, or a maintained sorted view) are charged only for the rows they
+ * are expected to read before offset + limit matches are found, assuming the
+ * remaining criteria are spread evenly.
+ */
+public class CostBasedQueryPlanner implements QueryPlanner {
+
+    @Override
+    public QueryPlan plan(TaskQuery query, IndexStatistics statistics) {
+        long total = statistics.totalCount();
+        TaskFilter filter = query.getFilter().orElse(null);
+        SortOption sortOption = query.getSortOption().orElse(null);
+
+        AccessPath best = AccessPath.FULL_SCAN;
+        long bestRows = total;
+
+        if (filter != null && filter.getStatus().isPresent()) {
+            long rows = statistics.countByStatus(filter.getStatus().get());
+            if (rows < bestRows) {
+                best = AccessPath.STATUS_INDEX;
+                bestRows = rows;
+            }
+        }
+        if (filter != null && filter.getPriority().isPresent()) {
+            long rows = statistics.countByPriority(filter.getPriority().get());
+            if (rows < bestRows) {
+                best = AccessPath.PRIORITY_INDEX;
+                bestRows = rows;
+            }
+        }
+
+        boolean dueDateOrder = sortOption != null && sortOption.isDueDateOrder();
+        if (filter != null && filter.hasDueDateRange()) {
+            long rows = statistics.countByDueDateRange(
+                    filter.getDueDateStart().orElse(null), filter.getDueDateEnd().orElse(null), bestRows);
+            if (rows < bestRows) {
+                return new QueryPlan(AccessPath.DUE_DATE_INDEX, rows, dueDateOrder);
+            }
+            if (dueDateOrder) {
+                long touched = orderedRowsTouched(query, total, bestRows);
+                if (touched < cost(query, bestRows)) {
+                    return new QueryPlan(AccessPath.DUE_DATE_INDEX, touched, true);
+                }
+            }
+        }
+
+        if (sortOption != null && statistics.hasSortedView(sortOption)) {
+            long touched = orderedRowsTouched(query, total, bestRows);
+            if (touched < cost(query, bestRows)) {
+                return new QueryPlan(AccessPath.SORTED_VIEW, touched, true);
+            }
+        }
+        return new QueryPlan(best, bestRows, false);
+    }
+
+    private static long orderedRowsTouched(TaskQuery query, long total, long matchingRows) {
+        if (!query.isLimited() || matchingRows == 0) {
+            return total;
+        }
+        long wanted = (long) query.getOffset() + query.getLimit();
+        return Math.min(total, wanted * total / matchingRows);
+    }
+
+    private static long cost(TaskQuery query, long rows) {
+        if (!query.isOrdered() || rows <= 1) {
+            return rows;
+        }
+        return rows * (64 - Long.numberOfLeadingZeros(rows));
+    }
+}
@@ -0,0 +1,24 @@
+package com.taskmanagement.query;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.service.SortOption;
+
+import java.time.LocalDateTime;
+
+public interface IndexStatistics {
+    long totalCount();
+    long countByStatus(Status status);
+    long countByPriority(Priority priority);
+
+    /**
+     * Counts tasks due within the (inclusive, open-ended when null) range, giving up
+     * once {@code limit} is exceeded so that estimating a wide range stays cheap.
+     * Returns {@link Long#MAX_VALUE} in that case.
+     */
+    long countByDueDateRange(LocalDateTime start, LocalDateTime end, long limit);
+
+    default boolean hasSortedView(SortOption sortOption) {
+        return false;
+    }
+}
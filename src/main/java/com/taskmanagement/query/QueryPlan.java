@@ -0,0 +1,37 @@
+package com.taskmanagement.query;
+
+public class QueryPlan {
+    private final AccessPath accessPath;
+    private final long estimatedRows;
+    private final boolean sortPushedDown;
+
+    public QueryPlan(AccessPath accessPath, long estimatedRows, boolean sortPushedDown) {
+        if (accessPath == null) {
+            throw new IllegalArgumentException("Access path cannot be null");
+        }
+        this.accessPath = accessPath;
+        this.estimatedRows = estimatedRows;
+        this.sortPushedDown = sortPushedDown;
+    }
+
+    public AccessPath getAccessPath() {
+        return accessPath;
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public boolean isSortPushedDown() {
+        return sortPushedDown;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPlan{" +
+                "accessPath=" + accessPath +
+                ", estimatedRows=" + estimatedRows +
+                ", sortPushedDown=" + sortPushedDown +
+                '}';
+    }
+}
@@ -0,0 +1,5 @@
+package com.taskmanagement.query;
+
+public interface QueryPlanner {
+    QueryPlan plan(TaskQuery query, IndexStatistics statistics);
+}
@@ -0,0 +1,152 @@
+package com.taskmanagement.query;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.service.SortOption;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Keyset pagination position: the sort key and id of the last task on a page.
+ * The next page starts strictly after it, so concurrent inserts and deletes
+ * never shift later pages the way an offset would.
+ */
+public class TaskCursor {
+    private static final int FORMAT_VERSION = 1;
+
+    private final SortOption sortOption;
+    private final String id;
+    private final String title;
+    private final Priority priority;
+    private final LocalDateTime dueDate;
+
+    private TaskCursor(SortOption sortOption, String id, String title, Priority priority, LocalDateTime dueDate) {
+        this.sortOption = sortOption;
+        this.id = id;
+        this.title = title;
+        this.priority = priority;
+        this.dueDate = dueDate;
+    }
+
+    public static TaskCursor after(Task task, SortOption sortOption) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        if (sortOption == null) {
+            return new TaskCursor(null, task.getId(), null, null, null);
+        }
+        switch (sortOption) {
+            case DUE_DATE_ASC:
+            case DUE_DATE_DESC:
+                return new TaskCursor(sortOption, task.getId(), null, null, task.getDueDate().orElse(null));
+            case PRIORITY_ASC:
+            case PRIORITY_DESC:
+                return new TaskCursor(sortOption, task.getId(), null, task.getPriority(), null);
+            default:
+                return new TaskCursor(sortOption, task.getId(), task.getTitle(), null, null);
+        }
+    }
+
+    public Optional<SortOption> getSortOption() {
+        return Optional.ofNullable(sortOption);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Optional<LocalDateTime> getDueDate() {
+        return Optional.ofNullable(dueDate);
+    }
+
+    // A stand-in task carrying only the sort key, so the query's comparator can
+    // position the cursor without a separate key comparison per SortOption.
+    public Task toProbe() {
+        return new Task.Builder()
+                .id(id)
+                .titleForUpdate(title)
+                .priorityForUpdate(priority)
+                .dueDate(dueDate)
+                .buildForUpdate();
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(sortOption == null ? -1 : sortOption.ordinal());
+            out.writeUTF(id);
+            writeNullable(out, title);
+            writeNullable(out, priority == null ? null : priority.name());
+            writeNullable(out, dueDate == null ? null : dueDate.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static TaskCursor decode(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            throw new IllegalArgumentException("Cursor cannot be null or empty");
+        }
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token.trim())))) {
+            if (in.readByte() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor version");
+            }
+            int sortOrdinal = in.readByte();
+            SortOption sortOption = sortOrdinal < 0 ? null : SortOption.values()[sortOrdinal];
+            String id = in.readUTF();
+            String title = readNullable(in);
+            String priority = readNullable(in);
+            String dueDate = readNullable(in);
+            return new TaskCursor(sortOption, id, title,
+                    priority == null ? null : Priority.valueOf(priority),
+                    dueDate == null ? null : LocalDateTime.parse(dueDate));
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TaskCursor that = (TaskCursor) o;
+        return sortOption == that.sortOption
+                && id.equals(that.id)
+                && Objects.equals(title, that.title)
+                && priority == that.priority
+                && Objects.equals(dueDate, that.dueDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortOption, id, title, priority, dueDate);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
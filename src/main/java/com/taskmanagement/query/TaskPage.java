@@ -0,0 +1,32 @@
+package com.taskmanagement.query;
+
+import com.taskmanagement.model.Task;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public class TaskPage {
+    private final List<Task> tasks;
+    private final TaskCursor nextCursor;
+
+    public TaskPage(List<Task> tasks, TaskCursor nextCursor) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public Optional<TaskCursor> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
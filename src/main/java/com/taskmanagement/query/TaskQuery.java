@@ -0,0 +1,171 @@
+package com.taskmanagement.query;
+
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.service.SortOption;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TaskQuery {
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final Comparator<Task> BY_ID = Comparator.comparing(Task::getId);
+
+    private final TaskFilter filter;
+    private final SortOption sortOption;
+    private final TaskCursor cursor;
+    private final int offset;
+    private final int limit;
+
+    private TaskQuery(Builder builder) {
+        this.filter = builder.filter;
+        this.sortOption = builder.sortOption;
+        this.cursor = builder.cursor;
+        this.offset = builder.offset;
+        this.limit = builder.limit;
+    }
+
+    public static TaskQuery of(TaskFilter filter) {
+        return new Builder().filter(filter).build();
+    }
+
+    public Optional<TaskFilter> getFilter() {
+        return Optional.ofNullable(filter);
+    }
+
+    public Optional<SortOption> getSortOption() {
+        return Optional.ofNullable(sortOption);
+    }
+
+    public Optional<TaskCursor> getCursor() {
+        return Optional.ofNullable(cursor);
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isLimited() {
+        return limit != UNLIMITED;
+    }
+
+    public boolean isOrdered() {
+        return sortOption != null || cursor != null;
+    }
+
+    /**
+     * The order results are returned in; queries without a sort option but with a
+     * cursor are ordered by id so that keyset pagination still has a total order.
+     */
+    public Comparator<Task> comparator() {
+        return sortOption == null ? BY_ID : sortOption.comparator();
+    }
+
+    public Predicate<Task> predicate() {
+        Predicate<Task> predicate = filter == null ? TaskFilter.all() : filter.build();
+        if (cursor != null) {
+            Comparator<Task> comparator = comparator();
+            Task probe = cursor.toProbe();
+            predicate = predicate.and(task -> comparator.compare(task, probe) > 0);
+        }
+        return predicate;
+    }
+
+    /**
+     * Applies sort, offset and limit to tasks that already match {@link #predicate()}.
+     * This is the generic execution path used whenever no better access path is
+     * available. Limited, ordered queries keep only offset + limit tasks in a
+     * bounded heap instead of sorting every match.
+     */
+    public List<Task> evaluate(Stream<Task> matches) {
+        return stream(matches).collect(Collectors.toList());
+    }
+
+    /**
+     * Lazy form of {@link #evaluate(Stream)}. Unordered queries stay fully lazy;
+     * ordered ones have to see every match before producing the first result.
+     */
+    public Stream<Task> stream(Stream<Task> matches) {
+        if (!isOrdered()) {
+            Stream<Task> stream = matches;
+            if (offset > 0) {
+                stream = stream.skip(offset);
+            }
+            if (isLimited()) {
+                stream = stream.limit(limit);
+            }
+            return stream;
+        }
+        if (!isLimited()) {
+            return matches.sorted(comparator()).skip(offset);
+        }
+        int k = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        List<Task> top = TopK.select(matches.sequential().iterator(), comparator(), k);
+        return top.stream().skip(offset);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskQuery{" +
+                "sortOption=" + sortOption +
+                ", cursor=" + cursor +
+                ", offset=" + offset +
+                ", limit=" + (isLimited() ? String.valueOf(limit) : "none") +
+                '}';
+    }
+
+    public static class Builder {
+        private TaskFilter filter;
+        private SortOption sortOption;
+        private TaskCursor cursor;
+        private int offset;
+        private int limit = UNLIMITED;
+
+        public Builder filter(TaskFilter filter) {
+            this.filter = filter;
+            return this;
+        }
+
+        public Builder sortBy(SortOption sortOption) {
+            this.sortOption = sortOption;
+            return this;
+        }
+
+        public Builder after(TaskCursor cursor) {
+            this.cursor = cursor;
+            return this;
+        }
+
+        public Builder offset(int offset) {
+            if (offset < 0) {
+                throw new IllegalArgumentException("Offset cannot be negative");
+            }
+            this.offset = offset;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Limit must be positive");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public TaskQuery build() {
+            if (cursor != null && cursor.getSortOption().orElse(null) != sortOption) {
+                throw new IllegalArgumentException("Cursor was created for a different sort option");
+            }
+            return new TaskQuery(this);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.taskmanagement.query;
+
+import com.taskmanagement.model.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public final class TopK {
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private TopK() {
+    }
+
+    /**
+     * Returns the first {@code k} tasks in {@code order}, sorted, keeping at most
+     * {@code k} tasks in memory: O(n log k) time instead of sorting all n matches.
+     */
+    public static List<Task> select(Iterator<Task> tasks, Comparator<Task> order, int k) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        // The head of this max-heap is the worst task kept so far.
+        PriorityQueue<Task> heap = new PriorityQueue<>(Math.min(k, MAX_INITIAL_CAPACITY), order.reversed());
+        while (tasks.hasNext()) {
+            Task task = tasks.next();
+            if (heap.size() < k) {
+                heap.add(task);
+            } else if (order.compare(task, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(task);
+            }
+        }
+        Task[] result = heap.toArray(new Task[0]);
+        Arrays.sort(result, order);
+        return new ArrayList<>(Arrays.asList(result));
+    }
+}
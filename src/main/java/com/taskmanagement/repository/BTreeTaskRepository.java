@@ -0,0 +1,363 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.storage.btree.BTreeTaskStore;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Repository on a {@link BTreeTaskStore}, for data sets larger than the heap.
+ * Every write, and every batch as a whole, is one store transaction: it is
+ * committed before the write lock is released and rolled back if it fails.
+ * Queries with a due date range use the store's due date index when it has one.
+ */
+public class BTreeTaskRepository implements TaskRepository, AutoCloseable {
+    // Tasks read per read-lock acquisition when streaming.
+    private static final int SCAN_CHUNK_TASKS = 1024;
+
+    private final BTreeTaskStore store;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TaskChangeLog changes;
+
+    public BTreeTaskRepository(Path file) {
+        this(BTreeTaskStore.open(file));
+    }
+
+    public BTreeTaskRepository(BTreeTaskStore store) {
+        this(store, null);
+    }
+
+    /**
+     * @param changes log to publish committed changes to, or null
+     */
+    public BTreeTaskRepository(BTreeTaskStore store, TaskChangeLog changes) {
+        if (store == null) {
+            throw new IllegalArgumentException("Store cannot be null");
+        }
+        this.store = store;
+        this.changes = changes;
+    }
+
+    @Override
+    public Task save(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return write(transaction -> store(task, currentVersion(task.getId()) + 1, transaction));
+    }
+
+    @Override
+    public Task compareAndSave(long expectedVersion, Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return write(transaction -> currentVersion(task.getId()) == expectedVersion
+                ? store(task, expectedVersion + 1, transaction) : null);
+    }
+
+    private long currentVersion(String id) {
+        Task current = store.get(id);
+        return current == null ? 0 : current.getVersion();
+    }
+
+    // Records the change; it is claimed on the log once the transaction commits.
+    private Task store(Task task, long version, Changes transaction) {
+        Task stored = task.withVersion(version);
+        transaction.add(store.put(stored), stored);
+        return stored;
+    }
+
+    private Task patch(Task current, TaskPatch patch, Changes transaction) {
+        Task updated = patch.applyTo(current, current.getVersion() + 1);
+        store.put(updated);
+        transaction.add(current, updated);
+        return updated;
+    }
+
+    private boolean delete(String id, Changes transaction) {
+        Task removed = store.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        transaction.add(removed, null);
+        return true;
+    }
+
+    /**
+     * Runs {@code change} as one transaction under the write lock and publishes
+     * its changes once the lock is released. Changes are only claimed on the log
+     * after the commit, so a rolled back transaction leaves no gap in it.
+     */
+    private <T> T write(Function<Changes, T> change) {
+        Changes transaction = new Changes();
+        PendingChanges pending = PendingChanges.of(changes);
+        T result;
+        lock.writeLock().lock();
+        try {
+            result = change.apply(transaction);
+            store.commit();
+            for (int i = 0; i < transaction.befores.size(); i++) {
+                pending.add(transaction.befores.get(i), transaction.afters.get(i));
+            }
+        } catch (RuntimeException e) {
+            store.rollback();
+            throw e;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.publish();
+        return result;
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> saved = new ArrayList<>(tasks);
+        if (saved.contains(null)) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return write(transaction -> {
+            saved.replaceAll(task -> store(task, currentVersion(task.getId()) + 1, transaction));
+            return saved;
+        });
+    }
+
+    @Override
+    public Set<String> insertAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> batch = new ArrayList<>(tasks);
+        if (batch.contains(null)) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return write(transaction -> {
+            Set<String> existing = new HashSet<>();
+            for (Task task : batch) {
+                if (store.get(task.getId()) != null) {
+                    existing.add(task.getId());
+                } else {
+                    store(task, 1, transaction);
+                }
+            }
+            return existing;
+        });
+    }
+
+    @Override
+    public Task patch(String id, TaskPatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Patch cannot be null");
+        }
+        return write(transaction -> {
+            Task current = store.get(id);
+            return current == null ? null : patch(current, patch, transaction);
+        });
+    }
+
+    @Override
+    public Set<String> deleteAllById(Collection<String> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("Ids cannot be null");
+        }
+        return write(transaction -> {
+            Set<String> deleted = new HashSet<>();
+            for (String id : ids) {
+                if (delete(id, transaction)) {
+                    deleted.add(id);
+                }
+            }
+            return deleted;
+        });
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<String> ids, TaskPatch patch) {
+        if (ids == null || patch == null) {
+            throw new IllegalArgumentException("Ids and patch cannot be null");
+        }
+        return write(transaction -> {
+            List<Task> updated = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                Task current = store.get(id);
+                if (current != null) {
+                    updated.add(patch(current, patch, transaction));
+                }
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public Task findById(String id) {
+        return read(() -> store.get(id));
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return findAll(task -> true);
+    }
+
+    @Override
+    public List<Task> findAll(Predicate<Task> filter) {
+        return read(() -> {
+            List<Task> tasks = new ArrayList<>();
+            store.scan(null, Integer.MAX_VALUE, task -> {
+                if (filter.test(task)) {
+                    tasks.add(task);
+                }
+            });
+            return tasks;
+        });
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return write(transaction -> delete(id, transaction));
+    }
+
+    @Override
+    public Optional<TaskChangeLog> changeLog() {
+        return Optional.ofNullable(changes);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return read(() -> store.contains(id));
+    }
+
+    /**
+     * A due date range is read from the index in date order, touching only the
+     * tasks in the range; anything else scans the tasks in id order.
+     */
+    @Override
+    public List<Task> query(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        TaskFilter filter = query.getFilter().orElse(null);
+        Predicate<Task> predicate = query.predicate();
+        List<Task> matches = read(() -> {
+            List<Task> tasks = new ArrayList<>();
+            Consumer<Task> collect = task -> {
+                if (predicate.test(task)) {
+                    tasks.add(task);
+                }
+            };
+            if (filter != null && filter.hasDueDateRange() && store.hasDueDateIndex()) {
+                store.scanByDueDate(filter.getDueDateStart().orElse(null), filter.getDueDateEnd().orElse(null), collect);
+            } else {
+                store.scan(null, Integer.MAX_VALUE, collect);
+            }
+            return tasks;
+        });
+        return query.evaluate(matches.stream());
+    }
+
+    /**
+     * Reads in chunks of tasks in id order, taking the read lock once per chunk,
+     * so a slow consumer never blocks writers for longer than one chunk.
+     */
+    @Override
+    public Stream<Task> stream() {
+        return StreamSupport.stream(new ChunkedScan(), false);
+    }
+
+    @Override
+    public Stream<Task> stream(Predicate<Task> filter) {
+        return filter == null ? stream() : stream().filter(filter);
+    }
+
+    @Override
+    public Stream<Task> stream(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        return query.stream(stream().filter(query.predicate()));
+    }
+
+    public int size() {
+        return read(store::size);
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            store.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private final class Changes {
+        final List<Task> befores = new ArrayList<>();
+        final List<Task> afters = new ArrayList<>();
+
+        void add(Task before, Task after) {
+            if (changes != null) {
+                befores.add(before);
+                afters.add(after);
+            }
+        }
+    }
+
+    private final class ChunkedScan extends Spliterators.AbstractSpliterator<Task> {
+        private final ArrayDeque<Task> buffer = new ArrayDeque<>();
+        private String lastId;
+        private boolean exhausted;
+
+        ChunkedScan() {
+            super(Long.MAX_VALUE, Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Task> action) {
+            if (buffer.isEmpty() && !exhausted) {
+                int read = read(() -> store.scan(lastId, SCAN_CHUNK_TASKS, buffer::add));
+                exhausted = read < SCAN_CHUNK_TASKS;
+                if (read > 0) {
+                    lastId = buffer.peekLast().getId();
+                }
+            }
+            Task task = buffer.poll();
+            if (task == null) {
+                return false;
+            }
+            action.accept(task);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,557 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.cache.BoundedCache;
+import com.taskmanagement.cache.CacheStats;
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskCursor;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.service.SortOption;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache in front of a slower repository. {@link #findById} results
+ * are kept in a cache bounded by the estimated size of the tasks, and query
+ * results ({@link #query}, {@link #findByFilter}, {@link #findAll()}) in a second
+ * one keyed on the filter values, sort option, cursor and page.
+ *
+ * <p>All writes must go through this repository. A write drops the task's entry
+ * and the cached queries it can affect, which an index of the cached queries by
+ * status, priority and result tasks narrows down without reading the delegate:
+ * those that hold the task, and those that the old (if cached) or the new version
+ * matches. When the old version is not cached, queries with an offset are dropped
+ * as well, since the task may have sat before their page. Writes to the same id
+ * are serialized here. A read that overlaps a write to the same lock stripe, or
+ * for queries to the same status or priority, is returned but not cached.
+ *
+ * <p>Streams and {@link #findAll(Predicate)} go straight to the delegate.
+ */
+public class CachingTaskRepository implements TaskRepository {
+    private static final int LOCK_STRIPES = 64;
+    private static final Status[] STATUSES = Status.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    // Rough heap cost of a task without its strings, and of a due date.
+    private static final int TASK_OVERHEAD_BYTES = 120;
+    private static final int DUE_DATE_BYTES = 48;
+
+    private final TaskRepository delegate;
+    private final BoundedCache<String, Task> entries;
+    private final BoundedCache<QueryKey, List<Task>> queries;
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+    // Bumped by every write before it invalidates; a read only caches its result if
+    // the counter it depends on did not move. Tasks depend on their stripe's count,
+    // queries on their status's, else their priority's, else the overall one.
+    private final AtomicLongArray stripeWrites = new AtomicLongArray(LOCK_STRIPES);
+    private final AtomicLongArray statusWrites = new AtomicLongArray(STATUSES.length);
+    private final AtomicLongArray priorityWrites = new AtomicLongArray(PRIORITIES.length);
+    private final AtomicLong writes = new AtomicLong();
+    // Guarded by the monitor of queries.
+    private final QueryIndex queryIndex = new QueryIndex();
+
+    private CachingTaskRepository(Builder builder) {
+        this.delegate = builder.delegate;
+        this.entries = new BoundedCache<>(builder.entryCacheBytes,
+                (int) Math.min(Integer.MAX_VALUE, builder.entryCacheBytes / 256), CachingTaskRepository::weigh);
+        // Query results are weighed in tasks, one extra for the list itself.
+        this.queries = new BoundedCache<>(builder.queryCacheTasks,
+                (int) Math.min(Integer.MAX_VALUE, builder.queryCacheTasks / 64), tasks -> tasks.size() + 1,
+                queryIndex::remove);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public static CachingTaskRepository of(TaskRepository delegate) {
+        return new Builder(delegate).build();
+    }
+
+    @Override
+    public Task findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        Task cached = entries.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(id);
+        long before = stripeWrites.get(stripe);
+        Task task = delegate.findById(id);
+        if (task != null && stripeWrites.get(stripe) == before) {
+            cacheEntry(stripe, before, task);
+        }
+        return task;
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return findById(id) != null;
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return query(new TaskQuery.Builder().build());
+    }
+
+    @Override
+    public List<Task> findAll(Predicate<Task> filter) {
+        return delegate.findAll(filter);
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        QueryKey key = new QueryKey(query);
+        List<Task> cached = queries.get(key);
+        if (cached == null) {
+            long before = writesAffecting(key);
+            cached = delegate.query(query);
+            if (writesAffecting(key) == before) {
+                cacheQuery(before, key, new ArrayList<>(cached));
+            }
+        }
+        return new ArrayList<>(cached);
+    }
+
+    @Override
+    public Stream<Task> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public Stream<Task> stream(Predicate<Task> filter) {
+        return delegate.stream(filter);
+    }
+
+    @Override
+    public Stream<Task> stream(TaskQuery query) {
+        return delegate.stream(query);
+    }
+
+    @Override
+    public Task save(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return write(task.getId(), () -> delegate.save(task));
+    }
+
+    @Override
+    public Task compareAndSave(long expectedVersion, Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return write(task.getId(), () -> delegate.compareAndSave(expectedVersion, task));
+    }
+
+    @Override
+    public Task patch(String id, TaskPatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Patch cannot be null");
+        }
+        if (id == null) {
+            return null;
+        }
+        return write(id, () -> delegate.patch(id, patch));
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        if (id == null) {
+            return false;
+        }
+        boolean[] deleted = new boolean[1];
+        write(id, () -> {
+            deleted[0] = delegate.deleteById(id);
+            return null;
+        });
+        return deleted[0];
+    }
+
+    /**
+     * Batches hold every stripe while the delegate applies them in one go, then
+     * drop the affected ids and every cached query.
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        return writeAll(() -> delegate.saveAll(tasks),
+                saved -> saved.forEach(task -> entries.remove(task.getId())));
+    }
+
+    @Override
+    public Set<String> insertAll(Collection<Task> tasks) {
+        return writeAll(() -> delegate.insertAll(tasks), existing -> tasks.stream()
+                .map(Task::getId)
+                .filter(id -> !existing.contains(id))
+                .forEach(entries::remove));
+    }
+
+    @Override
+    public Set<String> deleteAllById(Collection<String> ids) {
+        return writeAll(() -> delegate.deleteAllById(ids), deleted -> deleted.forEach(entries::remove));
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<String> ids, TaskPatch patch) {
+        return writeAll(() -> delegate.updateAll(ids, patch),
+                updated -> updated.forEach(task -> entries.remove(task.getId())));
+    }
+
+    @Override
+    public Optional<TaskChangeLog> changeLog() {
+        return delegate.changeLog();
+    }
+
+    public CacheStats entryStats() {
+        return entries.stats();
+    }
+
+    public CacheStats queryStats() {
+        return queries.stats();
+    }
+
+    /**
+     * Drops every cached task and query result.
+     */
+    public void invalidateAll() {
+        bumpAll();
+        entries.clear();
+        synchronized (queries) {
+            queries.clear();
+            queryIndex.clear();
+        }
+    }
+
+    /**
+     * Runs {@code operation}, which writes the task and returns the stored
+     * version (null if the task is gone or unchanged), then drops what it made
+     * stale.
+     */
+    private Task write(String id, Supplier<Task> operation) {
+        int stripe = stripe(id);
+        stripes[stripe].lock();
+        try {
+            // A cached entry is current: it is dropped by every write to the id,
+            // and those are serialized by the stripe.
+            Task previous = entries.peek(id);
+            Task stored = operation.get();
+            stripeWrites.incrementAndGet(stripe);
+            writes.incrementAndGet();
+            bump(statusWrites, previous == null ? null : previous.getStatus());
+            bump(priorityWrites, previous == null ? null : previous.getPriority());
+            if (stored != null) {
+                bump(statusWrites, stored.getStatus());
+                bump(priorityWrites, stored.getPriority());
+            }
+            entries.remove(id);
+            synchronized (queries) {
+                for (QueryKey key : queryIndex.affectedBy(id, previous, stored)) {
+                    queryIndex.remove(key, queries.peek(key));
+                    queries.remove(key);
+                }
+            }
+            return stored;
+        } finally {
+            stripes[stripe].unlock();
+        }
+    }
+
+    private <T> T writeAll(Supplier<T> operation, Consumer<T> invalidateEntries) {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+        try {
+            T result = operation.get();
+            bumpAll();
+            invalidateEntries.accept(result);
+            synchronized (queries) {
+                queries.clear();
+                queryIndex.clear();
+            }
+            return result;
+        } finally {
+            for (ReentrantLock stripe : stripes) {
+                stripe.unlock();
+            }
+        }
+    }
+
+    private static int stripe(String id) {
+        return (id.hashCode() & 0x7fffffff) % LOCK_STRIPES;
+    }
+
+    // Bumps the count of the value, or of every value when it is not known.
+    private static void bump(AtomicLongArray counts, Enum<?> value) {
+        if (value != null) {
+            counts.incrementAndGet(value.ordinal());
+            return;
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            counts.incrementAndGet(i);
+        }
+    }
+
+    private void bumpAll() {
+        bump(stripeWrites, null);
+        bump(statusWrites, null);
+        bump(priorityWrites, null);
+        writes.incrementAndGet();
+    }
+
+    private long writesAffecting(QueryKey key) {
+        if (key.status != null) {
+            return statusWrites.get(key.status.ordinal());
+        }
+        return key.priority != null ? priorityWrites.get(key.priority.ordinal()) : writes.get();
+    }
+
+    // The check and the insert have to be atomic against a writer's invalidation,
+    // which takes the same monitor after bumping the write counter.
+    private void cacheEntry(int stripe, long expectedWrites, Task task) {
+        synchronized (entries) {
+            if (stripeWrites.get(stripe) == expectedWrites) {
+                entries.put(task.getId(), task);
+            }
+        }
+    }
+
+    private void cacheQuery(long expectedWrites, QueryKey key, List<Task> tasks) {
+        synchronized (queries) {
+            if (writesAffecting(key) != expectedWrites) {
+                return;
+            }
+            List<Task> replaced = queries.peek(key);
+            if (replaced != null) {
+                queryIndex.remove(key, replaced);
+            }
+            if (queries.put(key, tasks)) {
+                queryIndex.add(key, tasks);
+            }
+        }
+    }
+
+    private static int weigh(Task task) {
+        int chars = task.getId().length() + task.getTitle().length()
+                + task.getDescription().map(String::length).orElse(0);
+        return TASK_OVERHEAD_BYTES + 2 * chars + (task.getDueDate().isPresent() ? DUE_DATE_BYTES : 0);
+    }
+
+    /**
+     * The cached queries by the status they filter on, else by the priority, else
+     * unkeyed, and by the tasks in their results. A task can only affect queries
+     * keyed by its status or priority, unkeyed ones, and ones whose results hold it.
+     */
+    private static final class QueryIndex {
+        private final Map<Status, Set<QueryKey>> byStatus = new EnumMap<>(Status.class);
+        private final Map<Priority, Set<QueryKey>> byPriority = new EnumMap<>(Priority.class);
+        private final Set<QueryKey> unkeyed = new HashSet<>();
+        private final Set<QueryKey> withOffset = new HashSet<>();
+        private final Map<String, Set<QueryKey>> byTask = new HashMap<>();
+
+        void add(QueryKey key, List<Task> tasks) {
+            bucket(key).add(key);
+            if (key.offset > 0) {
+                withOffset.add(key);
+            }
+            for (Task task : tasks) {
+                byTask.computeIfAbsent(task.getId(), id -> new HashSet<>()).add(key);
+            }
+        }
+
+        void remove(QueryKey key, List<Task> tasks) {
+            bucket(key).remove(key);
+            withOffset.remove(key);
+            if (tasks == null) {
+                return;
+            }
+            for (Task task : tasks) {
+                Set<QueryKey> keys = byTask.get(task.getId());
+                if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                    byTask.remove(task.getId());
+                }
+            }
+        }
+
+        void clear() {
+            byStatus.clear();
+            byPriority.clear();
+            unkeyed.clear();
+            withOffset.clear();
+            byTask.clear();
+        }
+
+        /**
+         * The queries a write of task {@code id} from {@code previous} to
+         * {@code stored} can change; a null {@code previous} is not known.
+         */
+        Set<QueryKey> affectedBy(String id, Task previous, Task stored) {
+            Set<QueryKey> affected = new HashSet<>(byTask.getOrDefault(id, Set.of()));
+            if (previous == null) {
+                affected.addAll(withOffset);
+            }
+            for (Task version : new Task[] {previous, stored}) {
+                if (version == null) {
+                    continue;
+                }
+                for (QueryKey key : candidates(version)) {
+                    if (key.mayContain(previous) || key.mayContain(stored)) {
+                        affected.add(key);
+                    }
+                }
+            }
+            return affected;
+        }
+
+        private List<QueryKey> candidates(Task task) {
+            List<QueryKey> candidates = new ArrayList<>(unkeyed);
+            if (task.getStatus() != null) {
+                candidates.addAll(byStatus.getOrDefault(task.getStatus(), Set.of()));
+            } else {
+                byStatus.values().forEach(candidates::addAll);
+            }
+            if (task.getPriority() != null) {
+                candidates.addAll(byPriority.getOrDefault(task.getPriority(), Set.of()));
+            } else {
+                byPriority.values().forEach(candidates::addAll);
+            }
+            return candidates;
+        }
+
+        private Set<QueryKey> bucket(QueryKey key) {
+            if (key.status != null) {
+                return byStatus.computeIfAbsent(key.status, status -> new HashSet<>());
+            }
+            return key.priority != null
+                    ? byPriority.computeIfAbsent(key.priority, priority -> new HashSet<>())
+                    : unkeyed;
+        }
+    }
+
+    /**
+     * A query reduced to its values, since {@link TaskFilter} is mutable.
+     */
+    private static final class QueryKey {
+        private final Status status;
+        private final Priority priority;
+        private final LocalDateTime dueDateStart;
+        private final LocalDateTime dueDateEnd;
+        private final String text;
+        private final SortOption sortOption;
+        private final TaskCursor cursor;
+        private final int offset;
+        private final int limit;
+        private final Predicate<Task> predicate;
+
+        QueryKey(TaskQuery query) {
+            TaskFilter filter = query.getFilter().orElse(null);
+            this.status = filter == null ? null : filter.getStatus().orElse(null);
+            this.priority = filter == null ? null : filter.getPriority().orElse(null);
+            this.dueDateStart = filter == null ? null : filter.getDueDateStart().orElse(null);
+            this.dueDateEnd = filter == null ? null : filter.getDueDateEnd().orElse(null);
+            this.text = filter == null ? null : filter.getText().orElse(null);
+            this.sortOption = query.getSortOption().orElse(null);
+            this.cursor = query.getCursor().orElse(null);
+            this.offset = query.getOffset();
+            this.limit = query.getLimit();
+            TaskFilter copy = TaskFilter.builder()
+                    .byStatus(status)
+                    .byPriority(priority)
+                    .byDueDateRange(dueDateStart, dueDateEnd)
+                    .byText(text);
+            this.predicate = new TaskQuery.Builder().filter(copy).sortBy(sortOption).after(cursor).build().predicate();
+        }
+
+        /**
+         * Whether a task could be part of this query's result, ignoring the page.
+         */
+        boolean mayContain(Task task) {
+            return task != null && predicate.test(task);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            QueryKey that = (QueryKey) o;
+            return offset == that.offset
+                    && limit == that.limit
+                    && status == that.status
+                    && priority == that.priority
+                    && sortOption == that.sortOption
+                    && Objects.equals(dueDateStart, that.dueDateStart)
+                    && Objects.equals(dueDateEnd, that.dueDateEnd)
+                    && Objects.equals(text, that.text)
+                    && Objects.equals(cursor, that.cursor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, priority, dueDateStart, dueDateEnd, text, sortOption, cursor, offset, limit);
+        }
+    }
+
+    public static class Builder {
+        private final TaskRepository delegate;
+        private long entryCacheBytes = 64L * 1024 * 1024;
+        private long queryCacheTasks = 100_000;
+
+        public Builder(TaskRepository delegate) {
+            if (delegate == null) {
+                throw new IllegalArgumentException("Delegate repository cannot be null");
+            }
+            this.delegate = delegate;
+        }
+
+        /**
+         * Upper bound on the estimated heap size of cached tasks; 0 disables the
+         * entry cache.
+         */
+        public Builder entryCacheBytes(long bytes) {
+            if (bytes < 0) {
+                throw new IllegalArgumentException("Entry cache size cannot be negative");
+            }
+            this.entryCacheBytes = bytes;
+            return this;
+        }
+
+        /**
+         * Upper bound on the number of tasks held across all cached query results;
+         * 0 disables the query cache.
+         */
+        public Builder queryCacheTasks(long tasks) {
+            if (tasks < 0) {
+                throw new IllegalArgumentException("Query cache size cannot be negative");
+            }
+            this.queryCacheTasks = tasks;
+            return this;
+        }
+
+        public CachingTaskRepository build() {
+            return new CachingTaskRepository(this);
+        }
+    }
+}
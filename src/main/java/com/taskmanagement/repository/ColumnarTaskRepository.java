@@ -0,0 +1,403 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.storage.columnar.ColumnarTaskStore;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Repository for datasets too large to keep as {@link Task} objects on the heap.
+ * Tasks live in a {@link ColumnarTaskStore}; filter criteria are evaluated on its
+ * primitive columns and only matching rows are turned into tasks.
+ */
+public class ColumnarTaskRepository implements TaskRepository, AutoCloseable {
+    // Rows scanned per read-lock acquisition when streaming.
+    private static final int SCAN_CHUNK_ROWS = 4096;
+
+    private final ColumnarTaskStore store;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TaskChangeLog changes;
+
+    public ColumnarTaskRepository(Path directory) {
+        this(ColumnarTaskStore.open(directory));
+    }
+
+    public ColumnarTaskRepository(ColumnarTaskStore store) {
+        this(store, null);
+    }
+
+    /**
+     * @param changes log to publish committed changes to, or null
+     */
+    public ColumnarTaskRepository(ColumnarTaskStore store, TaskChangeLog changes) {
+        if (store == null) {
+            throw new IllegalArgumentException("Store cannot be null");
+        }
+        this.store = store;
+        this.changes = changes;
+    }
+
+    @Override
+    public Task save(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        PendingChanges pending = PendingChanges.of(changes);
+        Task stored;
+        lock.writeLock().lock();
+        try {
+            stored = store(task, currentVersion(task.getId()) + 1, pending);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.publish();
+        return stored;
+    }
+
+    @Override
+    public Task compareAndSave(long expectedVersion, Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        PendingChanges pending = PendingChanges.of(changes);
+        Task stored;
+        lock.writeLock().lock();
+        try {
+            stored = currentVersion(task.getId()) == expectedVersion ? store(task, expectedVersion + 1, pending) : null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.publish();
+        return stored;
+    }
+
+    private long currentVersion(String id) {
+        int row = store.rowOf(id);
+        return row < 0 ? 0 : store.version(row);
+    }
+
+    // Claims the change while the write lock fixes the order of writes.
+    private Task store(Task task, long version, PendingChanges pending) {
+        Task stored = task.withVersion(version);
+        if (changes != null) {
+            int row = store.rowOf(task.getId());
+            pending.add(row < 0 ? null : store.read(row), stored);
+        }
+        store.save(stored);
+        return stored;
+    }
+
+    private Task patchRow(int row, TaskPatch patch, PendingChanges pending) {
+        Task current = store.read(row);
+        Task updated = patch.applyTo(current, store.version(row) + 1);
+        pending.add(current, updated);
+        store.save(updated);
+        return updated;
+    }
+
+    private boolean delete(String id, PendingChanges pending) {
+        if (changes != null) {
+            int row = store.rowOf(id);
+            if (row < 0) {
+                return false;
+            }
+            pending.add(store.read(row), null);
+        }
+        return store.delete(id);
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> saved = new ArrayList<>(tasks);
+        if (saved.contains(null)) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        PendingChanges pending = PendingChanges.of(changes);
+        lock.writeLock().lock();
+        try {
+            saved.replaceAll(task -> store(task, currentVersion(task.getId()) + 1, pending));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.publish();
+        return saved;
+    }
+
+    @Override
+    public Set<String> insertAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> batch = new ArrayList<>(tasks);
+        if (batch.contains(null)) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        Set<String> existing = new HashSet<>();
+        PendingChanges pending = PendingChanges.of(changes);
+        lock.writeLock().lock();
+        try {
+            for (Task task : batch) {
+                if (store.rowOf(task.getId()) >= 0) {
+                    existing.add(task.getId());
+                } else {
+                    store(task, 1, pending);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.publish();
+        return existing;
+    }
+
+    @Override
+    public Task patch(String id, TaskPatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Patch cannot be null");
+        }
+        PendingChanges pending = PendingChanges.of(changes);
+        Task updated;
+        lock.writeLock().lock();
+        try {
+            int row = store.rowOf(id);
+            updated = row < 0 ? null : patchRow(row, patch, pending);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.publish();
+        return updated;
+    }
+
+    @Override
+    public Set<String> deleteAllById(Collection<String> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("Ids cannot be null");
+        }
+        Set<String> deleted = new HashSet<>();
+        PendingChanges pending = PendingChanges.of(changes);
+        lock.writeLock().lock();
+        try {
+            for (String id : ids) {
+                if (delete(id, pending)) {
+                    deleted.add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.publish();
+        return deleted;
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<String> ids, TaskPatch patch) {
+        if (ids == null || patch == null) {
+            throw new IllegalArgumentException("Ids and patch cannot be null");
+        }
+        List<Task> updated = new ArrayList<>(ids.size());
+        PendingChanges pending = PendingChanges.of(changes);
+        lock.writeLock().lock();
+        try {
+            for (String id : ids) {
+                int row = store.rowOf(id);
+                if (row >= 0) {
+                    updated.add(patchRow(row, patch, pending));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.publish();
+        return updated;
+    }
+
+    @Override
+    public Task findById(String id) {
+        lock.readLock().lock();
+        try {
+            int row = store.rowOf(id);
+            return row < 0 ? null : store.read(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return findAll(task -> true);
+    }
+
+    @Override
+    public List<Task> findAll(Predicate<Task> filter) {
+        lock.readLock().lock();
+        try {
+            return store.rows(null).mapToObj(store::read).filter(filter).collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        PendingChanges pending = PendingChanges.of(changes);
+        boolean deleted;
+        lock.writeLock().lock();
+        try {
+            deleted = delete(id, pending);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.publish();
+        return deleted;
+    }
+
+    @Override
+    public Optional<TaskChangeLog> changeLog() {
+        return Optional.ofNullable(changes);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        lock.readLock().lock();
+        try {
+            return store.rowOf(id) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scans the filter's columns first, then materializes only the matching rows.
+     * Without a sort the stream stays lazy, so a limited query stops reading rows
+     * as soon as the page is full.
+     */
+    @Override
+    public List<Task> query(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        lock.readLock().lock();
+        try {
+            return query.evaluate(store.rows(query.getFilter().orElse(null))
+                    .mapToObj(store::read)
+                    .filter(query.predicate()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scans in chunks of rows, taking the read lock once per chunk, so a slow
+     * consumer never blocks writers for longer than one chunk. A task that is
+     * deleted and saved again while the stream runs may be seen twice.
+     */
+    @Override
+    public Stream<Task> stream() {
+        return scan(null);
+    }
+
+    @Override
+    public Stream<Task> stream(Predicate<Task> filter) {
+        return filter == null ? scan(null) : scan(null).filter(filter);
+    }
+
+    @Override
+    public Stream<Task> stream(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        return query.stream(scan(query.getFilter().orElse(null)).filter(query.predicate()));
+    }
+
+    private Stream<Task> scan(TaskFilter filter) {
+        return StreamSupport.stream(new ChunkedScan(filter), false);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return store.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            store.flush();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            store.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private final class ChunkedScan extends Spliterators.AbstractSpliterator<Task> {
+        private final TaskFilter filter;
+        private final ArrayDeque<Task> buffer = new ArrayDeque<>();
+        private int nextRow;
+
+        ChunkedScan(TaskFilter filter) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL);
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Task> action) {
+            while (buffer.isEmpty()) {
+                if (!fill()) {
+                    return false;
+                }
+            }
+            action.accept(buffer.poll());
+            return true;
+        }
+
+        private boolean fill() {
+            lock.readLock().lock();
+            try {
+                if (nextRow >= store.rowCount()) {
+                    return false;
+                }
+                int to = (int) Math.min((long) nextRow + SCAN_CHUNK_ROWS, store.rowCount());
+                store.rows(filter, nextRow, to).forEach(row -> buffer.add(store.read(row)));
+                nextRow = to;
+                return true;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
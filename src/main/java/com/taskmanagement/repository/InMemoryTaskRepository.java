@@ -1,19 +1,59 @@
 package com.taskmanagement.repository;
 
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
 import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.AccessPath;
+import com.taskmanagement.query.CostBasedQueryPlanner;
+import com.taskmanagement.query.QueryPlan;
+import com.taskmanagement.query.QueryPlanner;
+import com.taskmanagement.query.TaskCursor;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.service.SortOption;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.function.Predicate;
 
 
 public class InMemoryTaskRepository implements TaskRepository {
-    private final Map<String, Task> tasks;
+    // Below this many items a batch is applied on the calling thread.
+    static final int PARALLEL_THRESHOLD = 10_000;
+
+    private final ConcurrentHashMap<String, Task> tasks;
+    private final TaskIndex index;
+    private final QueryPlanner planner;
+    private final TaskChangeLog changes;
+    private final int parallelQueryThreshold;
+    private final ForkJoinPool queryPool;
 
     public InMemoryTaskRepository() {
+        this(new Builder());
+    }
+
+    public InMemoryTaskRepository(QueryPlanner planner) {
+        this(new Builder().queryPlanner(planner));
+    }
+
+    private InMemoryTaskRepository(Builder builder) {
         this.tasks = new ConcurrentHashMap<>();
+        this.index = new TaskIndex(builder.sortedViews);
+        this.planner = builder.planner;
+        this.changes = builder.changes;
+        this.parallelQueryThreshold = builder.parallelQueryThreshold;
+        this.queryPool = builder.queryPool;
     }
 
     @Override
@@ -21,8 +61,90 @@ public class InMemoryTaskRepository implements TaskRepository {
         if (task == null) {
             throw new IllegalArgumentException("Task cannot be null");
         }
-        tasks.put(task.getId(), task);
-        return task;
+        requireIndexable(task);
+        PendingChanges pending = PendingChanges.of(changes);
+        Task stored = tasks.compute(task.getId(), (id, previous) -> {
+            Task next = task.withVersion(previous == null ? 1 : previous.getVersion() + 1);
+            index.update(previous, next);
+            pending.add(previous, next);
+            return next;
+        });
+        pending.publish();
+        return stored;
+    }
+
+    /**
+     * Only the bin holding the id is locked while the version is checked, so
+     * writers to other tasks never wait on each other.
+     */
+    @Override
+    public Task compareAndSave(long expectedVersion, Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        requireIndexable(task);
+        Task current = tasks.get(task.getId());
+        if ((current == null ? 0 : current.getVersion()) != expectedVersion) {
+            return null;
+        }
+        Task[] stored = new Task[1];
+        PendingChanges pending = PendingChanges.of(changes);
+        tasks.compute(task.getId(), (id, previous) -> {
+            if ((previous == null ? 0 : previous.getVersion()) != expectedVersion) {
+                return previous;
+            }
+            stored[0] = task.withVersion(expectedVersion + 1);
+            index.update(previous, stored[0]);
+            pending.add(previous, stored[0]);
+            return stored[0];
+        });
+        pending.publish();
+        return stored[0];
+    }
+
+    /**
+     * Applies the patch inside {@code compute}, copying the task once and touching
+     * only the indexes whose field changed.
+     */
+    @Override
+    public Task patch(String id, TaskPatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Patch cannot be null");
+        }
+        if (id == null) {
+            return null;
+        }
+        PendingChanges pending = PendingChanges.of(changes);
+        Task patched = tasks.computeIfPresent(id, (key, previous) -> {
+            Task updated = patch.applyTo(previous, previous.getVersion() + 1);
+            index.update(previous, updated);
+            pending.add(previous, updated);
+            return updated;
+        });
+        pending.publish();
+        return patched;
+    }
+
+    /**
+     * Stores the task exactly as given, version included, without publishing a
+     * change. Used when recovering state that was already versioned by an earlier
+     * save.
+     */
+    void restore(Task task) {
+        tasks.compute(task.getId(), (id, previous) -> {
+            index.update(previous, task);
+            return task;
+        });
+    }
+
+    // The status and priority indexes have no slot for a missing value.
+    private static void requireIndexable(Task task) {
+        if (task.getStatus() == null) {
+            throw new IllegalArgumentException("Task status cannot be null");
+        }
+        if (task.getPriority() == null) {
+            throw new IllegalArgumentException("Task priority cannot be null");
+        }
     }
 
     @Override
@@ -44,17 +166,248 @@ public class InMemoryTaskRepository implements TaskRepository {
         if (filter == null) {
             return findAll();
         }
+        if (scansInParallel()) {
+            return ParallelTaskScan.collect(queryPool, tasks.values().spliterator(), filter, null, Integer.MAX_VALUE);
+        }
         return tasks.values().stream()
                 .filter(filter)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Stream<Task> stream() {
+        return tasks.values().stream();
+    }
+
+    @Override
+    public Stream<Task> stream(Predicate<Task> filter) {
+        return filter == null ? stream() : tasks.values().stream().filter(filter);
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query) {
+        return stream(query).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Task> stream(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        QueryPlan plan = planner.plan(query, index);
+        Predicate<Task> predicate = query.predicate();
+        if (plan.getAccessPath() == AccessPath.FULL_SCAN && !plan.isSortPushedDown()
+                && (query.isOrdered() || !query.isLimited()) && scansInParallel()) {
+            return parallelScan(query, predicate);
+        }
+        Stream<Task> matches;
+        if (plan.getAccessPath() == AccessPath.SORTED_VIEW) {
+            SortOption sortOption = query.getSortOption().get();
+            Task after = query.getCursor().map(TaskCursor::toProbe).orElse(null);
+            matches = index.ordered(sortOption, after)
+                    .map(viewed -> {
+                        Task current = tasks.get(viewed.getId());
+                        return current != null && SortedTaskViews.sameKey(sortOption, viewed, current) ? current : null;
+                    })
+                    .filter(Objects::nonNull)
+                    .filter(predicate);
+        } else {
+            matches = candidates(query, plan).filter(predicate);
+        }
+
+        if (!plan.isSortPushedDown()) {
+            return query.stream(matches);
+        }
+        // Candidates already arrive in sort order; a task re-keyed while we iterate
+        // can show up under both its old and new position.
+        matches = matches.distinct().skip(query.getOffset());
+        if (query.isLimited()) {
+            matches = matches.limit(query.getLimit());
+        }
+        return matches;
+    }
+
+    private boolean scansInParallel() {
+        return tasks.size() >= parallelQueryThreshold;
+    }
+
+    /**
+     * Full scans of large maps filter and sort in fork-join tasks over parts of the
+     * map. Unordered limited queries stay sequential, as their lazy stream stops
+     * after the first matches anyway.
+     */
+    private Stream<Task> parallelScan(TaskQuery query, Predicate<Task> predicate) {
+        Comparator<Task> order = query.isOrdered() ? query.comparator() : null;
+        int wanted = query.isLimited()
+                ? (int) Math.min((long) query.getOffset() + query.getLimit(), Integer.MAX_VALUE)
+                : Integer.MAX_VALUE;
+        List<Task> matches = ParallelTaskScan.collect(queryPool, tasks.values().spliterator(),
+                predicate, order, wanted);
+        return matches.stream().skip(query.getOffset());
+    }
+
+    public QueryPlan explain(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        return planner.plan(query, index);
+    }
+
+    /**
+     * The tasks the access path reads. Index paths resolve ids to the current
+     * tasks, skipping ids removed since; a full scan streams the map's values.
+     */
+    private Stream<Task> candidates(TaskQuery query, QueryPlan plan) {
+        if (plan.getAccessPath() == AccessPath.FULL_SCAN) {
+            return tasks.values().stream();
+        }
+        return candidateIds(query, plan).map(tasks::get).filter(Objects::nonNull);
+    }
+
+    private Stream<String> candidateIds(TaskQuery query, QueryPlan plan) {
+        TaskFilter filter = query.getFilter().orElse(null);
+        switch (plan.getAccessPath()) {
+            case STATUS_INDEX:
+                return index.idsByStatus(filter.getStatus().get()).stream();
+            case PRIORITY_INDEX:
+                return index.idsByPriority(filter.getPriority().get()).stream();
+            case DUE_DATE_INDEX:
+                LocalDateTime start = filter.getDueDateStart().orElse(null);
+                LocalDateTime end = filter.getDueDateEnd().orElse(null);
+                boolean descending = plan.isSortPushedDown()
+                        && query.getSortOption().get() == SortOption.DUE_DATE_DESC;
+                // When walking in sort order, seek straight to the cursor position.
+                LocalDateTime cursorDueDate = plan.isSortPushedDown()
+                        ? query.getCursor().flatMap(TaskCursor::getDueDate).orElse(null)
+                        : null;
+                if (cursorDueDate != null && descending) {
+                    end = end == null || cursorDueDate.isBefore(end) ? cursorDueDate : end;
+                } else if (cursorDueDate != null) {
+                    start = start == null || cursorDueDate.isAfter(start) ? cursorDueDate : start;
+                }
+                if (start != null && end != null && start.isAfter(end)) {
+                    return Stream.empty();
+                }
+                return index.idsByDueDateRange(start, end, descending);
+            default:
+                throw new IllegalStateException("Unexpected access path: " + plan.getAccessPath());
+        }
+    }
+
     @Override
     public boolean deleteById(String id) {
         if (id == null) {
             return false;
         }
-        return tasks.remove(id) != null;
+        Task[] removed = new Task[1];
+        PendingChanges pending = PendingChanges.of(changes);
+        tasks.computeIfPresent(id, (key, previous) -> {
+            index.update(previous, null);
+            removed[0] = previous;
+            pending.add(previous, null);
+            return null;
+        });
+        pending.publish();
+        return removed[0] != null;
+    }
+
+    /**
+     * Large batches are applied in parallel; every task is still updated atomically
+     * with its index entries. A batch that repeats an id is applied sequentially so
+     * that the last occurrence wins, as it would with individual saves.
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> saved = new ArrayList<>(batch);
+        Set<String> ids = new HashSet<>();
+        boolean duplicates = false;
+        for (Task task : saved) {
+            if (task == null) {
+                throw new IllegalArgumentException("Task cannot be null");
+            }
+            requireIndexable(task);
+            duplicates |= !ids.add(task.getId());
+        }
+        if (saved.size() >= PARALLEL_THRESHOLD && !duplicates) {
+            return saved.parallelStream().map(this::save).collect(Collectors.toList());
+        }
+        saved.replaceAll(this::save);
+        return saved;
+    }
+
+    /**
+     * Each id is checked and inserted atomically in its own bin, as with
+     * {@link #compareAndSave}; the batch's changes are published together.
+     */
+    @Override
+    public Set<String> insertAll(Collection<Task> batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> inserts = new ArrayList<>(batch);
+        for (Task task : inserts) {
+            if (task == null) {
+                throw new IllegalArgumentException("Task cannot be null");
+            }
+            requireIndexable(task);
+        }
+        Set<String> existing = new HashSet<>();
+        PendingChanges pending = PendingChanges.of(changes);
+        try {
+            for (Task task : inserts) {
+                Task stored = task.withVersion(1);
+                Task current = tasks.computeIfAbsent(task.getId(), id -> {
+                    index.update(null, stored);
+                    pending.add(null, stored);
+                    return stored;
+                });
+                if (current != stored) {
+                    existing.add(task.getId());
+                }
+            }
+        } finally {
+            pending.publish();
+        }
+        return existing;
+    }
+
+    @Override
+    public Set<String> deleteAllById(Collection<String> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("Ids cannot be null");
+        }
+        Stream<String> stream = ids.size() >= PARALLEL_THRESHOLD ? ids.parallelStream() : ids.stream();
+        return stream.filter(this::deleteById).collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<String> ids, TaskPatch patch) {
+        if (ids == null || patch == null) {
+            throw new IllegalArgumentException("Ids and patch cannot be null");
+        }
+        Stream<String> stream = ids.size() >= PARALLEL_THRESHOLD ? ids.parallelStream() : ids.stream();
+        return stream.map(id -> patch(id, patch))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<TaskChangeLog> changeLog() {
+        return Optional.ofNullable(changes);
+    }
+
+    /**
+     * Removes the task without publishing a change; the counterpart of
+     * {@link #restore(Task)}.
+     */
+    void discard(String id) {
+        tasks.computeIfPresent(id, (key, previous) -> {
+            index.update(previous, null);
+            return null;
+        });
     }
 
     @Override
@@ -64,5 +417,60 @@ public class InMemoryTaskRepository implements TaskRepository {
         }
         return tasks.containsKey(id);
     }
-}
 
+    public static class Builder {
+        private QueryPlanner planner = new CostBasedQueryPlanner();
+        private boolean sortedViews;
+        private TaskChangeLog changes;
+        private int parallelQueryThreshold = Integer.MAX_VALUE;
+        private ForkJoinPool queryPool = ForkJoinPool.commonPool();
+
+        public Builder queryPlanner(QueryPlanner planner) {
+            if (planner == null) {
+                throw new IllegalArgumentException("Query planner cannot be null");
+            }
+            this.planner = planner;
+            return this;
+        }
+
+        public Builder sortedViews(boolean sortedViews) {
+            this.sortedViews = sortedViews;
+            return this;
+        }
+
+        /**
+         * Publishes every save, patch and delete to {@code changes}.
+         */
+        public Builder changeLog(TaskChangeLog changes) {
+            this.changes = changes;
+            return this;
+        }
+
+        /**
+         * Full-scan filters and sorts run as fork-join tasks once the repository holds
+         * at least this many tasks; off by default.
+         */
+        public Builder parallelQueryThreshold(int parallelQueryThreshold) {
+            if (parallelQueryThreshold < 0) {
+                throw new IllegalArgumentException("Parallel query threshold cannot be negative");
+            }
+            this.parallelQueryThreshold = parallelQueryThreshold;
+            return this;
+        }
+
+        /**
+         * Pool that parallel scans run in; defaults to the common pool.
+         */
+        public Builder queryPool(ForkJoinPool queryPool) {
+            if (queryPool == null) {
+                throw new IllegalArgumentException("Query pool cannot be null");
+            }
+            this.queryPool = queryPool;
+            return this;
+        }
+
+        public InMemoryTaskRepository build() {
+            return new InMemoryTaskRepository(this);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.storage.lsm.LsmStats;
+import com.taskmanagement.storage.lsm.LsmTaskStore;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Repository on an {@link LsmTaskStore}, for write-heavy workloads: an update
+ * appends to the log and the memtable instead of rewriting the task in place.
+ * As in {@link PersistentTaskRepository}, the version check and the write share
+ * a lock, the fsync is awaited after it is released, and changes are published
+ * to the change log once durable. Changes already written when a write fails,
+ * in the sync or on a later item of a batch, are published as well.
+ */
+public class LsmTaskRepository implements TaskRepository, AutoCloseable {
+    // Tasks read per scan when streaming.
+    private static final int SCAN_CHUNK_TASKS = 1024;
+
+    private final LsmTaskStore store;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final TaskChangeLog changes;
+
+    public LsmTaskRepository(Path directory) {
+        this(LsmTaskStore.open(directory));
+    }
+
+    public LsmTaskRepository(LsmTaskStore store) {
+        this(store, null);
+    }
+
+    /**
+     * @param changes log to publish durable changes to, or null
+     */
+    public LsmTaskRepository(LsmTaskStore store, TaskChangeLog changes) {
+        if (store == null) {
+            throw new IllegalArgumentException("Store cannot be null");
+        }
+        this.store = store;
+        this.changes = changes;
+    }
+
+    @Override
+    public Task save(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return saveAll(List.of(task)).get(0);
+    }
+
+    @Override
+    public Task compareAndSave(long expectedVersion, Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        PendingChanges pending = PendingChanges.of(changes);
+        Task stored;
+        long lsn;
+        try {
+            writeLock.lock();
+            try {
+                Task existing = store.get(task.getId());
+                if ((existing == null ? 0 : existing.getVersion()) != expectedVersion) {
+                    return null;
+                }
+                stored = task.withVersion(expectedVersion + 1);
+                lsn = store.put(stored);
+                pending.add(existing, stored);
+            } finally {
+                writeLock.unlock();
+            }
+            store.awaitDurable(lsn);
+        } finally {
+            pending.publish();
+        }
+        return stored;
+    }
+
+    @Override
+    public Task patch(String id, TaskPatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Patch cannot be null");
+        }
+        List<Task> updated = updateAll(List.of(id), patch);
+        return updated.isEmpty() ? null : updated.get(0);
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return id != null && !deleteAllById(List.of(id)).isEmpty();
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> saved = new ArrayList<>(tasks);
+        if (saved.contains(null)) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        PendingChanges pending = PendingChanges.of(changes);
+        long lsn = -1;
+        try {
+            writeLock.lock();
+            try {
+                for (int i = 0; i < saved.size(); i++) {
+                    Task task = saved.get(i);
+                    Task existing = store.get(task.getId());
+                    Task stored = task.withVersion(existing == null ? 1 : existing.getVersion() + 1);
+                    lsn = store.put(stored);
+                    pending.add(existing, stored);
+                    saved.set(i, stored);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if (lsn >= 0) {
+                store.awaitDurable(lsn);
+            }
+        } finally {
+            pending.publish();
+        }
+        return saved;
+    }
+
+    @Override
+    public Set<String> insertAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> batch = new ArrayList<>(tasks);
+        if (batch.contains(null)) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        Set<String> existing = new HashSet<>();
+        PendingChanges pending = PendingChanges.of(changes);
+        long lsn = -1;
+        try {
+            writeLock.lock();
+            try {
+                for (Task task : batch) {
+                    if (store.get(task.getId()) != null) {
+                        existing.add(task.getId());
+                        continue;
+                    }
+                    Task stored = task.withVersion(1);
+                    lsn = store.put(stored);
+                    pending.add(null, stored);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if (lsn >= 0) {
+                store.awaitDurable(lsn);
+            }
+        } finally {
+            pending.publish();
+        }
+        return existing;
+    }
+
+    @Override
+    public Set<String> deleteAllById(Collection<String> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("Ids cannot be null");
+        }
+        Set<String> deleted = new HashSet<>();
+        PendingChanges pending = PendingChanges.of(changes);
+        long lsn = -1;
+        try {
+            writeLock.lock();
+            try {
+                for (String id : ids) {
+                    Task existing = id == null || deleted.contains(id) ? null : store.get(id);
+                    if (existing != null) {
+                        lsn = store.delete(id);
+                        pending.add(existing, null);
+                        deleted.add(id);
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if (lsn >= 0) {
+                store.awaitDurable(lsn);
+            }
+        } finally {
+            pending.publish();
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<String> ids, TaskPatch patch) {
+        if (ids == null || patch == null) {
+            throw new IllegalArgumentException("Ids and patch cannot be null");
+        }
+        List<Task> updated = new ArrayList<>(ids.size());
+        PendingChanges pending = PendingChanges.of(changes);
+        long lsn = -1;
+        try {
+            writeLock.lock();
+            try {
+                for (String id : ids) {
+                    Task existing = store.get(id);
+                    if (existing == null) {
+                        continue;
+                    }
+                    Task task = patch.applyTo(existing, existing.getVersion() + 1);
+                    lsn = store.put(task);
+                    pending.add(existing, task);
+                    updated.add(task);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if (lsn >= 0) {
+                store.awaitDurable(lsn);
+            }
+        } finally {
+            pending.publish();
+        }
+        return updated;
+    }
+
+    @Override
+    public Task findById(String id) {
+        return store.get(id);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return store.get(id) != null;
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return findAll(task -> true);
+    }
+
+    @Override
+    public List<Task> findAll(Predicate<Task> filter) {
+        List<Task> tasks = new ArrayList<>();
+        store.scan(null, Integer.MAX_VALUE, task -> {
+            if (filter.test(task)) {
+                tasks.add(task);
+            }
+        });
+        return tasks;
+    }
+
+    @Override
+    public Optional<TaskChangeLog> changeLog() {
+        return Optional.ofNullable(changes);
+    }
+
+    /**
+     * Merges the memtable and the runs in chunks of tasks in id order, so a slow
+     * consumer never keeps compaction from deleting the runs it replaced.
+     */
+    @Override
+    public Stream<Task> stream() {
+        return StreamSupport.stream(new ChunkedScan(), false);
+    }
+
+    @Override
+    public Stream<Task> stream(Predicate<Task> filter) {
+        return filter == null ? stream() : stream().filter(filter);
+    }
+
+    @Override
+    public Stream<Task> stream(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        return query.stream(stream().filter(query.predicate()));
+    }
+
+    public LsmStats stats() {
+        return store.stats();
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    private final class ChunkedScan extends Spliterators.AbstractSpliterator<Task> {
+        private final ArrayDeque<Task> buffer = new ArrayDeque<>();
+        private String lastId;
+        private boolean exhausted;
+
+        ChunkedScan() {
+            super(Long.MAX_VALUE, Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Task> action) {
+            if (buffer.isEmpty() && !exhausted) {
+                int read = store.scan(lastId, SCAN_CHUNK_TASKS, buffer::add);
+                exhausted = read < SCAN_CHUNK_TASKS;
+                if (read > 0) {
+                    lastId = buffer.peekLast().getId();
+                }
+            }
+            Task task = buffer.poll();
+            if (task == null) {
+                return false;
+            }
+            action.accept(task);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.model.Task;
+import com.taskmanagement.query.TopK;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Filters and sorts tasks as fork-join tasks. The source spliterator is split
+ * into partitions of about {@link #LEAF_TASKS} tasks; each leaf filters its
+ * partition and sorts its matches (or keeps only the first {@code limit}), and
+ * partial results are merged on the way back up, with large merges split again
+ * so that the last ones do not run on a single thread.
+ */
+final class ParallelTaskScan {
+    // Tasks a leaf scans on its own; small enough to balance, large enough to amortize a fork.
+    static final int LEAF_TASKS = 8192;
+    // Below this many tasks two sorted lists are merged on one thread.
+    private static final int MERGE_LEAF_TASKS = 16_384;
+
+    private ParallelTaskScan() {
+    }
+
+    /**
+     * The tasks of {@code source} that match {@code filter}: in no particular order
+     * when {@code order} is null, otherwise the first {@code limit} in that order.
+     */
+    static List<Task> collect(ForkJoinPool pool, Spliterator<Task> source, Predicate<Task> filter,
+                              Comparator<Task> order, int limit) {
+        List<Task> result = pool.invoke(new Scan(source, filter, order, limit));
+        return result instanceof ArrayList ? result : new ArrayList<>(result);
+    }
+
+    private static final class Scan extends RecursiveTask<List<Task>> {
+        private final Spliterator<Task> source;
+        private final Predicate<Task> filter;
+        private final Comparator<Task> order;
+        private final int limit;
+
+        Scan(Spliterator<Task> source, Predicate<Task> filter, Comparator<Task> order, int limit) {
+            this.source = source;
+            this.filter = filter;
+            this.order = order;
+            this.limit = limit;
+        }
+
+        @Override
+        protected List<Task> compute() {
+            Spliterator<Task> prefix;
+            if (source.estimateSize() > LEAF_TASKS && (prefix = source.trySplit()) != null) {
+                Scan left = new Scan(prefix, filter, order, limit);
+                left.fork();
+                List<Task> right = new Scan(source, filter, order, limit).compute();
+                return combine(left.join(), right);
+            }
+            List<Task> matches = new ArrayList<>();
+            source.forEachRemaining(task -> {
+                if (filter.test(task)) {
+                    matches.add(task);
+                }
+            });
+            if (order == null) {
+                return matches;
+            }
+            if (limit < matches.size()) {
+                return TopK.select(matches.iterator(), order, limit);
+            }
+            matches.sort(order);
+            return matches;
+        }
+
+        private List<Task> combine(List<Task> left, List<Task> right) {
+            if (order == null) {
+                if (left.size() < right.size()) {
+                    right.addAll(left);
+                    return right;
+                }
+                left.addAll(right);
+                return left;
+            }
+            int size = (int) Math.min((long) left.size() + right.size(), limit);
+            Task[] merged = new Task[size];
+            // A merge truncated by the limit cannot be split by output position.
+            if (size <= MERGE_LEAF_TASKS || size < left.size() + right.size()) {
+                mergeInto(left, 0, left.size(), right, 0, right.size(), merged, 0, order);
+            } else {
+                new Merge(left, 0, left.size(), right, 0, right.size(), merged, 0, order).compute();
+            }
+            return Arrays.asList(merged);
+        }
+    }
+
+    /**
+     * Merges two sorted ranges into {@code out} by splitting at the middle of the
+     * longer range and the matching position in the shorter one, then merging both
+     * halves in parallel. Ties keep tasks from {@code a} first, so the merge is stable.
+     */
+    private static final class Merge extends RecursiveAction {
+        private final List<Task> a;
+        private final int aFrom;
+        private final int aTo;
+        private final List<Task> b;
+        private final int bFrom;
+        private final int bTo;
+        private final Task[] out;
+        private final int outFrom;
+        private final Comparator<Task> order;
+
+        Merge(List<Task> a, int aFrom, int aTo, List<Task> b, int bFrom, int bTo,
+              Task[] out, int outFrom, Comparator<Task> order) {
+            this.a = a;
+            this.aFrom = aFrom;
+            this.aTo = aTo;
+            this.b = b;
+            this.bFrom = bFrom;
+            this.bTo = bTo;
+            this.out = out;
+            this.outFrom = outFrom;
+            this.order = order;
+        }
+
+        @Override
+        protected void compute() {
+            int aLength = aTo - aFrom;
+            int bLength = bTo - bFrom;
+            if (aLength + bLength <= MERGE_LEAF_TASKS) {
+                mergeInto(a, aFrom, aTo, b, bFrom, bTo, out, outFrom, order);
+                return;
+            }
+            int aSplit;
+            int bSplit;
+            if (aLength >= bLength) {
+                aSplit = (aFrom + aTo) >>> 1;
+                bSplit = lowerBound(b, bFrom, bTo, a.get(aSplit), order);
+            } else {
+                bSplit = (bFrom + bTo) >>> 1;
+                aSplit = upperBound(a, aFrom, aTo, b.get(bSplit), order);
+            }
+            int middle = outFrom + (aSplit - aFrom) + (bSplit - bFrom);
+            invokeAll(new Merge(a, aFrom, aSplit, b, bFrom, bSplit, out, outFrom, order),
+                    new Merge(a, aSplit, aTo, b, bSplit, bTo, out, middle, order));
+        }
+    }
+
+    // Merges as many tasks as fit in out, from outFrom on.
+    private static void mergeInto(List<Task> a, int i, int aTo, List<Task> b, int j, int bTo,
+                                  Task[] out, int outFrom, Comparator<Task> order) {
+        for (int k = outFrom; k < out.length && (i < aTo || j < bTo); k++) {
+            if (j == bTo || (i < aTo && order.compare(a.get(i), b.get(j)) <= 0)) {
+                out[k] = a.get(i++);
+            } else {
+                out[k] = b.get(j++);
+            }
+        }
+    }
+
+    // First position in [from, to) whose task is not before key.
+    private static int lowerBound(List<Task> tasks, int from, int to, Task key, Comparator<Task> order) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (order.compare(tasks.get(mid), key) < 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    // First position in [from, to) whose task is after key.
+    private static int upperBound(List<Task> tasks, int from, int to, Task key, Comparator<Task> order) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (order.compare(tasks.get(mid), key) <= 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+}
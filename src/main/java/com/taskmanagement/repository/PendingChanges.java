@@ -0,0 +1,62 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.model.Task;
+
+import java.util.Arrays;
+
+/**
+ * Changes claimed on a {@link TaskChangeLog} while a repository holds whatever
+ * orders its writes, and published once that is released, because publishing
+ * can wait for slow subscribers.
+ *
+ * <p>Subscribers stop at a claimed sequence until it is published, so a change
+ * is only added once it has been applied, and {@link #publish()} runs in a
+ * {@code finally} block: a write that fails later, while syncing or on a later
+ * item of a batch, still publishes the changes it made.
+ */
+final class PendingChanges {
+    private static final PendingChanges DISABLED = new PendingChanges(null);
+
+    private final TaskChangeLog log;
+    private long[] sequences;
+    private Task[] befores;
+    private Task[] afters;
+    private int size;
+
+    private PendingChanges(TaskChangeLog log) {
+        this.log = log;
+    }
+
+    /**
+     * A collector for {@code log}; a shared no-op one when it is null.
+     */
+    static PendingChanges of(TaskChangeLog log) {
+        return log == null ? DISABLED : new PendingChanges(log);
+    }
+
+    void add(Task before, Task after) {
+        if (log == null) {
+            return;
+        }
+        if (sequences == null) {
+            sequences = new long[1];
+            befores = new Task[1];
+            afters = new Task[1];
+        } else if (size == sequences.length) {
+            sequences = Arrays.copyOf(sequences, size * 2);
+            befores = Arrays.copyOf(befores, size * 2);
+            afters = Arrays.copyOf(afters, size * 2);
+        }
+        sequences[size] = log.claim();
+        befores[size] = before;
+        afters[size] = after;
+        size++;
+    }
+
+    void publish() {
+        for (int i = 0; i < size; i++) {
+            log.publish(sequences[i], befores[i], afters[i]);
+        }
+    }
+}
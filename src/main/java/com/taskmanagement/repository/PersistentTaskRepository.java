@@ -0,0 +1,572 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.exception.StorageException;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.storage.DurabilityMode;
+import com.taskmanagement.storage.SnapshotStore;
+import com.taskmanagement.storage.TaskBinaryCodec;
+import com.taskmanagement.storage.WriteAheadLog;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Keeps every task in an {@link InMemoryTaskRepository} and makes changes durable
+ * through a write-ahead log plus periodic snapshots. Recovery loads the latest
+ * snapshot and replays the log tail.
+ *
+ * <p>Appending to the log and applying to memory happen under one lock, so memory
+ * always reflects a prefix of the log; waiting for the fsync happens outside it,
+ * which is what lets {@link DurabilityMode#BATCHED} commit many writers at once.
+ * Changes are published to the {@linkplain Builder#changeLog change log} only
+ * once they are durable, so consumers never see a change that recovery loses.
+ * The exception is a failed fsync: the change is already in memory, where
+ * readers see it, so it is published as well to keep consumers in step with
+ * reads, and the writer gets the {@link StorageException}.
+ */
+public class PersistentTaskRepository implements TaskRepository, AutoCloseable {
+    private static final byte SAVE = 1;
+    private static final byte DELETE = 2;
+
+    private final InMemoryTaskRepository memory;
+    private final WriteAheadLog log;
+    private final SnapshotStore snapshots;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final long snapshotEvery;
+    private final ExecutorService snapshotter;
+    private final TaskChangeLog changes;
+    private final LongConsumer awaitDurable;
+    private volatile long writesSinceSnapshot;
+
+    private PersistentTaskRepository(Builder builder) {
+        this.memory = builder.memory.build();
+        this.snapshots = new SnapshotStore(builder.directory);
+        OptionalLong snapshotLsn = snapshots.loadLatest(memory::restore);
+        this.log = WriteAheadLog.open(builder.directory, builder.durabilityMode,
+                builder.groupCommitWindowNanos, builder.asyncFlushIntervalMillis);
+        log.replay(snapshotLsn.orElse(0), this::apply);
+        this.awaitDurable = builder.awaitDurable.apply(log::awaitDurable);
+        this.snapshotEvery = builder.snapshotEvery;
+        this.changes = builder.changes;
+        this.snapshotter = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static PersistentTaskRepository open(Path directory) {
+        return new Builder(directory).build();
+    }
+
+    @Override
+    public Task save(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        PendingChanges pending = PendingChanges.of(changes);
+        Task stored;
+        long lsn;
+        try {
+            writeLock.lock();
+            try {
+                Task existing = memory.findById(task.getId());
+                stored = task.withVersion(existing == null ? 1 : existing.getVersion() + 1);
+                lsn = log.append(encodeSave(stored));
+                memory.restore(stored);
+                pending.add(existing, stored);
+                writesSinceSnapshot++;
+            } finally {
+                writeLock.unlock();
+            }
+            awaitDurable.accept(lsn);
+        } finally {
+            pending.publish();
+        }
+        maybeSnapshot();
+        return stored;
+    }
+
+    /**
+     * The version check and the log append share the write lock, which keeps the
+     * log in version order; as with {@link #save(Task)}, the fsync is awaited
+     * after the lock is released.
+     */
+    @Override
+    public Task compareAndSave(long expectedVersion, Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        PendingChanges pending = PendingChanges.of(changes);
+        Task stored;
+        long lsn;
+        try {
+            writeLock.lock();
+            try {
+                Task existing = memory.findById(task.getId());
+                if ((existing == null ? 0 : existing.getVersion()) != expectedVersion) {
+                    return null;
+                }
+                stored = task.withVersion(expectedVersion + 1);
+                lsn = log.append(encodeSave(stored));
+                memory.restore(stored);
+                pending.add(existing, stored);
+                writesSinceSnapshot++;
+            } finally {
+                writeLock.unlock();
+            }
+            awaitDurable.accept(lsn);
+        } finally {
+            pending.publish();
+        }
+        maybeSnapshot();
+        return stored;
+    }
+
+    @Override
+    public Task patch(String id, TaskPatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Patch cannot be null");
+        }
+        PendingChanges pending = PendingChanges.of(changes);
+        Task updated;
+        long lsn;
+        try {
+            writeLock.lock();
+            try {
+                Task existing = memory.findById(id);
+                if (existing == null) {
+                    return null;
+                }
+                updated = patch.applyTo(existing, existing.getVersion() + 1);
+                lsn = log.append(encodeSave(updated));
+                memory.restore(updated);
+                pending.add(existing, updated);
+                writesSinceSnapshot++;
+            } finally {
+                writeLock.unlock();
+            }
+            awaitDurable.accept(lsn);
+        } finally {
+            pending.publish();
+        }
+        maybeSnapshot();
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        if (id == null) {
+            return false;
+        }
+        byte[] record = encodeDelete(id);
+        PendingChanges pending = PendingChanges.of(changes);
+        long lsn;
+        try {
+            writeLock.lock();
+            try {
+                if (!memory.existsById(id)) {
+                    return false;
+                }
+                lsn = log.append(record);
+                Task existing = memory.findById(id);
+                memory.discard(id);
+                pending.add(existing, null);
+                writesSinceSnapshot++;
+            } finally {
+                writeLock.unlock();
+            }
+            awaitDurable.accept(lsn);
+        } finally {
+            pending.publish();
+        }
+        maybeSnapshot();
+        return true;
+    }
+
+    /**
+     * Logs the whole batch under one lock acquisition and waits for a single sync.
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> saved = new ArrayList<>(tasks);
+        if (saved.contains(null)) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        PendingChanges pending = PendingChanges.of(changes);
+        long lsn = -1;
+        try {
+            writeLock.lock();
+            try {
+                for (int i = 0; i < saved.size(); i++) {
+                    Task task = saved.get(i);
+                    Task existing = memory.findById(task.getId());
+                    Task stored = task.withVersion(existing == null ? 1 : existing.getVersion() + 1);
+                    lsn = log.append(encodeSave(stored));
+                    memory.restore(stored);
+                    pending.add(existing, stored);
+                    saved.set(i, stored);
+                    writesSinceSnapshot++;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            finishBatch(lsn);
+        } finally {
+            pending.publish();
+        }
+        maybeSnapshot();
+        return saved;
+    }
+
+    /**
+     * Checks and inserts the whole batch under the write lock and waits for one
+     * sync.
+     */
+    @Override
+    public Set<String> insertAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> batch = new ArrayList<>(tasks);
+        if (batch.contains(null)) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        Set<String> existing = new HashSet<>();
+        PendingChanges pending = PendingChanges.of(changes);
+        long lsn = -1;
+        try {
+            writeLock.lock();
+            try {
+                for (Task task : batch) {
+                    if (memory.existsById(task.getId())) {
+                        existing.add(task.getId());
+                        continue;
+                    }
+                    Task stored = task.withVersion(1);
+                    lsn = log.append(encodeSave(stored));
+                    memory.restore(stored);
+                    pending.add(null, stored);
+                    writesSinceSnapshot++;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            finishBatch(lsn);
+        } finally {
+            pending.publish();
+        }
+        maybeSnapshot();
+        return existing;
+    }
+
+    @Override
+    public Set<String> deleteAllById(Collection<String> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("Ids cannot be null");
+        }
+        Set<String> deleted = new HashSet<>();
+        PendingChanges pending = PendingChanges.of(changes);
+        long lsn = -1;
+        try {
+            writeLock.lock();
+            try {
+                for (String id : ids) {
+                    if (id != null && memory.existsById(id) && deleted.add(id)) {
+                        lsn = log.append(encodeDelete(id));
+                        Task existing = memory.findById(id);
+                        memory.discard(id);
+                        pending.add(existing, null);
+                        writesSinceSnapshot++;
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            finishBatch(lsn);
+        } finally {
+            pending.publish();
+        }
+        maybeSnapshot();
+        return deleted;
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<String> ids, TaskPatch patch) {
+        if (ids == null || patch == null) {
+            throw new IllegalArgumentException("Ids and patch cannot be null");
+        }
+        List<Task> updated = new ArrayList<>(ids.size());
+        PendingChanges pending = PendingChanges.of(changes);
+        long lsn = -1;
+        try {
+            writeLock.lock();
+            try {
+                for (String id : ids) {
+                    Task existing = memory.findById(id);
+                    if (existing == null) {
+                        continue;
+                    }
+                    Task task = patch.applyTo(existing, existing.getVersion() + 1);
+                    lsn = log.append(encodeSave(task));
+                    memory.restore(task);
+                    pending.add(existing, task);
+                    writesSinceSnapshot++;
+                    updated.add(task);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            finishBatch(lsn);
+        } finally {
+            pending.publish();
+        }
+        maybeSnapshot();
+        return updated;
+    }
+
+    private void finishBatch(long lastLsn) {
+        if (lastLsn >= 0) {
+            awaitDurable.accept(lastLsn);
+        }
+    }
+
+    @Override
+    public Task findById(String id) {
+        return memory.findById(id);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return memory.findAll();
+    }
+
+    @Override
+    public List<Task> findAll(Predicate<Task> filter) {
+        return memory.findAll(filter);
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query) {
+        return memory.query(query);
+    }
+
+    @Override
+    public Stream<Task> stream() {
+        return memory.stream();
+    }
+
+    @Override
+    public Stream<Task> stream(Predicate<Task> filter) {
+        return memory.stream(filter);
+    }
+
+    @Override
+    public Stream<Task> stream(TaskQuery query) {
+        return memory.stream(query);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return memory.existsById(id);
+    }
+
+    @Override
+    public Optional<TaskChangeLog> changeLog() {
+        return Optional.ofNullable(changes);
+    }
+
+    /**
+     * Writes a snapshot of the current state and drops the log segments it covers.
+     */
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            takeSnapshot();
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private void takeSnapshot() {
+        long lsn;
+        writeLock.lock();
+        try {
+            lsn = log.rotate();
+            writesSinceSnapshot = 0;
+        } finally {
+            writeLock.unlock();
+        }
+        // Replay from lsn repairs whatever the weakly consistent stream misses.
+        snapshots.write(lsn, memory.stream().iterator());
+        log.deleteSegmentsBefore(lsn);
+    }
+
+    private void maybeSnapshot() {
+        if (snapshotEvery <= 0 || writesSinceSnapshot < snapshotEvery) {
+            return;
+        }
+        snapshotter.execute(() -> {
+            if (!snapshotLock.tryLock()) {
+                return;
+            }
+            try {
+                if (writesSinceSnapshot >= snapshotEvery) {
+                    takeSnapshot();
+                }
+            } catch (StorageException e) {
+                // Snapshots only shorten recovery; the log still has every change.
+            } finally {
+                snapshotLock.unlock();
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    private void apply(long lsn, byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        byte type = payload.length > 0 ? in.get() : -1;
+        try {
+            switch (type) {
+                case SAVE:
+                    memory.restore(TaskBinaryCodec.read(in));
+                    break;
+                case DELETE:
+                    memory.discard(TaskBinaryCodec.readString(in));
+                    break;
+                default:
+                    throw new StorageException("Unknown log record type " + type + " at LSN " + lsn);
+            }
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new StorageException("Malformed log record at LSN " + lsn, e);
+        }
+    }
+
+    private static byte[] encodeSave(Task task) {
+        byte[] bytes = new byte[1 + TaskBinaryCodec.encodedSize(task)];
+        ByteBuffer out = ByteBuffer.wrap(bytes).put(SAVE);
+        TaskBinaryCodec.write(out, task);
+        return bytes;
+    }
+
+    private static byte[] encodeDelete(String id) {
+        byte[] bytes = new byte[1 + TaskBinaryCodec.encodedSize(id)];
+        TaskBinaryCodec.writeString(ByteBuffer.wrap(bytes).put(DELETE), id);
+        return bytes;
+    }
+
+    public static class Builder {
+        private final Path directory;
+        private DurabilityMode durabilityMode = DurabilityMode.BATCHED;
+        private long groupCommitWindowNanos;
+        private long asyncFlushIntervalMillis = 100;
+        private long snapshotEvery = 100_000;
+        private InMemoryTaskRepository.Builder memory = new InMemoryTaskRepository.Builder();
+        private TaskChangeLog changes;
+        private UnaryOperator<LongConsumer> awaitDurable = UnaryOperator.identity();
+
+        public Builder(Path directory) {
+            if (directory == null) {
+                throw new IllegalArgumentException("Directory cannot be null");
+            }
+            this.directory = directory;
+        }
+
+        public Builder durabilityMode(DurabilityMode durabilityMode) {
+            if (durabilityMode == null) {
+                throw new IllegalArgumentException("Durability mode cannot be null");
+            }
+            this.durabilityMode = durabilityMode;
+            return this;
+        }
+
+        public Builder groupCommitWindow(long duration, TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("Group commit window cannot be negative");
+            }
+            this.groupCommitWindowNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public Builder asyncFlushInterval(long duration, TimeUnit unit) {
+            if (duration <= 0) {
+                throw new IllegalArgumentException("Flush interval must be positive");
+            }
+            this.asyncFlushIntervalMillis = Math.max(1, unit.toMillis(duration));
+            return this;
+        }
+
+        /**
+         * Takes a snapshot in the background after this many writes; 0 disables
+         * automatic snapshots.
+         */
+        public Builder snapshotEvery(long writes) {
+            if (writes < 0) {
+                throw new IllegalArgumentException("Snapshot interval cannot be negative");
+            }
+            this.snapshotEvery = writes;
+            return this;
+        }
+
+        public Builder inMemory(InMemoryTaskRepository.Builder memory) {
+            if (memory == null) {
+                throw new IllegalArgumentException("In-memory repository builder cannot be null");
+            }
+            this.memory = memory;
+            return this;
+        }
+
+        /**
+         * Log to publish durable changes to. Set it here rather than on the
+         * {@linkplain #inMemory in-memory builder}, whose log would not wait for
+         * the fsync.
+         */
+        public Builder changeLog(TaskChangeLog changes) {
+            this.changes = changes;
+            return this;
+        }
+
+        // Wraps the wait for an LSN to become durable, so tests can make syncs fail.
+        Builder awaitDurable(UnaryOperator<LongConsumer> awaitDurable) {
+            this.awaitDurable = awaitDurable;
+            return this;
+        }
+
+        public PersistentTaskRepository build() {
+            return new PersistentTaskRepository(this);
+        }
+    }
+}
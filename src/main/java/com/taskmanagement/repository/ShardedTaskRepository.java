@@ -0,0 +1,358 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Hash-partitions tasks over independent {@link InMemoryTaskRepository} shards,
+ * each with its own map, indexes and index statistics, so writers to different
+ * shards share no structure at all. Point operations go to the one shard owning
+ * the id; listings and queries run on every shard in parallel, and ordered
+ * results are merged from the shards' sorted partial results.
+ *
+ * <p>All shards publish to the same change log, if one is configured. A query
+ * sees each shard at a slightly different moment, as concurrent readers of a
+ * single repository may also see some changes and not others.
+ */
+public class ShardedTaskRepository implements TaskRepository {
+    private final InMemoryTaskRepository[] shards;
+
+    public ShardedTaskRepository() {
+        this(new Builder());
+    }
+
+    public ShardedTaskRepository(int shards) {
+        this(new Builder().shards(shards));
+    }
+
+    private ShardedTaskRepository(Builder builder) {
+        this.shards = new InMemoryTaskRepository[builder.shards];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = builder.shard.build();
+        }
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public Task save(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return shard(task.getId()).save(task);
+    }
+
+    @Override
+    public Task compareAndSave(long expectedVersion, Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return shard(task.getId()).compareAndSave(expectedVersion, task);
+    }
+
+    @Override
+    public Task patch(String id, TaskPatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Patch cannot be null");
+        }
+        return id == null ? null : shard(id).patch(id, patch);
+    }
+
+    @Override
+    public Task findById(String id) {
+        return id == null ? null : shard(id).findById(id);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return id != null && shard(id).existsById(id);
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return id != null && shard(id).deleteById(id);
+    }
+
+    /**
+     * Each shard saves its part of the batch, in batch order, while the shards
+     * run in parallel for large batches. Results keep the batch order.
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> batch = new ArrayList<>(tasks);
+        if (batch.contains(null)) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        Task[] saved = new Task[batch.size()];
+        forEachShard(partition(batch, Task::getId), batch.size(), (shard, positions) -> {
+            for (int position : positions) {
+                saved[position] = shard.save(batch.get(position));
+            }
+        });
+        return new ArrayList<>(Arrays.asList(saved));
+    }
+
+    /**
+     * Each shard inserts its part of the batch with one call, so the ids of a
+     * shard are checked and inserted together.
+     */
+    @Override
+    public Set<String> insertAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> batch = new ArrayList<>(tasks);
+        if (batch.contains(null)) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        Set<String> existing = ConcurrentHashMap.newKeySet();
+        forEachShard(partition(batch, Task::getId), batch.size(), (shard, positions) -> {
+            List<Task> part = new ArrayList<>(positions.size());
+            for (int position : positions) {
+                part.add(batch.get(position));
+            }
+            existing.addAll(shard.insertAll(part));
+        });
+        return new HashSet<>(existing);
+    }
+
+    @Override
+    public Set<String> deleteAllById(Collection<String> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("Ids cannot be null");
+        }
+        List<String> batch = new ArrayList<>(ids);
+        boolean[] deleted = new boolean[batch.size()];
+        forEachShard(partition(batch, id -> id), batch.size(), (shard, positions) -> {
+            for (int position : positions) {
+                deleted[position] = shard.deleteById(batch.get(position));
+            }
+        });
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < deleted.length; i++) {
+            if (deleted[i]) {
+                result.add(batch.get(i));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<String> ids, TaskPatch patch) {
+        if (ids == null || patch == null) {
+            throw new IllegalArgumentException("Ids and patch cannot be null");
+        }
+        List<String> batch = new ArrayList<>(ids);
+        Task[] updated = new Task[batch.size()];
+        forEachShard(partition(batch, id -> id), batch.size(), (shard, positions) -> {
+            for (int position : positions) {
+                updated[position] = shard.patch(batch.get(position), patch);
+            }
+        });
+        return Arrays.stream(updated).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return findAll(task -> true);
+    }
+
+    @Override
+    public List<Task> findAll(Predicate<Task> filter) {
+        return Arrays.stream(shards).parallel()
+                .map(shard -> shard.findAll(filter))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Every shard answers the query up to offset + limit results, through its own
+     * plan and indexes; ordered results are then merged and the offset skipped.
+     */
+    @Override
+    public List<Task> query(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        TaskQuery perShard = perShard(query);
+        List<List<Task>> partials = Arrays.stream(shards).parallel()
+                .map(shard -> shard.query(perShard))
+                .collect(Collectors.toList());
+        long wanted = query.isLimited() ? (long) query.getOffset() + query.getLimit() : Long.MAX_VALUE;
+        List<Task> merged = query.isOrdered()
+                ? merge(partials, query.comparator(), wanted)
+                : partials.stream().flatMap(List::stream).limit(wanted).collect(Collectors.toList());
+        return new ArrayList<>(merged.subList(Math.min(query.getOffset(), merged.size()), merged.size()));
+    }
+
+    @Override
+    public Stream<Task> stream() {
+        return Arrays.stream(shards).flatMap(InMemoryTaskRepository::stream);
+    }
+
+    @Override
+    public Stream<Task> stream(Predicate<Task> filter) {
+        return filter == null ? stream() : stream().filter(filter);
+    }
+
+    /**
+     * Unordered queries stream the shards one after another; ordered ones are
+     * merged eagerly, as a single repository has to sort before the first result.
+     */
+    @Override
+    public Stream<Task> stream(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        if (query.isOrdered()) {
+            return query(query).stream();
+        }
+        TaskQuery perShard = perShard(query);
+        Stream<Task> matches = Arrays.stream(shards).flatMap(shard -> shard.stream(perShard)).skip(query.getOffset());
+        return query.isLimited() ? matches.limit(query.getLimit()) : matches;
+    }
+
+    @Override
+    public Optional<TaskChangeLog> changeLog() {
+        return shards[0].changeLog();
+    }
+
+    // The shard query: same filter, order and cursor, first offset + limit results.
+    private static TaskQuery perShard(TaskQuery query) {
+        TaskQuery.Builder builder = new TaskQuery.Builder()
+                .filter(query.getFilter().orElse(null))
+                .sortBy(query.getSortOption().orElse(null))
+                .after(query.getCursor().orElse(null));
+        if (query.isLimited()) {
+            builder.limit((int) Math.min((long) query.getOffset() + query.getLimit(), Integer.MAX_VALUE));
+        }
+        return builder.build();
+    }
+
+    // K-way merge of lists each sorted by comparator, keeping the first wanted tasks.
+    private static List<Task> merge(List<List<Task>> sorted, Comparator<Task> comparator, long wanted) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+                (a, b) -> comparator.compare(sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1])));
+        int total = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            total += sorted.get(i).size();
+            if (!sorted.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+        List<Task> merged = new ArrayList<>((int) Math.min(total, wanted));
+        while (!heads.isEmpty() && merged.size() < wanted) {
+            int[] head = heads.poll();
+            List<Task> source = sorted.get(head[0]);
+            merged.add(source.get(head[1]));
+            if (++head[1] < source.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    // Positions of the batch items owned by each shard, in batch order.
+    private <T> List<List<Integer>> partition(List<T> batch, Function<T, String> id) {
+        List<List<Integer>> positions = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            String key = id.apply(batch.get(i));
+            if (key != null) {
+                positions.get(index(key)).add(i);
+            }
+        }
+        return positions;
+    }
+
+    private void forEachShard(List<List<Integer>> positions, int batchSize, ShardWork work) {
+        IntStream indexes = IntStream.range(0, shards.length);
+        if (batchSize >= InMemoryTaskRepository.PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.filter(i -> !positions.get(i).isEmpty())
+                .forEach(i -> work.apply(shards[i], positions.get(i)));
+    }
+
+    private InMemoryTaskRepository shard(String id) {
+        return shards[index(id)];
+    }
+
+    /**
+     * Picks the shard from the high bits of a remixed hash code. Each shard's map
+     * indexes its bins by the low bits of the plain hash, which would otherwise be
+     * the same for every id in the shard and leave most bins empty.
+     */
+    int index(String id) {
+        int hash = id.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (int) (((hash & 0xffffffffL) * shards.length) >>> 32);
+    }
+
+    @FunctionalInterface
+    private interface ShardWork {
+        void apply(InMemoryTaskRepository shard, List<Integer> positions);
+    }
+
+    public static class Builder {
+        private int shards = Math.max(1, Runtime.getRuntime().availableProcessors());
+        private InMemoryTaskRepository.Builder shard = new InMemoryTaskRepository.Builder();
+
+        /**
+         * Number of shards; defaults to the number of available processors.
+         */
+        public Builder shards(int shards) {
+            if (shards < 1) {
+                throw new IllegalArgumentException("Shard count must be positive");
+            }
+            this.shards = shards;
+            return this;
+        }
+
+        /**
+         * Builder for every shard. Its query planner, sorted view setting and change
+         * log apply to all of them; the log is shared.
+         */
+        public Builder shard(InMemoryTaskRepository.Builder shard) {
+            if (shard == null) {
+                throw new IllegalArgumentException("Shard builder cannot be null");
+            }
+            this.shard = shard;
+            return this;
+        }
+
+        public ShardedTaskRepository build() {
+            return new ShardedTaskRepository(this);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.model.Task;
+import com.taskmanagement.service.SortOption;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Skip lists of tasks kept in each ascending {@link SortOption} order (ties broken
+ * by id), so that sorted listings are an ordered walk. Descending options iterate
+ * the same skip list backwards. Like {@link TaskIndex}, updates must be
+ * serialized per task id. A view keeps its entry when a write leaves the sort key
+ * unchanged, so readers look up the current task by id and check it with
+ * {@link #sameKey}.
+ */
+class SortedTaskViews {
+    // Sorts after every task with a due date and before every task without one.
+    private static final Task FIRST_UNDATED = new Task.Builder().id("").buildForUpdate();
+
+    private final Map<SortOption, NavigableSet<Task>> views;
+
+    SortedTaskViews() {
+        this.views = new EnumMap<>(SortOption.class);
+        views.put(SortOption.DUE_DATE_ASC, new ConcurrentSkipListSet<>(SortOption.DUE_DATE_ASC.comparator()));
+        views.put(SortOption.PRIORITY_ASC, new ConcurrentSkipListSet<>(SortOption.PRIORITY_ASC.comparator()));
+        views.put(SortOption.TITLE_ASC, new ConcurrentSkipListSet<>(SortOption.TITLE_ASC.comparator()));
+    }
+
+    void update(Task previous, Task current) {
+        for (Map.Entry<SortOption, NavigableSet<Task>> entry : views.entrySet()) {
+            NavigableSet<Task> view = entry.getValue();
+            if (previous != null && current != null && sameKey(entry.getKey(), previous, current)) {
+                continue;
+            }
+            if (previous != null) {
+                view.remove(previous);
+            }
+            if (current != null) {
+                view.add(current);
+            }
+        }
+    }
+
+    /**
+     * Streams tasks in {@code sortOption} order, starting strictly after
+     * {@code after} when it is not null.
+     */
+    Stream<Task> ordered(SortOption sortOption, Task after) {
+        switch (sortOption) {
+            case DUE_DATE_ASC:
+            case PRIORITY_ASC:
+            case TITLE_ASC:
+                return from(views.get(sortOption), after).stream();
+            case PRIORITY_DESC:
+                return from(views.get(SortOption.PRIORITY_ASC).descendingSet(), after).stream();
+            case TITLE_DESC:
+                return from(views.get(SortOption.TITLE_ASC).descendingSet(), after).stream();
+            case DUE_DATE_DESC:
+                // Tasks without a due date come last in both directions, so walk the
+                // dated part backwards and then the undated part backwards.
+                NavigableSet<Task> view = views.get(SortOption.DUE_DATE_ASC);
+                NavigableSet<Task> dated = view.headSet(FIRST_UNDATED, false).descendingSet();
+                NavigableSet<Task> undated = view.tailSet(FIRST_UNDATED, true).descendingSet();
+                if (after != null && !after.getDueDate().isPresent()) {
+                    dated = Collections.emptyNavigableSet();
+                    undated = undated.tailSet(after, false);
+                } else if (after != null) {
+                    dated = dated.tailSet(after, false);
+                }
+                return Stream.concat(dated.stream(), undated.stream());
+            default:
+                throw new IllegalArgumentException("Unsupported sort option: " + sortOption);
+        }
+    }
+
+    /**
+     * Whether both versions of a task sort to the same position under {@code sortOption}.
+     */
+    static boolean sameKey(SortOption sortOption, Task viewed, Task current) {
+        switch (sortOption) {
+            case DUE_DATE_ASC:
+            case DUE_DATE_DESC:
+                return viewed.getDueDate().equals(current.getDueDate());
+            case PRIORITY_ASC:
+            case PRIORITY_DESC:
+                return viewed.getPriority() == current.getPriority();
+            case TITLE_ASC:
+            case TITLE_DESC:
+                return Objects.equals(viewed.getTitle(), current.getTitle());
+            default:
+                return false;
+        }
+    }
+
+    private static NavigableSet<Task> from(NavigableSet<Task> view, Task after) {
+        return after == null ? view : view.tailSet(after, false);
+    }
+}
@@ -0,0 +1,214 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.query.IndexStatistics;
+import com.taskmanagement.service.SortOption;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Secondary indexes over status, priority and due date.
+ * Callers must serialize updates per task id (the repository does this inside
+ * {@code ConcurrentHashMap.compute}), readers must re-check matches against the
+ * primary map because the indexes are only weakly consistent with it.
+ *
+ * <p>Like the primary map and the sorted views, the indexes hold ids as strings
+ * rather than {@link com.taskmanagement.model.TaskId}s. Imported and client-chosen
+ * ids need not be in TaskId form, and lookups arrive as strings, which would have
+ * to be parsed on every call.
+ */
+class TaskIndex implements IndexStatistics {
+    private final Map<Status, Set<String>> byStatus;
+    private final Map<Priority, Set<String>> byPriority;
+    private final NavigableSet<DueDateKey> byDueDate;
+    private final SortedTaskViews sortedViews;
+
+    TaskIndex() {
+        this(false);
+    }
+
+    TaskIndex(boolean withSortedViews) {
+        this.byStatus = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+        this.byPriority = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            byPriority.put(priority, ConcurrentHashMap.newKeySet());
+        }
+        this.byDueDate = new ConcurrentSkipListSet<>();
+        this.sortedViews = withSortedViews ? new SortedTaskViews() : null;
+    }
+
+    void update(Task previous, Task current) {
+        if (previous != null && current != null) {
+            move(previous, current);
+        } else if (previous != null) {
+            remove(previous);
+        } else if (current != null) {
+            add(current);
+        }
+        if (sortedViews != null) {
+            sortedViews.update(previous, current);
+        }
+    }
+
+    private void add(Task task) {
+        byStatus.get(task.getStatus()).add(task.getId());
+        byPriority.get(task.getPriority()).add(task.getId());
+        task.getDueDate().ifPresent(dueDate -> byDueDate.add(new DueDateKey(dueDate, task.getId())));
+    }
+
+    /**
+     * Re-keys only the indexes whose field changed, so a status change costs one
+     * set removal and one insertion. Both tasks have the same id.
+     */
+    private void move(Task previous, Task current) {
+        String id = current.getId();
+        if (previous.getStatus() != current.getStatus()) {
+            byStatus.get(previous.getStatus()).remove(id);
+            byStatus.get(current.getStatus()).add(id);
+        }
+        if (previous.getPriority() != current.getPriority()) {
+            byPriority.get(previous.getPriority()).remove(id);
+            byPriority.get(current.getPriority()).add(id);
+        }
+        if (!previous.getDueDate().equals(current.getDueDate())) {
+            previous.getDueDate().ifPresent(dueDate -> byDueDate.remove(new DueDateKey(dueDate, id)));
+            current.getDueDate().ifPresent(dueDate -> byDueDate.add(new DueDateKey(dueDate, id)));
+        }
+    }
+
+    private void remove(Task task) {
+        byStatus.get(task.getStatus()).remove(task.getId());
+        byPriority.get(task.getPriority()).remove(task.getId());
+        task.getDueDate().ifPresent(dueDate -> byDueDate.remove(new DueDateKey(dueDate, task.getId())));
+    }
+
+    @Override
+    public long totalCount() {
+        long count = 0;
+        for (Set<String> ids : byStatus.values()) {
+            count += ids.size();
+        }
+        return count;
+    }
+
+    @Override
+    public long countByStatus(Status status) {
+        return byStatus.get(status).size();
+    }
+
+    @Override
+    public long countByPriority(Priority priority) {
+        return byPriority.get(priority).size();
+    }
+
+    @Override
+    public long countByDueDateRange(LocalDateTime start, LocalDateTime end, long limit) {
+        long count = 0;
+        Iterator<DueDateKey> iterator = dueDateRange(start, end).iterator();
+        while (iterator.hasNext()) {
+            if (count >= limit) {
+                return Long.MAX_VALUE;
+            }
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean hasSortedView(SortOption sortOption) {
+        return sortedViews != null;
+    }
+
+    Stream<Task> ordered(SortOption sortOption, Task after) {
+        if (sortedViews == null) {
+            throw new IllegalStateException("Sorted views are not enabled");
+        }
+        return sortedViews.ordered(sortOption, after);
+    }
+
+    Set<String> idsByStatus(Status status) {
+        return Collections.unmodifiableSet(byStatus.get(status));
+    }
+
+    Set<String> idsByPriority(Priority priority) {
+        return Collections.unmodifiableSet(byPriority.get(priority));
+    }
+
+    Stream<String> idsByDueDateRange(LocalDateTime start, LocalDateTime end, boolean descending) {
+        NavigableSet<DueDateKey> range = dueDateRange(start, end);
+        return (descending ? range.descendingSet() : range).stream().map(key -> key.id);
+    }
+
+    private NavigableSet<DueDateKey> dueDateRange(LocalDateTime start, LocalDateTime end) {
+        if (start == null && end == null) {
+            return byDueDate;
+        }
+        if (start == null) {
+            return byDueDate.headSet(DueDateKey.upperBound(end), true);
+        }
+        if (end == null) {
+            return byDueDate.tailSet(DueDateKey.lowerBound(start), true);
+        }
+        return byDueDate.subSet(DueDateKey.lowerBound(start), true, DueDateKey.upperBound(end), true);
+    }
+
+    static final class DueDateKey implements Comparable<DueDateKey> {
+        private final LocalDateTime dueDate;
+        // null sorts after every id so it can act as an inclusive upper bound
+        private final String id;
+
+        DueDateKey(LocalDateTime dueDate, String id) {
+            this.dueDate = dueDate;
+            this.id = id;
+        }
+
+        static DueDateKey lowerBound(LocalDateTime dueDate) {
+            return new DueDateKey(dueDate, "");
+        }
+
+        static DueDateKey upperBound(LocalDateTime dueDate) {
+            return new DueDateKey(dueDate, null);
+        }
+
+        @Override
+        public int compareTo(DueDateKey other) {
+            int result = dueDate.compareTo(other.dueDate);
+            if (result != 0) {
+                return result;
+            }
+            if (id == null || other.id == null) {
+                return id == other.id ? 0 : (id == null ? 1 : -1);
+            }
+            return id.compareTo(other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            DueDateKey that = (DueDateKey) o;
+            return dueDate.equals(that.dueDate) && Objects.equals(id, that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dueDate, id);
+        }
+    }
+}
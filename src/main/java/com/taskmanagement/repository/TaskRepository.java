@@ -1,16 +1,173 @@
 package com.taskmanagement.repository;
 
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
 import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskQuery;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public interface TaskRepository {
+    /**
+     * Stores the task with its version set to one more than the stored copy's
+     * (1 for a new task) and returns the stored instance.
+     */
     Task save(Task task);
+
+    /**
+     * Stores the task only if the stored copy still has {@code expectedVersion},
+     * where 0 means the task must not exist yet. Returns the stored task, with
+     * version {@code expectedVersion + 1}, or {@code null} if another write got
+     * there first.
+     */
+    Task compareAndSave(long expectedVersion, Task task);
+
     Task findById(String id);
     List<Task> findAll();
     List<Task> findAll(Predicate<Task> filter);
     boolean deleteById(String id);
     boolean existsById(String id);
-}
 
+    default List<Task> findByFilter(TaskFilter filter) {
+        return query(TaskQuery.of(filter));
+    }
+
+    default List<Task> query(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        return query.evaluate(findAll(query.predicate()).stream());
+    }
+
+    /**
+     * Streams every task without copying them into a list first. Streams are
+     * weakly consistent, like iterators over a {@code ConcurrentHashMap}: they
+     * never throw {@code ConcurrentModificationException}, return every task that
+     * exists for the whole traversal exactly once, and may or may not reflect
+     * saves and deletes made while they are consumed. Implementations that hold
+     * resources release them when the stream is closed.
+     */
+    default Stream<Task> stream() {
+        return findAll().stream();
+    }
+
+    default Stream<Task> stream(Predicate<Task> filter) {
+        return filter == null ? stream() : stream().filter(filter);
+    }
+
+    /**
+     * Lazy form of {@link #query(TaskQuery)}, with the same consistency as
+     * {@link #stream()}. Sorted queries that cannot use a sorted access path still
+     * have to see every match before returning the first one.
+     */
+    default Stream<Task> stream(TaskQuery query) {
+        return query(query).stream();
+    }
+
+    /**
+     * The log this repository publishes its committed changes to, if it was
+     * configured with one. Consumers subscribe to it instead of rescanning
+     * {@link #findAll()}.
+     */
+    default Optional<TaskChangeLog> changeLog() {
+        return Optional.empty();
+    }
+
+    /**
+     * Saves every task and returns the stored tasks in the same order. Implementations apply
+     * the batch in one go where they can (one lock, one log sync).
+     */
+    default List<Task> saveAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        List<Task> saved = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            saved.add(save(task));
+        }
+        return saved;
+    }
+
+    /**
+     * Stores each task whose id is not stored yet, at version 1, and returns the
+     * ids that already existed; their stored tasks are left as they are. A repeated
+     * id is inserted by its first occurrence. Implementations insert the batch in
+     * one go where they can (one lock, one log sync); the default inserts each
+     * task with {@link #compareAndSave}.
+     */
+    default Set<String> insertAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null");
+        }
+        Set<String> existing = new HashSet<>();
+        for (Task task : tasks) {
+            if (compareAndSave(0, task) == null) {
+                existing.add(task.getId());
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Deletes the given ids and returns the ones that existed.
+     */
+    default Set<String> deleteAllById(Collection<String> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("Ids cannot be null");
+        }
+        Set<String> deleted = new HashSet<>();
+        for (String id : ids) {
+            if (deleteById(id)) {
+                deleted.add(id);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Atomically applies {@code patch} to the current version of the task and
+     * returns the stored result, or {@code null} if there is no such task. The
+     * default retries {@link #compareAndSave} until no other write interleaves.
+     */
+    default Task patch(String id, TaskPatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Patch cannot be null");
+        }
+        while (true) {
+            Task current = findById(id);
+            if (current == null) {
+                return null;
+            }
+            Task updated = compareAndSave(current.getVersion(), patch.applyTo(current));
+            if (updated != null) {
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Applies {@code patch} to each existing task and returns the updated tasks;
+     * ids that do not exist are skipped.
+     */
+    default List<Task> updateAll(Collection<String> ids, TaskPatch patch) {
+        if (ids == null || patch == null) {
+            throw new IllegalArgumentException("Ids and patch cannot be null");
+        }
+        List<Task> updated = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Task task = patch(id, patch);
+            if (task != null) {
+                updated.add(task);
+            }
+        }
+        return updated;
+    }
+}
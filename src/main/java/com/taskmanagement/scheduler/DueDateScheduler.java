@@ -0,0 +1,274 @@
+package com.taskmanagement.scheduler;
+
+import com.taskmanagement.event.TaskChangeFollower;
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.repository.TaskRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Calls back when open tasks become due soon and when they become overdue.
+ *
+ * <p>Every open task with a due date holds one timer in a {@link TimingWheel},
+ * kept in step with the repository through its {@link TaskChangeLog}: a save
+ * schedules it, a due date change moves it, and a delete or completion cancels
+ * it. A single thread schedules the tasks present at start, then applies the
+ * changes and advances the wheel, so there is no thread per task and no periodic
+ * scan. Every callback runs on that thread and should hand slow work off.
+ *
+ * <p>Each callback fires once per due date: tasks that are already due soon or
+ * overdue when they are saved, or when the scheduler starts, are reported
+ * straight away, and changing anything but the due date or the status does not
+ * report them again. A task that is already overdue is only reported as overdue.
+ * Due dates are read in the clock's time zone and fire within one tick after the
+ * fact.
+ */
+public class DueDateScheduler implements AutoCloseable {
+    private static final int POLL_BATCH = 1024;
+
+    private enum Phase { DUE_SOON, OVERDUE, DONE }
+
+    private final Clock clock;
+    private final Duration dueSoonLead;
+    private final Consumer<Task> onDueSoon;
+    private final Consumer<Task> onOverdue;
+    private final long tickMillis;
+    private final TimingWheel<Entry> wheel;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TaskChangeFollower follower;
+    private final Thread worker;
+    private final CountDownLatch caughtUp = new CountDownLatch(1);
+    // Read by the worker before it follows changes.
+    private final Supplier<Stream<Task>> currentTasks;
+    private volatile int scheduled;
+    private volatile boolean closed;
+
+    private DueDateScheduler(Builder builder, TaskChangeLog log) {
+        this.clock = builder.clock;
+        this.dueSoonLead = builder.dueSoonLead;
+        this.onDueSoon = builder.onDueSoon;
+        this.onOverdue = builder.onOverdue;
+        this.tickMillis = builder.tick.toMillis();
+        this.wheel = new TimingWheel<>(tickMillis, clock.millis());
+        this.follower = new TaskChangeFollower(log, this::onChange);
+        this.currentTasks = builder.repository::stream;
+        this.worker = new Thread(this::run, "task-due-dates");
+        worker.setDaemon(true);
+    }
+
+    /**
+     * Number of tasks waiting for a callback.
+     */
+    public int scheduledCount() {
+        return scheduled;
+    }
+
+    /**
+     * Waits until the tasks present at start, and every change claimed on the
+     * change log before this call, are scheduled.
+     */
+    public void awaitCurrent() throws InterruptedException {
+        caughtUp.await();
+        follower.awaitCurrent();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        follower.close();
+    }
+
+    private void run() {
+        try {
+            follower.catchUp(currentTasks.get());
+        } catch (RuntimeException e) {
+            // Closing the follower makes awaitCurrent fail instead of waiting forever.
+            follower.close();
+            throw e;
+        } finally {
+            scheduled = wheel.size();
+            caughtUp.countDown();
+        }
+        while (!closed) {
+            try {
+                follower.poll(POLL_BATCH, tickMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            wheel.advance(clock.millis(), this::expired);
+            scheduled = wheel.size();
+        }
+    }
+
+    private void onChange(Task before, Task after) {
+        String id = after != null ? after.getId() : before.getId();
+        Entry entry = entries.get(id);
+        if (after == null || after.getStatus() == Status.COMPLETED || after.getDueDate().isEmpty()) {
+            if (entry != null) {
+                cancel(entry);
+                entries.remove(id);
+            }
+            return;
+        }
+        LocalDateTime dueDate = after.getDueDate().get();
+        if (entry != null && entry.dueDate.equals(dueDate)) {
+            entry.task = after;
+            return;
+        }
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(id, entry);
+        } else {
+            cancel(entry);
+        }
+        entry.task = after;
+        entry.dueDate = dueDate;
+        long nowMillis = clock.millis();
+        entry.phase = dueSoonLead.isZero() || dueMillis(dueDate) <= nowMillis ? Phase.OVERDUE : Phase.DUE_SOON;
+        schedule(entry, nowMillis);
+    }
+
+    private void expired(Entry entry) {
+        entry.timer = null;
+        fire(entry);
+        schedule(entry, clock.millis());
+    }
+
+    // Fires every phase whose time has come, then waits for the next one.
+    private void schedule(Entry entry, long nowMillis) {
+        while (entry.phase != Phase.DONE) {
+            long dueMillis = dueMillis(entry.dueDate);
+            long deadline = entry.phase == Phase.DUE_SOON ? dueMillis - dueSoonLead.toMillis() : dueMillis;
+            if (deadline > nowMillis) {
+                entry.timer = wheel.schedule(deadline, entry);
+                return;
+            }
+            fire(entry);
+        }
+    }
+
+    private long dueMillis(LocalDateTime dueDate) {
+        return dueDate.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private void fire(Entry entry) {
+        Consumer<Task> callback = entry.phase == Phase.DUE_SOON ? onDueSoon : onOverdue;
+        entry.phase = entry.phase == Phase.DUE_SOON ? Phase.OVERDUE : Phase.DONE;
+        try {
+            callback.accept(entry.task);
+        } catch (RuntimeException e) {
+            // One failing callback must not stop the scheduler for every other task,
+            // but it is reported where an uncaught exception on this thread would be.
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    private void cancel(Entry entry) {
+        if (entry.timer != null) {
+            wheel.cancel(entry.timer);
+            entry.timer = null;
+        }
+    }
+
+    private static final class Entry {
+        Task task;
+        LocalDateTime dueDate;
+        Phase phase;
+        TimingWheel.Timer<Entry> timer;
+    }
+
+    public static class Builder {
+        private final TaskRepository repository;
+        private Clock clock = Clock.systemDefaultZone();
+        private Duration tick = Duration.ofSeconds(1);
+        private Duration dueSoonLead = Duration.ofHours(1);
+        private Consumer<Task> onDueSoon = task -> { };
+        private Consumer<Task> onOverdue = task -> { };
+
+        public Builder(TaskRepository repository) {
+            if (repository == null) {
+                throw new IllegalArgumentException("Repository cannot be null");
+            }
+            this.repository = repository;
+        }
+
+        public Builder clock(Clock clock) {
+            if (clock == null) {
+                throw new IllegalArgumentException("Clock cannot be null");
+            }
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Resolution of the wheel; callbacks fire up to one tick late.
+         */
+        public Builder tick(Duration tick) {
+            if (tick == null || tick.toMillis() <= 0) {
+                throw new IllegalArgumentException("Tick must be at least a millisecond");
+            }
+            this.tick = tick;
+            return this;
+        }
+
+        /**
+         * How long before its due date a task counts as due soon; zero turns the
+         * due-soon callback off.
+         */
+        public Builder dueSoonLead(Duration lead) {
+            if (lead == null || lead.isNegative()) {
+                throw new IllegalArgumentException("Lead cannot be negative");
+            }
+            this.dueSoonLead = lead;
+            return this;
+        }
+
+        public Builder onDueSoon(Consumer<Task> callback) {
+            if (callback == null) {
+                throw new IllegalArgumentException("Callback cannot be null");
+            }
+            this.onDueSoon = callback;
+            return this;
+        }
+
+        public Builder onOverdue(Consumer<Task> callback) {
+            if (callback == null) {
+                throw new IllegalArgumentException("Callback cannot be null");
+            }
+            this.onOverdue = callback;
+            return this;
+        }
+
+        /**
+         * Starts the scheduler thread, which schedules the repository's current
+         * tasks and then follows its changes; {@link DueDateScheduler#awaitCurrent} waits for it.
+         *
+         * @throws IllegalArgumentException if the repository has no change log
+         */
+        public DueDateScheduler build() {
+            TaskChangeLog log = repository.changeLog()
+                    .orElseThrow(() -> new IllegalArgumentException("Repository does not publish changes"));
+            DueDateScheduler scheduler = new DueDateScheduler(this, log);
+            scheduler.worker.start();
+            return scheduler;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.taskmanagement.scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: timers are kept in buckets of 64 slots per level,
+ * where a slot on level {@code n} spans {@code 64^n} ticks. Scheduling and
+ * cancelling are constant time whatever the number of timers; advancing the
+ * clock costs one step per tick plus, every {@code 64^n} ticks, moving one
+ * level-{@code n} bucket down a level, so each timer is moved at most once per
+ * level.
+ *
+ * <p>Timers fire on the first tick at or after their deadline, never before.
+ * Not thread-safe.
+ */
+public final class TimingWheel<T> {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = (Long.SIZE + BITS - 1) / BITS;
+
+    private final long tickMillis;
+    // One sentinel per bucket, heading a circular doubly linked list of timers.
+    private final Timer<T>[] buckets;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        this.buckets = (Timer<T>[]) new Timer<?>[LEVELS * SLOTS];
+        for (int i = 0; i < buckets.length; i++) {
+            Timer<T> sentinel = new Timer<>(null);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            buckets[i] = sentinel;
+        }
+    }
+
+    /**
+     * Schedules {@code value} to expire at {@code deadlineMillis}; a deadline
+     * that has already passed expires on the next tick.
+     */
+    public Timer<T> schedule(long deadlineMillis, T value) {
+        Timer<T> timer = new Timer<>(value);
+        // Round up so a timer never fires before its deadline.
+        timer.deadlineTick = Math.max(-Math.floorDiv(-deadlineMillis, tickMillis), currentTick + 1);
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Returns false if the timer already fired or was cancelled.
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (!timer.isScheduled()) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the clock to {@code nowMillis} and hands every timer that expired on
+     * the way to {@code expired}, which may schedule new timers.
+     */
+    public void advance(long nowMillis, Consumer<? super T> expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                return;
+            }
+            currentTick++;
+            // Higher levels first: their timers may land in lower buckets due now.
+            for (int level = cascadeLevels(currentTick); level > 0; level--) {
+                cascade(bucket(level, currentTick >>> (BITS * level)));
+            }
+            expire(bucket(0, currentTick), expired);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void insert(Timer<T> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        link(buckets[bucket(level, timer.deadlineTick >>> (BITS * level))], timer);
+    }
+
+    // How many levels above 0 roll over at this tick.
+    private static int cascadeLevels(long tick) {
+        int levels = 0;
+        while (levels < LEVELS - 1 && (tick & ((1L << (BITS * (levels + 1))) - 1)) == 0) {
+            levels++;
+        }
+        return levels;
+    }
+
+    private void cascade(int index) {
+        Timer<T> sentinel = buckets[index];
+        Timer<T> timer = detachAll(sentinel);
+        while (timer != sentinel) {
+            Timer<T> next = timer.next;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void expire(int index, Consumer<? super T> expired) {
+        Timer<T> sentinel = buckets[index];
+        Timer<T> timer = detachAll(sentinel);
+        while (timer != sentinel) {
+            Timer<T> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            size--;
+            expired.accept(timer.value);
+            timer = next;
+        }
+    }
+
+    // Empties the bucket and returns its first timer; the last one still links to the sentinel.
+    private static <T> Timer<T> detachAll(Timer<T> sentinel) {
+        Timer<T> first = sentinel.next;
+        sentinel.prev.next = sentinel;
+        sentinel.next = sentinel;
+        sentinel.prev = sentinel;
+        return first;
+    }
+
+    private static int bucket(int level, long slot) {
+        return level * SLOTS + (int) (slot & MASK);
+    }
+
+    private static <T> void link(Timer<T> sentinel, Timer<T> timer) {
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+    }
+
+    private static <T> void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+
+    public static final class Timer<T> {
+        private final T value;
+        private long deadlineTick;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T value) {
+            this.value = value;
+        }
+
+        public T value() {
+            return value;
+        }
+
+        public boolean isScheduled() {
+            return next != null;
+        }
+    }
+}
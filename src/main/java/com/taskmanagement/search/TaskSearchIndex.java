@@ -0,0 +1,272 @@
+package com.taskmanagement.search;
+
+import com.taskmanagement.event.TaskChangeFollower;
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over task titles and descriptions, kept up to date from a
+ * repository's {@link TaskChangeLog}.
+ *
+ * <p>Every indexed version of a task gets a new document number, so posting
+ * lists only ever grow at the end and stay sorted; the document a task replaces
+ * is marked dead and dropped from the lists once dead documents outnumber live
+ * ones. Changes that leave the title and description alone do not touch the
+ * index. Terms are kept sorted so a prefix is a range of them.
+ *
+ * <p>{@link #search} first waits for changes already published, so a caller
+ * sees its own writes; ids of tasks changed since may still be stale, and callers
+ * re-check the tasks they load.
+ */
+public class TaskSearchIndex implements AutoCloseable {
+    private static final int POLL_BATCH = 1024;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final int MIN_DEAD_TO_COMPACT = 1024;
+
+    private final TaskChangeFollower follower;
+    private final Thread consumer;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Integer> documents = new HashMap<>();
+    // Task id by document number; null once the document is dead.
+    private String[] taskIds = new String[1024];
+    private int nextDocument;
+    private volatile boolean closed;
+
+    private TaskSearchIndex(TaskChangeLog log) {
+        this.follower = new TaskChangeFollower(log, this::apply);
+        this.consumer = new Thread(this::consume, "task-search-index");
+        consumer.setDaemon(true);
+    }
+
+    /**
+     * Indexes the repository's current tasks and keeps following its changes.
+     *
+     * @throws IllegalArgumentException if the repository has no change log
+     */
+    public static TaskSearchIndex attach(TaskRepository repository) {
+        if (repository == null) {
+            throw new IllegalArgumentException("Repository cannot be null");
+        }
+        TaskChangeLog log = repository.changeLog()
+                .orElseThrow(() -> new IllegalArgumentException("Repository does not publish changes"));
+        TaskSearchIndex index = new TaskSearchIndex(log);
+        index.follower.catchUp(repository.stream());
+        index.consumer.start();
+        return index;
+    }
+
+    /**
+     * Ids of the tasks whose title or description has a word starting with each
+     * word of {@code text}, in no particular order. Blank text matches every task.
+     */
+    public List<String> search(String text) {
+        awaitCurrent();
+        List<String> queryTerms = TextTokenizer.tokenize(text);
+        lock.readLock().lock();
+        try {
+            if (queryTerms.isEmpty()) {
+                return new ArrayList<>(documents.keySet());
+            }
+            List<int[]> lists = new ArrayList<>(queryTerms.size());
+            for (String term : queryTerms) {
+                int[] postings = postingsWithPrefix(term);
+                if (postings.length == 0) {
+                    return new ArrayList<>();
+                }
+                lists.add(postings);
+            }
+            // Shortest first, so each step probes the longer list for few documents.
+            lists.sort(Comparator.comparingInt(list -> list.length));
+            int[] matches = lists.get(0);
+            int size = matches.length;
+            for (int i = 1; i < lists.size() && size > 0; i++) {
+                size = intersect(matches, size, lists.get(i));
+            }
+            List<String> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String id = taskIds[matches[i]];
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed tasks.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        consumer.interrupt();
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        follower.close();
+    }
+
+    private void awaitCurrent() {
+        try {
+            follower.awaitCurrent();
+        } catch (InterruptedException e) {
+            // Searching a slightly stale index beats failing the query.
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consume() {
+        while (!closed) {
+            try {
+                follower.poll(POLL_BATCH, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void apply(Task before, Task after) {
+        if (before != null && after != null && sameText(before, after)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            String id = after != null ? after.getId() : before.getId();
+            Integer previous = documents.remove(id);
+            if (previous != null) {
+                taskIds[previous] = null;
+            }
+            if (after != null) {
+                add(after);
+            }
+            if (nextDocument - documents.size() > Math.max(MIN_DEAD_TO_COMPACT, documents.size())) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Task task) {
+        int document = nextDocument++;
+        if (document == taskIds.length) {
+            taskIds = Arrays.copyOf(taskIds, taskIds.length * 2);
+        }
+        taskIds[document] = task.getId();
+        documents.put(task.getId(), document);
+        for (String token : TextTokenizer.tokens(task)) {
+            terms.computeIfAbsent(token, key -> new Postings()).add(document);
+        }
+    }
+
+    // Renumbers live documents densely and drops dead ones from every list.
+    private void compact() {
+        int[] renumbered = new int[nextDocument];
+        int live = 0;
+        for (int document = 0; document < nextDocument; document++) {
+            String id = taskIds[document];
+            renumbered[document] = id == null ? -1 : live;
+            if (id != null) {
+                taskIds[live] = id;
+                documents.put(id, live);
+                live++;
+            }
+        }
+        Arrays.fill(taskIds, live, nextDocument, null);
+        nextDocument = live;
+        terms.values().removeIf(postings -> postings.renumber(renumbered) == 0);
+    }
+
+    private int[] postingsWithPrefix(String prefix) {
+        Map<String, Postings> range = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.size() == 1) {
+            Postings postings = range.values().iterator().next();
+            return Arrays.copyOf(postings.documents, postings.size);
+        }
+        BitSet union = new BitSet(nextDocument);
+        for (Postings postings : range.values()) {
+            for (int i = 0; i < postings.size; i++) {
+                union.set(postings.documents[i]);
+            }
+        }
+        return union.stream().toArray();
+    }
+
+    /**
+     * Keeps the first {@code size} entries of {@code matches} that are also in
+     * {@code other}, both sorted, by binary search from the last position found.
+     */
+    private static int intersect(int[] matches, int size, int[] other) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < size && from < other.length; i++) {
+            int found = Arrays.binarySearch(other, from, other.length, matches[i]);
+            if (found >= 0) {
+                matches[kept++] = matches[i];
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    private static boolean sameText(Task before, Task after) {
+        return before.getTitle().equals(after.getTitle()) && Objects.equals(before.getDescription(), after.getDescription());
+    }
+
+    /**
+     * Ascending document numbers, dead ones included until the next compaction.
+     */
+    private static final class Postings {
+        int[] documents = new int[4];
+        int size;
+
+        void add(int document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        int renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int document = renumbered[documents[i]];
+                if (document >= 0) {
+                    documents[kept++] = document;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.taskmanagement.search;
+
+import com.taskmanagement.model.Task;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into lowercased runs of letters and digits. Search terms match
+ * any token they are a prefix of, so "rep" finds "Report".
+ */
+public final class TextTokenizer {
+    private TextTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Distinct tokens of the task's title and description.
+     */
+    public static Set<String> tokens(Task task) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(task.getTitle()));
+        task.getDescription().ifPresent(description -> tokens.addAll(tokenize(description)));
+        return tokens;
+    }
+
+    /**
+     * Whether every term is a prefix of a token of the task's title or description.
+     */
+    public static boolean matches(List<String> terms, Task task) {
+        if (terms.isEmpty()) {
+            return true;
+        }
+        Set<String> tokens = tokens(task);
+        for (String term : terms) {
+            if (tokens.stream().noneMatch(token -> token.startsWith(term))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
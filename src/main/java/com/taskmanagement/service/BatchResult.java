@@ -0,0 +1,95 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.model.Task;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Per-item outcomes of a batch operation, in the order the items were given.
+ * An id that appears more than once in a batch is acted on for its first
+ * occurrence only; every later occurrence is reported as {@link Outcome#INVALID}.
+ */
+public class BatchResult {
+
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        INVALID
+    }
+
+    private final List<Item> items;
+
+    BatchResult(List<Item> items) {
+        this.items = Collections.unmodifiableList(items);
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public long count(Outcome outcome) {
+        return items.stream().filter(item -> item.outcome == outcome).count();
+    }
+
+    public boolean isFullySuccessful() {
+        return items.stream().allMatch(Item::isSuccessful);
+    }
+
+    /**
+     * The tasks that were created or updated.
+     */
+    public List<Task> getTasks() {
+        return items.stream()
+                .map(item -> item.task)
+                .filter(task -> task != null)
+                .collect(Collectors.toList());
+    }
+
+    public static class Item {
+        private final String id;
+        private final Outcome outcome;
+        private final Task task;
+        private final String error;
+
+        Item(String id, Outcome outcome, Task task, String error) {
+            this.id = id;
+            this.outcome = outcome;
+            this.task = task;
+            this.error = error;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public Optional<Task> getTask() {
+            return Optional.ofNullable(task);
+        }
+
+        public Optional<String> getError() {
+            return Optional.ofNullable(error);
+        }
+
+        public boolean isSuccessful() {
+            return outcome != Outcome.NOT_FOUND && outcome != Outcome.INVALID;
+        }
+
+        @Override
+        public String toString() {
+            return "Item{" +
+                    "id='" + id + '\'' +
+                    ", outcome=" + outcome +
+                    (error != null ? ", error='" + error + '\'' : "") +
+                    '}';
+        }
+    }
+}
@@ -1,11 +1,47 @@
 package com.taskmanagement.service;
 
+import com.taskmanagement.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
 public enum SortOption {
     DUE_DATE_ASC,
     DUE_DATE_DESC,
     PRIORITY_ASC,
     PRIORITY_DESC,
     TITLE_ASC,
-    TITLE_DESC
-}
+    TITLE_DESC;
 
+    private static final Comparator<Task> BY_ID = Comparator.comparing(Task::getId);
+
+    // Ties are broken by id so every option is a total order, which keeps
+    // paging stable and lets DESC be the exact reverse of ASC where possible.
+    public Comparator<Task> comparator() {
+        switch (this) {
+            case DUE_DATE_ASC:
+                return Comparator.<Task, LocalDateTime>comparing(
+                        task -> task.getDueDate().orElse(LocalDateTime.MAX)
+                ).thenComparing(BY_ID);
+            case DUE_DATE_DESC:
+                return Comparator.<Task, LocalDateTime>comparing(
+                        task -> task.getDueDate().orElse(LocalDateTime.MIN),
+                        Comparator.reverseOrder()
+                ).thenComparing(BY_ID.reversed());
+            case PRIORITY_ASC:
+                return Comparator.comparing(Task::getPriority).thenComparing(BY_ID);
+            case PRIORITY_DESC:
+                return Comparator.comparing(Task::getPriority).thenComparing(BY_ID).reversed();
+            case TITLE_ASC:
+                return Comparator.comparing(Task::getTitle).thenComparing(BY_ID);
+            case TITLE_DESC:
+                return Comparator.comparing(Task::getTitle).thenComparing(BY_ID).reversed();
+            default:
+                return BY_ID;
+        }
+    }
+
+    public boolean isDueDateOrder() {
+        return this == DUE_DATE_ASC || this == DUE_DATE_DESC;
+    }
+}
@@ -1,27 +1,60 @@
 package com.taskmanagement.service;
 
+import com.taskmanagement.exception.ConcurrentUpdateException;
 import com.taskmanagement.exception.InvalidTaskException;
 import com.taskmanagement.exception.TaskNotFoundException;
 import com.taskmanagement.filter.TaskFilter;
 import com.taskmanagement.model.Priority;
 import com.taskmanagement.model.Status;
 import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskIdGenerator;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskCursor;
+import com.taskmanagement.query.TaskPage;
+import com.taskmanagement.query.TaskQuery;
 import com.taskmanagement.repository.TaskRepository;
+import com.taskmanagement.search.TaskSearchIndex;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class TaskService {
     private final TaskRepository repository;
+    private final TaskIdGenerator idGenerator;
+    private final TaskSearchIndex searchIndex;
 
     public TaskService(TaskRepository repository) {
+        this(repository, TaskIdGenerator.defaultGenerator());
+    }
+
+    public TaskService(TaskRepository repository, TaskIdGenerator idGenerator) {
+        this(repository, idGenerator, null);
+    }
+
+    /**
+     * @param searchIndex index over {@code repository} used to answer text
+     *        filters; without one they are evaluated by scanning
+     */
+    public TaskService(TaskRepository repository, TaskIdGenerator idGenerator, TaskSearchIndex searchIndex) {
         if (repository == null) {
             throw new IllegalArgumentException("Repository cannot be null");
         }
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("Id generator cannot be null");
+        }
         this.repository = repository;
+        this.idGenerator = idGenerator;
+        this.searchIndex = searchIndex;
     }
 
     public Task createTask(String title, Optional<String> description, 
@@ -29,7 +62,7 @@ public class TaskService {
         validateTitle(title);
         validatePriority(priority);
 
-        Task task = new Task.Builder()
+        Task task = new Task.Builder(idGenerator)
                 .title(title)
                 .description(description.orElse(null))
                 .dueDate(dueDate.orElse(null))
@@ -42,28 +75,63 @@ public class TaskService {
 
     public Task updateTask(String id, String title, Optional<String> description,
                           Optional<LocalDateTime> dueDate, Priority priority, Status status) {
-        Task existingTask = getTask(id);
-
-        Task.Builder builder = new Task.Builder(existingTask);
+        TaskPatch.Builder patch = TaskPatch.builder();
         
         if (title != null && !title.trim().isEmpty()) {
-            builder.title(title);
+            patch.title(title);
         }
         if (description != null) {
-            builder.description(description.orElse(null));
+            patch.description(description.orElse(null));
         }
         if (dueDate != null) {
-            builder.dueDate(dueDate.orElse(null));
+            patch.dueDate(dueDate.orElse(null));
         }
         if (priority != null) {
-            builder.priority(priority);
+            patch.priority(priority);
         }
         if (status != null) {
-            builder.status(status);
+            patch.status(status);
+        }
+
+        return updateTask(id, patch.build());
+    }
+
+    /**
+     * Applies {@code patch} atomically to the current version of the task through
+     * {@link TaskRepository#patch}, so concurrent updates to different fields never
+     * overwrite each other and only the changed fields are touched.
+     */
+    public Task updateTask(String id, TaskPatch patch) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new InvalidTaskException("Task ID cannot be null or empty");
         }
+        if (patch == null) {
+            throw new InvalidTaskException("Patch cannot be null");
+        }
+        Task updated = repository.patch(id, patch);
+        if (updated == null) {
+            throw new TaskNotFoundException("Task with ID '" + id + "' not found");
+        }
+        return updated;
+    }
 
-        Task updatedTask = builder.build();
-        return repository.save(updatedTask);
+    /**
+     * Applies {@code patch} only if the task is still at {@code expectedVersion},
+     * for callers that showed the user a specific version and must not overwrite
+     * a newer one.
+     */
+    public Task updateTask(String id, long expectedVersion, TaskPatch patch) {
+        if (patch == null) {
+            throw new InvalidTaskException("Patch cannot be null");
+        }
+        Task current = getTask(id);
+        Task updated = current.getVersion() == expectedVersion
+                ? repository.compareAndSave(expectedVersion, patch.applyTo(current))
+                : null;
+        if (updated == null) {
+            throw new ConcurrentUpdateException("Task with ID '" + id + "' is no longer at version " + expectedVersion);
+        }
+        return updated;
     }
 
     public void deleteTask(String id) {
@@ -77,6 +145,96 @@ public class TaskService {
         }
     }
 
+    /**
+     * Validates every task in one pass, then inserts the valid ones with a single
+     * {@link TaskRepository#insertAll} call. Tasks keep their ids, so ids from
+     * another system survive an import; an id that repeats within the batch is
+     * rejected, and so is one that is already stored when the batch is inserted.
+     */
+    public BatchResult createTasks(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new InvalidTaskException("Tasks cannot be null");
+        }
+        List<String> errors = new ArrayList<>(tasks.size());
+        List<Task> valid = new ArrayList<>(tasks.size());
+        Set<String> ids = new HashSet<>();
+        for (Task task : tasks) {
+            String error = validateNewTask(task, ids);
+            errors.add(error);
+            if (error == null) {
+                valid.add(task);
+            }
+        }
+        Set<String> existing = valid.isEmpty() ? Set.of() : repository.insertAll(valid);
+
+        List<BatchResult.Item> items = new ArrayList<>(tasks.size());
+        int position = 0;
+        for (Task task : tasks) {
+            String id = task == null ? null : task.getId();
+            String error = errors.get(position++);
+            if (error == null && existing.contains(id)) {
+                error = "Task with ID '" + id + "' already exists";
+            }
+            items.add(error == null
+                    ? new BatchResult.Item(id, BatchResult.Outcome.CREATED, task.withVersion(1), null)
+                    : new BatchResult.Item(id, BatchResult.Outcome.INVALID, null, error));
+        }
+        return new BatchResult(items);
+    }
+
+    public BatchResult updateTasks(Collection<String> ids, TaskPatch patch) {
+        if (ids == null) {
+            throw new InvalidTaskException("Task IDs cannot be null");
+        }
+        if (patch == null) {
+            throw new InvalidTaskException("Patch cannot be null");
+        }
+        Set<String> unique = new LinkedHashSet<>(validIds(ids));
+        Map<String, Task> updated = new HashMap<>();
+        for (Task task : repository.updateAll(unique, patch)) {
+            updated.put(task.getId(), task);
+        }
+
+        List<BatchResult.Item> items = new ArrayList<>(ids.size());
+        Set<String> reported = new HashSet<>();
+        for (String id : ids) {
+            if (isBlank(id)) {
+                items.add(new BatchResult.Item(id, BatchResult.Outcome.INVALID, null, "Task ID cannot be null or empty"));
+            } else if (!reported.add(id)) {
+                items.add(new BatchResult.Item(id, BatchResult.Outcome.INVALID, null,
+                        "Task ID '" + id + "' appears more than once in the batch"));
+            } else if (updated.containsKey(id)) {
+                items.add(new BatchResult.Item(id, BatchResult.Outcome.UPDATED, updated.get(id), null));
+            } else {
+                items.add(new BatchResult.Item(id, BatchResult.Outcome.NOT_FOUND, null, null));
+            }
+        }
+        return new BatchResult(items);
+    }
+
+    public BatchResult deleteTasks(Collection<String> ids) {
+        if (ids == null) {
+            throw new InvalidTaskException("Task IDs cannot be null");
+        }
+        Set<String> deleted = repository.deleteAllById(new LinkedHashSet<>(validIds(ids)));
+
+        List<BatchResult.Item> items = new ArrayList<>(ids.size());
+        Set<String> reported = new HashSet<>();
+        for (String id : ids) {
+            if (isBlank(id)) {
+                items.add(new BatchResult.Item(id, BatchResult.Outcome.INVALID, null, "Task ID cannot be null or empty"));
+            } else if (!reported.add(id)) {
+                items.add(new BatchResult.Item(id, BatchResult.Outcome.INVALID, null,
+                        "Task ID '" + id + "' appears more than once in the batch"));
+            } else if (deleted.contains(id)) {
+                items.add(new BatchResult.Item(id, BatchResult.Outcome.DELETED, null, null));
+            } else {
+                items.add(new BatchResult.Item(id, BatchResult.Outcome.NOT_FOUND, null, null));
+            }
+        }
+        return new BatchResult(items);
+    }
+
     public Task getTask(String id) {
         if (id == null || id.trim().isEmpty()) {
             throw new InvalidTaskException("Task ID cannot be null or empty");
@@ -93,26 +251,92 @@ public class TaskService {
         if (filter == null) {
             return repository.findAll();
         }
-        return repository.findAll(filter.build());
+        return query(TaskQuery.of(filter));
     }
 
     public List<Task> listTasks(TaskFilter filter, SortOption sortOption) {
-        List<Task> tasks = listTasks(filter);
-        
-        if (sortOption == null) {
-            return tasks;
+        TaskQuery query = new TaskQuery.Builder()
+                .filter(filter)
+                .sortBy(sortOption)
+                .build();
+        return query(query);
+    }
+
+    public List<Task> listTasks(TaskFilter filter, SortOption sortOption, int offset, int limit) {
+        validatePaging(offset, limit);
+        TaskQuery query = new TaskQuery.Builder()
+                .filter(filter)
+                .sortBy(sortOption)
+                .offset(offset)
+                .limit(limit)
+                .build();
+        return query(query);
+    }
+
+    public TaskPage listTaskPage(TaskFilter filter, SortOption sortOption, TaskCursor cursor, int limit) {
+        validatePaging(0, limit);
+        TaskQuery query;
+        try {
+            // One extra row tells us whether another page exists.
+            query = new TaskQuery.Builder()
+                    .filter(filter)
+                    .sortBy(sortOption)
+                    .after(cursor)
+                    .limit(limit == Integer.MAX_VALUE ? limit : limit + 1)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTaskException(e.getMessage(), e);
+        }
+
+        List<Task> tasks = query(query);
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null);
         }
+        List<Task> page = tasks.subList(0, limit);
+        return new TaskPage(page, TaskCursor.after(page.get(limit - 1), sortOption));
+    }
 
-        Comparator<Task> comparator = getComparator(sortOption);
-        return tasks.stream()
-                .sorted(comparator)
-                .collect(Collectors.toList());
+    /**
+     * Lazy counterpart of {@link #listTasks(TaskFilter, SortOption)} for exports and
+     * printing; see {@link TaskRepository#stream()} for the consistency guarantees.
+     * Both arguments may be null.
+     */
+    public Stream<Task> streamTasks(TaskFilter filter, SortOption sortOption) {
+        TaskQuery query = new TaskQuery.Builder()
+                .filter(filter)
+                .sortBy(sortOption)
+                .build();
+        return searchIndex != null && hasText(query) ? query.stream(textMatches(query)) : repository.stream(query);
+    }
+
+    public Stream<Task> streamTasks(TaskFilter filter) {
+        return streamTasks(filter, null);
     }
 
     public List<Task> listAllTasks() {
         return repository.findAll();
     }
 
+    private List<Task> query(TaskQuery query) {
+        return searchIndex != null && hasText(query) ? query.evaluate(textMatches(query)) : repository.query(query);
+    }
+
+    private static boolean hasText(TaskQuery query) {
+        return query.getFilter().flatMap(TaskFilter::getText).isPresent();
+    }
+
+    /**
+     * Tasks the index finds for the filter's text, loaded and checked against the
+     * whole query, since the index may trail the repository.
+     */
+    private Stream<Task> textMatches(TaskQuery query) {
+        String text = query.getFilter().flatMap(TaskFilter::getText).orElseThrow();
+        return searchIndex.search(text).stream()
+                .map(repository::findById)
+                .filter(Objects::nonNull)
+                .filter(query.predicate());
+    }
+
     private void validateTitle(String title) {
         if (title == null || title.trim().isEmpty()) {
             throw new InvalidTaskException("Task title cannot be null or empty");
@@ -125,28 +349,48 @@ public class TaskService {
         }
     }
 
-    private Comparator<Task> getComparator(SortOption sortOption) {
-        switch (sortOption) {
-            case DUE_DATE_ASC:
-                return Comparator.comparing(
-                    task -> task.getDueDate().orElse(LocalDateTime.MAX),
-                    Comparator.nullsLast(Comparator.naturalOrder())
-                );
-            case DUE_DATE_DESC:
-                return Comparator.comparing(
-                    task -> task.getDueDate().orElse(LocalDateTime.MIN),
-                    Comparator.nullsFirst(Comparator.reverseOrder())
-                );
-            case PRIORITY_ASC:
-                return Comparator.comparing(Task::getPriority);
-            case PRIORITY_DESC:
-                return Comparator.comparing(Task::getPriority).reversed();
-            case TITLE_ASC:
-                return Comparator.comparing(Task::getTitle);
-            case TITLE_DESC:
-                return Comparator.comparing(Task::getTitle).reversed();
-            default:
-                return Comparator.comparing(Task::getId);
-        }
-    }
-}
\ No newline at end of file
+    private String validateNewTask(Task task, Set<String> batchIds) {
+        if (task == null) {
+            return "Task cannot be null";
+        }
+        if (isBlank(task.getId())) {
+            return "Task ID cannot be null or empty";
+        }
+        if (isBlank(task.getTitle())) {
+            return "Task title cannot be null or empty";
+        }
+        if (task.getPriority() == null) {
+            return "Task priority cannot be null";
+        }
+        if (task.getStatus() == null) {
+            return "Task status cannot be null";
+        }
+        if (!batchIds.add(task.getId())) {
+            return "Task ID '" + task.getId() + "' appears more than once in the batch";
+        }
+        return null;
+    }
+
+    private static List<String> validIds(Collection<String> ids) {
+        List<String> valid = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            if (!isBlank(id)) {
+                valid.add(id);
+            }
+        }
+        return valid;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private void validatePaging(int offset, int limit) {
+        if (offset < 0) {
+            throw new InvalidTaskException("Offset cannot be negative");
+        }
+        if (limit <= 0) {
+            throw new InvalidTaskException("Limit must be positive");
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.event.TaskChangeFollower;
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.repository.TaskRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Task counts for dashboards, kept up to date from a repository's
+ * {@link TaskChangeLog} instead of being recomputed with a scan per question.
+ *
+ * <p>Counts per status and priority are answered in constant time. Open (not
+ * completed) tasks with a due date are also counted per minute of their due
+ * date, so {@link #countOverdue} and {@link #countDueWithin} work at minute
+ * granularity, in logarithmic time for any window.
+ *
+ * <p>Changes are applied by a background thread, so counts trail writes by a
+ * moment; {@link #awaitCurrent()} waits until they include every change made so
+ * far. The statistics hold a subscription, so {@link #close()} them when done or
+ * writers eventually stall.
+ */
+public class TaskStatistics implements AutoCloseable {
+    private static final int STATUSES = Status.values().length;
+    private static final int PRIORITIES = Priority.values().length;
+    private static final int POLL_BATCH = 1024;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final TaskChangeFollower follower;
+    private final AtomicLongArray counts = new AtomicLongArray(STATUSES * PRIORITIES);
+    private final DueDateHistogram dueDates = new DueDateHistogram();
+    private final Thread consumer;
+    private volatile boolean closed;
+
+    private TaskStatistics(TaskChangeLog log) {
+        this.follower = new TaskChangeFollower(log, this::apply);
+        this.consumer = new Thread(this::consume, "task-statistics");
+        consumer.setDaemon(true);
+    }
+
+    /**
+     * Counts the repository's current tasks and keeps following its changes.
+     *
+     * @throws IllegalArgumentException if the repository has no change log
+     */
+    public static TaskStatistics attach(TaskRepository repository) {
+        if (repository == null) {
+            throw new IllegalArgumentException("Repository cannot be null");
+        }
+        TaskChangeLog log = repository.changeLog()
+                .orElseThrow(() -> new IllegalArgumentException("Repository does not publish changes"));
+        TaskStatistics statistics = new TaskStatistics(log);
+        statistics.follower.catchUp(repository.stream());
+        statistics.consumer.start();
+        return statistics;
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    public long count(Status status) {
+        long total = 0;
+        for (Priority priority : Priority.values()) {
+            total += count(status, priority);
+        }
+        return total;
+    }
+
+    public long count(Priority priority) {
+        long total = 0;
+        for (Status status : Status.values()) {
+            total += count(status, priority);
+        }
+        return total;
+    }
+
+    public long count(Status status, Priority priority) {
+        if (status == null || priority == null) {
+            throw new IllegalArgumentException("Status and priority cannot be null");
+        }
+        return counts.get(slot(status, priority));
+    }
+
+    /**
+     * Open tasks due before the minute {@code now} falls in.
+     */
+    public long countOverdue(LocalDateTime now) {
+        if (now == null) {
+            throw new IllegalArgumentException("Time cannot be null");
+        }
+        return dueDates.countBefore(minute(now));
+    }
+
+    /**
+     * Open tasks due from the minute {@code now} falls in up to, but excluding,
+     * the minute {@code window} later.
+     */
+    public long countDueWithin(LocalDateTime now, Duration window) {
+        if (now == null || window == null || window.isNegative()) {
+            throw new IllegalArgumentException("Time and a non-negative window are required");
+        }
+        return dueDates.countBetween(minute(now), minute(now.plus(window)));
+    }
+
+    /**
+     * Waits until the counts include every change claimed on the log before this
+     * call.
+     */
+    public void awaitCurrent() throws InterruptedException {
+        follower.awaitCurrent();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        consumer.interrupt();
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        follower.close();
+    }
+
+    private void consume() {
+        while (!closed) {
+            try {
+                follower.poll(POLL_BATCH, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void apply(Task before, Task after) {
+        if (!sameCounts(before, after)) {
+            record(before, -1);
+            record(after, 1);
+        }
+    }
+
+    private void record(Task task, long delta) {
+        if (task == null) {
+            return;
+        }
+        counts.addAndGet(slot(task.getStatus(), task.getPriority()), delta);
+        if (task.getStatus() != Status.COMPLETED && task.getDueDate().isPresent()) {
+            dueDates.add(minute(task.getDueDate().get()), delta);
+        }
+    }
+
+    private static boolean sameCounts(Task before, Task after) {
+        return before != null && after != null
+                && before.getStatus() == after.getStatus()
+                && before.getPriority() == after.getPriority()
+                && Objects.equals(before.getDueDate(), after.getDueDate());
+    }
+
+    private static int slot(Status status, Priority priority) {
+        return status.ordinal() * PRIORITIES + priority.ordinal();
+    }
+
+    private static long minute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Open tasks per due minute, as Fenwick trees: one per block of 1024 minutes,
+     * allocated when a task first falls in it, and one over the block totals. Both
+     * cover 2^26 minutes from 1970, to 2097, so counting the tasks due before any
+     * minute takes two logarithmic walks. Tasks due outside that span are kept in
+     * a sorted map and added up one minute at a time.
+     */
+    private static final class DueDateHistogram {
+        private static final int BLOCK_BITS = 10;
+        private static final int BLOCK_MASK = (1 << BLOCK_BITS) - 1;
+        private static final int BLOCKS = 1 << 16;
+        private static final long MINUTES = (long) BLOCKS << BLOCK_BITS;
+
+        private final long[] blockTotals = new long[BLOCKS + 1];
+        private final long[][] blocks = new long[BLOCKS][];
+        private final TreeMap<Long, Long> outside = new TreeMap<>();
+
+        synchronized void add(long minute, long delta) {
+            if (minute < 0 || minute >= MINUTES) {
+                outside.merge(minute, delta, (count, change) -> count + change == 0 ? null : count + change);
+                return;
+            }
+            int block = (int) (minute >>> BLOCK_BITS);
+            long[] tree = blocks[block];
+            if (tree == null) {
+                tree = new long[BLOCK_MASK + 2];
+                blocks[block] = tree;
+            }
+            for (int i = (int) (minute & BLOCK_MASK) + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+            for (int i = block + 1; i < blockTotals.length; i += i & -i) {
+                blockTotals[i] += delta;
+            }
+        }
+
+        synchronized long countBefore(long minute) {
+            return before(minute);
+        }
+
+        synchronized long countBetween(long from, long to) {
+            return from < to ? before(to) - before(from) : 0;
+        }
+
+        private long before(long minute) {
+            long total = 0;
+            for (long count : outside.headMap(minute).values()) {
+                total += count;
+            }
+            if (minute <= 0) {
+                return total;
+            }
+            if (minute >= MINUTES) {
+                return total + beforeBlock(BLOCKS);
+            }
+            int block = (int) (minute >>> BLOCK_BITS);
+            total += beforeBlock(block);
+            long[] tree = blocks[block];
+            if (tree != null) {
+                for (int i = (int) (minute & BLOCK_MASK); i > 0; i -= i & -i) {
+                    total += tree[i];
+                }
+            }
+            return total;
+        }
+
+        // Tasks due in the blocks before block.
+        private long beforeBlock(int block) {
+            long total = 0;
+            for (int i = block; i > 0; i -= i & -i) {
+                total += blockTotals[i];
+            }
+            return total;
+        }
+    }
+}
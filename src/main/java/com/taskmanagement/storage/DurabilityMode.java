@@ -0,0 +1,10 @@
+package com.taskmanagement.storage;
+
+public enum DurabilityMode {
+    /** Every append is forced to disk before it returns. */
+    PER_WRITE,
+    /** Appends wait for a group commit that forces all records written so far. */
+    BATCHED,
+    /** Appends return immediately; a background thread forces the log periodically. */
+    ASYNC
+}
@@ -0,0 +1,138 @@
+package com.taskmanagement.storage;
+
+import com.taskmanagement.exception.StorageException;
+import com.taskmanagement.model.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time copies of every task, named after the first log sequence number
+ * that is not guaranteed to be reflected in them. Recovery loads the newest
+ * snapshot and replays the log from that LSN; since replaying a save or delete is
+ * idempotent, a snapshot taken while writers are active may safely include some
+ * later changes as well.
+ */
+public class SnapshotStore {
+    private static final int MAGIC = 0x54534E50;
+    private static final int FORMAT_VERSION = 4;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+
+    private final Path directory;
+
+    public SnapshotStore(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new StorageException("Cannot create snapshot directory " + directory, e);
+        }
+    }
+
+    /**
+     * Writes a snapshot atomically: to a temporary file that is forced to disk and
+     * then renamed. Older snapshots are removed once the new one is in place.
+     */
+    public void write(long lsn, Iterator<Task> tasks) {
+        Path target = snapshotPath(lsn);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(lsn);
+            while (tasks.hasNext()) {
+                out.writeBoolean(true);
+                TaskBinaryCodec.write(out, tasks.next());
+            }
+            out.writeBoolean(false);
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+            file.getFD().sync();
+        } catch (IOException e) {
+            throw new StorageException("Cannot write snapshot " + target, e);
+        }
+
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            StorageFiles.syncDirectory(directory);
+            for (long older : snapshotLsns()) {
+                if (older < lsn) {
+                    Files.deleteIfExists(snapshotPath(older));
+                }
+            }
+        } catch (IOException e) {
+            throw new StorageException("Cannot install snapshot " + target, e);
+        }
+    }
+
+    /**
+     * Feeds every task of the newest snapshot to {@code consumer} and returns the
+     * LSN to replay the log from, or an empty result when there is no snapshot.
+     */
+    public OptionalLong loadLatest(Consumer<Task> consumer) {
+        List<Long> lsns = snapshotLsns();
+        if (lsns.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        long lsn = lsns.get(lsns.size() - 1);
+        Path path = snapshotPath(lsn);
+        try (InputStream file = Files.newInputStream(path)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file, 1 << 16), new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readLong() != lsn) {
+                throw new StorageException("Unrecognized snapshot " + path);
+            }
+            while (in.readBoolean()) {
+                consumer.accept(TaskBinaryCodec.read(in));
+            }
+            int expected = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expected) {
+                throw new StorageException("Snapshot checksum mismatch in " + path);
+            }
+            return OptionalLong.of(lsn);
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("Malformed task in snapshot " + path, e);
+        } catch (IOException e) {
+            throw new StorageException("Cannot read snapshot " + path, e);
+        }
+    }
+
+    private List<Long> snapshotLsns() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new StorageException("Cannot list snapshots in " + directory, e);
+        }
+    }
+
+    private Path snapshotPath(long lsn) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, lsn, SUFFIX));
+    }
+}
@@ -0,0 +1,24 @@
+package com.taskmanagement.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public final class StorageFiles {
+
+    private StorageFiles() {
+    }
+
+    /**
+     * Makes file creations, renames and deletions in the directory durable. Not all
+     * platforms allow opening a directory; there the rename itself is the best we get.
+     */
+    public static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Best effort, see above.
+        }
+    }
+}
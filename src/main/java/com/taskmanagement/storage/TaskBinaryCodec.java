@@ -0,0 +1,384 @@
+package com.taskmanagement.storage;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskId;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary form of a task, used by log records and snapshots:
+ *
+ * <pre>
+ * byte    schema version
+ * varint  body length
+ * body:
+ *   byte    flags: description, due date, canonical id, due date nanos
+ *   id      16 bytes if canonical, else a string
+ *   string  title
+ *   byte    priority ordinal
+ *   byte    status ordinal
+ *   varint  version
+ *   string  description            if flagged
+ *   varint  zigzag epoch seconds   if flagged, the due date read as UTC
+ *   varint  nanos                  if flagged
+ * </pre>
+ *
+ * Strings are a varint byte length followed by UTF-8. Later schema versions may
+ * only add flags and append fields to the body; readers skip what they do not
+ * know by the body length, so older code keeps reading newer records.
+ *
+ * <p>Works on heap and direct buffers alike; heap buffers are read and written
+ * through their backing array. Malformed input throws
+ * {@link IllegalArgumentException}.
+ */
+public final class TaskBinaryCodec {
+    public static final int SCHEMA_VERSION = 1;
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private static final int HAS_DESCRIPTION = 1;
+    private static final int HAS_DUE_DATE = 1 << 1;
+    private static final int HAS_TASK_ID = 1 << 2;
+    private static final int HAS_DUE_NANOS = 1 << 3;
+
+    private TaskBinaryCodec() {
+    }
+
+    /**
+     * Exact number of bytes {@link #write(ByteBuffer, Task)} puts.
+     */
+    public static int encodedSize(Task task) {
+        int body = bodySize(task);
+        return 1 + varintSize(body) + body;
+    }
+
+    public static byte[] encode(Task task) {
+        byte[] bytes = new byte[encodedSize(task)];
+        write(ByteBuffer.wrap(bytes), task);
+        return bytes;
+    }
+
+    /**
+     * Puts {@code task} at the buffer's position and advances it.
+     *
+     * @throws java.nio.BufferOverflowException if fewer than
+     *         {@link #encodedSize(Task)} bytes remain
+     */
+    public static void write(ByteBuffer out, Task task) {
+        int body = bodySize(task);
+        out.put((byte) SCHEMA_VERSION);
+        putVarint(out, body);
+        TaskId taskId = task.getTaskId().orElse(null);
+        String description = task.getDescription().orElse(null);
+        LocalDateTime dueDate = task.getDueDate().orElse(null);
+        int flags = (description != null ? HAS_DESCRIPTION : 0)
+                | (dueDate != null ? HAS_DUE_DATE : 0)
+                | (dueDate != null && dueDate.getNano() != 0 ? HAS_DUE_NANOS : 0)
+                | (taskId != null ? HAS_TASK_ID : 0);
+        out.put((byte) flags);
+        if (taskId != null) {
+            putLong(out, taskId.getHigh());
+            putLong(out, taskId.getLow());
+        } else {
+            writeString(out, task.getId());
+        }
+        writeString(out, task.getTitle());
+        out.put((byte) task.getPriority().ordinal());
+        out.put((byte) task.getStatus().ordinal());
+        putVarint(out, task.getVersion());
+        if (description != null) {
+            writeString(out, description);
+        }
+        if (dueDate != null) {
+            putVarint(out, zigzag(dueDate.toEpochSecond(ZoneOffset.UTC)));
+            if (dueDate.getNano() != 0) {
+                putVarint(out, dueDate.getNano());
+            }
+        }
+    }
+
+    public static void write(DataOutput out, Task task) throws IOException {
+        out.write(encode(task));
+    }
+
+    public static Task decode(byte[] bytes) {
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads the task at the buffer's position and advances past it, including any
+     * fields a newer schema added.
+     */
+    public static Task read(ByteBuffer in) {
+        try {
+            checkSchema(in.get() & 0xFF);
+            int length = bodyLength(getVarint(in));
+            if (length > in.remaining()) {
+                throw new IllegalArgumentException("Truncated task record");
+            }
+            // Bounded to the body, so fields of a newer schema are skipped with it.
+            ByteBuffer body = in.duplicate();
+            body.limit(in.position() + length);
+            in.position(in.position() + length);
+            return readBody(body);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated task record", e);
+        }
+    }
+
+    public static Task read(DataInput in) throws IOException {
+        checkSchema(in.readUnsignedByte());
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift >= 64) {
+                throw new IllegalArgumentException("Malformed varint");
+            }
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        byte[] body = new byte[bodyLength(value)];
+        in.readFully(body);
+        try {
+            return readBody(ByteBuffer.wrap(body));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated task record", e);
+        }
+    }
+
+    /**
+     * Bytes {@link #writeString} takes for {@code value}.
+     */
+    public static int encodedSize(String value) {
+        int length = utf8Length(value);
+        return varintSize(length) + length;
+    }
+
+    public static void writeString(ByteBuffer out, String value) {
+        int length = utf8Length(value);
+        putVarint(out, length);
+        if (length == value.length()) {
+            // One byte per char: ASCII, or an unpaired surrogate written as '?'.
+            if (out.hasArray()) {
+                byte[] array = out.array();
+                int position = out.arrayOffset() + out.position();
+                if (array.length - position < length) {
+                    throw new BufferOverflowException();
+                }
+                for (int i = 0; i < length; i++) {
+                    array[position + i] = asciiByte(value.charAt(i));
+                }
+                out.position(out.position() + length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    out.put(asciiByte(value.charAt(i)));
+                }
+            }
+            return;
+        }
+        putUtf8(out, value);
+    }
+
+    public static String readString(ByteBuffer in) {
+        long length = getVarint(in);
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("Truncated string of " + length + " bytes");
+        }
+        int size = (int) length;
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), size, StandardCharsets.UTF_8);
+            in.position(in.position() + size);
+            return value;
+        }
+        byte[] bytes = new byte[size];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void checkSchema(int schema) {
+        if (schema == 0) {
+            throw new IllegalArgumentException("Not a task record: schema version 0");
+        }
+    }
+
+    private static int bodyLength(long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Task record too large: " + length);
+        }
+        return (int) length;
+    }
+
+    private static Task readBody(ByteBuffer in) {
+        int flags = in.get() & 0xFF;
+        Task.Builder builder = new Task.Builder();
+        if ((flags & HAS_TASK_ID) != 0) {
+            builder.id(TaskId.of(getLong(in), getLong(in)));
+        } else {
+            builder.id(readString(in));
+        }
+        builder.title(readString(in))
+                .priority(constant(PRIORITIES, in.get()))
+                .status(constant(STATUSES, in.get()))
+                .version(getVarint(in));
+        if ((flags & HAS_DESCRIPTION) != 0) {
+            builder.description(readString(in));
+        }
+        if ((flags & HAS_DUE_DATE) != 0) {
+            long epochSecond = unzigzag(getVarint(in));
+            long nano = (flags & HAS_DUE_NANOS) != 0 ? getVarint(in) : 0;
+            if (nano >= 1_000_000_000) {
+                throw new IllegalArgumentException("Nanos out of range: " + nano);
+            }
+            try {
+                builder.dueDate(LocalDateTime.ofEpochSecond(epochSecond, (int) nano, ZoneOffset.UTC));
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException("Due date out of range", e);
+            }
+        }
+        return builder.build();
+    }
+
+    private static <E> E constant(E[] constants, byte ordinal) {
+        int index = ordinal & 0xFF;
+        if (index >= constants.length) {
+            throw new IllegalArgumentException("Unknown constant ordinal " + index);
+        }
+        return constants[index];
+    }
+
+    private static int bodySize(Task task) {
+        int size = 1;
+        size += task.getTaskId().isPresent() ? 16 : encodedSize(task.getId());
+        size += encodedSize(task.getTitle());
+        size += 2;
+        size += varintSize(task.getVersion());
+        if (task.getDescription().isPresent()) {
+            size += encodedSize(task.getDescription().get());
+        }
+        if (task.getDueDate().isPresent()) {
+            LocalDateTime dueDate = task.getDueDate().get();
+            size += varintSize(zigzag(dueDate.toEpochSecond(ZoneOffset.UTC)));
+            if (dueDate.getNano() != 0) {
+                size += varintSize(dueDate.getNano());
+            }
+        }
+        return size;
+    }
+
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes++;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    // Four bytes for the pair's two chars.
+                    bytes += 2;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    // Unpaired: written as '?', as String.getBytes does.
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static byte asciiByte(char c) {
+        return c < 0x80 ? (byte) c : (byte) '?';
+    }
+
+    private static void putUtf8(ByteBuffer out, String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6));
+                out.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | codePoint >> 18));
+                out.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                out.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                out.put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | c >> 12));
+                out.put((byte) (0x80 | c >> 6 & 0x3F));
+                out.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    // Big-endian whatever the buffer's byte order, so the format does not depend on it.
+    private static void putLong(ByteBuffer out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.put((byte) (value >>> shift));
+        }
+    }
+
+    private static long getLong(ByteBuffer in) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = value << 8 | (in.get() & 0xFF);
+        }
+        return value;
+    }
+
+    private static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
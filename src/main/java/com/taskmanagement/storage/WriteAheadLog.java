@@ -0,0 +1,463 @@
+package com.taskmanagement.storage;
+
+import com.taskmanagement.exception.StorageException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of opaque records, each tagged with a monotonically increasing
+ * log sequence number (LSN). The log is split into segment files named after the
+ * first LSN they hold, so that everything covered by a snapshot can be dropped a
+ * whole segment at a time.
+ *
+ * <p>Record layout: {@code int length | int crc32(lsn, payload) | long lsn | payload}.
+ * A torn or corrupt record at the end of the last segment is treated as never
+ * written and truncated on open.
+ *
+ * <p>Lock order is {@code syncLock} then {@code appendLock}; appends only take
+ * {@code appendLock}, so they keep flowing while another thread is in fsync.
+ */
+public class WriteAheadLog implements AutoCloseable {
+    private static final int MAGIC = 0x54574C47;
+    private static final int FORMAT_VERSION = 4;
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 16;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final DurabilityMode mode;
+    private final long groupCommitWindowNanos;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer lsnBytes = ByteBuffer.allocate(Long.BYTES);
+    private final ScheduledExecutorService flusher;
+
+    private FileChannel channel;
+    private long nextLsn;
+    private volatile long durableLsn;
+    private boolean closed;
+
+    private WriteAheadLog(Path directory, DurabilityMode mode, long groupCommitWindowNanos,
+                          long asyncFlushIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.mode = mode;
+        this.groupCommitWindowNanos = groupCommitWindowNanos;
+        Files.createDirectories(directory);
+        recover();
+        if (mode == DurabilityMode.ASYNC) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::syncQuietly,
+                    asyncFlushIntervalMillis, asyncFlushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public static WriteAheadLog open(Path directory, DurabilityMode mode) {
+        return open(directory, mode, 0, 100);
+    }
+
+    public static WriteAheadLog open(Path directory, DurabilityMode mode,
+                                     long groupCommitWindowNanos, long asyncFlushIntervalMillis) {
+        if (directory == null || mode == null) {
+            throw new IllegalArgumentException("Directory and durability mode cannot be null");
+        }
+        if (groupCommitWindowNanos < 0 || asyncFlushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Invalid group commit window or flush interval");
+        }
+        try {
+            return new WriteAheadLog(directory, mode, groupCommitWindowNanos, asyncFlushIntervalMillis);
+        } catch (IOException e) {
+            throw new StorageException("Cannot open write-ahead log in " + directory, e);
+        }
+    }
+
+    public DurabilityMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Appends a record and returns its LSN. Whether the record is durable when this
+     * returns depends on the mode; use {@link #awaitDurable(long)} before
+     * acknowledging a write.
+     */
+    public long append(byte[] payload) {
+        appendLock.lock();
+        try {
+            ensureOpen();
+            long lsn = nextLsn++;
+            writeRecord(lsn, payload);
+            if (mode == DurabilityMode.PER_WRITE) {
+                flushBuffer();
+                channel.force(false);
+                durableLsn = lsn;
+            }
+            return lsn;
+        } catch (IOException e) {
+            throw new StorageException("Cannot append to write-ahead log", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record with the given LSN is on disk. In {@code BATCHED}
+     * mode one caller forces the log on behalf of every record appended so far,
+     * while later callers queue on the sync lock and usually find their record
+     * already durable. {@code ASYNC} mode returns immediately.
+     */
+    public void awaitDurable(long lsn) {
+        if (mode == DurabilityMode.ASYNC || durableLsn >= lsn) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durableLsn >= lsn) {
+                return;
+            }
+            if (groupCommitWindowNanos > 0) {
+                // Give concurrent writers a moment to join this commit.
+                LockSupport.parkNanos(groupCommitWindowNanos);
+            }
+            syncLocked();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Forces every appended record to disk.
+     */
+    public void sync() {
+        syncLock.lock();
+        try {
+            syncLocked();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void syncLocked() {
+        FileChannel target;
+        long lsn;
+        appendLock.lock();
+        try {
+            ensureOpen();
+            flushBuffer();
+            target = channel;
+            lsn = nextLsn - 1;
+        } catch (IOException e) {
+            throw new StorageException("Cannot flush write-ahead log", e);
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            target.force(false);
+        } catch (IOException e) {
+            throw new StorageException("Cannot sync write-ahead log", e);
+        }
+        if (lsn > durableLsn) {
+            durableLsn = lsn;
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            // The next append or sync surfaces the failure to a caller.
+        }
+    }
+
+    /**
+     * Closes the current segment and starts a new one. Returns the first LSN of the
+     * new segment: every record below it is durable and in an older segment.
+     */
+    public long rotate() {
+        syncLock.lock();
+        appendLock.lock();
+        try {
+            ensureOpen();
+            flushBuffer();
+            channel.force(false);
+            channel.close();
+            durableLsn = nextLsn - 1;
+            channel = createSegment(nextLsn);
+            return nextLsn;
+        } catch (IOException e) {
+            throw new StorageException("Cannot rotate write-ahead log", e);
+        } finally {
+            appendLock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes whole segments whose records all have an LSN below {@code lsn}.
+     */
+    public void deleteSegmentsBefore(long lsn) {
+        appendLock.lock();
+        try {
+            List<Long> starts = segmentStarts();
+            for (int i = 0; i + 1 < starts.size(); i++) {
+                if (starts.get(i + 1) <= lsn) {
+                    Files.deleteIfExists(segmentPath(starts.get(i)));
+                }
+            }
+        } catch (IOException e) {
+            throw new StorageException("Cannot delete write-ahead log segments", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long getNextLsn() {
+        appendLock.lock();
+        try {
+            return nextLsn;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Replays every durable record with an LSN of at least {@code fromLsn}, in order.
+     * Intended for recovery, before the log is shared with writers.
+     */
+    public void replay(long fromLsn, RecordConsumer consumer) {
+        appendLock.lock();
+        try {
+            flushBuffer();
+            for (long start : segmentStarts()) {
+                try (FileChannel segment = FileChannel.open(segmentPath(start), StandardOpenOption.READ)) {
+                    readSegment(segment, start, (lsn, payload) -> {
+                        if (lsn >= fromLsn) {
+                            consumer.accept(lsn, payload);
+                        }
+                    });
+                }
+            }
+        } catch (IOException e) {
+            throw new StorageException("Cannot replay write-ahead log", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        syncLock.lock();
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            flushBuffer();
+            channel.force(false);
+            channel.close();
+            closed = true;
+        } catch (IOException e) {
+            throw new StorageException("Cannot close write-ahead log", e);
+        } finally {
+            appendLock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    private void writeRecord(long lsn, byte[] payload) throws IOException {
+        crc.reset();
+        lsnBytes.clear();
+        crc.update(lsnBytes.putLong(0, lsn));
+        crc.update(payload);
+
+        int size = RECORD_HEADER_SIZE + payload.length;
+        if (size > buffer.remaining()) {
+            flushBuffer();
+        }
+        if (size > buffer.capacity()) {
+            ByteBuffer record = ByteBuffer.allocate(size);
+            record.putInt(payload.length).putInt((int) crc.getValue()).putLong(lsn).put(payload).flip();
+            writeFully(channel, record);
+            return;
+        }
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).putLong(lsn).put(payload);
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private void recover() throws IOException {
+        List<Long> starts = segmentStarts();
+        if (starts.isEmpty()) {
+            nextLsn = 1;
+            channel = createSegment(nextLsn);
+            durableLsn = 0;
+            return;
+        }
+        long lastLsn = starts.get(0) - 1;
+        for (int i = 0; i < starts.size(); i++) {
+            long start = starts.get(i);
+            boolean last = i == starts.size() - 1;
+            FileChannel segment = FileChannel.open(segmentPath(start),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long[] tail = {start - 1};
+            long validEnd = readSegment(segment, start, (lsn, payload) -> tail[0] = lsn);
+            if (last && validEnd < SEGMENT_HEADER_SIZE) {
+                // Crashed while creating the segment; start it over.
+                segment.close();
+                Files.delete(segmentPath(start));
+                channel = createSegment(start);
+                nextLsn = start;
+                durableLsn = start - 1;
+                return;
+            }
+            if (validEnd < segment.size()) {
+                if (!last) {
+                    segment.close();
+                    throw new StorageException("Corrupt write-ahead log segment " + segmentPath(start));
+                }
+                segment.truncate(validEnd);
+                segment.force(true);
+            }
+            lastLsn = Math.max(lastLsn, tail[0]);
+            if (last) {
+                segment.position(validEnd);
+                channel = segment;
+            } else {
+                segment.close();
+            }
+        }
+        nextLsn = lastLsn + 1;
+        durableLsn = lastLsn;
+    }
+
+    /**
+     * Reads records in order and returns the offset just past the last valid one.
+     */
+    private long readSegment(FileChannel segment, long startLsn, RecordConsumer consumer) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        if (readFully(segment, header, 0) < SEGMENT_HEADER_SIZE) {
+            return 0;
+        }
+        if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+            throw new StorageException("Unrecognized write-ahead log segment " + segmentPath(startLsn));
+        }
+
+        long position = SEGMENT_HEADER_SIZE;
+        long expectedLsn = startLsn;
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        CRC32 check = new CRC32();
+        while (true) {
+            recordHeader.clear();
+            if (readFully(segment, recordHeader, position) < RECORD_HEADER_SIZE) {
+                return position;
+            }
+            int length = recordHeader.getInt(0);
+            int checksum = recordHeader.getInt(4);
+            long lsn = recordHeader.getLong(8);
+            if (length < 0 || lsn != expectedLsn || position + RECORD_HEADER_SIZE + length > segment.size()) {
+                return position;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            if (readFully(segment, payload, position + RECORD_HEADER_SIZE) < length) {
+                return position;
+            }
+            check.reset();
+            check.update(ByteBuffer.allocate(Long.BYTES).putLong(0, lsn));
+            check.update(payload.array());
+            if ((int) check.getValue() != checksum) {
+                return position;
+            }
+            consumer.accept(lsn, payload.array());
+            position += RECORD_HEADER_SIZE + length;
+            expectedLsn++;
+        }
+    }
+
+    private FileChannel createSegment(long startLsn) throws IOException {
+        FileChannel segment = FileChannel.open(segmentPath(startLsn),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION);
+        header.flip();
+        writeFully(segment, header);
+        segment.force(true);
+        StorageFiles.syncDirectory(directory);
+        return segment;
+    }
+
+    private List<Long> segmentStarts() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private Path segmentPath(long startLsn) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, startLsn, SEGMENT_SUFFIX));
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new StorageException("Write-ahead log is closed");
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        int total = 0;
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(long lsn, byte[] payload) throws IOException;
+    }
+}
@@ -0,0 +1,628 @@
+package com.taskmanagement.storage.btree;
+
+import com.taskmanagement.exception.StorageException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * B+tree from byte-string keys to byte-string values over the pages of a
+ * {@link BufferPool}, with its root page kept in one of the pool's meta slots.
+ * Keys compare as unsigned bytes.
+ *
+ * <p>Pages are slotted: a header, an array of cell offsets in key order, and the
+ * cells packed from the end of the page. Leaf cells hold a key and its value,
+ * or the length and first page of an overflow chain when the value would take
+ * more than a quarter of a page. Branch cells hold a separator key and the child
+ * with keys from that separator on; the header's link is the child for keys
+ * below the first separator. Lookups binary-search the page in place, changes
+ * decode the page, edit it and write it back.
+ *
+ * <p>Pages that empty out are freed and unlinked from their parent, so the tree
+ * shrinks with deletes, but half-empty pages are not merged.
+ */
+final class BTree {
+    private static final byte LEAF = 1;
+    private static final byte BRANCH = 2;
+    private static final byte OVERFLOW = 3;
+
+    private static final int TYPE = BufferPool.TYPE;
+    private static final int LINK = BufferPool.LINK;
+    private static final int COUNT = 2;
+    private static final int SLOTS = 12;
+    private static final int OVERFLOW_LENGTH = 12;
+    private static final int OVERFLOW_DATA = 16;
+
+    private static final byte INLINE_VALUE = 0;
+    private static final byte OVERFLOW_VALUE = 1;
+
+    private final BufferPool pool;
+    private final int rootSlot;
+    private final int pageSize;
+    private final int maxKeyLength;
+
+    BTree(BufferPool pool, int rootSlot) {
+        this.pool = pool;
+        this.rootSlot = rootSlot;
+        this.pageSize = pool.pageSize();
+        this.maxKeyLength = maxKeyLength(pageSize);
+    }
+
+    /**
+     * Longest key a tree with this page size accepts, which keeps a few keys on
+     * every branch page.
+     */
+    static int maxKeyLength(int pageSize) {
+        return pageSize / 16;
+    }
+
+    byte[] get(byte[] key) {
+        checkKey(key);
+        long page = root();
+        while (page != 0) {
+            ByteBuffer buffer = pool.pin(page);
+            long next;
+            try {
+                if (buffer.get(TYPE) == LEAF) {
+                    int index = search(buffer, key);
+                    return index < 0 ? null : readValue(buffer, cell(buffer, index));
+                }
+                next = child(buffer, childIndex(buffer, key));
+            } finally {
+                pool.unpin(page);
+            }
+            page = next;
+        }
+        return null;
+    }
+
+    /**
+     * Stores {@code value} under {@code key} and returns the value it replaced, or null.
+     */
+    byte[] put(byte[] key, byte[] value) {
+        checkKey(key);
+        long root = root();
+        if (root == 0) {
+            root = pool.allocate();
+            store(root, new Node(true, 0));
+            setRoot(root);
+        }
+        byte[][] previous = new byte[1][];
+        Split split = insert(root, key, value, previous);
+        if (split != null) {
+            Node node = new Node(false, root);
+            node.insert(0, split.separator, childPayload(split.page));
+            long page = pool.allocate();
+            store(page, node);
+            setRoot(page);
+        }
+        return previous[0];
+    }
+
+    /**
+     * Removes {@code key} and returns its value, or null if it was not there.
+     */
+    byte[] remove(byte[] key) {
+        checkKey(key);
+        long root = root();
+        if (root == 0) {
+            return null;
+        }
+        boolean[] emptied = new boolean[1];
+        byte[] value = remove(root, key, emptied);
+        if (emptied[0]) {
+            setRoot(0);
+        } else if (value != null) {
+            // A root branch left with a single child is replaced by that child.
+            while (true) {
+                ByteBuffer buffer = pool.pin(root);
+                long only = buffer.get(TYPE) == BRANCH && count(buffer) == 0 ? buffer.getLong(LINK) : 0;
+                pool.unpin(root);
+                if (only == 0) {
+                    break;
+                }
+                pool.free(root);
+                root = only;
+                setRoot(root);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Hands entries to {@code visitor} in key order, starting at the first key not
+     * below {@code from} (or the first key if it is null), until the visitor
+     * returns false. Returns false if it stopped early.
+     */
+    boolean scan(byte[] from, BiPredicate<byte[], byte[]> visitor) {
+        long root = root();
+        return root == 0 || scan(root, from, visitor);
+    }
+
+    /**
+     * Frees every page of the tree.
+     */
+    void clear() {
+        long root = root();
+        if (root != 0) {
+            clear(root);
+            setRoot(0);
+        }
+    }
+
+    int height() {
+        int height = 0;
+        for (long page = root(); page != 0; height++) {
+            ByteBuffer buffer = pool.pin(page);
+            long next = buffer.get(TYPE) == LEAF ? 0 : buffer.getLong(LINK);
+            pool.unpin(page);
+            page = next;
+        }
+        return height;
+    }
+
+    private long root() {
+        return pool.meta(rootSlot);
+    }
+
+    private void setRoot(long page) {
+        pool.setMeta(rootSlot, page);
+    }
+
+    private void checkKey(byte[] key) {
+        if (key.length > maxKeyLength) {
+            throw new IllegalArgumentException("Key of " + key.length + " bytes exceeds " + maxKeyLength);
+        }
+    }
+
+    private Split insert(long page, byte[] key, byte[] value, byte[][] previous) {
+        ByteBuffer buffer = pool.pin(page);
+        Node leaf = null;
+        int index = 0;
+        long child = 0;
+        try {
+            if (buffer.get(TYPE) == LEAF) {
+                leaf = decode(buffer);
+            } else {
+                index = childIndex(buffer, key);
+                child = child(buffer, index);
+            }
+        } finally {
+            pool.unpin(page);
+        }
+        if (leaf != null) {
+            index = leaf.search(key);
+            byte[] payload = valuePayload(key, value);
+            if (index >= 0) {
+                previous[0] = readPayload(leaf.payloads.get(index));
+                freePayload(leaf.payloads.get(index));
+                leaf.payloads.set(index, payload);
+            } else {
+                leaf.insert(-index - 1, key, payload);
+            }
+            return storeOrSplit(page, leaf);
+        }
+        Split split = insert(child, key, value, previous);
+        if (split == null) {
+            return null;
+        }
+        Node node = load(page);
+        node.insert(index + 1, split.separator, childPayload(split.page));
+        return storeOrSplit(page, node);
+    }
+
+    private Split storeOrSplit(long page, Node node) {
+        int size = node.size();
+        if (size <= pageSize) {
+            store(page, node);
+            return null;
+        }
+        int count = node.keys.size();
+        int mid = 1;
+        for (int used = SLOTS; mid < count - 1; mid++) {
+            used += Node.cellSize(node.keys.get(mid - 1), node.payloads.get(mid - 1));
+            if (used >= size / 2) {
+                break;
+            }
+        }
+        Node right;
+        byte[] separator;
+        if (node.leaf) {
+            right = new Node(true, 0);
+            right.keys.addAll(node.keys.subList(mid, count));
+            right.payloads.addAll(node.payloads.subList(mid, count));
+            separator = shortestSeparator(node.keys.get(mid - 1), node.keys.get(mid));
+        } else {
+            separator = node.keys.get(mid);
+            right = new Node(false, Node.child(node.payloads.get(mid)));
+            right.keys.addAll(node.keys.subList(mid + 1, count));
+            right.payloads.addAll(node.payloads.subList(mid + 1, count));
+        }
+        node.keys.subList(mid, count).clear();
+        node.payloads.subList(mid, count).clear();
+        long rightPage = pool.allocate();
+        store(page, node);
+        store(rightPage, right);
+        return new Split(separator, rightPage);
+    }
+
+    // Shortest prefix of the right key that still sorts after the left one.
+    private static byte[] shortestSeparator(byte[] left, byte[] right) {
+        int common = Arrays.mismatch(left, right);
+        return Arrays.copyOf(right, Math.min(right.length, common + 1));
+    }
+
+    private byte[] remove(long page, byte[] key, boolean[] emptied) {
+        ByteBuffer buffer = pool.pin(page);
+        boolean leaf;
+        int index;
+        long child = 0;
+        try {
+            leaf = buffer.get(TYPE) == LEAF;
+            if (leaf) {
+                index = search(buffer, key);
+            } else {
+                index = childIndex(buffer, key);
+                child = child(buffer, index);
+            }
+        } finally {
+            pool.unpin(page);
+        }
+        if (leaf) {
+            if (index < 0) {
+                return null;
+            }
+            Node node = load(page);
+            byte[] payload = node.payloads.get(index);
+            byte[] value = readPayload(payload);
+            freePayload(payload);
+            node.remove(index);
+            if (node.keys.isEmpty()) {
+                pool.free(page);
+                emptied[0] = true;
+            } else {
+                store(page, node);
+            }
+            return value;
+        }
+        byte[] value = remove(child, key, emptied);
+        if (!emptied[0]) {
+            return value;
+        }
+        emptied[0] = false;
+        Node node = load(page);
+        if (index >= 0) {
+            node.remove(index);
+        } else if (node.keys.isEmpty()) {
+            pool.free(page);
+            emptied[0] = true;
+            return value;
+        } else {
+            node.link = Node.child(node.payloads.get(0));
+            node.remove(0);
+        }
+        store(page, node);
+        return value;
+    }
+
+    private boolean scan(long page, byte[] from, BiPredicate<byte[], byte[]> visitor) {
+        ByteBuffer buffer = pool.pin(page);
+        try {
+            int count = count(buffer);
+            if (buffer.get(TYPE) == LEAF) {
+                int start = 0;
+                if (from != null) {
+                    int index = search(buffer, from);
+                    start = index >= 0 ? index : -index - 1;
+                }
+                for (int i = start; i < count; i++) {
+                    int cell = cell(buffer, i);
+                    if (!visitor.test(key(buffer, cell), readValue(buffer, cell))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            int start = from == null ? -1 : childIndex(buffer, from);
+            for (int i = start; i < count; i++) {
+                if (!scan(child(buffer, i), i == start ? from : null, visitor)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            pool.unpin(page);
+        }
+    }
+
+    private void clear(long page) {
+        Node node = load(page);
+        if (node.leaf) {
+            node.payloads.forEach(this::freePayload);
+        } else {
+            clear(node.link);
+            for (byte[] payload : node.payloads) {
+                clear(Node.child(payload));
+            }
+        }
+        pool.free(page);
+    }
+
+    private static int count(ByteBuffer buffer) {
+        return buffer.getShort(COUNT) & 0xFFFF;
+    }
+
+    private static int cell(ByteBuffer buffer, int index) {
+        return buffer.getShort(SLOTS + index * Short.BYTES) & 0xFFFF;
+    }
+
+    /**
+     * Binary search over the page's keys, returning the index of {@code key} or
+     * {@code -(insertion point) - 1}.
+     */
+    private static int search(ByteBuffer buffer, byte[] key) {
+        int low = 0;
+        int high = count(buffer) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compare(buffer, cell(buffer, mid), key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+    // Index of the branch cell whose child covers key, -1 for the link.
+    private static int childIndex(ByteBuffer buffer, byte[] key) {
+        int index = search(buffer, key);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private static long child(ByteBuffer buffer, int index) {
+        if (index < 0) {
+            return buffer.getLong(LINK);
+        }
+        int cell = cell(buffer, index);
+        return buffer.getLong(cell + Short.BYTES + keyLength(buffer, cell));
+    }
+
+    private static int keyLength(ByteBuffer buffer, int cell) {
+        return buffer.getShort(cell) & 0xFFFF;
+    }
+
+    private static int compare(ByteBuffer buffer, int cell, byte[] key) {
+        int length = keyLength(buffer, cell);
+        byte[] array = buffer.array();
+        int offset = cell + Short.BYTES;
+        for (int i = 0, n = Math.min(length, key.length); i < n; i++) {
+            int comparison = (array[offset + i] & 0xFF) - (key[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return length - key.length;
+    }
+
+    private static byte[] key(ByteBuffer buffer, int cell) {
+        int offset = cell + Short.BYTES;
+        return Arrays.copyOfRange(buffer.array(), offset, offset + keyLength(buffer, cell));
+    }
+
+    private byte[] readValue(ByteBuffer buffer, int cell) {
+        int offset = cell + Short.BYTES + keyLength(buffer, cell);
+        if (buffer.get(offset) == INLINE_VALUE) {
+            int length = buffer.getShort(offset + 1) & 0xFFFF;
+            return Arrays.copyOfRange(buffer.array(), offset + 3, offset + 3 + length);
+        }
+        return readOverflow(buffer.getLong(offset + 5), buffer.getInt(offset + 1));
+    }
+
+    // The bytes after the key in a leaf cell, moving large values to overflow pages.
+    private byte[] valuePayload(byte[] key, byte[] value) {
+        if (Short.BYTES + Short.BYTES + key.length + 3 + value.length <= pageSize / 4) {
+            ByteBuffer payload = ByteBuffer.allocate(3 + value.length);
+            payload.put(INLINE_VALUE).putShort((short) value.length).put(value);
+            return payload.array();
+        }
+        ByteBuffer payload = ByteBuffer.allocate(13);
+        payload.put(OVERFLOW_VALUE).putInt(value.length).putLong(writeOverflow(value));
+        return payload.array();
+    }
+
+    private byte[] readPayload(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if (buffer.get() == INLINE_VALUE) {
+            return Arrays.copyOfRange(payload, 3, 3 + (buffer.getShort() & 0xFFFF));
+        }
+        int length = buffer.getInt();
+        return readOverflow(buffer.getLong(), length);
+    }
+
+    private void freePayload(byte[] payload) {
+        if (payload[0] != OVERFLOW_VALUE) {
+            return;
+        }
+        long page = ByteBuffer.wrap(payload).getLong(5);
+        while (page != 0) {
+            ByteBuffer buffer = pool.pin(page);
+            long next = buffer.getLong(LINK);
+            pool.unpin(page);
+            pool.free(page);
+            page = next;
+        }
+    }
+
+    private long writeOverflow(byte[] value) {
+        long first = pool.allocate();
+        long page = first;
+        int offset = 0;
+        while (true) {
+            int length = Math.min(pageSize - OVERFLOW_DATA, value.length - offset);
+            ByteBuffer buffer = pool.pin(page);
+            long next = offset + length < value.length ? pool.allocate() : 0;
+            buffer.put(TYPE, OVERFLOW).putLong(LINK, next).putInt(OVERFLOW_LENGTH, length);
+            System.arraycopy(value, offset, buffer.array(), OVERFLOW_DATA, length);
+            pool.markDirty(page);
+            pool.unpin(page);
+            offset += length;
+            if (next == 0) {
+                return first;
+            }
+            page = next;
+        }
+    }
+
+    private byte[] readOverflow(long page, int length) {
+        byte[] value = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            if (page == 0) {
+                throw new StorageException("Overflow chain ends after " + offset + " of " + length + " bytes");
+            }
+            ByteBuffer buffer = pool.pin(page);
+            long next;
+            try {
+                int chunk = buffer.getInt(OVERFLOW_LENGTH);
+                System.arraycopy(buffer.array(), OVERFLOW_DATA, value, offset, chunk);
+                offset += chunk;
+                next = buffer.getLong(LINK);
+            } finally {
+                pool.unpin(page);
+            }
+            page = next;
+        }
+        return value;
+    }
+
+    private static byte[] childPayload(long page) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(page).array();
+    }
+
+    private Node load(long page) {
+        ByteBuffer buffer = pool.pin(page);
+        try {
+            return decode(buffer);
+        } finally {
+            pool.unpin(page);
+        }
+    }
+
+    private static Node decode(ByteBuffer buffer) {
+        Node node = new Node(buffer.get(TYPE) == LEAF, buffer.getLong(LINK));
+        int count = count(buffer);
+        for (int i = 0; i < count; i++) {
+            int cell = cell(buffer, i);
+            int keyEnd = cell + Short.BYTES + keyLength(buffer, cell);
+            int payloadEnd;
+            if (!node.leaf) {
+                payloadEnd = keyEnd + Long.BYTES;
+            } else if (buffer.get(keyEnd) == INLINE_VALUE) {
+                payloadEnd = keyEnd + 3 + (buffer.getShort(keyEnd + 1) & 0xFFFF);
+            } else {
+                payloadEnd = keyEnd + 13;
+            }
+            node.keys.add(key(buffer, cell));
+            node.payloads.add(Arrays.copyOfRange(buffer.array(), keyEnd, payloadEnd));
+        }
+        return node;
+    }
+
+    private void store(long page, Node node) {
+        ByteBuffer buffer = pool.pin(page);
+        try {
+            byte[] array = buffer.array();
+            Arrays.fill(array, (byte) 0);
+            int count = node.keys.size();
+            buffer.put(TYPE, node.leaf ? LEAF : BRANCH).putShort(COUNT, (short) count).putLong(LINK, node.link);
+            int end = pageSize;
+            for (int i = 0; i < count; i++) {
+                byte[] key = node.keys.get(i);
+                byte[] payload = node.payloads.get(i);
+                end -= Short.BYTES + key.length + payload.length;
+                buffer.putShort(SLOTS + i * Short.BYTES, (short) end);
+                buffer.putShort(end, (short) key.length);
+                System.arraycopy(key, 0, array, end + Short.BYTES, key.length);
+                System.arraycopy(payload, 0, array, end + Short.BYTES + key.length, payload.length);
+            }
+            pool.markDirty(page);
+        } finally {
+            pool.unpin(page);
+        }
+    }
+
+    private static final class Split {
+        final byte[] separator;
+        final long page;
+
+        Split(byte[] separator, long page) {
+            this.separator = separator;
+            this.page = page;
+        }
+    }
+
+    /**
+     * Decoded page being changed: keys and, per key, the cell bytes after it.
+     */
+    private static final class Node {
+        final boolean leaf;
+        long link;
+        final List<byte[]> keys = new ArrayList<>();
+        final List<byte[]> payloads = new ArrayList<>();
+
+        Node(boolean leaf, long link) {
+            this.leaf = leaf;
+            this.link = link;
+        }
+
+        static int cellSize(byte[] key, byte[] payload) {
+            return Short.BYTES + Short.BYTES + key.length + payload.length;
+        }
+
+        static long child(byte[] payload) {
+            return ByteBuffer.wrap(payload).getLong();
+        }
+
+        int size() {
+            int size = SLOTS;
+            for (int i = 0; i < keys.size(); i++) {
+                size += cellSize(keys.get(i), payloads.get(i));
+            }
+            return size;
+        }
+
+        int search(byte[] key) {
+            int low = 0;
+            int high = keys.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int comparison = Arrays.compareUnsigned(keys.get(mid), key);
+                if (comparison < 0) {
+                    low = mid + 1;
+                } else if (comparison > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+
+        void insert(int index, byte[] key, byte[] payload) {
+            keys.add(index, key);
+            payloads.add(index, payload);
+        }
+
+        void remove(int index) {
+            keys.remove(index);
+            payloads.remove(index);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.taskmanagement.storage.btree;
+
+import com.taskmanagement.exception.StorageException;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskId;
+import com.taskmanagement.storage.TaskBinaryCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Keeps tasks in a single file of fixed-size pages, so the data set can be far
+ * larger than the heap: only the pages in the {@link BufferPool} are in memory.
+ * A B+tree keyed by id holds each task in its {@link TaskBinaryCodec} form; canonical
+ * ids sort by their two longs, which keeps time-ordered ids appending at the
+ * right edge. An optional second tree keyed by due date and id indexes tasks that
+ * have a due date.
+ *
+ * <p>Changes become durable together on {@link #commit()}, through the pool's
+ * journal; {@link #rollback()} forgets them. Not thread-safe for writers: callers
+ * serialize changes against everything else, while reads may run concurrently.
+ */
+public class BTreeTaskStore implements AutoCloseable {
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+    public static final int DEFAULT_CACHE_PAGES = 4096;
+
+    private static final int PRIMARY_ROOT = 0;
+    private static final int DUE_DATE_ROOT = 1;
+    private static final int SIZE = 2;
+    private static final int FLAGS = 3;
+    private static final long HAS_DUE_DATE_INDEX = 1;
+
+    private static final byte CANONICAL_ID = 1;
+    private static final byte STRING_ID = 2;
+    private static final int DUE_DATE_BYTES = Long.BYTES + Integer.BYTES;
+    private static final byte[] NO_VALUE = new byte[0];
+
+    private final Path file;
+    private final BufferPool pool;
+    private final BTree primary;
+    private final BTree dueDates;
+    private final int maxIdKeyLength;
+    private boolean closed;
+
+    private BTreeTaskStore(Builder builder) throws IOException {
+        this.file = builder.file;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.pool = new BufferPool(file, builder.pageSize, builder.cachePages, builder.sync);
+        this.primary = new BTree(pool, PRIMARY_ROOT);
+        this.dueDates = builder.dueDateIndex ? new BTree(pool, DUE_DATE_ROOT) : null;
+        this.maxIdKeyLength = BTree.maxKeyLength(builder.pageSize) - DUE_DATE_BYTES;
+        try {
+            syncDueDateIndex(builder.cachePages);
+        } catch (RuntimeException e) {
+            pool.close();
+            throw e;
+        }
+    }
+
+    public static BTreeTaskStore open(Path file) {
+        return new Builder(file).build();
+    }
+
+    public Task get(String id) {
+        byte[] key = idKey(id);
+        if (key == null) {
+            return null;
+        }
+        byte[] value = primary.get(key);
+        return value == null ? null : decode(value);
+    }
+
+    public boolean contains(String id) {
+        byte[] key = idKey(id);
+        return key != null && primary.get(key) != null;
+    }
+
+    /**
+     * Stores the task as given, version included, and returns the copy it replaced.
+     *
+     * @throws IllegalArgumentException if the id is too long for the page size
+     */
+    public Task put(Task task) {
+        ensureOpen();
+        byte[] key = idKey(task);
+        byte[] replaced = primary.put(key, TaskBinaryCodec.encode(task));
+        Task previous = replaced == null ? null : decode(replaced);
+        if (previous == null) {
+            pool.setMeta(SIZE, pool.meta(SIZE) + 1);
+        }
+        if (dueDates != null) {
+            LocalDateTime before = previous == null ? null : previous.getDueDate().orElse(null);
+            LocalDateTime after = task.getDueDate().orElse(null);
+            if (!Objects.equals(before, after)) {
+                if (before != null) {
+                    dueDates.remove(dueDateKey(before, key));
+                }
+                if (after != null) {
+                    dueDates.put(dueDateKey(after, key), NO_VALUE);
+                }
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the task and returns it, or null if there was none.
+     */
+    public Task remove(String id) {
+        ensureOpen();
+        byte[] key = idKey(id);
+        byte[] removed = key == null ? null : primary.remove(key);
+        if (removed == null) {
+            return null;
+        }
+        Task previous = decode(removed);
+        pool.setMeta(SIZE, pool.meta(SIZE) - 1);
+        if (dueDates != null && previous.getDueDate().isPresent()) {
+            dueDates.remove(dueDateKey(previous.getDueDate().get(), key));
+        }
+        return previous;
+    }
+
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, pool.meta(SIZE));
+    }
+
+    public boolean hasDueDateIndex() {
+        return dueDates != null;
+    }
+
+    /**
+     * Hands up to {@code limit} tasks to {@code consumer} in id order, starting
+     * after the task with id {@code afterId}, or at the first one if it is null.
+     * Returns how many there were; fewer than {@code limit} means the end was reached.
+     */
+    public int scan(String afterId, int limit, Consumer<? super Task> consumer) {
+        byte[] from = afterId == null ? null : successor(idKey(afterId));
+        int[] delivered = new int[1];
+        if (limit > 0) {
+            primary.scan(from, (key, value) -> {
+                consumer.accept(decode(value));
+                return ++delivered[0] < limit;
+            });
+        }
+        return delivered[0];
+    }
+
+    /**
+     * Hands every task due between {@code start} and {@code end}, both inclusive and
+     * either one open if null, to {@code consumer} in due date order. Reads the index
+     * leaves in order and looks each task up by id.
+     *
+     * @throws IllegalStateException if the store has no due date index
+     */
+    public void scanByDueDate(LocalDateTime start, LocalDateTime end, Consumer<? super Task> consumer) {
+        if (dueDates == null) {
+            throw new IllegalStateException("Store was opened without a due date index");
+        }
+        byte[] from = start == null ? null : dueDateKey(start, NO_VALUE);
+        byte[] to = end == null ? null : dueDateKey(end, NO_VALUE);
+        dueDates.scan(from, (key, value) -> {
+            if (to != null && Arrays.compareUnsigned(key, 0, DUE_DATE_BYTES, to, 0, DUE_DATE_BYTES) > 0) {
+                return false;
+            }
+            byte[] task = primary.get(Arrays.copyOfRange(key, DUE_DATE_BYTES, key.length));
+            if (task == null) {
+                throw new StorageException("Due date index of " + file + " points at a missing task");
+            }
+            consumer.accept(decode(task));
+            return true;
+        });
+    }
+
+    /**
+     * Makes the changes since the last commit durable.
+     */
+    public void commit() {
+        ensureOpen();
+        pool.commit();
+    }
+
+    /**
+     * Discards the changes since the last commit.
+     */
+    public void rollback() {
+        pool.rollback();
+    }
+
+    /**
+     * Closes the file, discarding uncommitted changes.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pool.rollback();
+        try {
+            pool.close();
+        } catch (IOException e) {
+            throw new StorageException("Cannot close " + file, e);
+        }
+    }
+
+    int height() {
+        return primary.height();
+    }
+
+    long pagesRead() {
+        return pool.pinCount();
+    }
+
+    // Builds the index from the tasks, or drops it, when it was toggled since the last open.
+    private void syncDueDateIndex(int cachePages) {
+        boolean present = (pool.meta(FLAGS) & HAS_DUE_DATE_INDEX) != 0;
+        if (present == (dueDates != null)) {
+            return;
+        }
+        // Also clears what a build interrupted by a crash left behind.
+        new BTree(pool, DUE_DATE_ROOT).clear();
+        if (dueDates != null) {
+            primary.scan(null, (key, value) -> {
+                decode(value).getDueDate().ifPresent(dueDate -> dueDates.put(dueDateKey(dueDate, key), NO_VALUE));
+                // The flag is only set at the end, so partial commits are safe.
+                if (pool.dirtyPages() >= cachePages / 2) {
+                    pool.commit();
+                }
+                return true;
+            });
+        }
+        pool.setMeta(FLAGS, dueDates != null ? pool.meta(FLAGS) | HAS_DUE_DATE_INDEX
+                : pool.meta(FLAGS) & ~HAS_DUE_DATE_INDEX);
+        pool.commit();
+    }
+
+    private Task decode(byte[] value) {
+        try {
+            return TaskBinaryCodec.decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("Corrupt task record in " + file, e);
+        }
+    }
+
+    private byte[] idKey(Task task) {
+        TaskId taskId = task.getTaskId().orElse(null);
+        byte[] key = taskId != null ? canonicalKey(taskId) : stringKey(task.getId());
+        if (key.length > maxIdKeyLength) {
+            throw new IllegalArgumentException("Task id is longer than " + (maxIdKeyLength - 1) + " bytes: " + task.getId());
+        }
+        return key;
+    }
+
+    // Null for ids that cannot have been stored.
+    private byte[] idKey(String id) {
+        if (id == null) {
+            return null;
+        }
+        TaskId taskId = TaskId.tryParse(id);
+        byte[] key = taskId != null ? canonicalKey(taskId) : stringKey(id);
+        return key.length > maxIdKeyLength ? null : key;
+    }
+
+    private static byte[] canonicalKey(TaskId taskId) {
+        return ByteBuffer.allocate(1 + 2 * Long.BYTES).put(CANONICAL_ID)
+                .putLong(taskId.getHigh()).putLong(taskId.getLow()).array();
+    }
+
+    private static byte[] stringKey(String id) {
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        byte[] key = new byte[1 + bytes.length];
+        key[0] = STRING_ID;
+        System.arraycopy(bytes, 0, key, 1, bytes.length);
+        return key;
+    }
+
+    // Seconds with the sign bit flipped, so that unsigned byte order is time order.
+    private static byte[] dueDateKey(LocalDateTime dueDate, byte[] idKey) {
+        return ByteBuffer.allocate(DUE_DATE_BYTES + idKey.length)
+                .putLong(dueDate.toEpochSecond(ZoneOffset.UTC) ^ Long.MIN_VALUE)
+                .putInt(dueDate.getNano())
+                .put(idKey)
+                .array();
+    }
+
+    // The smallest key after this one.
+    private static byte[] successor(byte[] key) {
+        return key == null ? null : Arrays.copyOf(key, key.length + 1);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new StorageException("Store " + file + " is closed");
+        }
+    }
+
+    public static class Builder {
+        private final Path file;
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private int cachePages = DEFAULT_CACHE_PAGES;
+        private boolean dueDateIndex = true;
+        private boolean sync = true;
+
+        public Builder(Path file) {
+            if (file == null) {
+                throw new IllegalArgumentException("File cannot be null");
+            }
+            this.file = file;
+        }
+
+        /**
+         * Page size of a new file; an existing file must be opened with the size it
+         * was created with.
+         */
+        public Builder pageSize(int pageSize) {
+            if (pageSize < 1024 || pageSize > 32768 || Integer.bitCount(pageSize) != 1) {
+                throw new IllegalArgumentException("Page size must be a power of two from 1024 to 32768");
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Pages the buffer pool keeps in memory.
+         */
+        public Builder cachePages(int cachePages) {
+            if (cachePages < 16) {
+                throw new IllegalArgumentException("Cache must hold at least 16 pages");
+            }
+            this.cachePages = cachePages;
+            return this;
+        }
+
+        /**
+         * Whether to keep the due date index; it is built or dropped on open when
+         * this differs from the file.
+         */
+        public Builder dueDateIndex(boolean dueDateIndex) {
+            this.dueDateIndex = dueDateIndex;
+            return this;
+        }
+
+        /**
+         * Whether commits wait for the disk. Without it a commit survives the process
+         * dying, but not the machine.
+         */
+        public Builder sync(boolean sync) {
+            this.sync = sync;
+            return this;
+        }
+
+        public BTreeTaskStore build() {
+            try {
+                return new BTreeTaskStore(this);
+            } catch (IOException e) {
+                throw new StorageException("Cannot open B+tree store " + file, e);
+            }
+        }
+    }
+}
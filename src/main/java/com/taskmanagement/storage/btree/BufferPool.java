@@ -0,0 +1,409 @@
+package com.taskmanagement.storage.btree;
+
+import com.taskmanagement.exception.StorageException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches the pages of one file in a fixed number of frames and evicts with the
+ * clock algorithm: a frame's reference bit is set on every pin, and the hand
+ * clears bits as it sweeps until it finds a frame that was not used since its
+ * last pass.
+ *
+ * <p>Changes are transactional. A changed page stays in its frame until
+ * {@link #commit()}, which writes all of them through the {@link PageJournal};
+ * {@link #rollback()} drops them instead. A transaction larger than the pool
+ * temporarily grows it, and commit shrinks it back.
+ *
+ * <p>Page 0 holds the file header, the free-page list head and a few slots for
+ * callers' roots and counters; it is kept as fields and written on commit. Freed
+ * pages are chained through their link field and reused before the file grows.
+ *
+ * <p>Pinning and unpinning are synchronized, so concurrent readers may share the
+ * pool; changes need to be serialized against everything else by the caller.
+ */
+final class BufferPool implements Closeable {
+    static final int TYPE = 0;
+    static final int LINK = 4;
+    static final byte FREE = 4;
+
+    static final int META_SLOTS = 8;
+
+    private static final int MAGIC = 0x42545245;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_PAGE_COUNT = 16;
+    private static final int HEADER_FREE_HEAD = 24;
+    private static final int HEADER_META = 32;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final PageJournal journal;
+    private final int pageSize;
+    private final int capacity;
+    private final boolean sync;
+
+    private final Map<Long, Integer> frameOf = new HashMap<>();
+    private ByteBuffer[] frames;
+    private long[] pageOf;
+    private int[] pins;
+    private boolean[] referenced;
+    private boolean[] dirty;
+    private int used;
+    private int hand;
+    private int dirtyCount;
+    private long pinCount;
+
+    private long pageCount;
+    private long freeHead;
+    private final long[] meta = new long[META_SLOTS];
+    private long committedPageCount;
+    private long committedFreeHead;
+    private final long[] committedMeta = new long[META_SLOTS];
+    private boolean failed;
+
+    BufferPool(Path file, int pageSize, int capacity, boolean sync) throws IOException {
+        this.file = file;
+        this.pageSize = pageSize;
+        this.capacity = capacity;
+        this.sync = sync;
+        this.frames = new ByteBuffer[capacity];
+        this.pageOf = new long[capacity];
+        this.pins = new int[capacity];
+        this.referenced = new boolean[capacity];
+        this.dirty = new boolean[capacity];
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.journal = new PageJournal(file.resolveSibling(file.getFileName() + ".journal"), pageSize);
+            journal.replay(channel);
+            journal.clear();
+            if (channel.size() == 0) {
+                pageCount = 1;
+                writeHeader();
+                channel.force(false);
+            }
+            readHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        committedPageCount = pageCount;
+        committedFreeHead = freeHead;
+    }
+
+    int pageSize() {
+        return pageSize;
+    }
+
+    long meta(int slot) {
+        return meta[slot];
+    }
+
+    void setMeta(int slot, long value) {
+        meta[slot] = value;
+    }
+
+    /**
+     * Returns the page's frame and keeps it in the pool until {@link #unpin}.
+     * Only absolute reads and writes may be used on it; the frame is shared.
+     */
+    synchronized ByteBuffer pin(long page) {
+        ensureUsable();
+        if (page <= 0 || page >= pageCount) {
+            throw new StorageException("Page " + page + " is outside " + file);
+        }
+        pinCount++;
+        Integer frame = frameOf.get(page);
+        if (frame != null) {
+            pins[frame]++;
+            referenced[frame] = true;
+            return frames[frame];
+        }
+        int victim = victim();
+        ByteBuffer buffer = frames[victim];
+        buffer.clear();
+        try {
+            long position = page * pageSize;
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    // Allocated by a commit but never written past: reads as zeros.
+                    Arrays.fill(buffer.array(), buffer.position(), pageSize, (byte) 0);
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new StorageException("Cannot read page " + page + " of " + file, e);
+        }
+        install(victim, page);
+        return buffer;
+    }
+
+    synchronized void unpin(long page) {
+        Integer frame = frameOf.get(page);
+        if (frame == null || pins[frame] == 0) {
+            throw new IllegalStateException("Page " + page + " is not pinned");
+        }
+        pins[frame]--;
+    }
+
+    /**
+     * Records that the pinned page was changed, so it is written on commit.
+     */
+    synchronized void markDirty(long page) {
+        int frame = frameOf.get(page);
+        if (!dirty[frame]) {
+            dirty[frame] = true;
+            dirtyCount++;
+        }
+    }
+
+    /**
+     * Returns a zeroed, dirty page, reusing a freed one if there is one. Dirty
+     * pages are never evicted, so it need not be pinned until it is written.
+     */
+    synchronized long allocate() {
+        ensureUsable();
+        long page;
+        ByteBuffer buffer;
+        if (freeHead != 0) {
+            page = freeHead;
+            buffer = pin(page);
+            freeHead = buffer.getLong(LINK);
+        } else {
+            page = pageCount++;
+            int victim = victim();
+            install(victim, page);
+            buffer = frames[victim];
+        }
+        Arrays.fill(buffer.array(), (byte) 0);
+        markDirty(page);
+        unpin(page);
+        return page;
+    }
+
+    /**
+     * Puts an unpinned page on the free list.
+     */
+    synchronized void free(long page) {
+        ByteBuffer buffer = pin(page);
+        Arrays.fill(buffer.array(), (byte) 0);
+        buffer.put(TYPE, FREE);
+        buffer.putLong(LINK, freeHead);
+        markDirty(page);
+        unpin(page);
+        freeHead = page;
+    }
+
+    /**
+     * Makes every change since the last commit durable, or none of them.
+     */
+    synchronized void commit() {
+        ensureUsable();
+        if (dirtyCount == 0 && pageCount == committedPageCount && freeHead == committedFreeHead
+                && Arrays.equals(meta, committedMeta)) {
+            return;
+        }
+        long[] pages = new long[dirtyCount + 1];
+        ByteBuffer[] images = new ByteBuffer[dirtyCount + 1];
+        int count = 0;
+        for (int frame = 0; frame < used; frame++) {
+            if (dirty[frame]) {
+                pages[count] = pageOf[frame];
+                images[count++] = frames[frame];
+            }
+        }
+        pages[count] = 0;
+        images[count++] = header();
+        try {
+            journal.write(pages, images, count, sync);
+            for (int i = 0; i < count; i++) {
+                ByteBuffer image = images[i].duplicate().clear();
+                while (image.hasRemaining()) {
+                    channel.write(image, pages[i] * pageSize + image.position());
+                }
+            }
+            if (sync) {
+                channel.force(false);
+            }
+            journal.clear();
+        } catch (IOException e) {
+            // Memory and file may now disagree; the journal settles it on reopen.
+            failed = true;
+            throw new StorageException("Cannot commit to " + file + "; reopen it to recover", e);
+        }
+        Arrays.fill(dirty, 0, used, false);
+        dirtyCount = 0;
+        committedPageCount = pageCount;
+        committedFreeHead = freeHead;
+        System.arraycopy(meta, 0, committedMeta, 0, META_SLOTS);
+        shrink();
+    }
+
+    /**
+     * Forgets every change since the last commit.
+     */
+    synchronized void rollback() {
+        for (int frame = 0; frame < used; frame++) {
+            if (dirty[frame]) {
+                dirty[frame] = false;
+                frameOf.remove(pageOf[frame]);
+                pageOf[frame] = 0;
+                pins[frame] = 0;
+                referenced[frame] = false;
+            }
+        }
+        dirtyCount = 0;
+        pageCount = committedPageCount;
+        freeHead = committedFreeHead;
+        System.arraycopy(committedMeta, 0, meta, 0, META_SLOTS);
+        shrink();
+    }
+
+    synchronized int dirtyPages() {
+        return dirtyCount;
+    }
+
+    /**
+     * Number of pins so far, for checking how many pages an operation touches.
+     */
+    synchronized long pinCount() {
+        return pinCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            journal.close();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private int victim() {
+        if (used < frames.length) {
+            frames[used] = ByteBuffer.allocate(pageSize);
+            return used++;
+        }
+        // Two sweeps clear every reference bit, so a third finds a victim if any frame can go.
+        for (int step = 0; step < 3 * used; step++) {
+            int frame = hand;
+            hand = (hand + 1) % used;
+            if (pins[frame] > 0 || dirty[frame]) {
+                continue;
+            }
+            if (referenced[frame]) {
+                referenced[frame] = false;
+                continue;
+            }
+            frameOf.remove(pageOf[frame]);
+            return frame;
+        }
+        grow();
+        frames[used] = ByteBuffer.allocate(pageSize);
+        return used++;
+    }
+
+    private void install(int frame, long page) {
+        frameOf.put(page, frame);
+        pageOf[frame] = page;
+        pins[frame] = 1;
+        referenced[frame] = true;
+        dirty[frame] = false;
+    }
+
+    // Every frame holds a pinned or uncommitted page.
+    private void grow() {
+        int size = frames.length * 2;
+        frames = Arrays.copyOf(frames, size);
+        pageOf = Arrays.copyOf(pageOf, size);
+        pins = Arrays.copyOf(pins, size);
+        referenced = Arrays.copyOf(referenced, size);
+        dirty = Arrays.copyOf(dirty, size);
+    }
+
+    // Drops the frames a large transaction added, once nothing in them needs keeping.
+    private void shrink() {
+        if (frames.length <= capacity) {
+            return;
+        }
+        int kept = 0;
+        for (int frame = 0; frame < used; frame++) {
+            Integer mapped = frameOf.get(pageOf[frame]);
+            if (mapped == null || mapped != frame) {
+                continue;
+            }
+            if (kept >= capacity && pins[frame] == 0 && !dirty[frame]) {
+                frameOf.remove(pageOf[frame]);
+                continue;
+            }
+            frames[kept] = frames[frame];
+            pageOf[kept] = pageOf[frame];
+            pins[kept] = pins[frame];
+            referenced[kept] = referenced[frame];
+            dirty[kept] = dirty[frame];
+            frameOf.put(pageOf[kept], kept);
+            kept++;
+        }
+        int size = Math.max(capacity, kept);
+        frames = Arrays.copyOf(frames, size);
+        pageOf = Arrays.copyOf(pageOf, size);
+        pins = Arrays.copyOf(pins, size);
+        referenced = Arrays.copyOf(referenced, size);
+        dirty = Arrays.copyOf(dirty, size);
+        Arrays.fill(frames, kept, size, null);
+        used = kept;
+        hand = 0;
+    }
+
+    private ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(pageSize);
+        header.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putInt(8, pageSize)
+                .putLong(HEADER_PAGE_COUNT, pageCount).putLong(HEADER_FREE_HEAD, freeHead);
+        for (int slot = 0; slot < META_SLOTS; slot++) {
+            header.putLong(HEADER_META + slot * Long.BYTES, meta[slot]);
+        }
+        return header;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = header();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_META + META_SLOTS * Long.BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new StorageException("Truncated header in " + file);
+            }
+        }
+        if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+            throw new StorageException("Unrecognized B+tree file " + file);
+        }
+        if (header.getInt(8) != pageSize) {
+            throw new StorageException(file + " uses " + header.getInt(8) + "-byte pages, not " + pageSize);
+        }
+        pageCount = header.getLong(HEADER_PAGE_COUNT);
+        freeHead = header.getLong(HEADER_FREE_HEAD);
+        for (int slot = 0; slot < META_SLOTS; slot++) {
+            meta[slot] = header.getLong(HEADER_META + slot * Long.BYTES);
+            committedMeta[slot] = meta[slot];
+        }
+    }
+
+    private void ensureUsable() {
+        if (failed) {
+            throw new StorageException("A commit to " + file + " failed; reopen it to recover");
+        }
+    }
+}
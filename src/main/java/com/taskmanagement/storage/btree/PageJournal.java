@@ -0,0 +1,148 @@
+package com.taskmanagement.storage.btree;
+
+import com.taskmanagement.exception.StorageException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Redo journal that makes a commit's page writes atomic. The after-images of all
+ * changed pages are written and synced here first, and only then over the pages
+ * in the data file:
+ *
+ * <pre>
+ * int     magic
+ * int     page size
+ * int     page count
+ * count x (long page number, page bytes)
+ * long    CRC32 of everything above
+ * </pre>
+ *
+ * A crash while the data file is being written leaves a complete journal, which
+ * the next open replays; a crash while the journal is being written leaves one
+ * that fails the length or checksum test and is ignored, together with the commit.
+ */
+final class PageJournal implements Closeable {
+    private static final int MAGIC = 0x424A524E;
+    private static final int HEADER_SIZE = 12;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int pageSize;
+
+    PageJournal(Path file, int pageSize) throws IOException {
+        this.file = file;
+        this.pageSize = pageSize;
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Writes {@code count} page images, syncing them if {@code sync} is set.
+     */
+    void write(long[] pages, ByteBuffer[] images, int count, boolean sync) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(pageSize).putInt(count);
+        header.flip();
+        crc.update(header.duplicate());
+        long position = writeFully(header, 0);
+        ByteBuffer pageNumber = ByteBuffer.allocate(Long.BYTES);
+        for (int i = 0; i < count; i++) {
+            pageNumber.clear();
+            pageNumber.putLong(pages[i]).flip();
+            crc.update(pageNumber.duplicate());
+            position = writeFully(pageNumber, position);
+            ByteBuffer image = images[i].duplicate().clear();
+            crc.update(image.duplicate());
+            position = writeFully(image, position);
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES).putLong(crc.getValue());
+        trailer.flip();
+        writeFully(trailer, position);
+        if (sync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Copies the pages of a complete journal into {@code data} and syncs it.
+     * Returns whether there was anything to replay.
+     */
+    boolean replay(FileChannel data) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE + Long.BYTES) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != pageSize) {
+            return false;
+        }
+        int count = header.getInt();
+        if (count < 0 || size != HEADER_SIZE + (long) count * (Long.BYTES + pageSize) + Long.BYTES) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(header.flip());
+        ByteBuffer entry = ByteBuffer.allocate(Long.BYTES + pageSize);
+        long position = HEADER_SIZE;
+        for (int i = 0; i < count; i++, position += entry.capacity()) {
+            entry.clear();
+            readFully(entry, position);
+            crc.update(entry.flip());
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES);
+        readFully(trailer, position);
+        if (trailer.getLong(0) != crc.getValue()) {
+            return false;
+        }
+        position = HEADER_SIZE;
+        for (int i = 0; i < count; i++, position += entry.capacity()) {
+            entry.clear();
+            readFully(entry, position);
+            entry.flip();
+            long page = entry.getLong();
+            while (entry.hasRemaining()) {
+                data.write(entry, page * pageSize + entry.position() - Long.BYTES);
+            }
+        }
+        data.force(false);
+        return true;
+    }
+
+    /**
+     * Empties the journal once its pages are in the data file. If the truncation is
+     * lost in a crash the journal is simply replayed again, which is harmless.
+     */
+    void clear() throws IOException {
+        channel.truncate(0);
+    }
+
+    private long writeFully(ByteBuffer source, long position) throws IOException {
+        while (source.hasRemaining()) {
+            position += channel.write(source, position);
+        }
+        return position;
+    }
+
+    private void readFully(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new StorageException("Unexpected end of journal " + file);
+            }
+            position += read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,451 @@
+package com.taskmanagement.storage.columnar;
+
+import com.taskmanagement.exception.StorageException;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskId;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Stores tasks column-wise in memory-mapped files so that millions of tasks cost
+ * a few dozen bytes of heap each instead of a graph of objects. Status, priority
+ * and due date are kept as primitive columns that filters scan directly; a
+ * {@link Task} is only materialized for rows that are actually returned.
+ *
+ * <p>Ids in canonical UUID form are stored as two longs; any other id is kept in
+ * the string heap. An open-addressing table of row numbers maps ids to rows.
+ * Deleted rows are reused, but strings replaced by updates are not reclaimed.
+ * Task versions are stored as given; bumping them is up to the caller.
+ *
+ * <p>Not thread-safe; callers serialize writers against readers. Column files are
+ * flushed on {@link #flush()} and {@link #close()}, which also record the row
+ * count so the store can be reopened. The files are not crash-consistent on
+ * their own.
+ */
+public class ColumnarTaskStore implements AutoCloseable {
+    private static final int MAGIC = 0x54434F4C;
+    private static final int FORMAT_VERSION = 2;
+    private static final String META_FILE = "columns.meta";
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int DEFAULT_CHUNK_SHIFT = 30;
+
+    private static final byte LIVE = 1;
+    private static final byte STRING_ID = 1 << 1;
+    private static final byte HAS_DUE_DATE = 1 << 2;
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+    private static final byte NONE = -1;
+
+    private final Path directory;
+    private final MappedColumn idHigh;
+    private final MappedColumn idLow;
+    private final MappedColumn flags;
+    private final MappedColumn statuses;
+    private final MappedColumn priorities;
+    private final MappedColumn dueSeconds;
+    private final MappedColumn dueNanos;
+    private final MappedColumn titles;
+    private final MappedColumn descriptions;
+    private final MappedColumn versions;
+    private final StringHeap strings;
+
+    private int rowCount;
+    private int liveCount;
+    private int[] freeRows = new int[16];
+    private int freeCount;
+    private int[] slots;
+    private boolean closed;
+
+    private ColumnarTaskStore(Path directory, int chunkShift) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        long stringsEnd = 0;
+        Path meta = directory.resolve(META_FILE);
+        if (Files.exists(meta)) {
+            try (InputStream file = Files.newInputStream(meta);
+                 DataInputStream in = new DataInputStream(file)) {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                    throw new StorageException("Unrecognized column store in " + directory);
+                }
+                rowCount = in.readInt();
+                stringsEnd = in.readLong();
+            }
+        }
+        this.idHigh = column("id_high", Long.BYTES);
+        this.idLow = column("id_low", Long.BYTES);
+        this.flags = column("flags", 1);
+        this.statuses = column("status", 1);
+        this.priorities = column("priority", 1);
+        this.dueSeconds = column("due_seconds", Long.BYTES);
+        this.dueNanos = column("due_nanos", Integer.BYTES);
+        this.titles = column("title", Long.BYTES);
+        this.descriptions = column("description", Long.BYTES);
+        this.versions = column("version", Long.BYTES);
+        this.strings = new StringHeap(directory.resolve("strings.heap"), stringsEnd, chunkShift);
+        rebuildIdTable();
+    }
+
+    public static ColumnarTaskStore open(Path directory) {
+        return open(directory, DEFAULT_CHUNK_SHIFT);
+    }
+
+    static ColumnarTaskStore open(Path directory, int chunkShift) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        try {
+            return new ColumnarTaskStore(directory, chunkShift);
+        } catch (IOException e) {
+            throw new StorageException("Cannot open column store in " + directory, e);
+        }
+    }
+
+    private MappedColumn column(String name, int width) throws IOException {
+        return new MappedColumn(directory.resolve(name + ".col"), width, Math.max(DEFAULT_CAPACITY, rowCount));
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * Returns the row holding {@code id}, or -1.
+     */
+    public int rowOf(String id) {
+        if (id == null) {
+            return -1;
+        }
+        TaskId taskId = TaskId.tryParse(id);
+        return taskId != null ? rowOf(taskId) : rowOfString(id);
+    }
+
+    public int rowOf(TaskId taskId) {
+        int mask = slots.length - 1;
+        for (int slot = slot(taskId.getHigh() ^ taskId.getLow()); ; slot = (slot + 1) & mask) {
+            int row = slots[slot] - 1;
+            if (row < 0 || ((flags.getByte(row) & STRING_ID) == 0
+                    && idHigh.getLong(row) == taskId.getHigh() && idLow.getLong(row) == taskId.getLow())) {
+                return row;
+            }
+        }
+    }
+
+    private int rowOfString(String id) {
+        long hash = hashString(id);
+        int mask = slots.length - 1;
+        for (int slot = slot(hash); ; slot = (slot + 1) & mask) {
+            int row = slots[slot] - 1;
+            if (row < 0 || ((flags.getByte(row) & STRING_ID) != 0
+                    && idHigh.getLong(row) == hash && id.equals(strings.read(idLow.getLong(row))))) {
+                return row;
+            }
+        }
+    }
+
+    public void save(Task task) {
+        ensureOpen();
+        try {
+            TaskId taskId = task.getTaskId().orElse(null);
+            int row = taskId != null ? rowOf(taskId) : rowOfString(task.getId());
+            if (row < 0) {
+                row = allocateRow();
+                writeId(row, taskId, task.getId());
+                writeRow(row, task, null);
+                insertIntoTable(row);
+                liveCount++;
+            } else {
+                writeRow(row, task, read(row));
+            }
+        } catch (IOException e) {
+            throw new StorageException("Cannot store task " + task.getId(), e);
+        }
+    }
+
+    public boolean delete(String id) {
+        ensureOpen();
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        removeFromTable(row);
+        flags.putByte(row, (byte) 0);
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+        liveCount--;
+        return true;
+    }
+
+    public Task read(int row) {
+        String title = strings.read(titles.getLong(row));
+        Task.Builder builder = new Task.Builder();
+        if ((flags.getByte(row) & STRING_ID) != 0) {
+            builder.id(strings.read(idLow.getLong(row)));
+        } else {
+            builder.id(TaskId.of(idHigh.getLong(row), idLow.getLong(row)));
+        }
+        builder.titleForUpdate(title)
+                .priorityForUpdate(enumAt(PRIORITIES, priorities.getByte(row)))
+                .statusForUpdate(enumAt(STATUSES, statuses.getByte(row)))
+                .description(strings.read(descriptions.getLong(row)))
+                .version(versions.getLong(row));
+        if ((flags.getByte(row) & HAS_DUE_DATE) != 0) {
+            builder.dueDate(LocalDateTime.ofEpochSecond(dueSeconds.getLong(row), dueNanos.getInt(row), ZoneOffset.UTC));
+        }
+        return builder.buildForUpdate();
+    }
+
+    /**
+     * Version of the task in {@code row}, read without materializing the task.
+     */
+    public long version(int row) {
+        return versions.getLong(row);
+    }
+
+    /**
+     * Number of row slots, including deleted ones; row numbers are below this.
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Live rows matching {@code filter}, evaluated on the primitive columns only.
+     * The stream is lazy and must be consumed before the store is modified.
+     */
+    public IntStream rows(TaskFilter filter) {
+        return rows(filter, 0, rowCount);
+    }
+
+    /**
+     * Like {@link #rows(TaskFilter)}, restricted to rows {@code from} (inclusive)
+     * to {@code to} (exclusive).
+     */
+    public IntStream rows(TaskFilter filter, int from, int to) {
+        IntStream live = IntStream.range(from, Math.min(to, rowCount)).filter(row -> (flags.getByte(row) & LIVE) != 0);
+        if (filter == null || filter.isEmpty()) {
+            return live;
+        }
+        byte status = filter.getStatus().map(value -> (byte) value.ordinal()).orElse(NONE);
+        byte priority = filter.getPriority().map(value -> (byte) value.ordinal()).orElse(NONE);
+        if (status != NONE) {
+            live = live.filter(row -> statuses.getByte(row) == status);
+        }
+        if (priority != NONE) {
+            live = live.filter(row -> priorities.getByte(row) == priority);
+        }
+        if (filter.hasDueDateRange()) {
+            LocalDateTime start = filter.getDueDateStart().orElse(null);
+            LocalDateTime end = filter.getDueDateEnd().orElse(null);
+            long startSeconds = start == null ? Long.MIN_VALUE : start.toEpochSecond(ZoneOffset.UTC);
+            int startNanos = start == null ? 0 : start.getNano();
+            long endSeconds = end == null ? Long.MAX_VALUE : end.toEpochSecond(ZoneOffset.UTC);
+            int endNanos = end == null ? Integer.MAX_VALUE : end.getNano();
+            live = live.filter(row -> {
+                if ((flags.getByte(row) & HAS_DUE_DATE) == 0) {
+                    return false;
+                }
+                long seconds = dueSeconds.getLong(row);
+                int nanos = dueNanos.getInt(row);
+                boolean afterStart = seconds > startSeconds || (seconds == startSeconds && nanos >= startNanos);
+                boolean beforeEnd = seconds < endSeconds || (seconds == endSeconds && nanos <= endNanos);
+                return afterStart && beforeEnd;
+            });
+        }
+        return live;
+    }
+
+    public void flush() {
+        ensureOpen();
+        for (MappedColumn column : columns()) {
+            column.force();
+        }
+        strings.force();
+        Path meta = directory.resolve(META_FILE);
+        Path temporary = directory.resolve(META_FILE + ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temporary);
+                 DataOutputStream out = new DataOutputStream(file)) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(rowCount);
+                out.writeLong(strings.end());
+            }
+            Files.move(temporary, meta, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new StorageException("Cannot write column store metadata in " + directory, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        try {
+            for (MappedColumn column : columns()) {
+                column.close();
+            }
+            strings.close();
+        } catch (IOException e) {
+            throw new StorageException("Cannot close column store in " + directory, e);
+        }
+    }
+
+    private MappedColumn[] columns() {
+        return new MappedColumn[]{idHigh, idLow, flags, statuses, priorities, dueSeconds, dueNanos, titles, descriptions, versions};
+    }
+
+    private int allocateRow() throws IOException {
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        int row = rowCount;
+        for (MappedColumn column : columns()) {
+            column.ensureCapacity(row + 1);
+        }
+        rowCount++;
+        return row;
+    }
+
+    private void writeId(int row, TaskId taskId, String id) throws IOException {
+        if (taskId != null) {
+            idHigh.putLong(row, taskId.getHigh());
+            idLow.putLong(row, taskId.getLow());
+            flags.putByte(row, LIVE);
+        } else {
+            idHigh.putLong(row, hashString(id));
+            idLow.putLong(row, strings.append(id));
+            flags.putByte(row, (byte) (LIVE | STRING_ID));
+        }
+    }
+
+    private void writeRow(int row, Task task, Task previous) throws IOException {
+        String title = task.getTitle();
+        if (previous == null || !Objects.equals(previous.getTitle(), title)) {
+            titles.putLong(row, strings.append(title));
+        }
+        String description = task.getDescription().orElse(null);
+        if (previous == null || !Objects.equals(previous.getDescription().orElse(null), description)) {
+            descriptions.putLong(row, strings.append(description));
+        }
+        versions.putLong(row, task.getVersion());
+        statuses.putByte(row, task.getStatus() == null ? NONE : (byte) task.getStatus().ordinal());
+        priorities.putByte(row, task.getPriority() == null ? NONE : (byte) task.getPriority().ordinal());
+        byte rowFlags = (byte) (flags.getByte(row) & ~HAS_DUE_DATE);
+        if (task.getDueDate().isPresent()) {
+            LocalDateTime dueDate = task.getDueDate().get();
+            dueSeconds.putLong(row, dueDate.toEpochSecond(ZoneOffset.UTC));
+            dueNanos.putInt(row, dueDate.getNano());
+            rowFlags |= HAS_DUE_DATE;
+        }
+        flags.putByte(row, rowFlags);
+    }
+
+    private long rowHash(int row) {
+        long high = idHigh.getLong(row);
+        return (flags.getByte(row) & STRING_ID) != 0 ? high : high ^ idLow.getLong(row);
+    }
+
+    private int slot(long hash) {
+        return (int) ((hash * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(slots.length)));
+    }
+
+    private void rebuildIdTable() {
+        slots = new int[Math.max(16, Integer.highestOneBit(Math.max(1, rowCount)) << 2)];
+        liveCount = 0;
+        freeCount = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if ((flags.getByte(row) & LIVE) != 0) {
+                insertIntoTable(row);
+                liveCount++;
+            } else {
+                if (freeCount == freeRows.length) {
+                    freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+                }
+                freeRows[freeCount++] = row;
+            }
+        }
+    }
+
+    private void insertIntoTable(int row) {
+        if ((liveCount + 1) * 2L > slots.length) {
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            for (int entry : old) {
+                if (entry != 0) {
+                    place(entry - 1);
+                }
+            }
+        }
+        place(row);
+    }
+
+    private void place(int row) {
+        int mask = slots.length - 1;
+        int slot = slot(rowHash(row));
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = row + 1;
+    }
+
+    /**
+     * Linear-probing delete with backward shift, so lookups never need tombstones.
+     */
+    private void removeFromTable(int row) {
+        int mask = slots.length - 1;
+        int hole = slot(rowHash(row));
+        while (slots[hole] != row + 1) {
+            hole = (hole + 1) & mask;
+        }
+        slots[hole] = 0;
+        for (int next = (hole + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+            int home = slot(rowHash(slots[next] - 1));
+            // Move the entry back if its home slot is not between the hole and its position.
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                slots[next] = 0;
+                hole = next;
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new StorageException("Column store is closed");
+        }
+    }
+
+    private static <E> E enumAt(E[] values, byte ordinal) {
+        return ordinal == NONE ? null : values[ordinal];
+    }
+
+    private static long hashString(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash = (hash ^ id.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,77 @@
+package com.taskmanagement.storage.columnar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A fixed-width column backed by a memory-mapped file. Growing remaps the file
+ * with a larger size; the old mapping is released once it is garbage collected.
+ */
+final class MappedColumn implements Closeable {
+    private final FileChannel channel;
+    private final int width;
+    private final int maxCapacity;
+    private MappedByteBuffer buffer;
+    private int capacity;
+
+    MappedColumn(Path file, int width, int initialCapacity) throws IOException {
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.width = width;
+        this.maxCapacity = Integer.MAX_VALUE / width;
+        long existing = channel.size() / width;
+        map((int) Math.min(maxCapacity, Math.max(initialCapacity, existing)));
+    }
+
+    void ensureCapacity(int rows) throws IOException {
+        if (rows <= capacity) {
+            return;
+        }
+        if (rows > maxCapacity) {
+            throw new IllegalStateException("Column cannot hold more than " + maxCapacity + " rows");
+        }
+        map((int) Math.min(maxCapacity, Math.max(rows, 2L * capacity)));
+    }
+
+    private void map(int rows) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) rows * width);
+        capacity = rows;
+    }
+
+    byte getByte(int row) {
+        return buffer.get(row);
+    }
+
+    void putByte(int row, byte value) {
+        buffer.put(row, value);
+    }
+
+    int getInt(int row) {
+        return buffer.getInt(row * Integer.BYTES);
+    }
+
+    void putInt(int row, int value) {
+        buffer.putInt(row * Integer.BYTES, value);
+    }
+
+    long getLong(int row) {
+        return buffer.getLong(row * Long.BYTES);
+    }
+
+    void putLong(int row, long value) {
+        buffer.putLong(row * Long.BYTES, value);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
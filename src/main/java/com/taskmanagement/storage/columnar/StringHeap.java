@@ -0,0 +1,120 @@
+package com.taskmanagement.storage.columnar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only heap of length-prefixed UTF-8 strings in a memory-mapped file.
+ * A single mapping is limited to 2 GB, so the file is mapped in fixed-size chunks
+ * and a string never straddles two of them. References are byte offsets.
+ */
+final class StringHeap implements Closeable {
+    static final long NULL = -1;
+    private static final int MIN_MAPPING = 64 * 1024;
+
+    private final FileChannel channel;
+    private final int chunkShift;
+    private final int chunkSize;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private long end;
+
+    StringHeap(Path file, long end, int chunkShift) throws IOException {
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.chunkShift = chunkShift;
+        this.chunkSize = 1 << chunkShift;
+        this.end = end;
+        if (end > 0) {
+            ensureMapped(end);
+        }
+    }
+
+    long end() {
+        return end;
+    }
+
+    long append(String value) throws IOException {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int size = Integer.BYTES + bytes.length;
+        if (size > chunkSize) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes is too large for the heap");
+        }
+        int offset = offsetInChunk(end);
+        if (offset + size > chunkSize) {
+            end += chunkSize - offset;
+        }
+        ensureMapped(end + size);
+        long reference = end;
+        ByteBuffer chunk = chunks.get(chunkIndex(reference)).duplicate();
+        chunk.position(offsetInChunk(reference));
+        chunk.putInt(bytes.length).put(bytes);
+        end += size;
+        return reference;
+    }
+
+    String read(long reference) {
+        if (reference == NULL) {
+            return null;
+        }
+        ByteBuffer chunk = chunks.get(chunkIndex(reference)).duplicate();
+        int offset = offsetInChunk(reference);
+        byte[] bytes = new byte[chunk.getInt(offset)];
+        chunk.position(offset + Integer.BYTES);
+        chunk.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensureMapped(long limit) throws IOException {
+        int lastChunk = chunkIndex(limit - 1);
+        for (int i = 0; i < lastChunk; i++) {
+            if (i >= chunks.size() || chunks.get(i).capacity() < chunkSize) {
+                map(i, chunkSize);
+            }
+        }
+        int needed = offsetInChunk(limit - 1) + 1;
+        if (lastChunk >= chunks.size() || chunks.get(lastChunk).capacity() < needed) {
+            int current = lastChunk < chunks.size() ? chunks.get(lastChunk).capacity() : 0;
+            long size = Math.max(MIN_MAPPING, Math.max(needed, 2L * current));
+            map(lastChunk, (int) Math.min(chunkSize, size));
+        }
+    }
+
+    private void map(int chunk, int size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, (long) chunk << chunkShift, size);
+        if (chunk < chunks.size()) {
+            chunks.set(chunk, buffer);
+        } else {
+            chunks.add(buffer);
+        }
+    }
+
+    private int chunkIndex(long reference) {
+        return (int) (reference >>> chunkShift);
+    }
+
+    private int offsetInChunk(long reference) {
+        return (int) (reference & (chunkSize - 1));
+    }
+
+    void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,89 @@
+package com.taskmanagement.storage.lsm;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Bloom filter over the keys of one sorted run. Probe positions come from one
+ * 64-bit hash by double hashing, so a lookup hashes the key once.
+ */
+final class BloomFilter {
+    private final long[] bits;
+    private final int hashes;
+
+    private BloomFilter(long[] bits, int hashes) {
+        this.bits = bits;
+        this.hashes = hashes;
+    }
+
+    /**
+     * A filter sized for {@code keys} keys; {@code bitsPerKey} of 10 gives about
+     * a 1% false positive rate.
+     */
+    static BloomFilter create(long keys, int bitsPerKey) {
+        long bitCount = Math.max(64, keys * bitsPerKey);
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (bitCount + 63) >>> 6);
+        int hashes = Math.max(1, Math.min(30, (int) Math.round(bitsPerKey * Math.log(2))));
+        return new BloomFilter(new long[words], hashes);
+    }
+
+    void add(String key) {
+        long hash = hash(key);
+        long delta = Long.rotateLeft(hash, 32) | 1;
+        long bitCount = (long) bits.length << 6;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(hash, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+            hash += delta;
+        }
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        long delta = Long.rotateLeft(hash, 32) | 1;
+        long bitCount = (long) bits.length << 6;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(hash, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+            hash += delta;
+        }
+        return true;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(hashes);
+        out.writeInt(bits.length);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    static BloomFilter readFrom(ByteBuffer in) {
+        int hashes = in.getInt();
+        int words = in.getInt();
+        if (hashes < 1 || words < 1 || words > in.remaining() / Long.BYTES) {
+            throw new IllegalArgumentException("Malformed bloom filter");
+        }
+        long[] bits = new long[words];
+        for (int i = 0; i < words; i++) {
+            bits[i] = in.getLong();
+        }
+        return new BloomFilter(bits, hashes);
+    }
+
+    // FNV-1a over the chars, finished with the MurmurHash3 mixer.
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
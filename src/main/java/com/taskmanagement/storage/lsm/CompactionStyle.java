@@ -0,0 +1,22 @@
+package com.taskmanagement.storage.lsm;
+
+/**
+ * How an {@link LsmTaskStore} merges runs as they pile up. Level 0 holds the
+ * runs flushed from memtables in both styles.
+ */
+public enum CompactionStyle {
+    /**
+     * Every level below 0 is a single run, each {@code sizeRatio} times larger
+     * than the one above. A level that outgrows its size is merged into the next
+     * one. Reads consult few runs, while each byte is rewritten about
+     * {@code sizeRatio} times per level.
+     */
+    LEVELED,
+
+    /**
+     * Each level collects up to {@code sizeRatio} runs, which are then merged
+     * together into one new run at the next level. Each byte is written once per
+     * level, at the cost of more runs to consult on a read.
+     */
+    TIERED
+}
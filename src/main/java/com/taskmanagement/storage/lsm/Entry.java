@@ -0,0 +1,23 @@
+package com.taskmanagement.storage.lsm;
+
+/**
+ * A key with the encoded task stored under it, or with no value for a tombstone.
+ */
+final class Entry {
+    final String key;
+    final byte[] value;
+
+    Entry(String key, byte[] value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    boolean isTombstone() {
+        return value == null;
+    }
+
+    // Rough heap footprint, for sizing the memtable.
+    long weight() {
+        return 64 + 2L * key.length() + (value == null ? 0 : value.length);
+    }
+}
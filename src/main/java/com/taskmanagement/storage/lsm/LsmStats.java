@@ -0,0 +1,118 @@
+package com.taskmanagement.storage.lsm;
+
+import java.util.List;
+
+/**
+ * Counters of an {@link LsmTaskStore} since it was opened, at one point in time.
+ */
+public final class LsmStats {
+    private final long userBytes;
+    private final long logBytes;
+    private final long flushBytes;
+    private final long compactionBytes;
+    private final long flushes;
+    private final long compactions;
+    private final long lookups;
+    private final long blockReads;
+    private final long skippedRuns;
+    private final List<Integer> runsPerLevel;
+
+    LsmStats(long userBytes, long logBytes, long flushBytes, long compactionBytes, long flushes,
+             long compactions, long lookups, long blockReads, long skippedRuns, List<Integer> runsPerLevel) {
+        this.userBytes = userBytes;
+        this.logBytes = logBytes;
+        this.flushBytes = flushBytes;
+        this.compactionBytes = compactionBytes;
+        this.flushes = flushes;
+        this.compactions = compactions;
+        this.lookups = lookups;
+        this.blockReads = blockReads;
+        this.skippedRuns = skippedRuns;
+        this.runsPerLevel = List.copyOf(runsPerLevel);
+    }
+
+    /**
+     * Bytes of keys and encoded tasks handed to the store.
+     */
+    public long getUserBytes() {
+        return userBytes;
+    }
+
+    /**
+     * Bytes appended to the write-ahead log, record headers included.
+     */
+    public long getLogBytes() {
+        return logBytes;
+    }
+
+    public long getFlushBytes() {
+        return flushBytes;
+    }
+
+    public long getCompactionBytes() {
+        return compactionBytes;
+    }
+
+    public long getFlushCount() {
+        return flushes;
+    }
+
+    public long getCompactionCount() {
+        return compactions;
+    }
+
+    /**
+     * Point lookups, whether or not they found a task.
+     */
+    public long getLookupCount() {
+        return lookups;
+    }
+
+    /**
+     * Run blocks read by point lookups.
+     */
+    public long getBlockReads() {
+        return blockReads;
+    }
+
+    /**
+     * Runs a point lookup passed over without reading a block, because the key was
+     * outside their key range or their bloom filter ruled it out.
+     */
+    public long getSkippedRuns() {
+        return skippedRuns;
+    }
+
+    /**
+     * Live runs on each level, level 0 first.
+     */
+    public List<Integer> getRunsPerLevel() {
+        return runsPerLevel;
+    }
+
+    /**
+     * Bytes written to disk, by the log, flushes and compactions, per byte written
+     * by users.
+     */
+    public double getWriteAmplification() {
+        return userBytes == 0 ? 0 : (double) (logBytes + flushBytes + compactionBytes) / userBytes;
+    }
+
+    /**
+     * Blocks read per point lookup; lookups answered by the memtable read none.
+     */
+    public double getReadAmplification() {
+        return lookups == 0 ? 0 : (double) blockReads / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "LsmStats{" +
+                "writeAmplification=" + String.format("%.2f", getWriteAmplification()) +
+                ", readAmplification=" + String.format("%.2f", getReadAmplification()) +
+                ", flushes=" + flushes +
+                ", compactions=" + compactions +
+                ", runsPerLevel=" + runsPerLevel +
+                '}';
+    }
+}
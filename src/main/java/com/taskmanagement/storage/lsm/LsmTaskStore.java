@@ -0,0 +1,668 @@
+package com.taskmanagement.storage.lsm;
+
+import com.taskmanagement.exception.StorageException;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.storage.DurabilityMode;
+import com.taskmanagement.storage.TaskBinaryCodec;
+import com.taskmanagement.storage.WriteAheadLog;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Log-structured merge store of tasks keyed by id. Writes append to a
+ * {@link WriteAheadLog} and go into a sorted in-memory {@link Memtable}, so
+ * updating a task never rewrites it in place. A full memtable is frozen and
+ * flushed by a background thread to an immutable {@link SortedRun}, after which
+ * the log segments it covers are dropped; the same thread merges runs according
+ * to the {@link CompactionStyle}, discarding overwritten versions and, at the
+ * bottom level, tombstones.
+ *
+ * <p>A lookup consults the memtable, then the runs from newest to oldest, and
+ * stops at the first entry for the key, which may be a tombstone. Writes are
+ * serialized internally; reads run concurrently with them and with compaction.
+ */
+public class LsmTaskStore implements AutoCloseable {
+    public static final int DEFAULT_MEMTABLE_BYTES = 4 << 20;
+    public static final int DEFAULT_SIZE_RATIO = 10;
+    public static final int DEFAULT_LEVEL0_RUNS = 4;
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+    public static final int DEFAULT_BLOOM_BITS_PER_KEY = 10;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    // Header the log adds to every record.
+    private static final int LOG_RECORD_OVERHEAD = 16;
+
+    private final Path directory;
+    private final long memtableBytes;
+    private final CompactionStyle style;
+    private final int sizeRatio;
+    private final int level0Runs;
+    private final int blockSize;
+    private final int bloomBitsPerKey;
+    private final WriteAheadLog log;
+    private final ExecutorService background;
+
+    // Orders writes, memtable switches and state changes; flushed signals a finished flush.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Condition flushed = writeLock.newCondition();
+    // Readers hold it while using runs, so compaction can wait them out before deleting any.
+    private final ReadWriteLock runLock = new ReentrantReadWriteLock();
+    private volatile State state;
+    // Only used by the background thread once the store is open.
+    private long nextRunNumber;
+    private long manifestLogStart;
+    private volatile RuntimeException backgroundFailure;
+    private volatile boolean closed;
+
+    private final LongAdder userBytes = new LongAdder();
+    private final LongAdder logBytes = new LongAdder();
+    private final LongAdder flushBytes = new LongAdder();
+    private final LongAdder compactionBytes = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder blockReads = new LongAdder();
+    private final LongAdder skippedRuns = new LongAdder();
+
+    private LsmTaskStore(Builder builder) throws IOException {
+        this.directory = builder.directory;
+        this.memtableBytes = builder.memtableBytes;
+        this.style = builder.style;
+        this.sizeRatio = builder.sizeRatio;
+        this.level0Runs = builder.level0Runs;
+        this.blockSize = builder.blockSize;
+        this.bloomBitsPerKey = builder.bloomBitsPerKey;
+        Files.createDirectories(directory);
+
+        Manifest manifest = Manifest.read(directory);
+        List<List<SortedRun>> levels = new ArrayList<>();
+        Set<Long> live = new HashSet<>();
+        try {
+            for (long[] numbers : manifest.levels) {
+                List<SortedRun> runs = new ArrayList<>();
+                for (long number : numbers) {
+                    runs.add(SortedRun.open(directory, number));
+                    live.add(number);
+                }
+                levels.add(runs);
+            }
+            deleteLeftovers(live);
+            this.log = WriteAheadLog.open(directory, builder.durabilityMode);
+        } catch (IOException | RuntimeException e) {
+            levels.forEach(this::closeQuietly);
+            throw e;
+        }
+        this.nextRunNumber = manifest.nextRunNumber;
+        this.manifestLogStart = manifest.logStart;
+
+        Memtable memtable = new Memtable();
+        try {
+            log.replay(manifest.logStart, (lsn, payload) -> memtable.put(decodeRecord(lsn, payload)));
+        } catch (RuntimeException e) {
+            log.close();
+            levels.forEach(this::closeQuietly);
+            throw e;
+        }
+        this.state = new State(memtable, null, 0, levels);
+        this.background = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lsm-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (pickCompaction(levels) >= 0) {
+            background.execute(this::runBackground);
+        }
+    }
+
+    public static LsmTaskStore open(Path directory) {
+        return new Builder(directory).build();
+    }
+
+    public Task get(String id) {
+        if (id == null) {
+            return null;
+        }
+        Entry entry;
+        runLock.readLock().lock();
+        try {
+            entry = find(state, id);
+        } finally {
+            runLock.readLock().unlock();
+        }
+        return entry == null || entry.isTombstone() ? null : decode(entry.value);
+    }
+
+    /**
+     * Stores the task as given, version included, and returns the LSN of its log
+     * record; pass it to {@link #awaitDurable(long)} before acknowledging the write.
+     */
+    public long put(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return write(new Entry(task.getId(), TaskBinaryCodec.encode(task)));
+    }
+
+    /**
+     * Writes a tombstone for the id, whether or not a task is stored under it, and
+     * returns the LSN of its log record.
+     */
+    public long delete(String id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Id cannot be null");
+        }
+        return write(new Entry(id, null));
+    }
+
+    /**
+     * Blocks until the write with the given LSN is on disk, as the store's
+     * {@link DurabilityMode} defines it.
+     */
+    public void awaitDurable(long lsn) {
+        log.awaitDurable(lsn);
+    }
+
+    /**
+     * Hands up to {@code limit} tasks to {@code consumer} in id order, starting
+     * after the task with id {@code afterId}, or at the first one if it is null.
+     * Returns how many there were; fewer than {@code limit} means the end was reached.
+     */
+    public int scan(String afterId, int limit, Consumer<? super Task> consumer) {
+        int delivered = 0;
+        runLock.readLock().lock();
+        try {
+            State current = state;
+            List<Iterator<Entry>> sources = new ArrayList<>();
+            sources.add(current.memtable.iterator(afterId));
+            if (current.immutable != null) {
+                sources.add(current.immutable.iterator(afterId));
+            }
+            for (List<SortedRun> runs : current.levels) {
+                for (SortedRun run : runs) {
+                    sources.add(run.iterator(afterId));
+                }
+            }
+            Iterator<Entry> entries = new MergingIterator(sources, true);
+            while (delivered < limit && entries.hasNext()) {
+                consumer.accept(decode(entries.next().value));
+                delivered++;
+            }
+        } finally {
+            runLock.readLock().unlock();
+        }
+        return delivered;
+    }
+
+    /**
+     * Freezes the memtable and waits until it is flushed, along with any compaction
+     * that triggers.
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            awaitFlushed();
+            if (!state.memtable.isEmpty()) {
+                switchMemtable();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            // The background thread runs tasks in order, so this waits for the flush.
+            background.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while waiting for a flush", e);
+        } catch (ExecutionException e) {
+            throw new StorageException("Flush failed", e.getCause());
+        }
+        ensureWritable();
+    }
+
+    public LsmStats stats() {
+        List<Integer> runsPerLevel = new ArrayList<>();
+        for (List<SortedRun> runs : state.levels) {
+            runsPerLevel.add(runs.size());
+        }
+        return new LsmStats(userBytes.sum(), logBytes.sum(), flushBytes.sum(), compactionBytes.sum(),
+                flushes.sum(), compactions.sum(), lookups.sum(), blockReads.sum(), skippedRuns.sum(), runsPerLevel);
+    }
+
+    /**
+     * Stops the background thread once its current flush or compaction is done and
+     * closes the files. Whatever is still in the memtable is in the log.
+     */
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushed.signalAll();
+        } finally {
+            writeLock.unlock();
+        }
+        background.shutdown();
+        try {
+            background.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        runLock.writeLock().lock();
+        try {
+            log.close();
+            state.levels.forEach(this::closeQuietly);
+        } finally {
+            runLock.writeLock().unlock();
+        }
+    }
+
+    private long write(Entry entry) {
+        byte[] record = encodeRecord(entry);
+        writeLock.lock();
+        try {
+            if (state.memtable.weight() >= memtableBytes) {
+                awaitFlushed();
+                switchMemtable();
+            }
+            ensureWritable();
+            long lsn = log.append(record);
+            state.memtable.put(entry);
+            userBytes.add(record.length - 1);
+            logBytes.add(record.length + LOG_RECORD_OVERHEAD);
+            return lsn;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Waits, under the write lock, until no frozen memtable is left to flush.
+    private void awaitFlushed() {
+        ensureWritable();
+        while (state.immutable != null) {
+            flushed.awaitUninterruptibly();
+            ensureWritable();
+        }
+    }
+
+    // Under the write lock, with no frozen memtable. Records from here on go to a new segment.
+    private void switchMemtable() {
+        long logStart = log.rotate();
+        State current = state;
+        state = new State(new Memtable(), current.memtable, logStart, current.levels);
+        background.execute(this::runBackground);
+    }
+
+    private Entry find(State current, String key) {
+        lookups.increment();
+        Entry entry = current.memtable.get(key);
+        if (entry == null && current.immutable != null) {
+            entry = current.immutable.get(key);
+        }
+        for (int level = 0; entry == null && level < current.levels.size(); level++) {
+            for (SortedRun run : current.levels.get(level)) {
+                if (!run.mightContain(key)) {
+                    skippedRuns.increment();
+                    continue;
+                }
+                blockReads.increment();
+                entry = run.get(key);
+                if (entry != null) {
+                    break;
+                }
+            }
+        }
+        return entry;
+    }
+
+    private void runBackground() {
+        try {
+            State current = state;
+            if (current.immutable != null) {
+                flushMemtable(current);
+            }
+            int level;
+            while (!closed && (level = pickCompaction(state.levels)) >= 0) {
+                compact(level);
+            }
+        } catch (RuntimeException e) {
+            backgroundFailure = e;
+        } finally {
+            writeLock.lock();
+            try {
+                flushed.signalAll();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    private void flushMemtable(State current) {
+        Memtable memtable = current.immutable;
+        SortedRun run = SortedRun.write(directory, nextRunNumber++, memtable.iterator(null), memtable.size(),
+                blockSize, bloomBitsPerKey);
+        List<List<SortedRun>> levels = copy(current.levels, 1);
+        levels.get(0).add(0, run);
+        writeManifest(current.immutableLogStart, levels);
+        writeLock.lock();
+        try {
+            state = new State(state.memtable, null, 0, levels);
+            flushed.signalAll();
+        } finally {
+            writeLock.unlock();
+        }
+        flushes.increment();
+        flushBytes.add(run.bytes());
+        log.deleteSegmentsBefore(current.immutableLogStart);
+    }
+
+    // The level to compact into the next one, or -1 if every level is within bounds.
+    private int pickCompaction(List<List<SortedRun>> levels) {
+        if (!levels.isEmpty() && levels.get(0).size() >= level0Runs) {
+            return 0;
+        }
+        long capacity = memtableBytes;
+        for (int level = 1; level < levels.size(); level++) {
+            capacity = capacity > Long.MAX_VALUE / sizeRatio ? Long.MAX_VALUE : capacity * sizeRatio;
+            List<SortedRun> runs = levels.get(level);
+            if (style == CompactionStyle.TIERED ? runs.size() >= sizeRatio : bytes(runs) > capacity) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Merges every run of {@code level} into the next level: together with its one
+     * run when leveled, as a new newest run when tiered. Tombstones are dropped
+     * when nothing older than the output remains.
+     */
+    private void compact(int level) {
+        State current = state;
+        int target = level + 1;
+        List<List<SortedRun>> levels = copy(current.levels, target + 1);
+        List<SortedRun> inputs = new ArrayList<>(levels.get(level));
+        if (style == CompactionStyle.LEVELED) {
+            inputs.addAll(levels.get(target));
+        }
+        boolean bottom = style == CompactionStyle.LEVELED || levels.get(target).isEmpty();
+        for (int deeper = target + 1; deeper < levels.size(); deeper++) {
+            bottom &= levels.get(deeper).isEmpty();
+        }
+
+        List<Iterator<Entry>> sources = new ArrayList<>(inputs.size());
+        long entries = 0;
+        for (SortedRun run : inputs) {
+            sources.add(run.iterator(null));
+            entries += run.entries();
+        }
+        SortedRun run = SortedRun.write(directory, nextRunNumber++, new MergingIterator(sources, bottom), entries,
+                blockSize, bloomBitsPerKey);
+
+        levels.get(level).clear();
+        if (style == CompactionStyle.LEVELED) {
+            levels.get(target).clear();
+        }
+        if (run != null) {
+            levels.get(target).add(0, run);
+        }
+        while (levels.size() > 1 && levels.get(levels.size() - 1).isEmpty()) {
+            levels.remove(levels.size() - 1);
+        }
+        writeManifest(manifestLogStart, levels);
+        writeLock.lock();
+        try {
+            State latest = state;
+            state = new State(latest.memtable, latest.immutable, latest.immutableLogStart, levels);
+        } finally {
+            writeLock.unlock();
+        }
+        compactions.increment();
+        compactionBytes.add(run == null ? 0 : run.bytes());
+
+        // Wait out readers that may still use the inputs.
+        runLock.writeLock().lock();
+        runLock.writeLock().unlock();
+        for (SortedRun input : inputs) {
+            try {
+                input.delete();
+            } catch (IOException e) {
+                // Left behind; deleted as a leftover on the next open.
+            }
+        }
+    }
+
+    private void writeManifest(long logStart, List<List<SortedRun>> levels) {
+        long[][] numbers = new long[levels.size()][];
+        for (int level = 0; level < levels.size(); level++) {
+            numbers[level] = levels.get(level).stream().mapToLong(SortedRun::number).toArray();
+        }
+        new Manifest(logStart, nextRunNumber, numbers).write(directory);
+        manifestLogStart = logStart;
+    }
+
+    private void deleteLeftovers(Set<Long> live) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                long number = SortedRun.number(name);
+                if (name.endsWith(".tmp") || (number >= 0 && !live.contains(number))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private void ensureWritable() {
+        if (closed) {
+            throw new StorageException("LSM store " + directory + " is closed");
+        }
+        if (backgroundFailure != null) {
+            throw new StorageException("Background flush or compaction failed in " + directory
+                    + "; reopen the store to recover", backgroundFailure);
+        }
+    }
+
+    private Task decode(byte[] value) {
+        try {
+            return TaskBinaryCodec.decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("Corrupt task record in " + directory, e);
+        }
+    }
+
+    private static byte[] encodeRecord(Entry entry) {
+        int valueLength = entry.isTombstone() ? 0 : entry.value.length;
+        byte[] bytes = new byte[1 + TaskBinaryCodec.encodedSize(entry.key) + valueLength];
+        ByteBuffer out = ByteBuffer.wrap(bytes).put(entry.isTombstone() ? DELETE : PUT);
+        TaskBinaryCodec.writeString(out, entry.key);
+        if (!entry.isTombstone()) {
+            out.put(entry.value);
+        }
+        return bytes;
+    }
+
+    private static Entry decodeRecord(long lsn, byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        byte type = payload.length > 0 ? in.get() : -1;
+        try {
+            String key = TaskBinaryCodec.readString(in);
+            switch (type) {
+                case PUT:
+                    return new Entry(key, Arrays.copyOfRange(payload, in.position(), payload.length));
+                case DELETE:
+                    return new Entry(key, null);
+                default:
+                    throw new StorageException("Unknown log record type " + type + " at LSN " + lsn);
+            }
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new StorageException("Malformed log record at LSN " + lsn, e);
+        }
+    }
+
+    private static List<List<SortedRun>> copy(List<List<SortedRun>> levels, int minimumLevels) {
+        List<List<SortedRun>> copy = new ArrayList<>();
+        for (List<SortedRun> runs : levels) {
+            copy.add(new ArrayList<>(runs));
+        }
+        while (copy.size() < minimumLevels) {
+            copy.add(new ArrayList<>());
+        }
+        return copy;
+    }
+
+    private static long bytes(List<SortedRun> runs) {
+        long bytes = 0;
+        for (SortedRun run : runs) {
+            bytes += run.bytes();
+        }
+        return bytes;
+    }
+
+    private void closeQuietly(List<SortedRun> runs) {
+        for (SortedRun run : runs) {
+            try {
+                run.close();
+            } catch (IOException e) {
+                // Read-only; nothing is lost.
+            }
+        }
+    }
+
+    /**
+     * What a reader needs, swapped as a whole: the active memtable, the one being
+     * flushed if any, and the runs of each level, newest first.
+     */
+    private static final class State {
+        final Memtable memtable;
+        final Memtable immutable;
+        final long immutableLogStart;
+        final List<List<SortedRun>> levels;
+
+        State(Memtable memtable, Memtable immutable, long immutableLogStart, List<List<SortedRun>> levels) {
+            this.memtable = memtable;
+            this.immutable = immutable;
+            this.immutableLogStart = immutableLogStart;
+            this.levels = levels;
+        }
+    }
+
+    public static class Builder {
+        private final Path directory;
+        private long memtableBytes = DEFAULT_MEMTABLE_BYTES;
+        private CompactionStyle style = CompactionStyle.LEVELED;
+        private int sizeRatio = DEFAULT_SIZE_RATIO;
+        private int level0Runs = DEFAULT_LEVEL0_RUNS;
+        private int blockSize = DEFAULT_BLOCK_SIZE;
+        private int bloomBitsPerKey = DEFAULT_BLOOM_BITS_PER_KEY;
+        private DurabilityMode durabilityMode = DurabilityMode.BATCHED;
+
+        public Builder(Path directory) {
+            if (directory == null) {
+                throw new IllegalArgumentException("Directory cannot be null");
+            }
+            this.directory = directory;
+        }
+
+        /**
+         * Approximate heap size at which the memtable is frozen and flushed.
+         */
+        public Builder memtableBytes(long memtableBytes) {
+            if (memtableBytes < 1024) {
+                throw new IllegalArgumentException("Memtable must hold at least 1024 bytes");
+            }
+            this.memtableBytes = memtableBytes;
+            return this;
+        }
+
+        public Builder compactionStyle(CompactionStyle style) {
+            if (style == null) {
+                throw new IllegalArgumentException("Compaction style cannot be null");
+            }
+            this.style = style;
+            return this;
+        }
+
+        /**
+         * Growth factor between leveled levels, or runs per tiered level.
+         */
+        public Builder sizeRatio(int sizeRatio) {
+            if (sizeRatio < 2) {
+                throw new IllegalArgumentException("Size ratio must be at least 2");
+            }
+            this.sizeRatio = sizeRatio;
+            return this;
+        }
+
+        /**
+         * Flushed runs that may pile up on level 0 before they are compacted.
+         */
+        public Builder level0Runs(int level0Runs) {
+            if (level0Runs < 1) {
+                throw new IllegalArgumentException("Level 0 must allow at least one run");
+            }
+            this.level0Runs = level0Runs;
+            return this;
+        }
+
+        public Builder blockSize(int blockSize) {
+            if (blockSize < 256) {
+                throw new IllegalArgumentException("Block size must be at least 256 bytes");
+            }
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        /**
+         * Bloom filter bits per key; 10 gives about 1% false positives, 0 disables
+         * the filters.
+         */
+        public Builder bloomBitsPerKey(int bloomBitsPerKey) {
+            if (bloomBitsPerKey < 0 || bloomBitsPerKey > 64) {
+                throw new IllegalArgumentException("Bloom filter bits per key must be between 0 and 64");
+            }
+            this.bloomBitsPerKey = bloomBitsPerKey;
+            return this;
+        }
+
+        public Builder durabilityMode(DurabilityMode durabilityMode) {
+            if (durabilityMode == null) {
+                throw new IllegalArgumentException("Durability mode cannot be null");
+            }
+            this.durabilityMode = durabilityMode;
+            return this;
+        }
+
+        public LsmTaskStore build() {
+            try {
+                return new LsmTaskStore(this);
+            } catch (IOException e) {
+                throw new StorageException("Cannot open LSM store " + directory, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.taskmanagement.storage.lsm;
+
+import com.taskmanagement.exception.StorageException;
+import com.taskmanagement.storage.StorageFiles;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The live run files of each level, newest first, and the first log sequence
+ * number not yet in any of them. Rewritten atomically after every flush and
+ * compaction; run files it does not list are leftovers and deleted on open.
+ */
+final class Manifest {
+    static final String FILE = "MANIFEST";
+    private static final int MAGIC = 0x4C534D4D;
+    private static final int FORMAT_VERSION = 1;
+
+    final long logStart;
+    final long nextRunNumber;
+    final long[][] levels;
+
+    Manifest(long logStart, long nextRunNumber, long[][] levels) {
+        this.logStart = logStart;
+        this.nextRunNumber = nextRunNumber;
+        this.levels = levels;
+    }
+
+    /**
+     * The manifest in {@code directory}, or an empty one if there is none yet.
+     */
+    static Manifest read(Path directory) {
+        Path path = directory.resolve(FILE);
+        try (InputStream file = Files.newInputStream(path)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file), new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new StorageException("Unrecognized manifest " + path);
+            }
+            long logStart = in.readLong();
+            long nextRunNumber = in.readLong();
+            long[][] levels = new long[in.readInt()][];
+            for (int level = 0; level < levels.length; level++) {
+                levels[level] = new long[in.readInt()];
+                for (int i = 0; i < levels[level].length; i++) {
+                    levels[level][i] = in.readLong();
+                }
+            }
+            int expected = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expected) {
+                throw new StorageException("Manifest checksum mismatch in " + path);
+            }
+            return new Manifest(logStart, nextRunNumber, levels);
+        } catch (NoSuchFileException e) {
+            return new Manifest(0, 1, new long[0][]);
+        } catch (IOException | NegativeArraySizeException e) {
+            throw new StorageException("Cannot read manifest " + path, e);
+        }
+    }
+
+    /**
+     * Replaces the manifest: writes a temporary file, forces it and renames it over
+     * the old one.
+     */
+    void write(Path directory) {
+        Path target = directory.resolve(FILE);
+        Path temporary = directory.resolve(FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(logStart);
+            out.writeLong(nextRunNumber);
+            out.writeInt(levels.length);
+            for (long[] runs : levels) {
+                out.writeInt(runs.length);
+                for (long run : runs) {
+                    out.writeLong(run);
+                }
+            }
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+            file.getFD().sync();
+        } catch (IOException e) {
+            throw new StorageException("Cannot write manifest " + target, e);
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            StorageFiles.syncDirectory(directory);
+        } catch (IOException e) {
+            throw new StorageException("Cannot install manifest " + target, e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.taskmanagement.storage.lsm;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted in-memory buffer of the latest writes, tombstones included. Readers
+ * run concurrently with the single writer; once full it is frozen and flushed
+ * to a {@link SortedRun}.
+ */
+final class Memtable {
+    private final ConcurrentSkipListMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+    // Only changed under the store's write lock.
+    private volatile long weight;
+
+    void put(Entry entry) {
+        Entry previous = entries.put(entry.key, entry);
+        weight += entry.weight() - (previous == null ? 0 : previous.weight());
+    }
+
+    Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Entries with keys after {@code after}, or all of them if it is null.
+     */
+    Iterator<Entry> iterator(String after) {
+        return (after == null ? entries : entries.tailMap(after, false)).values().iterator();
+    }
+
+    long weight() {
+        return weight;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+}
@@ -0,0 +1,80 @@
+package com.taskmanagement.storage.lsm;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Merges sorted sources into one sorted sequence of distinct keys. Sources are
+ * given newest first; where several hold a key, the newest entry wins and the
+ * rest are skipped.
+ */
+final class MergingIterator implements Iterator<Entry> {
+    private final PriorityQueue<Source> queue;
+    private final boolean dropTombstones;
+    private Entry next;
+
+    /**
+     * @param dropTombstones whether to leave deleted keys out entirely, which is
+     *                       only correct when no older source is left to shadow
+     */
+    MergingIterator(List<Iterator<Entry>> sources, boolean dropTombstones) {
+        this.queue = new PriorityQueue<>(Math.max(1, sources.size()),
+                Comparator.comparing((Source source) -> source.current.key).thenComparingInt(source -> source.rank));
+        this.dropTombstones = dropTombstones;
+        for (int i = 0; i < sources.size(); i++) {
+            refill(new Source(sources.get(i), i));
+        }
+        this.next = advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public Entry next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        Entry entry = next;
+        next = advance();
+        return entry;
+    }
+
+    private Entry advance() {
+        while (!queue.isEmpty()) {
+            Source newest = queue.poll();
+            Entry entry = newest.current;
+            refill(newest);
+            while (!queue.isEmpty() && queue.peek().current.key.equals(entry.key)) {
+                refill(queue.poll());
+            }
+            if (!dropTombstones || !entry.isTombstone()) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void refill(Source source) {
+        if (source.entries.hasNext()) {
+            source.current = source.entries.next();
+            queue.add(source);
+        }
+    }
+
+    private static final class Source {
+        final Iterator<Entry> entries;
+        final int rank;
+        Entry current;
+
+        Source(Iterator<Entry> entries, int rank) {
+            this.entries = entries;
+            this.rank = rank;
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.taskmanagement.storage.lsm;
+
+import com.taskmanagement.exception.StorageException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+/**
+ * An immutable file of entries in key order, written once by a flush or a
+ * compaction. Entries are packed into blocks of about the configured block size;
+ * the first key of every block (the sparse index) and a bloom filter over all keys
+ * are kept in memory, so a point lookup reads at most one block, and none when the
+ * filter rules the key out.
+ *
+ * <p>Layout: blocks of {@code int keyLength | key | int valueLength (-1 for a
+ * tombstone) | value} entries, then the index and the filter, then a fixed footer
+ * {@code long metaOffset | int metaLength | int metaCrc | long entries | int version | int magic}.
+ * Each index entry carries the CRC32 of its block, checked when the block is read.
+ */
+final class SortedRun implements Closeable {
+    private static final int MAGIC = 0x4C534D52;
+    private static final int FORMAT_VERSION = 1;
+    private static final int FOOTER_SIZE = 32;
+    private static final String PREFIX = "run-";
+    private static final String SUFFIX = ".sst";
+
+    private final Path path;
+    private final long number;
+    private final FileChannel channel;
+    private final long bytes;
+    private final long entries;
+    private final String[] firstKeys;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final int[] checksums;
+    private final String lastKey;
+    private final BloomFilter filter;
+
+    private SortedRun(Path path, long number, FileChannel channel) throws IOException {
+        this.path = path;
+        this.number = number;
+        this.channel = channel;
+        this.bytes = channel.size();
+        if (bytes < FOOTER_SIZE) {
+            throw new StorageException("Truncated run file " + path);
+        }
+        ByteBuffer footer = read(bytes - FOOTER_SIZE, FOOTER_SIZE);
+        long metaOffset = footer.getLong();
+        int metaLength = footer.getInt();
+        int metaCrc = footer.getInt();
+        this.entries = footer.getLong();
+        if (footer.getInt() != FORMAT_VERSION || footer.getInt() != MAGIC
+                || metaOffset < 0 || metaLength < 0 || metaOffset + metaLength != bytes - FOOTER_SIZE) {
+            throw new StorageException("Unrecognized run file " + path);
+        }
+        ByteBuffer meta = read(metaOffset, metaLength);
+        if (crc(meta) != metaCrc) {
+            throw new StorageException("Checksum mismatch in index of " + path);
+        }
+        try {
+            int blocks = meta.getInt();
+            this.firstKeys = new String[blocks];
+            this.offsets = new long[blocks];
+            this.lengths = new int[blocks];
+            this.checksums = new int[blocks];
+            for (int i = 0; i < blocks; i++) {
+                firstKeys[i] = readKey(meta);
+                offsets[i] = meta.getLong();
+                lengths[i] = meta.getInt();
+                checksums[i] = meta.getInt();
+            }
+            this.lastKey = readKey(meta);
+            this.filter = meta.get() != 0 ? BloomFilter.readFrom(meta) : null;
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new StorageException("Malformed index in " + path, e);
+        }
+    }
+
+    static SortedRun open(Path directory, long number) {
+        Path path = path(directory, number);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            return new SortedRun(path, number, channel);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            if (e instanceof StorageException) {
+                throw (StorageException) e;
+            }
+            throw new StorageException("Cannot open run file " + path, e);
+        }
+    }
+
+    /**
+     * Writes {@code entries}, which must be in strictly increasing key order, to a
+     * new run file and opens it. The file is forced to disk and renamed into place,
+     * so a run file either exists completely or not at all. Returns null, without
+     * creating a file, when there are no entries.
+     *
+     * @param expectedEntries an upper bound on the entry count, for sizing the filter
+     * @param bitsPerKey      bloom filter bits per key; 0 for no filter
+     */
+    static SortedRun write(Path directory, long number, Iterator<Entry> entries, long expectedEntries,
+                           int blockSize, int bitsPerKey) {
+        if (!entries.hasNext()) {
+            return null;
+        }
+        Path target = path(directory, number);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        BloomFilter filter = bitsPerKey > 0 ? BloomFilter.create(expectedEntries, bitsPerKey) : null;
+        List<String> firstKeys = new ArrayList<>();
+        List<long[]> locations = new ArrayList<>();
+        ByteArrayOutputStream block = new ByteArrayOutputStream(blockSize + 1024);
+        DataOutputStream blockOut = new DataOutputStream(block);
+        CRC32 crc = new CRC32();
+        long offset = 0;
+        long count = 0;
+        String lastKey = null;
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            BufferedOutputStream out = new BufferedOutputStream(file, 1 << 16);
+            while (entries.hasNext()) {
+                Entry entry = entries.next();
+                if (block.size() == 0) {
+                    firstKeys.add(entry.key);
+                }
+                byte[] key = entry.key.getBytes(StandardCharsets.UTF_8);
+                blockOut.writeInt(key.length);
+                blockOut.write(key);
+                blockOut.writeInt(entry.isTombstone() ? -1 : entry.value.length);
+                if (!entry.isTombstone()) {
+                    blockOut.write(entry.value);
+                }
+                if (filter != null) {
+                    filter.add(entry.key);
+                }
+                lastKey = entry.key;
+                count++;
+                if (block.size() >= blockSize || !entries.hasNext()) {
+                    crc.reset();
+                    crc.update(block.toByteArray());
+                    locations.add(new long[] {offset, block.size(), (int) crc.getValue()});
+                    block.writeTo(out);
+                    offset += block.size();
+                    block.reset();
+                }
+            }
+
+            ByteArrayOutputStream meta = new ByteArrayOutputStream();
+            DataOutputStream metaOut = new DataOutputStream(meta);
+            metaOut.writeInt(firstKeys.size());
+            for (int i = 0; i < firstKeys.size(); i++) {
+                writeKey(metaOut, firstKeys.get(i));
+                long[] location = locations.get(i);
+                metaOut.writeLong(location[0]);
+                metaOut.writeInt((int) location[1]);
+                metaOut.writeInt((int) location[2]);
+            }
+            writeKey(metaOut, lastKey);
+            metaOut.writeBoolean(filter != null);
+            if (filter != null) {
+                filter.writeTo(metaOut);
+            }
+            byte[] metaBytes = meta.toByteArray();
+            crc.reset();
+            crc.update(metaBytes);
+            out.write(metaBytes);
+            DataOutputStream footer = new DataOutputStream(out);
+            footer.writeLong(offset);
+            footer.writeInt(metaBytes.length);
+            footer.writeInt((int) crc.getValue());
+            footer.writeLong(count);
+            footer.writeInt(FORMAT_VERSION);
+            footer.writeInt(MAGIC);
+            footer.flush();
+            file.getFD().sync();
+        } catch (IOException e) {
+            throw new StorageException("Cannot write run file " + target, e);
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new StorageException("Cannot install run file " + target, e);
+        }
+        return open(directory, number);
+    }
+
+    static Path path(Path directory, long number) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, number, SUFFIX));
+    }
+
+    /**
+     * The number of a run file name, or -1 if it does not name one.
+     */
+    static long number(String fileName) {
+        if (!fileName.startsWith(PREFIX) || !fileName.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    long number() {
+        return number;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    long entries() {
+        return entries;
+    }
+
+    /**
+     * Whether the key can be in this run, by key range and bloom filter, without
+     * reading a block.
+     */
+    boolean mightContain(String key) {
+        return key.compareTo(firstKeys[0]) >= 0 && key.compareTo(lastKey) <= 0
+                && (filter == null || filter.mightContain(key));
+    }
+
+    /**
+     * The entry for {@code key}, reading the one block that can hold it, or null.
+     */
+    Entry get(String key) {
+        int index = floorBlock(key);
+        if (index < 0) {
+            return null;
+        }
+        ByteBuffer block = readBlock(index);
+        while (block.hasRemaining()) {
+            Entry entry = readEntry(block);
+            int order = entry.key.compareTo(key);
+            if (order >= 0) {
+                return order == 0 ? entry : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Entries with keys after {@code after}, or all of them if it is null, reading
+     * one block at a time.
+     */
+    Iterator<Entry> iterator(String after) {
+        return new Iterator<Entry>() {
+            private int nextBlock = after == null ? 0 : Math.max(0, floorBlock(after));
+            private ByteBuffer block;
+            private Entry next = advance();
+
+            private Entry advance() {
+                while (true) {
+                    while (block == null || !block.hasRemaining()) {
+                        if (nextBlock == firstKeys.length) {
+                            return null;
+                        }
+                        block = readBlock(nextBlock++);
+                    }
+                    Entry entry = readEntry(block);
+                    if (after == null || entry.key.compareTo(after) > 0) {
+                        return entry;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Entry next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Entry entry = next;
+                next = advance();
+                return entry;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Closes the run and deletes its file.
+     */
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    // The last block whose first key is at most key, or -1 if key sorts before all of them.
+    private int floorBlock(String key) {
+        int low = 0;
+        int high = firstKeys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (firstKeys[mid].compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private ByteBuffer readBlock(int block) {
+        try {
+            ByteBuffer buffer = read(offsets[block], lengths[block]);
+            if (crc(buffer) != checksums[block]) {
+                throw new StorageException("Checksum mismatch in block " + block + " of " + path);
+            }
+            return buffer;
+        } catch (IOException e) {
+            throw new StorageException("Cannot read run file " + path, e);
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new StorageException("Truncated run file " + path);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private Entry readEntry(ByteBuffer block) {
+        try {
+            String key = readKey(block);
+            int length = block.getInt();
+            if (length < -1 || length > block.remaining()) {
+                throw new StorageException("Malformed entry in " + path);
+            }
+            byte[] value = null;
+            if (length >= 0) {
+                value = new byte[length];
+                block.get(value);
+            }
+            return new Entry(key, value);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new StorageException("Malformed entry in " + path, e);
+        }
+    }
+
+    private static String readKey(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Invalid key length " + length);
+        }
+        String key = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return key;
+    }
+
+    private static void writeKey(DataOutputStream out, String key) throws IOException {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static int crc(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        return (int) crc.getValue();
+    }
+}
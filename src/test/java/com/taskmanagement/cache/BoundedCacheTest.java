@@ -0,0 +1,78 @@
+package com.taskmanagement.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BoundedCache Tests")
+class BoundedCacheTest {
+
+    @Test
+    @DisplayName("Should evict least recently used entries by weight")
+    void shouldEvictByWeight() {
+        List<String> evicted = new ArrayList<>();
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 16, String::length,
+                (key, value) -> evicted.add(key + "=" + value));
+
+        assertTrue(cache.put("a", "aaaa"));
+        assertTrue(cache.put("b", "bbbb"));
+        assertEquals("aaaa", cache.get("a"));
+        cache.get("c");
+        cache.get("c");
+        assertTrue(cache.put("c", "cccc"));
+
+        assertNull(cache.peek("b"));
+        assertEquals("aaaa", cache.peek("a"));
+        assertEquals(8, cache.stats().getWeight());
+        assertFalse(cache.put("d", "more than ten"));
+        assertEquals(List.of("b=bbbb"), evicted);
+    }
+
+    @Test
+    @DisplayName("Should keep frequently used entries when a scan of new keys passes through")
+    void shouldResistScans() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(100, 100, value -> 1);
+        for (int key = 0; key < 100; key++) {
+            cache.put(key, "hot");
+            for (int i = 0; i < 10; i++) {
+                cache.get(key);
+            }
+        }
+
+        for (int key = 1_000; key < 1_500; key++) {
+            if (cache.get(key) == null) {
+                cache.put(key, "cold");
+            }
+        }
+
+        int hot = 0;
+        for (int key = 0; key < 100; key++) {
+            if ("hot".equals(cache.peek(key))) {
+                hot++;
+            }
+        }
+        assertTrue(hot >= 90, "hot entries left: " + hot);
+        assertEquals(500, cache.stats().getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should remove matching entries")
+    void shouldRemoveIf() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(100, 16, String::length);
+        for (int key = 0; key < 10; key++) {
+            cache.put(key, "v" + key);
+        }
+
+        cache.removeIf((key, value) -> key % 2 == 0);
+
+        assertEquals(5, cache.size());
+        assertEquals(10, cache.stats().getWeight());
+        assertNull(cache.peek(4));
+        assertEquals("v5", cache.get(5));
+        assertEquals(0, cache.stats().getEvictionCount());
+    }
+}
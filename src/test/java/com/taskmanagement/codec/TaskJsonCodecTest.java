@@ -0,0 +1,139 @@
+package com.taskmanagement.codec;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskJsonCodec Tests")
+class TaskJsonCodecTest {
+
+    private final TaskJsonCodec codec = new TaskJsonCodec();
+
+    private static Task task(String id, String title, String description, LocalDateTime dueDate) {
+        return new Task.Builder().id(id).title(title).description(description).dueDate(dueDate)
+                .priority(Priority.HIGH).status(Status.IN_PROGRESS).version(7).build();
+    }
+
+    private static void assertSameFields(Task expected, Task actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.getPriority(), actual.getPriority());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getVersion(), actual.getVersion());
+    }
+
+    private String encode(Task task) {
+        return new String(codec.encode(task).toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private Task decode(String json) {
+        return codec.decode(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should write every field, with enums by name and nulls for absent values")
+    void shouldWriteFields() {
+        assertEquals("{\"id\":\"t-1\",\"title\":\"Report\",\"description\":null,\"dueDate\":\"2030-01-15T09:30\","
+                        + "\"priority\":\"HIGH\",\"status\":\"IN_PROGRESS\",\"version\":7}",
+                encode(task("t-1", "Report", null, LocalDateTime.of(2030, 1, 15, 9, 30))));
+        assertTrue(encode(task("t-1", "Report", "Q3", null)).contains("\"description\":\"Q3\",\"dueDate\":null"));
+    }
+
+    @Test
+    @DisplayName("Should write due dates exactly as LocalDateTime.toString")
+    void shouldWriteDueDatesLikeToString() {
+        List<LocalDateTime> dates = List.of(
+                LocalDateTime.of(2030, 1, 15, 9, 30),
+                LocalDateTime.of(2030, 1, 15, 9, 30, 5),
+                LocalDateTime.of(2030, 1, 15, 0, 0, 0, 120_000_000),
+                LocalDateTime.of(2030, 1, 15, 0, 0, 0, 123_456_000),
+                LocalDateTime.of(2030, 1, 15, 0, 0, 0, 1),
+                LocalDateTime.of(5, 12, 31, 23, 59, 59),
+                LocalDateTime.of(12345, 6, 1, 0, 0),
+                LocalDateTime.of(-44, 3, 15, 12, 0));
+        for (LocalDateTime date : dates) {
+            Task task = task("t-1", "Dated", null, date);
+            String json = encode(task);
+            assertTrue(json.contains("\"dueDate\":\"" + date + "\""), json);
+            assertEquals(date, decode(json).getDueDate().orElseThrow());
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip escapes, non-ASCII text and canonical ids")
+    void shouldRoundTripText() {
+        TaskId id = TaskId.of(0x0123456789abcdefL, 0xfedcba9876543210L);
+        Task task = new Task.Builder().id(id).title("Quote \" slash \\ tab\t bell\u0007 end")
+                .description("Über café — 日本語 😀 line\nbreak").priority(Priority.LOW).build();
+        String json = encode(task);
+        assertTrue(json.contains("\\u0007"));
+        Task decoded = decode(json);
+        assertSameFields(task, decoded);
+        assertEquals(id, decoded.getTaskId().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should read fields in any order, with whitespace, escapes and unknown fields")
+    void shouldReadLenientInput() {
+        Task task = decode("  {\n \"version\" : 3, \"extra\": {\"nested\": [1, \"]\", {\"x\": null}]}, \"status\":\"COMPLETED\","
+                + " \"priority\": \"MEDIUM\", \"ti\\u0074le\": \"Caf\\u00e9 \\/ done\", \"id\": \"abc\", \"more\": -1.5e3,"
+                + " \"flag\": true, \"description\": null } ");
+        assertEquals("abc", task.getId());
+        assertEquals("Café / done", task.getTitle());
+        assertEquals(Priority.MEDIUM, task.getPriority());
+        assertEquals(Status.COMPLETED, task.getStatus());
+        assertEquals(3, task.getVersion());
+        assertTrue(task.getDescription().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed or incomplete tasks")
+    void shouldRejectBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> decode("{\"id\":\"a\",\"title\":\"T\""));
+        assertThrows(IllegalArgumentException.class, () -> decode("{\"title\":\"T\",\"priority\":\"LOW\"}"));
+        assertThrows(IllegalArgumentException.class, () -> decode("{\"id\":\"a\",\"priority\":\"LOW\"}"));
+        assertThrows(IllegalArgumentException.class, () -> decode("{\"id\":\"a\",\"title\":\"T\",\"priority\":\"URGENT\"}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> decode("{\"id\":\"a\",\"title\":\"T\",\"priority\":\"LOW\",\"dueDate\":\"2030-02-30T10:00\"}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> decode("{\"id\":\"a\",\"title\":\"T\",\"priority\":\"LOW\",\"version\":1.5}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> decode("{\"id\":\"a\",\"title\":\"T\",\"priority\":\"LOW\"} trailing"));
+    }
+
+    @Test
+    @DisplayName("Should stream large arrays through a bounded buffer and read them back")
+    void shouldRoundTripArrays() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            tasks.add(task("task-" + i, "Title " + i, i % 2 == 0 ? "Description " + i : null,
+                    i % 3 == 0 ? null : LocalDateTime.of(2030, 1, 1, 0, 0).plusMinutes(i)));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encodeArray(tasks, out);
+        assertEquals(0, codec.size());
+        assertTrue(codec.buffer().length < out.size());
+
+        byte[] bytes = out.toByteArray();
+        assertArrayEquals(bytes, codec.encodeArray(tasks).toByteArray());
+        List<Task> decoded = codec.decodeArray(bytes);
+        assertEquals(tasks.size(), decoded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertSameFields(tasks.get(i), decoded.get(i));
+        }
+        assertTrue(codec.decodeArray(" [ ] ".getBytes(StandardCharsets.UTF_8)).isEmpty());
+    }
+}
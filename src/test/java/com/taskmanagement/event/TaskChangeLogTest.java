@@ -0,0 +1,154 @@
+package com.taskmanagement.event;
+
+import com.taskmanagement.exception.ChangeSequenceUnavailableException;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskChangeLog Tests")
+class TaskChangeLogTest {
+
+    private static Task task(String id, String title) {
+        return new Task.Builder().id(id).title(title).priority(Priority.MEDIUM).build();
+    }
+
+    @Test
+    @DisplayName("Should deliver events in sequence order to every subscriber")
+    void shouldDeliverInOrder() {
+        TaskChangeLog log = new TaskChangeLog(8);
+        try (TaskChangeLog.Subscription first = log.subscribe();
+             TaskChangeLog.Subscription second = log.subscribe()) {
+            Task created = task("task-1", "Created");
+            Task updated = task("task-1", "Updated");
+            log.publish(null, created);
+            log.publish(created, updated);
+            log.publish(updated, null);
+
+            List<TaskChangeEvent> events = new ArrayList<>();
+            assertEquals(3, first.poll(10, events::add));
+            assertEquals(List.of(1L, 2L, 3L), events.stream().map(TaskChangeEvent::getSequence).collect(Collectors.toList()));
+            assertEquals(TaskChangeEvent.Type.CREATED, events.get(0).getType());
+            assertEquals(TaskChangeEvent.Type.UPDATED, events.get(1).getType());
+            assertEquals(created, events.get(1).getBefore().orElseThrow());
+            assertEquals(TaskChangeEvent.Type.DELETED, events.get(2).getType());
+            assertEquals("task-1", events.get(2).getTaskId());
+            assertEquals(0, first.poll(10, events::add));
+
+            assertEquals(2, second.poll(2, event -> { }));
+            assertEquals(3, second.getNextSequence());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop at a claimed sequence until it is published")
+    void shouldWaitForClaimedSequence() {
+        TaskChangeLog log = new TaskChangeLog(8);
+        try (TaskChangeLog.Subscription subscription = log.subscribe()) {
+            long first = log.claim();
+            long second = log.claim();
+            log.publish(second, null, task("b", "B"));
+            assertEquals(0, subscription.poll(10, event -> { }));
+
+            log.publish(first, null, task("a", "A"));
+            List<String> ids = new ArrayList<>();
+            assertEquals(2, subscription.poll(10, event -> ids.add(event.getTaskId())));
+            assertEquals(List.of("a", "b"), ids);
+        }
+    }
+
+    @Test
+    @DisplayName("Should hold back publishers until a slow subscriber catches up")
+    void shouldApplyBackpressure() throws Exception {
+        TaskChangeLog log = new TaskChangeLog(4);
+        TaskChangeLog.Subscription subscription = log.subscribe();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+        Thread publisher = new Thread(() -> {
+            started.countDown();
+            for (int i = 0; i < 20; i++) {
+                log.publish(null, task("task-" + i, "Task"));
+            }
+            done.set(true);
+        });
+        publisher.start();
+        started.await();
+
+        List<TaskChangeEvent> events = new ArrayList<>();
+        while (events.size() < 20) {
+            subscription.poll(1, events::add, 5, TimeUnit.SECONDS);
+            assertTrue(log.lastSequence() - subscription.getNextSequence() < log.capacity());
+        }
+        publisher.join(5_000);
+        assertTrue(done.get());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i + 1, events.get(i).getSequence());
+            assertEquals("task-" + i, events.get(i).getTaskId());
+        }
+        subscription.close();
+    }
+
+    @Test
+    @DisplayName("Should resume from a retained sequence and reject an overwritten one")
+    void shouldResumeFromSequence() {
+        TaskChangeLog log = new TaskChangeLog(4);
+        for (int i = 0; i < 6; i++) {
+            log.publish(null, task("task-" + i, "Task"));
+        }
+
+        try (TaskChangeLog.Subscription resumed = log.subscribe(4)) {
+            List<Long> sequences = new ArrayList<>();
+            assertEquals(3, resumed.poll(10, event -> sequences.add(event.getSequence())));
+            assertEquals(List.of(4L, 5L, 6L), sequences);
+        }
+        assertThrows(ChangeSequenceUnavailableException.class, () -> log.subscribe(2));
+        assertThrows(IllegalArgumentException.class, () -> log.subscribe(8));
+        assertEquals(8, new TaskChangeLog(5).capacity());
+    }
+
+    @Test
+    @DisplayName("Should not lose events to publishers racing a new subscription")
+    void shouldSubscribeWhilePublishing() throws Exception {
+        TaskChangeLog log = new TaskChangeLog(4);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> publishers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            Thread publisher = new Thread(() -> {
+                Task created = task("task", "Task");
+                while (running.get()) {
+                    log.publish(null, created);
+                }
+            });
+            publisher.start();
+            publishers.add(publisher);
+        }
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                try (TaskChangeLog.Subscription subscription = log.subscribe()) {
+                    long expected = subscription.getNextSequence();
+                    List<Long> sequences = new ArrayList<>();
+                    while (sequences.size() < 8) {
+                        subscription.poll(8, event -> sequences.add(event.getSequence()), 1, TimeUnit.SECONDS);
+                    }
+                    for (long sequence : sequences) {
+                        assertEquals(expected++, sequence);
+                    }
+                }
+            }
+        } finally {
+            running.set(false);
+            for (Thread publisher : publishers) {
+                publisher.join();
+            }
+        }
+    }
+}
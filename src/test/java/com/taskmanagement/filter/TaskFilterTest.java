@@ -0,0 +1,71 @@
+package com.taskmanagement.filter;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskFilter Tests")
+class TaskFilterTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 9, 0, 0, 500);
+    private static final LocalDateTime END = LocalDateTime.of(2030, 1, 1, 17, 0);
+
+    @Test
+    @DisplayName("Should include both due-date bounds down to the nanosecond")
+    void shouldMatchDueDateRangeInclusively() {
+        Predicate<Task> range = TaskFilter.builder().byDueDateRange(START, END).build();
+
+        assertTrue(range.test(task(Status.PENDING, Priority.LOW, START)));
+        assertTrue(range.test(task(Status.PENDING, Priority.LOW, END)));
+        assertFalse(range.test(task(Status.PENDING, Priority.LOW, START.minusNanos(1))));
+        assertFalse(range.test(task(Status.PENDING, Priority.LOW, END.plusNanos(1))));
+        assertFalse(range.test(task(Status.PENDING, Priority.LOW, null)));
+
+        Predicate<Task> from = TaskFilter.builder().byDueDateRange(START, null).build();
+        assertTrue(from.test(task(Status.PENDING, Priority.LOW, LocalDateTime.MAX)));
+        assertFalse(from.test(task(Status.PENDING, Priority.LOW, LocalDateTime.MIN)));
+        Predicate<Task> until = TaskFilter.builder().byDueDateRange(null, END).build();
+        assertTrue(until.test(task(Status.PENDING, Priority.LOW, LocalDateTime.MIN)));
+    }
+
+    @Test
+    @DisplayName("Should require every criterion to match")
+    void shouldCombineCriteria() {
+        Predicate<Task> predicate = TaskFilter.builder()
+                .byStatus(Status.IN_PROGRESS)
+                .byPriority(Priority.HIGH)
+                .byDueDateRange(START, END)
+                .byText("rel")
+                .build();
+
+        assertTrue(predicate.test(task(Status.IN_PROGRESS, Priority.HIGH, END)));
+        assertFalse(predicate.test(task(Status.PENDING, Priority.HIGH, END)));
+        assertFalse(predicate.test(task(Status.IN_PROGRESS, Priority.MEDIUM, END)));
+        assertFalse(predicate.test(task(Status.IN_PROGRESS, Priority.HIGH, null)));
+        assertFalse(TaskFilter.builder().byText("other").build().test(task(Status.PENDING, Priority.LOW, null)));
+        assertTrue(TaskFilter.builder().build().test(task(Status.COMPLETED, Priority.LOW, null)));
+        assertTrue(TaskFilter.all().test(task(Status.COMPLETED, Priority.LOW, null)));
+    }
+
+    @Test
+    @DisplayName("Should not change a built predicate when the filter changes")
+    void shouldSnapshotCriteria() {
+        TaskFilter filter = TaskFilter.builder().byStatus(Status.PENDING);
+        Predicate<Task> predicate = filter.build();
+        filter.byStatus(Status.COMPLETED);
+
+        assertTrue(predicate.test(task(Status.PENDING, Priority.LOW, null)));
+        assertFalse(predicate.test(task(Status.COMPLETED, Priority.LOW, null)));
+    }
+
+    private static Task task(Status status, Priority priority, LocalDateTime dueDate) {
+        return new Task.Builder().title("Release notes").status(status).priority(priority).dueDate(dueDate).build();
+    }
+}
@@ -0,0 +1,193 @@
+package com.taskmanagement.http;
+
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.model.TaskIdGenerator;
+import com.taskmanagement.repository.InMemoryTaskRepository;
+import com.taskmanagement.search.TaskSearchIndex;
+import com.taskmanagement.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskHttpServer Tests")
+class TaskHttpServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private TaskSearchIndex searchIndex;
+    private TaskHttpServer server;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository.Builder().changeLog(new TaskChangeLog(256)).build();
+        searchIndex = TaskSearchIndex.attach(repository);
+        TaskService service = new TaskService(repository, TaskIdGenerator.defaultGenerator(), searchIndex);
+        server = new TaskHttpServer.Builder(service)
+                .port(0)
+                .bindAddress(InetAddress.getLoopbackAddress())
+                .build()
+                .start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        searchIndex.close();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String... headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(HttpResponse<String> response) {
+        return (Map<String, Object>) Json.parse(response.body());
+    }
+
+    private String create(String title, String priority) throws Exception {
+        HttpResponse<String> response = send("POST", "/tasks",
+                "{\"title\":\"" + title + "\",\"priority\":\"" + priority + "\"}");
+        assertEquals(201, response.statusCode());
+        return (String) object(response).get("id");
+    }
+
+    @Test
+    @DisplayName("Should create, read, update and delete a task")
+    void shouldServeTaskLifecycle() throws Exception {
+        HttpResponse<String> created = send("POST", "/tasks",
+                "{\"title\":\"Write \\\"report\\\"\",\"description\":\"Q3\",\"dueDate\":\"2030-01-15T09:30\",\"priority\":\"HIGH\"}");
+        assertEquals(201, created.statusCode());
+        Map<String, Object> task = object(created);
+        String id = (String) task.get("id");
+        assertEquals("/tasks/" + id, created.headers().firstValue("Location").orElseThrow());
+        assertEquals("Write \"report\"", task.get("title"));
+        assertEquals("2030-01-15T09:30", task.get("dueDate"));
+        assertEquals("PENDING", task.get("status"));
+
+        HttpResponse<String> fetched = send("GET", "/tasks/" + id, null);
+        assertEquals(200, fetched.statusCode());
+        assertEquals(task, object(fetched));
+        String etag = fetched.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> updated = send("PATCH", "/tasks/" + id,
+                "{\"status\":\"COMPLETED\",\"description\":null}", "If-Match", etag);
+        assertEquals(200, updated.statusCode());
+        assertEquals("COMPLETED", object(updated).get("status"));
+        assertNull(object(updated).get("description"));
+        assertEquals("HIGH", object(updated).get("priority"));
+
+        assertEquals(412, send("PATCH", "/tasks/" + id, "{\"title\":\"Stale\"}", "If-Match", etag).statusCode());
+        assertEquals(412, send("PATCH", "/tasks/" + id, "{\"title\":\"Weak\"}", "If-Match", "W/\"2\"").statusCode());
+        assertEquals(200, send("PATCH", "/tasks/" + id, "{\"title\":\"Listed\"}", "If-Match", etag + ", \"2\"").statusCode());
+        assertEquals(200, send("PATCH", "/tasks/" + id, "{\"title\":\"Any\"}", "If-Match", "*").statusCode());
+        assertEquals(400, send("PATCH", "/tasks/" + id, "{\"title\":\"Bad\"}", "If-Match", "4").statusCode());
+
+        assertEquals(204, send("DELETE", "/tasks/" + id, null).statusCode());
+        assertEquals(404, send("GET", "/tasks/" + id, null).statusCode());
+        assertEquals(404, send("DELETE", "/tasks/" + id, null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should list with filters, text search and cursor paging")
+    @SuppressWarnings("unchecked")
+    void shouldListTasks() throws Exception {
+        create("Quarterly report", "HIGH");
+        create("Report expenses", "LOW");
+        create("Book flights", "HIGH");
+
+        Map<String, Object> filtered = object(send("GET", "/tasks?priority=HIGH&q=rep", null));
+        List<Map<String, Object>> tasks = (List<Map<String, Object>>) filtered.get("tasks");
+        assertEquals(1, tasks.size());
+        assertEquals("Quarterly report", tasks.get(0).get("title"));
+        assertNull(filtered.get("nextCursor"));
+
+        Map<String, Object> first = object(send("GET", "/tasks?sort=PRIORITY_DESC&limit=2", null));
+        assertEquals(2, ((List<Object>) first.get("tasks")).size());
+        String cursor = (String) first.get("nextCursor");
+        assertNotNull(cursor);
+        Map<String, Object> second = object(send("GET", "/tasks?sort=PRIORITY_DESC&limit=2&cursor=" + cursor, null));
+        assertEquals(List.of("Report expenses"),
+                ((List<Map<String, Object>>) second.get("tasks")).stream().map(t -> t.get("title")).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Should reject bad requests with 4xx statuses")
+    void shouldRejectBadRequests() throws Exception {
+        assertEquals(400, send("POST", "/tasks", "{\"title\":").statusCode());
+        assertEquals(400, send("POST", "/tasks", "{\"title\":\"\",\"priority\":\"HIGH\"}").statusCode());
+        assertEquals(400, send("POST", "/tasks", "{\"title\":\"Task\",\"priority\":\"URGENT\"}").statusCode());
+        assertEquals(400, send("POST", "/tasks", "{\"title\":\"Task\"}").statusCode());
+        assertEquals(400, send("GET", "/tasks?limit=0", null).statusCode());
+        assertEquals(400, send("GET", "/tasks?cursor=garbage", null).statusCode());
+        assertEquals(400, send("POST", "/tasks", "[".repeat(100_000) + "]".repeat(100_000)).statusCode());
+        assertEquals(413, send("POST", "/tasks", " ".repeat((1 << 20) + 1) + "{}").statusCode());
+
+        HttpResponse<String> notAllowed = send("PUT", "/tasks", "{}");
+        assertEquals(405, notAllowed.statusCode());
+        assertEquals("GET, POST", notAllowed.headers().firstValue("Allow").orElseThrow());
+        assertEquals(404, send("GET", "/taskslist", null).statusCode());
+        assertTrue(object(send("GET", "/tasks/missing", null)).containsKey("error"));
+    }
+
+    @Test
+    @DisplayName("Should answer pipelined requests on one kept-alive connection")
+    void shouldAnswerPipelinedRequests() throws Exception {
+        String id = create("Pipelined", "MEDIUM");
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            socket.setSoTimeout(10_000);
+            String get = "GET /tasks/" + id + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+            String post = "POST /tasks HTTP/1.1\r\nHost: localhost\r\nContent-Length: 36\r\n\r\n"
+                    + "{\"title\":\"Second\",\"priority\":\"LOW\"}\n";
+            OutputStream out = socket.getOutputStream();
+            out.write((get + post + get).getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            assertTrue(readResponse(in).contains("\"title\":\"Pipelined\""));
+            assertTrue(readResponse(in).contains("\"title\":\"Second\""));
+            assertTrue(readResponse(in).contains("\"title\":\"Pipelined\""));
+        }
+    }
+
+    private static String readResponse(BufferedReader in) throws Exception {
+        String status = in.readLine();
+        assertNotNull(status, "connection closed before the response");
+        int length = 0;
+        for (String line = in.readLine(); !line.isEmpty(); line = in.readLine()) {
+            if (line.toLowerCase().startsWith("content-length:")) {
+                length = Integer.parseInt(line.substring("content-length:".length()).trim());
+            }
+        }
+        char[] body = new char[length];
+        int read = 0;
+        while (read < length) {
+            read += in.read(body, read, length - read);
+        }
+        return status + "\n" + new String(body);
+    }
+}
@@ -0,0 +1,107 @@
+package com.taskmanagement.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskId Tests")
+class TaskIdTest {
+
+    @Test
+    @DisplayName("Should render and parse the canonical UUID form")
+    void shouldRoundTripCanonicalForm() {
+        UUID uuid = UUID.randomUUID();
+        TaskId id = TaskId.parse(uuid.toString());
+
+        assertEquals(uuid.getMostSignificantBits(), id.getHigh());
+        assertEquals(uuid.getLeastSignificantBits(), id.getLow());
+        assertEquals(uuid.toString(), id.toString());
+        assertEquals(id, TaskId.of(id.getHigh(), id.getLow()));
+    }
+
+    @Test
+    @DisplayName("Should reject ids that are not in canonical form")
+    void shouldRejectNonCanonicalIds() {
+        assertNull(TaskId.tryParse("1"));
+        assertNull(TaskId.tryParse("1-1-1-1-1"));
+        assertNull(TaskId.tryParse("123E4567-E89B-12D3-A456-426614174000"));
+        assertNull(TaskId.tryParse(null));
+        assertThrows(IllegalArgumentException.class, () -> TaskId.parse("not-an-id"));
+    }
+
+    @Test
+    @DisplayName("Should order ids the same way as their strings")
+    void shouldOrderLikeStrings() {
+        List<TaskId> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UUID uuid = UUID.randomUUID();
+            ids.add(TaskId.of(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        }
+        for (TaskId a : ids) {
+            for (TaskId b : ids) {
+                assertEquals(Integer.signum(a.toString().compareTo(b.toString())), Integer.signum(a.compareTo(b)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should generate strictly increasing ids even when the clock stalls or steps back")
+    void shouldGenerateMonotonicIds() {
+        AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+        TimeOrderedTaskIdGenerator generator = new TimeOrderedTaskIdGenerator(clock::get);
+
+        TaskId previous = generator.next();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5000) {
+                clock.addAndGet(-10);
+            }
+            TaskId next = generator.next();
+            assertTrue(next.compareTo(previous) > 0);
+            previous = next;
+        }
+        assertEquals(7, (previous.getHigh() >>> 12) & 0xF);
+        assertEquals(2, previous.getLow() >>> 62);
+        assertTrue(TimeOrderedTaskIdGenerator.timestampOf(previous) >= 1_700_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("Should generate unique ids from concurrent threads")
+    void shouldGenerateUniqueIdsConcurrently() throws InterruptedException {
+        TaskIdGenerator generator = new TimeOrderedTaskIdGenerator();
+        Set<TaskId> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(generator.next());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    @DisplayName("Should build tasks with ids from the given generator")
+    void shouldUseGivenGenerator() {
+        TaskId fixed = TaskId.parse("018f2d6e-8a4b-7000-8000-000000000001");
+        Task task = new Task.Builder(() -> fixed).title("Task").priority(Priority.LOW).build();
+
+        assertEquals(fixed.toString(), task.getId());
+        assertEquals(fixed, task.getTaskId().orElseThrow());
+        assertFalse(new Task.Builder().id("plain").title("Task").priority(Priority.LOW).build()
+                .getTaskId().isPresent());
+    }
+}
@@ -189,5 +189,46 @@ class TaskTest {
         assertEquals(task1, task2);
         assertEquals(task1.hashCode(), task2.hashCode());
     }
-}
 
+    @Test
+    @DisplayName("Should apply only the fields set on a patch")
+    void shouldApplyPatch() {
+        Task task = new Task.Builder()
+                .title("Original")
+                .description("Original description")
+                .dueDate(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .priority(Priority.LOW)
+                .build();
+
+        Task patched = TaskPatch.builder().status(Status.COMPLETED).dueDate(null).build().applyTo(task);
+
+        assertEquals(task.getId(), patched.getId());
+        assertEquals("Original", patched.getTitle());
+        assertEquals("Original description", patched.getDescription().orElse(null));
+        assertFalse(patched.getDueDate().isPresent());
+        assertEquals(Priority.LOW, patched.getPriority());
+        assertEquals(Status.COMPLETED, patched.getStatus());
+        assertSame(task, TaskPatch.builder().build().applyTo(task));
+        assertThrows(IllegalArgumentException.class, () -> TaskPatch.builder().title(" "));
+    }
+
+    @Test
+    @DisplayName("Should apply a patch with a new version in one copy")
+    void shouldApplyPatchWithVersion() {
+        Task task = new Task.Builder()
+                .title("Task")
+                .description("Description")
+                .priority(Priority.LOW)
+                .build();
+
+        Task patched = TaskPatch.builder().status(Status.IN_PROGRESS).build().applyTo(task, 5);
+
+        assertEquals(task.getId(), patched.getId());
+        assertEquals(5, patched.getVersion());
+        assertEquals(Status.IN_PROGRESS, patched.getStatus());
+        assertSame(task.getDescription(), patched.getDescription());
+        assertEquals(0, task.getVersion());
+        assertSame(task, TaskPatch.builder().status(Status.PENDING).build().applyTo(task, 0));
+        assertThrows(IllegalArgumentException.class, () -> task.withVersion(-1));
+    }
+}
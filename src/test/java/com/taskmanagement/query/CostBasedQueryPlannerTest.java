@@ -0,0 +1,115 @@
+package com.taskmanagement.query;
+
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.service.SortOption;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CostBasedQueryPlanner Tests")
+class CostBasedQueryPlannerTest {
+
+    private CostBasedQueryPlanner planner;
+    private FixedStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        planner = new CostBasedQueryPlanner();
+        statistics = new FixedStatistics();
+    }
+
+    @Test
+    @DisplayName("Should full scan when query has no criteria")
+    void shouldFullScanWithoutCriteria() {
+        QueryPlan plan = planner.plan(new TaskQuery.Builder().build(), statistics);
+
+        assertEquals(AccessPath.FULL_SCAN, plan.getAccessPath());
+        assertEquals(1_000_000, plan.getEstimatedRows());
+    }
+
+    @Test
+    @DisplayName("Should pick the most selective index")
+    void shouldPickMostSelectiveIndex() {
+        statistics.statusCount = 400_000;
+        statistics.priorityCount = 50_000;
+
+        QueryPlan plan = planner.plan(TaskQuery.of(TaskFilter.builder()
+                .byStatus(Status.PENDING)
+                .byPriority(Priority.HIGH)), statistics);
+
+        assertEquals(AccessPath.PRIORITY_INDEX, plan.getAccessPath());
+        assertEquals(50_000, plan.getEstimatedRows());
+        assertFalse(plan.isSortPushedDown());
+    }
+
+    @Test
+    @DisplayName("Should use due date index and push sort down for a narrow range")
+    void shouldUseDueDateIndexForNarrowRange() {
+        statistics.statusCount = 400_000;
+        statistics.dueDateCount = 200;
+        LocalDateTime now = LocalDateTime.now();
+
+        QueryPlan plan = planner.plan(new TaskQuery.Builder()
+                .filter(TaskFilter.builder()
+                        .byStatus(Status.PENDING)
+                        .byDueDateRange(now, now.plusDays(1)))
+                .sortBy(SortOption.DUE_DATE_DESC)
+                .build(), statistics);
+
+        assertEquals(AccessPath.DUE_DATE_INDEX, plan.getAccessPath());
+        assertEquals(200, plan.getEstimatedRows());
+        assertTrue(plan.isSortPushedDown());
+    }
+
+    @Test
+    @DisplayName("Should walk due date index in order for a small limited page")
+    void shouldWalkDueDateIndexForSmallPage() {
+        statistics.statusCount = 400_000;
+        LocalDateTime now = LocalDateTime.now();
+
+        QueryPlan plan = planner.plan(new TaskQuery.Builder()
+                .filter(TaskFilter.builder()
+                        .byStatus(Status.PENDING)
+                        .byDueDateRange(now, null))
+                .sortBy(SortOption.DUE_DATE_ASC)
+                .limit(20)
+                .build(), statistics);
+
+        assertEquals(AccessPath.DUE_DATE_INDEX, plan.getAccessPath());
+        assertTrue(plan.isSortPushedDown());
+        assertEquals(50, plan.getEstimatedRows());
+    }
+
+    private static class FixedStatistics implements IndexStatistics {
+        long total = 1_000_000;
+        long statusCount = 1_000_000;
+        long priorityCount = 1_000_000;
+        long dueDateCount = 1_000_000;
+
+        @Override
+        public long totalCount() {
+            return total;
+        }
+
+        @Override
+        public long countByStatus(Status status) {
+            return statusCount;
+        }
+
+        @Override
+        public long countByPriority(Priority priority) {
+            return priorityCount;
+        }
+
+        @Override
+        public long countByDueDateRange(LocalDateTime start, LocalDateTime end, long limit) {
+            return dueDateCount > limit ? Long.MAX_VALUE : dueDateCount;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.taskmanagement.query;
+
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.service.SortOption;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskQuery Tests")
+class TaskQueryTest {
+
+    @Test
+    @DisplayName("Should select the same page with top-k as with a full sort")
+    void shouldSelectSamePageWithTopKAsFullSort() {
+        Random random = new Random(42);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tasks.add(new Task.Builder()
+                    .title("Task " + random.nextInt(50))
+                    .priority(Priority.values()[random.nextInt(3)])
+                    .dueDate(random.nextBoolean() ? LocalDateTime.of(2030, 1, 1, 0, 0).plusHours(random.nextInt(100)) : null)
+                    .build());
+        }
+
+        for (SortOption sortOption : SortOption.values()) {
+            TaskQuery query = new TaskQuery.Builder()
+                    .sortBy(sortOption)
+                    .offset(40)
+                    .limit(25)
+                    .build();
+
+            List<Task> expected = tasks.stream()
+                    .sorted(sortOption.comparator())
+                    .skip(40)
+                    .limit(25)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, query.evaluate(tasks.stream()), sortOption.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should only match tasks after the cursor")
+    void shouldOnlyMatchTasksAfterCursor() {
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Task first = new Task.Builder().id("a").title("First").priority(Priority.LOW).dueDate(base).build();
+        Task second = new Task.Builder().id("b").title("Second").priority(Priority.LOW).dueDate(base).build();
+        Task third = new Task.Builder().id("c").title("Third").priority(Priority.LOW).dueDate(base.plusDays(1)).build();
+
+        TaskQuery query = new TaskQuery.Builder()
+                .filter(TaskFilter.builder().byPriority(Priority.LOW))
+                .sortBy(SortOption.DUE_DATE_ASC)
+                .after(TaskCursor.after(first, SortOption.DUE_DATE_ASC))
+                .build();
+
+        assertFalse(query.predicate().test(first));
+        assertTrue(query.predicate().test(second));
+        assertTrue(query.predicate().test(third));
+    }
+
+    @Test
+    @DisplayName("Should round trip cursor through its encoded form")
+    void shouldRoundTripCursor() {
+        Task task = new Task.Builder()
+                .title("Title | with separators\\n")
+                .priority(Priority.HIGH)
+                .dueDate(LocalDateTime.of(2030, 5, 17, 8, 30))
+                .build();
+
+        for (SortOption sortOption : SortOption.values()) {
+            TaskCursor cursor = TaskCursor.after(task, sortOption);
+            assertEquals(cursor, TaskCursor.decode(cursor.encode()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,166 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.event.TaskChangeEvent;
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.service.SortOption;
+import com.taskmanagement.storage.btree.BTreeTaskStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BTreeTaskRepository Tests")
+class BTreeTaskRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private BTreeTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new BTreeTaskRepository(open());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private BTreeTaskStore open() {
+        return new BTreeTaskStore.Builder(directory.resolve("tasks.db")).pageSize(1024).sync(false).build();
+    }
+
+    @Test
+    @DisplayName("Should save, update and delete tasks with UUID and plain ids")
+    void shouldSaveUpdateAndDelete() {
+        Task generated = new Task.Builder()
+                .title("Generated id")
+                .description("Some description")
+                .priority(Priority.HIGH)
+                .dueDate(LocalDateTime.of(2030, 1, 2, 3, 4, 5, 6))
+                .build();
+        Task plain = new Task.Builder().id("task-1").title("Plain id").priority(Priority.LOW).build();
+
+        repository.save(generated);
+        repository.save(plain);
+        repository.save(new Task.Builder(plain).title("Renamed").status(Status.COMPLETED).build());
+
+        Task stored = repository.findById(generated.getId());
+        assertEquals(generated.getDescription(), stored.getDescription());
+        assertEquals(generated.getDueDate(), stored.getDueDate());
+        assertEquals(1, stored.getVersion());
+        Task renamed = repository.findById("task-1");
+        assertEquals("Renamed", renamed.getTitle());
+        assertEquals(2, renamed.getVersion());
+        assertNull(repository.compareAndSave(1, renamed));
+        assertEquals(3, repository.compareAndSave(2, renamed).getVersion());
+
+        assertTrue(repository.deleteById("task-1"));
+        assertFalse(repository.deleteById("task-1"));
+        assertNull(repository.findById("task-1"));
+        assertTrue(repository.existsById(generated.getId()));
+        assertEquals(1, repository.size());
+    }
+
+    @Test
+    @DisplayName("Should match the in-memory repository on queries and after reopening")
+    void shouldMatchInMemoryRepository() {
+        InMemoryTaskRepository expected = new InMemoryTaskRepository();
+        Random random = new Random(21);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+        for (int i = 0; i < 2000; i++) {
+            Task.Builder builder = new Task.Builder()
+                    .title("Task " + i)
+                    .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                    .status(Status.values()[random.nextInt(Status.values().length)]);
+            if (random.nextInt(4) != 0) {
+                builder.dueDate(base.plusMinutes(random.nextInt(10_000)));
+            }
+            Task task = builder.build();
+            expected.save(task);
+            repository.save(task);
+            if (i % 7 == 0) {
+                expected.deleteById(task.getId());
+                repository.deleteById(task.getId());
+            }
+        }
+        repository.close();
+        repository = new BTreeTaskRepository(open());
+
+        List<TaskFilter> filters = List.of(
+                TaskFilter.builder().byStatus(Status.PENDING),
+                TaskFilter.builder().byDueDateRange(base.plusMinutes(100), base.plusMinutes(2_000)),
+                TaskFilter.builder().byDueDateRange(null, base.plusMinutes(500)).byPriority(Priority.LOW));
+        for (TaskFilter filter : filters) {
+            assertEquals(ids(expected.findByFilter(filter)), ids(repository.findByFilter(filter)));
+            TaskQuery query = new TaskQuery.Builder().filter(filter).sortBy(SortOption.DUE_DATE_ASC).limit(25).build();
+            assertEquals(ids(expected.query(query)), ids(repository.query(query)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream across scan chunks without holding the lock")
+    void shouldStreamInChunks() {
+        for (int i = 0; i < 3000; i++) {
+            repository.save(new Task.Builder().title("Task " + i).priority(Priority.LOW).build());
+        }
+
+        Set<String> seen = new HashSet<>();
+        repository.stream().forEach(task -> {
+            assertTrue(seen.add(task.getId()));
+            if (seen.size() == 10) {
+                // Writers are not blocked by an open stream.
+                repository.save(new Task.Builder().title("Added").priority(Priority.MEDIUM).build());
+            }
+        });
+        assertTrue(seen.size() >= 3000);
+    }
+
+    @Test
+    @DisplayName("Should roll back a failed batch without publishing any of it")
+    void shouldRollBackFailedBatch() {
+        repository.close();
+        TaskChangeLog changes = new TaskChangeLog(16);
+        repository = new BTreeTaskRepository(open(), changes);
+        TaskChangeLog.Subscription subscription = changes.subscribe();
+
+        Task created = repository.save(new Task.Builder().id("task-1").title("Task").priority(Priority.LOW).build());
+        List<Task> batch = List.of(
+                new Task.Builder().id("task-2").title("Task").priority(Priority.LOW).build(),
+                new Task.Builder().id("x".repeat(100)).title("Too long").priority(Priority.LOW).build());
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(batch));
+        assertNull(repository.findById("task-2"));
+        Task updated = repository.patch("task-1", TaskPatch.builder().status(Status.COMPLETED).build());
+
+        List<TaskChangeEvent> events = new ArrayList<>();
+        subscription.poll(10, events::add);
+        assertEquals(List.of(TaskChangeEvent.Type.CREATED, TaskChangeEvent.Type.UPDATED),
+                events.stream().map(TaskChangeEvent::getType).collect(Collectors.toList()));
+        assertEquals(created, events.get(1).getBefore().orElseThrow());
+        assertEquals(updated, events.get(1).getAfter().orElseThrow());
+        assertEquals(events.get(0).getSequence() + 1, events.get(1).getSequence());
+    }
+
+    private static Set<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,178 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.cache.CacheStats;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.service.SortOption;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CachingTaskRepository Tests")
+class CachingTaskRepositoryTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicInteger queries = new AtomicInteger();
+    private CachingTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryTaskRepository backend = new InMemoryTaskRepository() {
+            @Override
+            public Task findById(String id) {
+                lookups.incrementAndGet();
+                return super.findById(id);
+            }
+
+            @Override
+            public List<Task> query(TaskQuery query) {
+                queries.incrementAndGet();
+                return super.query(query);
+            }
+        };
+        repository = CachingTaskRepository.of(backend);
+    }
+
+    private Task task(String id, Priority priority, Status status) {
+        return new Task.Builder().id(id).title("Task " + id).priority(priority).status(status).build();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the cache and drop entries on write")
+    void shouldCacheLookups() {
+        repository.save(task("1", Priority.LOW, Status.PENDING));
+        lookups.set(0);
+
+        Task first = repository.findById("1");
+        assertSame(first, repository.findById("1"));
+        assertEquals(1, lookups.get());
+
+        repository.patch("1", TaskPatch.builder().status(Status.COMPLETED).build());
+        assertEquals(Status.COMPLETED, repository.findById("1").getStatus());
+        assertTrue(repository.deleteById("1"));
+        assertNull(repository.findById("1"));
+        assertFalse(repository.deleteById("1"));
+
+        CacheStats stats = repository.entryStats();
+        assertTrue(stats.getHitCount() >= 1);
+        assertTrue(stats.getMissCount() >= 2);
+    }
+
+    @Test
+    @DisplayName("Should invalidate only the queries a write can affect")
+    void shouldInvalidateAffectedQueries() {
+        repository.save(task("1", Priority.LOW, Status.PENDING));
+        repository.save(task("2", Priority.HIGH, Status.PENDING));
+        TaskFilter low = TaskFilter.builder().byPriority(Priority.LOW);
+        TaskQuery high = new TaskQuery.Builder()
+                .filter(TaskFilter.builder().byPriority(Priority.HIGH))
+                .sortBy(SortOption.TITLE_ASC)
+                .build();
+
+        assertEquals(1, repository.findByFilter(low).size());
+        assertEquals(1, repository.query(high).size());
+        assertEquals(1, repository.findByFilter(TaskFilter.builder().byPriority(Priority.LOW)).size());
+        assertEquals(2, queries.get());
+
+        // Only the LOW query can contain a new LOW task.
+        repository.save(task("3", Priority.LOW, Status.COMPLETED));
+        assertEquals(1, repository.query(high).size());
+        assertEquals(2, queries.get());
+        assertEquals(2, repository.findByFilter(low).size());
+        assertEquals(3, queries.get());
+
+        // Moving a task out of HIGH affects the HIGH query through its old version.
+        repository.patch("2", TaskPatch.builder().priority(Priority.MEDIUM).build());
+        assertTrue(repository.query(high).isEmpty());
+        assertEquals(2, repository.findByFilter(low).size());
+        assertEquals(4, queries.get());
+
+        repository.deleteAllById(List.of("1"));
+        assertEquals(1, repository.findByFilter(low).size());
+        assertEquals(2, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Should invalidate without reading the old version from the delegate")
+    void shouldInvalidateWithoutLookups() {
+        for (int i = 0; i < 4; i++) {
+            repository.save(task(String.valueOf(i), Priority.LOW, Status.PENDING));
+        }
+        TaskQuery secondPage = new TaskQuery.Builder()
+                .filter(TaskFilter.builder().byPriority(Priority.LOW))
+                .sortBy(SortOption.TITLE_ASC)
+                .offset(2)
+                .limit(2)
+                .build();
+        TaskFilter completed = TaskFilter.builder().byStatus(Status.COMPLETED);
+        assertEquals(List.of("2", "3"), ids(repository.query(secondPage)));
+        assertTrue(repository.findByFilter(completed).isEmpty());
+        lookups.set(0);
+        queries.set(0);
+
+        // Task 0 is in neither result, but sat before the page.
+        repository.patch("0", TaskPatch.builder().priority(Priority.HIGH).build());
+        assertEquals(List.of("3"), ids(repository.query(secondPage)));
+        assertTrue(repository.findByFilter(completed).isEmpty());
+        assertTrue(repository.deleteById("3"));
+        assertEquals(List.of(), ids(repository.query(secondPage)));
+
+        assertEquals(0, lookups.get());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    @DisplayName("Should key queries on filter values, not filter instances")
+    void shouldCopyMutableFilters() {
+        repository.save(task("1", Priority.LOW, Status.PENDING));
+        repository.save(task("2", Priority.HIGH, Status.PENDING));
+        TaskFilter filter = TaskFilter.builder().byPriority(Priority.LOW);
+
+        assertEquals(List.of("1"), ids(repository.findByFilter(filter)));
+        filter.byPriority(Priority.HIGH);
+        assertEquals(List.of("2"), ids(repository.findByFilter(filter)));
+
+        List<Task> result = repository.findByFilter(filter);
+        result.clear();
+        assertEquals(1, repository.findByFilter(filter).size());
+        assertEquals(2, repository.queryStats().getHitCount());
+
+        filter.byText("task 1");
+        assertEquals(List.of(), ids(repository.findByFilter(filter)));
+        filter.byPriority(null);
+        assertEquals(List.of("1"), ids(repository.findByFilter(filter)));
+    }
+
+    @Test
+    @DisplayName("Should respect the size bounds")
+    void shouldBoundCaches() {
+        CachingTaskRepository small = new CachingTaskRepository.Builder(new InMemoryTaskRepository())
+                .entryCacheBytes(2_000)
+                .queryCacheTasks(0)
+                .build();
+        for (int i = 0; i < 100; i++) {
+            small.save(task(String.valueOf(i), Priority.LOW, Status.PENDING));
+            small.findById(String.valueOf(i));
+        }
+        small.findByFilter(TaskFilter.builder().byPriority(Priority.LOW));
+
+        assertTrue(small.entryStats().getWeight() <= 2_000);
+        assertTrue(small.entryStats().getEvictionCount() > 0);
+        assertEquals(0, small.queryStats().getSize());
+        assertEquals(100, small.findAll().size());
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,205 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.event.TaskChangeEvent;
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.service.SortOption;
+import com.taskmanagement.storage.columnar.ColumnarTaskStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ColumnarTaskRepository Tests")
+class ColumnarTaskRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private ColumnarTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ColumnarTaskRepository(directory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("Should save, update and delete tasks with UUID and plain ids")
+    void shouldSaveUpdateAndDelete() {
+        Task generated = new Task.Builder()
+                .title("Generated id")
+                .description("Some description")
+                .priority(Priority.HIGH)
+                .dueDate(LocalDateTime.of(2030, 1, 2, 3, 4, 5, 6))
+                .build();
+        Task plain = new Task.Builder().id("task-1").title("Plain id").priority(Priority.LOW).build();
+
+        repository.save(generated);
+        repository.save(plain);
+        repository.save(new Task.Builder(plain).title("Renamed").status(Status.COMPLETED).build());
+
+        Task stored = repository.findById(generated.getId());
+        assertEquals(generated.getId(), stored.getId());
+        assertEquals("Generated id", stored.getTitle());
+        assertEquals(generated.getDescription(), stored.getDescription());
+        assertEquals(generated.getDueDate(), stored.getDueDate());
+        assertEquals(Priority.HIGH, stored.getPriority());
+        assertEquals(Status.PENDING, stored.getStatus());
+
+        Task renamed = repository.findById("task-1");
+        assertEquals("Renamed", renamed.getTitle());
+        assertEquals(Status.COMPLETED, renamed.getStatus());
+        assertFalse(renamed.getDueDate().isPresent());
+        assertEquals(2, repository.findAll().size());
+
+        assertTrue(repository.deleteById("task-1"));
+        assertFalse(repository.deleteById("task-1"));
+        assertNull(repository.findById("task-1"));
+        assertTrue(repository.existsById(generated.getId()));
+        assertEquals(1, repository.size());
+    }
+
+    @Test
+    @DisplayName("Should match the in-memory repository on filtered queries")
+    void shouldMatchInMemoryRepository() {
+        InMemoryTaskRepository expected = new InMemoryTaskRepository();
+        Random random = new Random(7);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+        for (int i = 0; i < 2000; i++) {
+            Task.Builder builder = new Task.Builder()
+                    .title("Task " + i)
+                    .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                    .status(Status.values()[random.nextInt(Status.values().length)]);
+            if (random.nextInt(4) != 0) {
+                builder.dueDate(base.plusMinutes(random.nextInt(10_000)));
+            }
+            Task task = builder.build();
+            expected.save(task);
+            repository.save(task);
+            if (i % 7 == 0) {
+                expected.deleteById(task.getId());
+                repository.deleteById(task.getId());
+            }
+        }
+
+        List<TaskFilter> filters = List.of(
+                TaskFilter.builder().byStatus(Status.PENDING),
+                TaskFilter.builder().byStatus(Status.IN_PROGRESS).byPriority(Priority.HIGH),
+                TaskFilter.builder().byDueDateRange(base.plusMinutes(100), base.plusMinutes(2_000)),
+                TaskFilter.builder().byDueDateRange(null, base.plusMinutes(500)).byPriority(Priority.LOW));
+        for (TaskFilter filter : filters) {
+            assertEquals(ids(expected.findByFilter(filter)), ids(repository.findByFilter(filter)));
+            TaskQuery query = new TaskQuery.Builder().filter(filter).sortBy(SortOption.DUE_DATE_ASC).limit(25).build();
+            assertEquals(expected.query(query), repository.query(query));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reopen with the same tasks")
+    void shouldReopen() {
+        for (int i = 0; i < 100; i++) {
+            repository.save(new Task.Builder().title("Task " + i).priority(Priority.MEDIUM).build());
+        }
+        repository.save(new Task.Builder().id("plain").title("Plain").priority(Priority.LOW).build());
+        repository.deleteById("plain");
+        Set<String> before = ids(repository.findAll());
+        repository.close();
+
+        repository = new ColumnarTaskRepository(directory);
+        assertEquals(before, ids(repository.findAll()));
+        assertEquals(100, repository.size());
+        repository.save(new Task.Builder().id("plain").title("Plain again").priority(Priority.LOW).build());
+        assertEquals("Plain again", repository.findById("plain").getTitle());
+    }
+
+    @Test
+    @DisplayName("Should stream across scan chunks without holding the lock")
+    void shouldStreamInChunks() {
+        for (int i = 0; i < 10_000; i++) {
+            repository.save(new Task.Builder()
+                    .title("Task " + i)
+                    .priority(i % 2 == 0 ? Priority.HIGH : Priority.LOW)
+                    .build());
+        }
+
+        Set<String> seen = new HashSet<>();
+        repository.stream().forEach(task -> {
+            assertTrue(seen.add(task.getId()));
+            if (seen.size() == 10) {
+                // Writers are not blocked by an open stream.
+                repository.save(new Task.Builder().title("Added").priority(Priority.MEDIUM).build());
+            }
+        });
+        assertTrue(seen.size() >= 10_000);
+
+        TaskQuery query = new TaskQuery.Builder()
+                .filter(TaskFilter.builder().byPriority(Priority.HIGH))
+                .sortBy(SortOption.TITLE_ASC)
+                .limit(10)
+                .build();
+        assertEquals(repository.query(query), repository.stream(query).collect(Collectors.toList()));
+    }
+
+    private static Set<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).collect(Collectors.toSet());
+    }
+
+    @Test
+    @DisplayName("Should store versions in their own column")
+    void shouldVersionTasks() {
+        Task task = new Task.Builder().id("task-1").title("Task").priority(Priority.LOW).build();
+
+        assertEquals(1, repository.save(task).getVersion());
+        assertNull(repository.compareAndSave(0, task));
+        assertEquals(2, repository.compareAndSave(1, task).getVersion());
+        repository.close();
+
+        repository = new ColumnarTaskRepository(directory);
+        assertEquals(2, repository.findById("task-1").getVersion());
+        assertEquals(3, repository.updateAll(List.of("task-1"), TaskPatch.builder().status(Status.COMPLETED).build())
+                .get(0).getVersion());
+    }
+
+    @Test
+    @DisplayName("Should publish changes with the previous row as before image")
+    void shouldPublishChanges() {
+        repository.close();
+        TaskChangeLog changes = new TaskChangeLog(16);
+        repository = new ColumnarTaskRepository(ColumnarTaskStore.open(directory), changes);
+        TaskChangeLog.Subscription subscription = changes.subscribe();
+
+        Task created = repository.save(new Task.Builder().id("task-1").title("Task").priority(Priority.LOW).build());
+        Task updated = repository.updateAll(List.of("task-1", "missing"),
+                TaskPatch.builder().status(Status.COMPLETED).build()).get(0);
+        assertEquals(Set.of("task-1"), repository.deleteAllById(List.of("task-1", "missing")));
+
+        List<TaskChangeEvent> events = new ArrayList<>();
+        subscription.poll(10, events::add);
+        assertEquals(List.of(TaskChangeEvent.Type.CREATED, TaskChangeEvent.Type.UPDATED, TaskChangeEvent.Type.DELETED),
+                events.stream().map(TaskChangeEvent::getType).collect(Collectors.toList()));
+        assertEquals(created, events.get(1).getBefore().orElseThrow());
+        assertEquals(updated, events.get(2).getBefore().orElseThrow());
+    }
+}
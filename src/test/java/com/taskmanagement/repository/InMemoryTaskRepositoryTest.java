@@ -1,15 +1,31 @@
 package com.taskmanagement.repository;
 
+import com.taskmanagement.event.TaskChangeEvent;
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
 import com.taskmanagement.model.Priority;
 import com.taskmanagement.model.Status;
 import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.AccessPath;
+import com.taskmanagement.query.TaskCursor;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.service.SortOption;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,6 +55,22 @@ class InMemoryTaskRepositoryTest {
         assertEquals(task.getTitle(), retrieved.getTitle());
     }
 
+    @Test
+    @DisplayName("Should reject tasks without status or priority")
+    void shouldRejectTasksWithoutStatusOrPriority() {
+        Task noPriority = new Task.Builder().id("task-1").titleForUpdate("Task").buildForUpdate();
+        Task noStatus = new Task.Builder().id("task-2").title("Task").priority(Priority.LOW)
+                .statusForUpdate(null).buildForUpdate();
+
+        assertThrows(IllegalArgumentException.class, () -> repository.save(noPriority));
+        assertThrows(IllegalArgumentException.class, () -> repository.compareAndSave(0, noStatus));
+        Task valid = new Task.Builder().id("task-3").title("Task").priority(Priority.LOW).build();
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(List.of(valid, noStatus)));
+
+        assertTrue(repository.findAll().isEmpty());
+        assertTrue(repository.findByFilter(TaskFilter.builder().byStatus(Status.PENDING)).isEmpty());
+    }
+
     @Test
     @DisplayName("Should update existing task")
     void shouldUpdateExistingTask() {
@@ -253,5 +285,378 @@ class InMemoryTaskRepositoryTest {
 
         assertEquals(2, filtered.size());
     }
-}
 
+    @Test
+    @DisplayName("Should find tasks by combined status and priority filter")
+    void shouldFindTasksByCombinedStatusAndPriorityFilter() {
+        Task match = new Task.Builder()
+                .title("Match")
+                .priority(Priority.HIGH)
+                .status(Status.PENDING)
+                .build();
+
+        Task wrongStatus = new Task.Builder()
+                .title("Wrong Status")
+                .priority(Priority.HIGH)
+                .status(Status.COMPLETED)
+                .build();
+
+        Task wrongPriority = new Task.Builder()
+                .title("Wrong Priority")
+                .priority(Priority.LOW)
+                .status(Status.PENDING)
+                .build();
+
+        repository.save(match);
+        repository.save(wrongStatus);
+        repository.save(wrongPriority);
+
+        List<Task> found = repository.findByFilter(TaskFilter.builder()
+                .byStatus(Status.PENDING)
+                .byPriority(Priority.HIGH));
+
+        assertEquals(1, found.size());
+        assertEquals(match.getId(), found.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Should keep indexes in sync when task is updated or deleted")
+    void shouldKeepIndexesInSyncOnUpdateAndDelete() {
+        LocalDateTime now = LocalDateTime.now();
+        Task task = new Task.Builder()
+                .title("Indexed Task")
+                .priority(Priority.LOW)
+                .status(Status.PENDING)
+                .dueDate(now.plusDays(1))
+                .build();
+        repository.save(task);
+
+        Task moved = new Task.Builder(task)
+                .status(Status.IN_PROGRESS)
+                .priority(Priority.HIGH)
+                .dueDate(now.plusDays(20))
+                .build();
+        repository.save(moved);
+
+        assertTrue(repository.findByFilter(TaskFilter.builder().byStatus(Status.PENDING)).isEmpty());
+        assertTrue(repository.findByFilter(TaskFilter.builder().byPriority(Priority.LOW)).isEmpty());
+        assertTrue(repository.findByFilter(TaskFilter.builder()
+                .byDueDateRange(now, now.plusDays(7))).isEmpty());
+        assertEquals(1, repository.findByFilter(TaskFilter.builder()
+                .byStatus(Status.IN_PROGRESS)
+                .byDueDateRange(now.plusDays(10), null)).size());
+
+        repository.deleteById(task.getId());
+
+        assertTrue(repository.findByFilter(TaskFilter.builder().byStatus(Status.IN_PROGRESS)).isEmpty());
+        assertTrue(repository.findByFilter(TaskFilter.builder().byDueDateRange(now, null)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should include due date range boundaries when filtering by index")
+    void shouldIncludeDueDateRangeBoundaries() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 9, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 31, 17, 0);
+        repository.save(new Task.Builder().title("Before").priority(Priority.LOW)
+                .dueDate(start.minusMinutes(1)).build());
+        repository.save(new Task.Builder().title("At Start").priority(Priority.LOW)
+                .dueDate(start).build());
+        repository.save(new Task.Builder().title("At End").priority(Priority.HIGH)
+                .dueDate(end).build());
+        repository.save(new Task.Builder().title("After").priority(Priority.HIGH)
+                .dueDate(end.plusMinutes(1)).build());
+        repository.save(new Task.Builder().title("No Due Date").priority(Priority.HIGH).build());
+
+        List<Task> inRange = repository.findByFilter(TaskFilter.builder().byDueDateRange(start, end));
+        List<Task> highInRange = repository.findByFilter(TaskFilter.builder()
+                .byPriority(Priority.HIGH)
+                .byDueDateRange(start, end));
+
+        assertEquals(2, inRange.size());
+        assertEquals(1, highInRange.size());
+        assertEquals("At End", highInRange.get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("Should return sorted page when sort is pushed down to due date index")
+    void shouldReturnSortedPageFromDueDateIndex() {
+        LocalDateTime base = LocalDateTime.of(2030, 6, 1, 12, 0);
+        for (int i = 0; i < 10; i++) {
+            repository.save(new Task.Builder()
+                    .title("Task " + i)
+                    .priority(i % 2 == 0 ? Priority.HIGH : Priority.LOW)
+                    .dueDate(base.plusDays(i))
+                    .build());
+        }
+
+        TaskQuery query = new TaskQuery.Builder()
+                .filter(TaskFilter.builder()
+                        .byPriority(Priority.HIGH)
+                        .byDueDateRange(base.plusDays(1), base.plusDays(8)))
+                .sortBy(SortOption.DUE_DATE_DESC)
+                .offset(1)
+                .limit(2)
+                .build();
+
+        assertEquals(AccessPath.DUE_DATE_INDEX, repository.explain(query).getAccessPath());
+        assertTrue(repository.explain(query).isSortPushedDown());
+
+        List<Task> page = repository.query(query);
+
+        assertEquals(2, page.size());
+        assertEquals(base.plusDays(6), page.get(0).getDueDate().orElse(null));
+        assertEquals(base.plusDays(4), page.get(1).getDueDate().orElse(null));
+    }
+
+    @Test
+    @DisplayName("Should list every sort option from maintained sorted views")
+    void shouldListEverySortOptionFromSortedViews() {
+        InMemoryTaskRepository viewRepository = new InMemoryTaskRepository.Builder()
+                .sortedViews(true)
+                .build();
+        LocalDateTime base = LocalDateTime.of(2030, 3, 1, 10, 0);
+        for (int i = 0; i < 30; i++) {
+            viewRepository.save(new Task.Builder()
+                    .title("Task " + (i % 7))
+                    .priority(Priority.values()[i % 3])
+                    .dueDate(i % 4 == 0 ? null : base.plusHours(i % 5))
+                    .build());
+        }
+        Task moved = viewRepository.findAll().get(0);
+        viewRepository.save(new Task.Builder(moved).title("AAA").dueDate(base.minusDays(1)).build());
+
+        for (SortOption sortOption : SortOption.values()) {
+            TaskQuery query = new TaskQuery.Builder().sortBy(sortOption).build();
+            List<Task> expected = viewRepository.findAll().stream()
+                    .sorted(sortOption.comparator())
+                    .collect(Collectors.toList());
+
+            assertEquals(AccessPath.SORTED_VIEW, viewRepository.explain(query).getAccessPath());
+            assertEquals(expected, viewRepository.query(query), sortOption.name());
+
+            Task cursorTask = expected.get(9);
+            List<Task> afterCursor = viewRepository.query(new TaskQuery.Builder()
+                    .sortBy(sortOption)
+                    .after(TaskCursor.after(cursorTask, sortOption))
+                    .limit(5)
+                    .build());
+            assertEquals(expected.subList(10, 15), afterCursor, sortOption.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply large batches in parallel and keep indexes in sync")
+    void shouldApplyLargeBatchesInParallel() {
+        int size = InMemoryTaskRepository.PARALLEL_THRESHOLD * 2;
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            batch.add(new Task.Builder()
+                    .title("Task " + i)
+                    .priority(i % 2 == 0 ? Priority.HIGH : Priority.LOW)
+                    .dueDate(LocalDateTime.of(2030, 1, 1, 0, 0).plusMinutes(i))
+                    .build());
+        }
+
+        assertEquals(batch, repository.saveAll(batch));
+        assertEquals(size, repository.findAll().size());
+
+        List<String> highIds = batch.stream()
+                .filter(task -> task.getPriority() == Priority.HIGH)
+                .map(Task::getId)
+                .collect(Collectors.toList());
+        List<Task> updated = repository.updateAll(highIds, TaskPatch.builder().status(Status.COMPLETED).build());
+        assertEquals(size / 2, updated.size());
+        assertEquals(size / 2, repository.findByFilter(TaskFilter.builder().byStatus(Status.COMPLETED)).size());
+
+        List<String> toDelete = new ArrayList<>(highIds.subList(0, 100));
+        toDelete.add("missing");
+        assertEquals(Set.copyOf(highIds.subList(0, 100)), repository.deleteAllById(toDelete));
+        assertEquals(size / 2 - 100, repository.findByFilter(TaskFilter.builder().byPriority(Priority.HIGH)).size());
+    }
+
+    @Test
+    @DisplayName("Should let the last occurrence win when a batch repeats an id")
+    void shouldKeepLastOccurrenceOfRepeatedId() {
+        Task first = new Task.Builder().id("same").title("First").priority(Priority.LOW).build();
+        Task second = new Task.Builder().id("same").title("Second").priority(Priority.HIGH).build();
+
+        repository.saveAll(List.of(first, second));
+
+        assertEquals("Second", repository.findById("same").getTitle());
+        assertTrue(repository.findByFilter(TaskFilter.builder().byPriority(Priority.LOW)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stream tasks lazily while they are being modified")
+    void shouldStreamWhileModifying() {
+        for (int i = 0; i < 100; i++) {
+            repository.save(new Task.Builder().id("task-" + i).title("Task " + i).priority(Priority.LOW).build());
+        }
+
+        Set<String> seen = new HashSet<>();
+        try (Stream<Task> stream = repository.stream()) {
+            stream.forEach(task -> {
+                assertTrue(seen.add(task.getId()));
+                if (task.getId().startsWith("task-")) {
+                    repository.save(new Task.Builder().title("Added while streaming").priority(Priority.HIGH).build());
+                }
+            });
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(seen.contains("task-" + i));
+        }
+        assertEquals(200, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Should stream query results like query")
+    void shouldStreamQueryResults() {
+        for (int i = 0; i < 50; i++) {
+            repository.save(new Task.Builder()
+                    .title("Task " + i)
+                    .priority(Priority.values()[i % 3])
+                    .dueDate(LocalDateTime.of(2030, 1, 1, 0, 0).plusHours(i))
+                    .build());
+        }
+        TaskQuery sorted = new TaskQuery.Builder()
+                .filter(TaskFilter.builder().byPriority(Priority.HIGH))
+                .sortBy(SortOption.DUE_DATE_DESC)
+                .offset(2)
+                .limit(5)
+                .build();
+        TaskQuery unordered = new TaskQuery.Builder().limit(7).build();
+
+        assertEquals(repository.query(sorted), repository.stream(sorted).collect(Collectors.toList()));
+        assertEquals(7, repository.stream(unordered).count());
+        assertEquals(17, repository.stream(task -> task.getPriority() == Priority.LOW).count());
+    }
+
+    @Test
+    @DisplayName("Should bump versions and reject stale compare-and-save")
+    void shouldCompareAndSave() {
+        Task task = new Task.Builder().id("task-1").title("Task").priority(Priority.LOW).build();
+
+        assertEquals(0, task.getVersion());
+        Task created = repository.compareAndSave(0, task);
+        assertEquals(1, created.getVersion());
+        assertNull(repository.compareAndSave(0, task));
+
+        Task renamed = repository.compareAndSave(1, new Task.Builder(created).title("Renamed").build());
+        assertEquals(2, renamed.getVersion());
+        assertNull(repository.compareAndSave(1, new Task.Builder(created).title("Stale").build()));
+        assertEquals("Renamed", repository.findById("task-1").getTitle());
+
+        assertEquals(3, repository.save(task).getVersion());
+        List<Task> patched = repository.updateAll(List.of("task-1"), TaskPatch.builder().priority(Priority.HIGH).build());
+        assertEquals(4, patched.get(0).getVersion());
+        assertSame(patched.get(0), repository.findById("task-1"));
+    }
+
+    @Test
+    @DisplayName("Should patch a single field and keep indexes and sorted views current")
+    void shouldPatchInPlace() {
+        InMemoryTaskRepository viewRepository = new InMemoryTaskRepository.Builder()
+                .sortedViews(true)
+                .build();
+        LocalDateTime dueDate = LocalDateTime.of(2030, 3, 1, 10, 0);
+        Task task = viewRepository.save(new Task.Builder()
+                .title("Task")
+                .dueDate(dueDate)
+                .priority(Priority.MEDIUM)
+                .build());
+        viewRepository.save(new Task.Builder().title("Other").priority(Priority.LOW).build());
+
+        Task patched = viewRepository.patch(task.getId(), TaskPatch.builder().status(Status.COMPLETED).build());
+
+        assertEquals(Status.COMPLETED, patched.getStatus());
+        assertEquals(2, patched.getVersion());
+        assertSame(task.getTitle(), patched.getTitle());
+        assertSame(task.getDueDate(), patched.getDueDate());
+        assertNull(viewRepository.patch("missing", TaskPatch.builder().status(Status.COMPLETED).build()));
+
+        assertEquals(List.of(patched), viewRepository.findByFilter(TaskFilter.builder().byStatus(Status.COMPLETED)));
+        assertEquals(1, viewRepository.findByFilter(TaskFilter.builder().byStatus(Status.PENDING)).size());
+        assertEquals(List.of(patched), viewRepository.findByFilter(TaskFilter.builder().byDueDateRange(dueDate, dueDate)));
+        for (SortOption sortOption : SortOption.values()) {
+            List<Task> sorted = viewRepository.query(new TaskQuery.Builder().sortBy(sortOption).build());
+            Task listed = sorted.stream().filter(patched::equals).findFirst().orElseThrow();
+            assertSame(patched, listed, sortOption.name());
+        }
+
+        Task retitled = viewRepository.patch(task.getId(), TaskPatch.builder().title("A first").build());
+        assertEquals(retitled, viewRepository.query(new TaskQuery.Builder().sortBy(SortOption.TITLE_ASC).build()).get(0));
+        assertEquals(Status.COMPLETED, retitled.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should publish creates, updates and deletes with before and after images")
+    void shouldPublishChanges() {
+        TaskChangeLog changes = new TaskChangeLog(16);
+        InMemoryTaskRepository logged = new InMemoryTaskRepository.Builder().changeLog(changes).build();
+        TaskChangeLog.Subscription subscription = changes.subscribe();
+
+        Task created = logged.save(new Task.Builder().id("task-1").title("Task").priority(Priority.LOW).build());
+        Task patched = logged.patch("task-1", TaskPatch.builder().status(Status.COMPLETED).build());
+        assertNull(logged.compareAndSave(1, created));
+        assertTrue(logged.deleteById("task-1"));
+        assertFalse(logged.deleteById("task-1"));
+
+        List<TaskChangeEvent> events = new ArrayList<>();
+        subscription.poll(10, events::add);
+        assertEquals(3, events.size());
+        assertEquals(TaskChangeEvent.Type.CREATED, events.get(0).getType());
+        assertEquals(Optional.of(created), events.get(0).getAfter());
+        assertEquals(TaskChangeEvent.Type.UPDATED, events.get(1).getType());
+        assertEquals(Optional.of(created), events.get(1).getBefore());
+        assertEquals(Optional.of(patched), events.get(1).getAfter());
+        assertEquals(TaskChangeEvent.Type.DELETED, events.get(2).getType());
+        assertEquals(Optional.of(patched), events.get(2).getBefore());
+        assertEquals(Optional.of(changes), logged.changeLog());
+        assertEquals(Optional.empty(), repository.changeLog());
+    }
+
+    @Test
+    @DisplayName("Should return the same results from parallel and sequential scans")
+    void shouldMatchSequentialResultsWhenScanningInParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            InMemoryTaskRepository parallel = new InMemoryTaskRepository.Builder()
+                    .parallelQueryThreshold(0)
+                    .queryPool(pool)
+                    .build();
+            Random random = new Random(24);
+            LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < 60_000; i++) {
+                Task.Builder builder = new Task.Builder()
+                        .title("Task " + random.nextInt(1000))
+                        .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                        .status(Status.values()[random.nextInt(Status.values().length)]);
+                if (random.nextInt(4) != 0) {
+                    builder.dueDate(base.plusMinutes(random.nextInt(100_000)));
+                }
+                tasks.add(builder.build());
+            }
+            repository.saveAll(tasks);
+            parallel.saveAll(tasks);
+
+            Predicate<Task> filter = task -> task.getTitle().endsWith("7");
+            assertEquals(Set.copyOf(repository.findAll(filter)), Set.copyOf(parallel.findAll(filter)));
+            assertEquals(AccessPath.FULL_SCAN, parallel.explain(new TaskQuery.Builder().build()).getAccessPath());
+            for (SortOption sortOption : SortOption.values()) {
+                TaskQuery all = new TaskQuery.Builder().sortBy(sortOption).build();
+                assertEquals(repository.query(all), parallel.query(all));
+                TaskQuery page = new TaskQuery.Builder().sortBy(sortOption).offset(900).limit(100).build();
+                assertEquals(repository.query(page), parallel.query(page));
+                TaskQuery next = new TaskQuery.Builder().sortBy(sortOption).offset(5)
+                        .after(TaskCursor.after(tasks.get(0), sortOption)).build();
+                assertEquals(repository.query(next), parallel.query(next));
+            }
+            TaskQuery unordered = new TaskQuery.Builder().offset(100).build();
+            assertEquals(59_900, parallel.query(unordered).size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.event.TaskChangeEvent;
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.storage.DurabilityMode;
+import com.taskmanagement.storage.lsm.LsmTaskStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LsmTaskRepository Tests")
+class LsmTaskRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private LsmTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new LsmTaskRepository(open());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private LsmTaskStore open() {
+        return new LsmTaskStore.Builder(directory).memtableBytes(16 * 1024).durabilityMode(DurabilityMode.ASYNC).build();
+    }
+
+    @Test
+    @DisplayName("Should version updates and keep them across flushes and reopening")
+    void shouldVersionTasks() {
+        Task task = repository.save(new Task.Builder().id("task-1").title("Task").priority(Priority.LOW).build());
+        assertEquals(1, task.getVersion());
+        assertNull(repository.compareAndSave(0, task));
+        for (int i = 0; i < 500; i++) {
+            task = repository.patch("task-1", TaskPatch.builder().status(i % 2 == 0 ? Status.IN_PROGRESS : Status.PENDING).build());
+            repository.save(new Task.Builder().title("Filler " + i).priority(Priority.MEDIUM).build());
+        }
+        assertEquals(501, task.getVersion());
+        assertTrue(repository.stats().getFlushCount() > 0);
+        repository.close();
+
+        repository = new LsmTaskRepository(open());
+        assertEquals(501, repository.findById("task-1").getVersion());
+        assertEquals(502, repository.compareAndSave(501, task).getVersion());
+        assertEquals(501, repository.findAll().size());
+        assertTrue(repository.deleteById("task-1"));
+        assertFalse(repository.deleteById("task-1"));
+        assertFalse(repository.existsById("task-1"));
+        assertEquals(500, repository.findByFilter(TaskFilter.builder().byPriority(Priority.MEDIUM)).size());
+    }
+
+    @Test
+    @DisplayName("Should stream every task once across scan chunks")
+    void shouldStreamInChunks() {
+        for (int i = 0; i < 3000; i++) {
+            repository.save(new Task.Builder().title("Task " + i).priority(Priority.LOW).build());
+        }
+        Set<String> seen = new HashSet<>();
+        repository.stream().forEach(task -> {
+            assertTrue(seen.add(task.getId()));
+            if (seen.size() == 10) {
+                repository.save(new Task.Builder().title("Added").priority(Priority.MEDIUM).build());
+            }
+        });
+        assertTrue(seen.size() >= 3000);
+    }
+
+    @Test
+    @DisplayName("Should publish changes with the previous version as before image")
+    void shouldPublishChanges() {
+        repository.close();
+        TaskChangeLog changes = new TaskChangeLog(16);
+        repository = new LsmTaskRepository(open(), changes);
+        TaskChangeLog.Subscription subscription = changes.subscribe();
+
+        Task created = repository.save(new Task.Builder().id("task-1").title("Task").priority(Priority.LOW).build());
+        Task updated = repository.updateAll(List.of("task-1", "missing"),
+                TaskPatch.builder().status(Status.COMPLETED).build()).get(0);
+        assertEquals(Set.of("task-1"), repository.deleteAllById(List.of("task-1", "missing", "task-1")));
+
+        List<TaskChangeEvent> events = new ArrayList<>();
+        subscription.poll(10, events::add);
+        assertEquals(List.of(TaskChangeEvent.Type.CREATED, TaskChangeEvent.Type.UPDATED, TaskChangeEvent.Type.DELETED),
+                events.stream().map(TaskChangeEvent::getType).collect(Collectors.toList()));
+        assertEquals(created, events.get(1).getBefore().orElseThrow());
+        assertEquals(updated, events.get(2).getBefore().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should publish the changes a failed batch already wrote")
+    void shouldPublishWrittenChangesOfFailedBatch() {
+        repository.close();
+        TaskChangeLog changes = new TaskChangeLog(4);
+        repository = new LsmTaskRepository(open(), changes);
+        TaskChangeLog.Subscription subscription = changes.subscribe();
+        // Without a priority the task cannot be encoded, so the batch fails at its second item.
+        Task unencodable = new Task.Builder().id("task-2").titleForUpdate("Task").buildForUpdate();
+
+        assertThrows(RuntimeException.class, () -> repository.saveAll(List.of(
+                new Task.Builder().id("task-1").title("Task").priority(Priority.LOW).build(), unencodable)));
+        for (int i = 0; i < 8; i++) {
+            repository.patch("task-1", TaskPatch.builder().title("Task " + i).build());
+            List<TaskChangeEvent> events = new ArrayList<>();
+            assertTrue(subscription.poll(10, events::add) > 0);
+        }
+        assertEquals(changes.lastSequence() + 1, subscription.getNextSequence());
+        assertEquals(9, repository.findById("task-1").getVersion());
+    }
+}
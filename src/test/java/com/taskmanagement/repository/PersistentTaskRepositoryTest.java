@@ -0,0 +1,317 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.event.TaskChangeEvent;
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.exception.StorageException;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.storage.DurabilityMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PersistentTaskRepository Tests")
+class PersistentTaskRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private PersistentTaskRepository open(DurabilityMode mode) {
+        return new PersistentTaskRepository.Builder(directory)
+                .durabilityMode(mode)
+                .snapshotEvery(0)
+                .build();
+    }
+
+    private Task task(String id, String title) {
+        return new Task.Builder()
+                .id(id)
+                .title(title)
+                .description("Description of " + title)
+                .priority(Priority.HIGH)
+                .status(Status.IN_PROGRESS)
+                .dueDate(LocalDateTime.of(2030, 5, 17, 9, 30, 15, 123_000_000))
+                .build();
+    }
+
+    @ParameterizedTest
+    @EnumSource(DurabilityMode.class)
+    @DisplayName("Should recover saves and deletes after reopening")
+    void shouldRecoverAfterReopen(DurabilityMode mode) {
+        try (PersistentTaskRepository repository = open(mode)) {
+            repository.save(task("1", "First"));
+            repository.save(task("2", "Second"));
+            repository.save(task("2", "Second, renamed"));
+            repository.save(task("3", "Third"));
+            assertTrue(repository.deleteById("1"));
+        }
+
+        try (PersistentTaskRepository repository = open(mode)) {
+            assertEquals(2, repository.findAll().size());
+            assertFalse(repository.existsById("1"));
+            assertEquals("Second, renamed", repository.findById("2").getTitle());
+            Task third = repository.findById("3");
+            assertEquals(task("3", "Third").getDueDate(), third.getDueDate());
+            assertEquals("Description of Third", third.getDescription().orElse(null));
+            assertEquals(Status.IN_PROGRESS, third.getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover from snapshot plus log tail")
+    void shouldRecoverFromSnapshotAndTail() throws IOException {
+        try (PersistentTaskRepository repository = open(DurabilityMode.BATCHED)) {
+            for (int i = 0; i < 50; i++) {
+                repository.save(task("task-" + i, "Task " + i));
+            }
+            repository.snapshot();
+            repository.deleteById("task-0");
+            repository.save(task("task-50", "Task 50"));
+        }
+
+        assertEquals(1, files("snapshot-").size());
+        assertEquals(1, files("wal-").size());
+
+        try (PersistentTaskRepository repository = open(DurabilityMode.BATCHED)) {
+            assertEquals(50, repository.findAll().size());
+            assertFalse(repository.existsById("task-0"));
+            assertTrue(repository.existsById("task-50"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should take snapshots automatically")
+    void shouldSnapshotAutomatically() throws Exception {
+        try (PersistentTaskRepository repository = new PersistentTaskRepository.Builder(directory)
+                .snapshotEvery(10)
+                .build()) {
+            for (int i = 0; i < 25; i++) {
+                repository.save(task("task-" + i, "Task " + i));
+            }
+        }
+
+        assertFalse(files("snapshot-").isEmpty());
+        try (PersistentTaskRepository repository = open(DurabilityMode.BATCHED)) {
+            assertEquals(25, repository.findAll().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop a torn record at the end of the log")
+    void shouldTruncateTornTail() throws IOException {
+        try (PersistentTaskRepository repository = open(DurabilityMode.PER_WRITE)) {
+            repository.save(task("1", "First"));
+            repository.save(task("2", "Second"));
+        }
+
+        Path segment = files("wal-").get(0);
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (PersistentTaskRepository repository = open(DurabilityMode.PER_WRITE)) {
+            assertTrue(repository.existsById("1"));
+            assertFalse(repository.existsById("2"));
+            repository.save(task("3", "Third"));
+        }
+
+        try (PersistentTaskRepository repository = open(DurabilityMode.PER_WRITE)) {
+            assertTrue(repository.existsById("1"));
+            assertTrue(repository.existsById("3"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should not log deletes of missing tasks")
+    void shouldIgnoreDeleteOfMissingTask() {
+        try (PersistentTaskRepository repository = open(DurabilityMode.BATCHED)) {
+            assertFalse(repository.deleteById("missing"));
+            assertFalse(repository.deleteById(null));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep every acknowledged write from concurrent writers")
+    void shouldGroupCommitConcurrentWrites() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (PersistentTaskRepository repository = open(DurabilityMode.BATCHED)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        repository.save(task(thread + "-" + i, "Task " + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        try (PersistentTaskRepository repository = open(DurabilityMode.BATCHED)) {
+            assertEquals(800, repository.findAll().size());
+        }
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover batch saves, updates and deletes")
+    void shouldRecoverBatches() {
+        try (PersistentTaskRepository repository = open(DurabilityMode.BATCHED)) {
+            List<Task> batch = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                batch.add(task("task-" + i, "Task " + i));
+            }
+            repository.saveAll(batch);
+            repository.updateAll(List.of("task-1", "task-2", "missing"), TaskPatch.builder().status(Status.COMPLETED).build());
+            assertEquals(Set.of("task-3"), repository.deleteAllById(List.of("task-3", "missing")));
+        }
+
+        try (PersistentTaskRepository repository = open(DurabilityMode.BATCHED)) {
+            assertEquals(99, repository.findAll().size());
+            assertEquals(Status.COMPLETED, repository.findById("task-2").getStatus());
+            assertFalse(repository.existsById("task-3"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep versions across snapshots and replay")
+    void shouldRecoverVersions() {
+        try (PersistentTaskRepository repository = open(DurabilityMode.PER_WRITE)) {
+            repository.save(task("1", "First"));
+            repository.save(task("1", "First, again"));
+            repository.snapshot();
+            assertEquals(3, repository.compareAndSave(2, task("1", "First, third time")).getVersion());
+            assertNull(repository.compareAndSave(2, task("1", "Stale")));
+        }
+
+        try (PersistentTaskRepository repository = open(DurabilityMode.PER_WRITE)) {
+            Task first = repository.findById("1");
+            assertEquals(3, first.getVersion());
+            assertEquals("First, third time", first.getTitle());
+            assertEquals(4, repository.save(first).getVersion());
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish durable changes but not replayed ones")
+    void shouldPublishDurableChanges() {
+        TaskChangeLog changes = new TaskChangeLog(16);
+        List<TaskChangeEvent> events = new ArrayList<>();
+        try (PersistentTaskRepository repository = new PersistentTaskRepository.Builder(directory)
+                .durabilityMode(DurabilityMode.PER_WRITE)
+                .changeLog(changes)
+                .build()) {
+            TaskChangeLog.Subscription subscription = changes.subscribe();
+            repository.saveAll(List.of(task("1", "First"), task("2", "Second")));
+            repository.deleteById("1");
+            subscription.poll(10, events::add);
+        }
+        assertEquals(3, events.size());
+        assertEquals(TaskChangeEvent.Type.DELETED, events.get(2).getType());
+        assertEquals("First", events.get(2).getBefore().orElseThrow().getTitle());
+
+        TaskChangeLog reopened = new TaskChangeLog(16);
+        try (PersistentTaskRepository repository = new PersistentTaskRepository.Builder(directory)
+                .changeLog(reopened)
+                .build()) {
+            assertEquals(1, repository.findAll().size());
+            assertEquals(0, reopened.lastSequence());
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish changes whose sync fails so subscribers keep advancing")
+    void shouldPublishChangesWhenSyncFails() {
+        TaskChangeLog changes = new TaskChangeLog(4);
+        AtomicBoolean failing = new AtomicBoolean();
+        try (PersistentTaskRepository repository = new PersistentTaskRepository.Builder(directory)
+                .durabilityMode(DurabilityMode.BATCHED)
+                .changeLog(changes)
+                .awaitDurable(await -> lsn -> {
+                    if (failing.get()) {
+                        throw new StorageException("Injected sync failure");
+                    }
+                    await.accept(lsn);
+                })
+                .build()) {
+            TaskChangeLog.Subscription subscription = changes.subscribe();
+            List<TaskChangeEvent> events = new ArrayList<>();
+
+            failing.set(true);
+            assertThrows(StorageException.class, () -> repository.save(task("1", "First")));
+            assertThrows(StorageException.class,
+                    () -> repository.saveAll(List.of(task("2", "Second"), task("3", "Third"))));
+            assertThrows(StorageException.class, () -> repository.deleteById("1"));
+            assertEquals(4, subscription.poll(10, events::add));
+
+            failing.set(false);
+            repository.save(task("4", "Fourth"));
+            repository.patch("4", TaskPatch.builder().title("Fourth, again").build());
+            assertEquals(2, subscription.poll(10, events::add));
+            assertEquals(List.of("1", "2", "3", "1", "4", "4"),
+                    events.stream().map(TaskChangeEvent::getTaskId).collect(Collectors.toList()));
+            assertEquals(changes.lastSequence() + 1, subscription.getNextSequence());
+        }
+    }
+
+    @Test
+    @DisplayName("Should insert only absent tasks with one sync per batch")
+    void shouldInsertAbsentTasksWithOneSync() {
+        AtomicInteger syncs = new AtomicInteger();
+        try (PersistentTaskRepository repository = new PersistentTaskRepository.Builder(directory)
+                .durabilityMode(DurabilityMode.PER_WRITE)
+                .awaitDurable(await -> lsn -> {
+                    syncs.incrementAndGet();
+                    await.accept(lsn);
+                })
+                .build()) {
+            repository.save(task("1", "Stored"));
+            syncs.set(0);
+
+            Set<String> existing = repository.insertAll(List.of(task("1", "Clash"), task("2", "Second"),
+                    task("3", "Third"), task("2", "Repeat")));
+
+            assertEquals(Set.of("1", "2"), existing);
+            assertEquals(1, syncs.get());
+        }
+        try (PersistentTaskRepository repository = open(DurabilityMode.BATCHED)) {
+            assertEquals("Stored", repository.findById("1").getTitle());
+            assertEquals("Second", repository.findById("2").getTitle());
+            assertEquals(1, repository.findById("3").getVersion());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.event.TaskChangeEvent;
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.query.TaskCursor;
+import com.taskmanagement.query.TaskQuery;
+import com.taskmanagement.service.SortOption;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardedTaskRepository Tests")
+class ShardedTaskRepositoryTest {
+
+    @Test
+    @DisplayName("Should answer queries like a single in-memory repository")
+    void shouldMatchInMemoryRepository() {
+        InMemoryTaskRepository expected = new InMemoryTaskRepository();
+        ShardedTaskRepository repository = new ShardedTaskRepository.Builder()
+                .shards(8)
+                .shard(new InMemoryTaskRepository.Builder().sortedViews(true))
+                .build();
+        Random random = new Random(23);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Task.Builder builder = new Task.Builder()
+                    .title("Task " + random.nextInt(500))
+                    .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                    .status(Status.values()[random.nextInt(Status.values().length)]);
+            if (random.nextInt(4) != 0) {
+                builder.dueDate(base.plusMinutes(random.nextInt(10_000)));
+            }
+            tasks.add(builder.build());
+        }
+        assertEquals(expected.saveAll(tasks), repository.saveAll(tasks));
+        List<String> deleted = tasks.stream().map(Task::getId).filter(id -> random.nextInt(7) == 0)
+                .collect(Collectors.toList());
+        assertEquals(expected.deleteAllById(deleted), repository.deleteAllById(deleted));
+
+        List<TaskFilter> filters = List.of(
+                TaskFilter.builder().byStatus(Status.PENDING),
+                TaskFilter.builder().byDueDateRange(base.plusMinutes(100), base.plusMinutes(2_000)),
+                TaskFilter.builder().byPriority(Priority.LOW));
+        for (TaskFilter filter : filters) {
+            assertEquals(Set.copyOf(expected.findByFilter(filter)), Set.copyOf(repository.findByFilter(filter)));
+            for (SortOption sortOption : SortOption.values()) {
+                TaskQuery query = new TaskQuery.Builder().filter(filter).sortBy(sortOption).offset(20).limit(25).build();
+                List<Task> page = repository.query(query);
+                assertEquals(expected.query(query), page);
+                assertEquals(page, repository.stream(query).collect(Collectors.toList()));
+
+                TaskQuery next = new TaskQuery.Builder().filter(filter).sortBy(sortOption)
+                        .after(TaskCursor.after(page.get(page.size() - 1), sortOption)).limit(25).build();
+                assertEquals(expected.query(next), repository.query(next));
+            }
+        }
+        TaskQuery unordered = new TaskQuery.Builder().offset(100).limit(50).build();
+        assertEquals(50, repository.query(unordered).size());
+        assertEquals(50, repository.stream(unordered).count());
+        assertEquals(expected.findAll().size(), repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Should route every operation on an id to the same shard")
+    void shouldRoutePointOperations() {
+        ShardedTaskRepository repository = new ShardedTaskRepository(16);
+        int[] perShard = new int[repository.shardCount()];
+        for (int i = 0; i < 16_000; i++) {
+            Task saved = repository.save(new Task.Builder().id("task-" + i).title("Task").priority(Priority.LOW).build());
+            perShard[repository.index(saved.getId())]++;
+        }
+        for (int count : perShard) {
+            assertTrue(count > 800 && count < 1200, "uneven shards: " + Arrays.toString(perShard));
+        }
+
+        Task task = repository.findById("task-42");
+        assertEquals(2, repository.compareAndSave(1, task).getVersion());
+        assertNull(repository.compareAndSave(1, task));
+        assertEquals(Status.COMPLETED, repository.patch("task-42", TaskPatch.builder().status(Status.COMPLETED).build())
+                .getStatus());
+        assertEquals(2, repository.updateAll(List.of("task-1", "missing", "task-2"),
+                TaskPatch.builder().priority(Priority.HIGH).build()).size());
+        assertTrue(repository.deleteById("task-42"));
+        assertFalse(repository.existsById("task-42"));
+        assertNull(repository.findById(null));
+        assertEquals(15_999, repository.stream().count());
+    }
+
+    @Test
+    @DisplayName("Should publish changes from every shard to the shared log")
+    void shouldShareChangeLog() {
+        TaskChangeLog changes = new TaskChangeLog(1024);
+        ShardedTaskRepository repository = new ShardedTaskRepository.Builder()
+                .shards(4)
+                .shard(new InMemoryTaskRepository.Builder().changeLog(changes))
+                .build();
+        TaskChangeLog.Subscription subscription = changes.subscribe();
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(new Task.Builder().id("task-" + i).title("Task").priority(Priority.LOW).build());
+        }
+        repository.saveAll(batch);
+        repository.deleteAllById(List.of("task-1", "task-2"));
+
+        List<TaskChangeEvent> events = new ArrayList<>();
+        subscription.poll(1000, events::add);
+        assertTrue(repository.changeLog().isPresent());
+        assertEquals(102, events.size());
+        assertEquals(2, events.stream().filter(event -> event.getType() == TaskChangeEvent.Type.DELETED).count());
+    }
+}
@@ -0,0 +1,202 @@
+package com.taskmanagement.scheduler;
+
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DueDateScheduler Tests")
+class DueDateSchedulerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+    private final MutableClock clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+    private final BlockingQueue<String> dueSoon = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> overdue = new LinkedBlockingQueue<>();
+    private final Set<String> callbackThreads = ConcurrentHashMap.newKeySet();
+    private InMemoryTaskRepository repository;
+    private DueDateScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository.Builder().changeLog(new TaskChangeLog(64)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    private DueDateScheduler start() {
+        return new DueDateScheduler.Builder(repository)
+                .clock(clock)
+                .tick(Duration.ofMillis(10))
+                .dueSoonLead(Duration.ofHours(1))
+                .onDueSoon(task -> {
+                    callbackThreads.add(Thread.currentThread().getName());
+                    dueSoon.add(task.getId());
+                })
+                .onOverdue(task -> {
+                    callbackThreads.add(Thread.currentThread().getName());
+                    overdue.add(task.getId());
+                })
+                .build();
+    }
+
+    private static Task task(String id, LocalDateTime dueDate) {
+        return new Task.Builder().id(id).title("Task " + id).priority(Priority.MEDIUM).dueDate(dueDate).build();
+    }
+
+    @Test
+    @DisplayName("Should report existing tasks that are already due soon or overdue")
+    void shouldReportExistingTasks() throws InterruptedException {
+        repository.save(task("late", START.minusDays(1)));
+        repository.save(task("soon", START.plusMinutes(30)));
+        repository.save(task("later", START.plusDays(1)));
+        repository.save(task("undated", null));
+        scheduler = start();
+        scheduler.awaitCurrent();
+
+        assertEquals(List.of("late"), List.copyOf(overdue));
+        assertEquals(List.of("soon"), List.copyOf(dueSoon));
+        assertEquals(2, scheduler.scheduledCount());
+        assertEquals(Set.of("task-due-dates"), callbackThreads);
+    }
+
+    @Test
+    @DisplayName("Should report a task saved after its due date only as overdue")
+    void shouldReportOverdueTaskOnce() throws InterruptedException {
+        scheduler = start();
+        repository.save(task("late", START.minusMinutes(5)));
+        repository.save(task("soon", START.plusMinutes(5)));
+        scheduler.awaitCurrent();
+
+        assertEquals("late", overdue.poll(5, TimeUnit.SECONDS));
+        assertEquals("soon", dueSoon.poll(5, TimeUnit.SECONDS));
+        assertTrue(dueSoon.isEmpty());
+        assertTrue(overdue.isEmpty());
+        assertEquals(Set.of("task-due-dates"), callbackThreads);
+    }
+
+    @Test
+    @DisplayName("Should fire when the clock passes the lead time and the due date")
+    void shouldFireAsTimePasses() throws InterruptedException {
+        scheduler = start();
+        repository.save(task("1", START.plusHours(3)));
+        scheduler.awaitCurrent();
+        assertNull(dueSoon.poll(50, TimeUnit.MILLISECONDS));
+
+        clock.set(START.plusHours(2));
+        assertEquals("1", dueSoon.poll(5, TimeUnit.SECONDS));
+        assertNull(overdue.poll(50, TimeUnit.MILLISECONDS));
+
+        // Renaming keeps the timer; it does not report the task again.
+        repository.patch("1", TaskPatch.builder().title("Renamed").build());
+        clock.set(START.plusHours(3));
+        assertEquals("1", overdue.poll(5, TimeUnit.SECONDS));
+        assertTrue(dueSoon.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report failing callbacks and keep firing for other tasks")
+    void shouldReportFailingCallbacks() throws InterruptedException {
+        BlockingQueue<Throwable> failures = new LinkedBlockingQueue<>();
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> failures.add(e));
+        try {
+            scheduler = new DueDateScheduler.Builder(repository)
+                    .clock(clock)
+                    .tick(Duration.ofMillis(10))
+                    .onOverdue(task -> {
+                        if (task.getId().equals("broken")) {
+                            throw new IllegalStateException("callback failed");
+                        }
+                        overdue.add(task.getId());
+                    })
+                    .build();
+            repository.save(task("broken", START.plusMinutes(1)));
+            repository.save(task("fine", START.plusMinutes(2)));
+            scheduler.awaitCurrent();
+
+            clock.set(START.plusMinutes(3));
+            assertEquals("fine", overdue.poll(5, TimeUnit.SECONDS));
+            Throwable failure = failures.poll(5, TimeUnit.SECONDS);
+            assertNotNull(failure);
+            assertEquals("callback failed", failure.getMessage());
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reschedule on due date changes and cancel on completion and delete")
+    void shouldRescheduleAndCancel() throws InterruptedException {
+        scheduler = start();
+        repository.save(task("moved", START.plusHours(3)));
+        repository.save(task("completed", START.plusHours(3)));
+        repository.save(task("deleted", START.plusHours(3)));
+        repository.patch("moved", TaskPatch.builder().dueDate(START.plusDays(2)).build());
+        repository.patch("completed", TaskPatch.builder().status(Status.COMPLETED).build());
+        repository.deleteById("deleted");
+        scheduler.awaitCurrent();
+
+        clock.set(START.plusDays(1));
+        Thread.sleep(100);
+        assertTrue(dueSoon.isEmpty());
+        assertTrue(overdue.isEmpty());
+
+        clock.set(START.plusDays(2));
+        assertEquals("moved", overdue.poll(5, TimeUnit.SECONDS));
+        assertTrue(overdue.isEmpty());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
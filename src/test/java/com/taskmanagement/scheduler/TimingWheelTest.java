@@ -0,0 +1,74 @@
+package com.taskmanagement.scheduler;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TimingWheel Tests")
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("Should fire every timer on the first tick at or after its deadline")
+    void shouldFireOnDeadlineTick() {
+        long start = 1_000_000;
+        TimingWheel<Long> wheel = new TimingWheel<>(10, start);
+        Random random = new Random(42);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Spread deadlines over several levels, including some far away.
+            long delay = random.nextInt(4) == 0 ? random.nextInt(50_000_000) : random.nextInt(100_000);
+            long deadline = start + delay;
+            wheel.schedule(deadline, deadline);
+            expected.merge(deadline, 1, Integer::sum);
+        }
+        assertEquals(20_000, wheel.size());
+
+        long now = start;
+        List<Long> fired = new ArrayList<>();
+        while (wheel.size() > 0) {
+            now += 1 + random.nextInt(5_000);
+            long at = now;
+            wheel.advance(now, deadline -> {
+                assertTrue(deadline <= at, "fired early");
+                assertTrue(deadline > at - 5_010, "fired late");
+                fired.add(deadline);
+            });
+        }
+        assertEquals(20_000, fired.size());
+        Map<Long, Integer> actual = new HashMap<>();
+        fired.forEach(deadline -> actual.merge(deadline, 1, Integer::sum));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Should not fire cancelled timers and allow scheduling while firing")
+    void shouldCancelAndReschedule() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        TimingWheel.Timer<String> cancelled = wheel.schedule(5_000, "cancelled");
+        wheel.schedule(100, "first");
+        wheel.schedule(-5, "past");
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertFalse(cancelled.isScheduled());
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1, fired::add);
+        assertEquals(List.of("past"), fired);
+
+        wheel.advance(100, value -> {
+            fired.add(value);
+            wheel.schedule(200, "second");
+        });
+        wheel.advance(10_000, fired::add);
+        assertEquals(List.of("past", "first", "second"), fired);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,118 @@
+package com.taskmanagement.search;
+
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskSearchIndex Tests")
+class TaskSearchIndexTest {
+
+    private InMemoryTaskRepository repository;
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository.Builder().changeLog(new TaskChangeLog(256)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    private Task save(String id, String title, String description) {
+        return repository.save(new Task.Builder().id(id).title(title).description(description)
+                .priority(Priority.MEDIUM).build());
+    }
+
+    private Set<String> search(String text) {
+        return new HashSet<>(index.search(text));
+    }
+
+    @Test
+    @DisplayName("Should tokenize into lowercased words")
+    void shouldTokenize() {
+        assertEquals(List.of("write", "q3", "report", "über", "draft"),
+                TextTokenizer.tokenize("Write Q3-report (Über draft!)"));
+        assertTrue(TextTokenizer.tokenize("  ...  ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find tasks by every word, with prefixes, in title and description")
+    void shouldSearchTitleAndDescription() {
+        save("1", "Write quarterly report", "Numbers for the board");
+        save("2", "Review report", null);
+        save("3", "Board meeting", "Prepare the quarterly slides");
+        index = TaskSearchIndex.attach(repository);
+
+        assertEquals(Set.of("1", "2"), search("report"));
+        assertEquals(Set.of("1", "3"), search("QUARTER"));
+        assertEquals(Set.of("1", "3"), search("board quart"));
+        assertEquals(Set.of("3"), search("slides board"));
+        assertEquals(Set.of(), search("report slides"));
+        assertEquals(Set.of(), search("missing"));
+        assertEquals(Set.of("1", "2", "3"), search(""));
+    }
+
+    @Test
+    @DisplayName("Should follow saves, text changes and deletes")
+    void shouldFollowChanges() {
+        index = TaskSearchIndex.attach(repository);
+        save("1", "Write report", null);
+        assertEquals(Set.of("1"), search("report"));
+
+        repository.patch("1", TaskPatch.builder().title("Write summary").build());
+        assertEquals(Set.of(), search("report"));
+        assertEquals(Set.of("1"), search("summary"));
+
+        repository.patch("1", TaskPatch.builder().status(Status.COMPLETED).build());
+        assertEquals(Set.of("1"), search("summary"));
+
+        repository.deleteById("1");
+        assertEquals(Set.of(), search("summary"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("Should match a scan with the filter predicate after many rewrites")
+    void shouldMatchScanAfterCompaction() {
+        String[] words = {"alpha", "beta", "gamma", "delta", "alphabet", "betamax", "gam"};
+        Random random = new Random(3);
+        index = TaskSearchIndex.attach(repository);
+        for (int i = 0; i < 20_000; i++) {
+            String id = String.valueOf(random.nextInt(500));
+            if (random.nextInt(10) == 0) {
+                repository.deleteById(id);
+            } else {
+                save(id, words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)],
+                        random.nextBoolean() ? words[random.nextInt(words.length)] : null);
+            }
+        }
+
+        for (String text : List.of("alpha", "gam", "beta delta", "alphabet gam", "g a")) {
+            Set<String> expected = repository.findByFilter(TaskFilter.builder().byText(text)).stream()
+                    .map(Task::getId)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, search(text), text);
+        }
+        assertEquals(repository.findAll().size(), index.size());
+    }
+}
@@ -1,20 +1,38 @@
 package com.taskmanagement.service;
 
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.exception.ConcurrentUpdateException;
 import com.taskmanagement.exception.InvalidTaskException;
 import com.taskmanagement.exception.TaskNotFoundException;
 import com.taskmanagement.filter.TaskFilter;
 import com.taskmanagement.model.Priority;
 import com.taskmanagement.model.Status;
 import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskIdGenerator;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.model.TimeOrderedTaskIdGenerator;
+import com.taskmanagement.query.TaskCursor;
+import com.taskmanagement.query.TaskPage;
 import com.taskmanagement.repository.InMemoryTaskRepository;
 import com.taskmanagement.repository.TaskRepository;
+import com.taskmanagement.search.TaskSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -418,5 +436,282 @@ class TaskServiceTest {
             new TaskService(null);
         });
     }
-}
 
+    @Test
+    @DisplayName("Should list a sorted page using offset and limit")
+    void shouldListSortedPageUsingOffsetAndLimit() {
+        for (int i = 0; i < 10; i++) {
+            taskService.createTask("Task " + i, Optional.empty(), Optional.empty(), Priority.MEDIUM);
+        }
+
+        List<Task> page = taskService.listTasks(null, SortOption.TITLE_DESC, 2, 3);
+
+        assertEquals(3, page.size());
+        assertEquals("Task 7", page.get(0).getTitle());
+        assertEquals("Task 6", page.get(1).getTitle());
+        assertEquals("Task 5", page.get(2).getTitle());
+    }
+
+    @Test
+    @DisplayName("Should page through all tasks with a cursor")
+    void shouldPageThroughAllTasksWithCursor() {
+        for (int i = 0; i < 7; i++) {
+            Priority priority = Priority.values()[i % Priority.values().length];
+            taskService.createTask("Task " + i, Optional.empty(), Optional.empty(), priority);
+        }
+
+        Set<String> seen = new HashSet<>();
+        Priority previous = Priority.HIGH;
+        TaskCursor cursor = null;
+        int pages = 0;
+        do {
+            TaskPage page = taskService.listTaskPage(null, SortOption.PRIORITY_DESC, cursor, 3);
+            for (Task task : page.getTasks()) {
+                assertTrue(seen.add(task.getId()));
+                assertTrue(task.getPriority().compareTo(previous) <= 0);
+                previous = task.getPriority();
+            }
+            cursor = page.getNextCursor().map(c -> TaskCursor.decode(c.encode())).orElse(null);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(7, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    @DisplayName("Should reject cursor created for a different sort option")
+    void shouldRejectCursorForDifferentSortOption() {
+        Task task = taskService.createTask("Task", Optional.empty(), Optional.empty(), Priority.LOW);
+        TaskCursor cursor = TaskCursor.after(task, SortOption.TITLE_ASC);
+
+        assertThrows(InvalidTaskException.class, () -> {
+            taskService.listTaskPage(null, SortOption.PRIORITY_ASC, cursor, 10);
+        });
+    }
+
+    @Test
+    @DisplayName("Should throw exception for invalid paging arguments")
+    void shouldThrowExceptionForInvalidPagingArguments() {
+        assertThrows(InvalidTaskException.class, () -> taskService.listTasks(null, null, -1, 10));
+        assertThrows(InvalidTaskException.class, () -> taskService.listTasks(null, null, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should create tasks with ids in creation order")
+    void shouldCreateTasksWithTimeOrderedIds() {
+        TaskService service = new TaskService(repository, new TimeOrderedTaskIdGenerator());
+
+        Task first = service.createTask("First", Optional.empty(), Optional.empty(), Priority.LOW);
+        Task second = service.createTask("Second", Optional.empty(), Optional.empty(), Priority.LOW);
+
+        assertTrue(first.getId().compareTo(second.getId()) < 0);
+        assertEquals(second, taskService.getTask(second.getId()));
+        assertThrows(IllegalArgumentException.class, () -> new TaskService(repository, null));
+    }
+
+    @Test
+    @DisplayName("Should create tasks in bulk and report invalid items")
+    void shouldCreateTasksInBulk() {
+        Task existing = taskService.createTask("Existing", Optional.empty(), Optional.empty(), Priority.LOW);
+        Task valid = new Task.Builder().title("Imported").priority(Priority.HIGH).build();
+        Task noPriority = new Task.Builder().titleForUpdate("No priority").buildForUpdate();
+        Task duplicate = new Task.Builder(valid).title("Duplicate").build();
+        Task clash = new Task.Builder(existing).title("Clash").build();
+
+        BatchResult result = taskService.createTasks(Arrays.asList(valid, noPriority, duplicate, clash, null));
+
+        List<BatchResult.Outcome> outcomes = result.getItems().stream()
+                .map(BatchResult.Item::getOutcome)
+                .collect(Collectors.toList());
+        assertEquals(List.of(BatchResult.Outcome.CREATED, BatchResult.Outcome.INVALID, BatchResult.Outcome.INVALID,
+                BatchResult.Outcome.INVALID, BatchResult.Outcome.INVALID), outcomes);
+        assertTrue(result.getItems().get(1).getError().isPresent());
+        assertFalse(result.isFullySuccessful());
+        assertEquals(List.of(valid), result.getTasks());
+        assertEquals("Imported", taskService.getTask(valid.getId()).getTitle());
+        assertEquals("Existing", taskService.getTask(existing.getId()).getTitle());
+        assertThrows(InvalidTaskException.class, () -> taskService.createTasks(null));
+    }
+
+    @Test
+    @DisplayName("Should update and delete tasks in bulk with per-item outcomes")
+    void shouldUpdateAndDeleteTasksInBulk() {
+        Task first = taskService.createTask("First", Optional.empty(), Optional.empty(), Priority.LOW);
+        Task second = taskService.createTask("Second", Optional.empty(), Optional.empty(), Priority.LOW);
+
+        BatchResult updated = taskService.updateTasks(Arrays.asList(first.getId(), "missing", " ", second.getId()),
+                TaskPatch.builder().priority(Priority.HIGH).build());
+
+        assertEquals(2, updated.count(BatchResult.Outcome.UPDATED));
+        assertEquals(1, updated.count(BatchResult.Outcome.NOT_FOUND));
+        assertEquals(1, updated.count(BatchResult.Outcome.INVALID));
+        assertEquals(Priority.HIGH, taskService.getTask(second.getId()).getPriority());
+
+        BatchResult repeated = taskService.updateTasks(List.of(second.getId(), second.getId()),
+                TaskPatch.builder().priority(Priority.LOW).build());
+
+        assertEquals(BatchResult.Outcome.UPDATED, repeated.getItems().get(0).getOutcome());
+        assertEquals(BatchResult.Outcome.INVALID, repeated.getItems().get(1).getOutcome());
+        assertEquals(3, taskService.getTask(second.getId()).getVersion());
+
+        BatchResult deleted = taskService.deleteTasks(List.of(first.getId(), first.getId(), "missing"));
+
+        assertEquals(BatchResult.Outcome.DELETED, deleted.getItems().get(0).getOutcome());
+        assertEquals(BatchResult.Outcome.INVALID, deleted.getItems().get(1).getOutcome());
+        assertEquals(BatchResult.Outcome.NOT_FOUND, deleted.getItems().get(2).getOutcome());
+        assertEquals(List.of(second), taskService.listAllTasks());
+        assertThrows(InvalidTaskException.class, () -> taskService.updateTasks(List.of(), null));
+    }
+
+    @Test
+    @DisplayName("Should report repeated ids as invalid in every batch operation")
+    void shouldReportRepeatedIdsAsInvalid() {
+        Task task = new Task.Builder().title("Task").priority(Priority.LOW).build();
+        String id = task.getId();
+
+        List<BatchResult> results = List.of(
+                taskService.createTasks(List.of(task, new Task.Builder(task).title("Again").build())),
+                taskService.updateTasks(List.of(id, id), TaskPatch.builder().priority(Priority.HIGH).build()),
+                taskService.deleteTasks(List.of(id, id)));
+
+        for (BatchResult result : results) {
+            assertTrue(result.getItems().get(0).isSuccessful());
+            assertEquals(BatchResult.Outcome.INVALID, result.getItems().get(1).getOutcome());
+            assertEquals("Task ID '" + id + "' appears more than once in the batch",
+                    result.getItems().get(1).getError().orElseThrow());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream filtered and sorted tasks")
+    void shouldStreamTasks() {
+        taskService.createTask("B", Optional.empty(), Optional.empty(), Priority.HIGH);
+        taskService.createTask("A", Optional.empty(), Optional.empty(), Priority.HIGH);
+        taskService.createTask("C", Optional.empty(), Optional.empty(), Priority.LOW);
+
+        List<String> titles = taskService.streamTasks(TaskFilter.builder().byPriority(Priority.HIGH), SortOption.TITLE_ASC)
+                .map(Task::getTitle)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of("A", "B"), titles);
+        assertEquals(3, taskService.streamTasks(null).count());
+    }
+
+    @Test
+    @DisplayName("Should re-apply an update that lost a race instead of overwriting")
+    void shouldRetryConflictingUpdate() {
+        // Only the required methods, so updates go through the default compare-and-save loop.
+        InMemoryTaskRepository delegate = new InMemoryTaskRepository();
+        AtomicBoolean raced = new AtomicBoolean();
+        TaskRepository racing = new TaskRepository() {
+            @Override
+            public Task save(Task task) {
+                return delegate.save(task);
+            }
+
+            @Override
+            public Task compareAndSave(long expectedVersion, Task task) {
+                if (raced.compareAndSet(false, true)) {
+                    delegate.save(new Task.Builder(delegate.findById(task.getId())).status(Status.COMPLETED).build());
+                }
+                return delegate.compareAndSave(expectedVersion, task);
+            }
+
+            @Override
+            public Task findById(String id) {
+                return delegate.findById(id);
+            }
+
+            @Override
+            public List<Task> findAll() {
+                return delegate.findAll();
+            }
+
+            @Override
+            public List<Task> findAll(Predicate<Task> filter) {
+                return delegate.findAll(filter);
+            }
+
+            @Override
+            public boolean deleteById(String id) {
+                return delegate.deleteById(id);
+            }
+
+            @Override
+            public boolean existsById(String id) {
+                return delegate.existsById(id);
+            }
+        };
+        TaskService service = new TaskService(racing);
+        Task task = service.createTask("Task", Optional.empty(), Optional.empty(), Priority.LOW);
+
+        Task updated = service.updateTask(task.getId(), TaskPatch.builder().priority(Priority.HIGH).build());
+
+        assertEquals(Priority.HIGH, updated.getPriority());
+        assertEquals(Status.COMPLETED, updated.getStatus());
+        assertEquals(3, updated.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should not lose concurrent updates")
+    void shouldNotLoseConcurrentUpdates() throws Exception {
+        Task task = taskService.createTask("Task", Optional.empty(), Optional.empty(), Priority.LOW);
+        int threads = 8;
+        int updatesPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Priority priority = Priority.values()[t % Priority.values().length];
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < updatesPerThread; i++) {
+                        taskService.updateTask(task.getId(), TaskPatch.builder().priority(priority).build());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1 + threads * updatesPerThread, taskService.getTask(task.getId()).getVersion());
+    }
+
+    @Test
+    @DisplayName("Should reject a conditional update against a stale version")
+    void shouldRejectStaleConditionalUpdate() {
+        Task task = taskService.createTask("Task", Optional.empty(), Optional.empty(), Priority.LOW);
+        TaskPatch patch = TaskPatch.builder().status(Status.IN_PROGRESS).build();
+
+        Task updated = taskService.updateTask(task.getId(), task.getVersion(), patch);
+
+        assertEquals(task.getVersion() + 1, updated.getVersion());
+        assertThrows(ConcurrentUpdateException.class, () -> taskService.updateTask(task.getId(), task.getVersion(), patch));
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateTask("missing", 1, patch));
+    }
+
+    @Test
+    @DisplayName("Should combine text search with the other filters, with and without an index")
+    void shouldFilterByText() {
+        InMemoryTaskRepository indexed = new InMemoryTaskRepository.Builder().changeLog(new TaskChangeLog(64)).build();
+        try (TaskSearchIndex index = TaskSearchIndex.attach(indexed)) {
+            for (TaskService service : List.of(new TaskService(indexed, TaskIdGenerator.defaultGenerator(), index),
+                    taskService)) {
+                Task report = service.createTask("Write report", Optional.of("Quarterly numbers"), Optional.empty(), Priority.HIGH);
+                service.createTask("Review report", Optional.empty(), Optional.empty(), Priority.LOW);
+                service.createTask("Plan quarter", Optional.empty(), Optional.empty(), Priority.HIGH);
+
+                TaskFilter filter = TaskFilter.builder().byText("quarter").byPriority(Priority.HIGH);
+                assertEquals(2, service.listTasks(filter).size());
+                assertEquals(List.of(report), service.listTasks(TaskFilter.builder().byText("REPORT quart"), SortOption.TITLE_ASC));
+                assertEquals(2, service.listTasks(TaskFilter.builder().byText("rep"), SortOption.TITLE_ASC, 0, 5).size());
+                assertEquals(1, service.listTaskPage(TaskFilter.builder().byText("report"), SortOption.TITLE_ASC, null, 1)
+                        .getTasks().size());
+                assertEquals(1, service.streamTasks(TaskFilter.builder().byText("plan")).count());
+            }
+        }
+    }
+}
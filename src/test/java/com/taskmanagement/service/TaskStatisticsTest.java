@@ -0,0 +1,163 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.event.TaskChangeLog;
+import com.taskmanagement.filter.TaskFilter;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskPatch;
+import com.taskmanagement.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskStatistics Tests")
+class TaskStatisticsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+    private InMemoryTaskRepository repository;
+    private TaskStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository.Builder().changeLog(new TaskChangeLog(64)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (statistics != null) {
+            statistics.close();
+        }
+    }
+
+    private static Task task(String id, Status status, Priority priority, LocalDateTime dueDate) {
+        return new Task.Builder().id(id).title("Task " + id).status(status).priority(priority).dueDate(dueDate).build();
+    }
+
+    @Test
+    @DisplayName("Should count existing tasks and follow saves, patches and deletes")
+    void shouldFollowChanges() throws InterruptedException {
+        repository.save(task("1", Status.PENDING, Priority.HIGH, NOW.minusDays(1)));
+        repository.save(task("2", Status.PENDING, Priority.LOW, NOW.plusMinutes(30)));
+        statistics = TaskStatistics.attach(repository);
+
+        assertEquals(2, statistics.count());
+        assertEquals(1, statistics.count(Status.PENDING, Priority.HIGH));
+        assertEquals(1, statistics.countOverdue(NOW));
+        assertEquals(1, statistics.countDueWithin(NOW, Duration.ofHours(1)));
+
+        repository.save(task("3", Status.IN_PROGRESS, Priority.HIGH, NOW.minusHours(2)));
+        repository.patch("1", TaskPatch.builder().status(Status.COMPLETED).build());
+        repository.deleteById("2");
+        statistics.awaitCurrent();
+
+        assertEquals(2, statistics.count());
+        assertEquals(0, statistics.count(Status.PENDING));
+        assertEquals(2, statistics.count(Priority.HIGH));
+        assertEquals(1, statistics.count(Status.COMPLETED, Priority.HIGH));
+        assertEquals(1, statistics.countOverdue(NOW));
+        assertEquals(0, statistics.countDueWithin(NOW, Duration.ofHours(1)));
+        assertEquals(0, statistics.countOverdue(NOW.minusDays(1)));
+        assertEquals(1, statistics.countOverdue(NOW.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Should count due windows of any length, including dates outside the bucketed span")
+    void shouldCountDueWindows() {
+        Random random = new Random(15);
+        List<LocalDateTime> dueDates = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            LocalDateTime dueDate = i % 100 == 0
+                    ? LocalDateTime.of(i % 200 == 0 ? 1960 : 2150, 1, 1, 0, 0).plusMinutes(random.nextInt(1_000))
+                    : NOW.plusMinutes(random.nextInt(40_000) - 20_000);
+            dueDates.add(dueDate);
+            repository.save(task(String.valueOf(i), Status.PENDING, Priority.LOW, dueDate));
+        }
+        statistics = TaskStatistics.attach(repository);
+
+        for (Duration window : List.of(Duration.ZERO, Duration.ofMinutes(1), Duration.ofHours(17),
+                Duration.ofDays(7), Duration.ofDays(365 * 200))) {
+            for (int i = 0; i < 20; i++) {
+                LocalDateTime now = i == 0 ? LocalDateTime.of(1900, 1, 1, 0, 0)
+                        : NOW.plusMinutes(random.nextInt(50_000) - 25_000);
+                LocalDateTime from = now.withSecond(0).withNano(0);
+                LocalDateTime to = now.plus(window).withSecond(0).withNano(0);
+                long due = dueDates.stream().filter(date -> !date.isBefore(from) && date.isBefore(to)).count();
+                long overdue = dueDates.stream().filter(date -> date.isBefore(from)).count();
+                assertEquals(due, statistics.countDueWithin(now, window));
+                assertEquals(overdue, statistics.countOverdue(now));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should match a full scan when attached while writers are running")
+    void shouldMatchScanWhenAttachedConcurrently() throws Exception {
+        for (int i = 0; i < 5_000; i++) {
+            repository.save(task(String.valueOf(i), Status.PENDING, Priority.MEDIUM, NOW.plusMinutes(i % 100 - 50)));
+        }
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                int seed = w;
+                futures.add(writers.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 5_000; i++) {
+                        String id = String.valueOf(random.nextInt(6_000));
+                        switch (random.nextInt(3)) {
+                            case 0:
+                                repository.deleteById(id);
+                                break;
+                            case 1:
+                                repository.patch(id, TaskPatch.builder()
+                                        .status(Status.values()[random.nextInt(3)])
+                                        .priority(Priority.values()[random.nextInt(3)])
+                                        .build());
+                                break;
+                            default:
+                                repository.save(task(id, Status.PENDING, Priority.LOW, NOW.plusMinutes(random.nextInt(100) - 50)));
+                        }
+                    }
+                }));
+            }
+            statistics = TaskStatistics.attach(repository);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            writers.shutdown();
+        }
+        statistics.awaitCurrent();
+
+        assertEquals(repository.findAll().size(), statistics.count());
+        for (Status status : Status.values()) {
+            for (Priority priority : Priority.values()) {
+                assertEquals(repository.findByFilter(TaskFilter.builder().byStatus(status).byPriority(priority)).size(),
+                        statistics.count(status, priority), status + " " + priority);
+            }
+        }
+        long overdue = repository.findAll(task -> task.getStatus() != Status.COMPLETED
+                && task.getDueDate().map(NOW::isAfter).orElse(false)).size();
+        assertEquals(overdue, statistics.countOverdue(NOW));
+    }
+
+    @Test
+    @DisplayName("Should require a repository that publishes changes")
+    void shouldRequireChangeLog() {
+        assertThrows(IllegalArgumentException.class, () -> TaskStatistics.attach(new InMemoryTaskRepository()));
+    }
+}
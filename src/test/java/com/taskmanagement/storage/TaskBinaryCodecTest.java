@@ -0,0 +1,200 @@
+package com.taskmanagement.storage;
+
+import com.taskmanagement.codec.TaskJsonCodec;
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Status;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskBinaryCodec Tests")
+class TaskBinaryCodecTest {
+
+    private static final String[] TEXT = {"a", "Report", "Über café — 日本語 😀", "line\nbreak\ttab", "x".repeat(300)};
+
+    private static Task randomTask(Random random) {
+        Task.Builder builder = new Task.Builder()
+                .title(TEXT[random.nextInt(TEXT.length)] + random.nextInt(1000))
+                .priority(Priority.values()[random.nextInt(Priority.values().length)])
+                .status(Status.values()[random.nextInt(Status.values().length)])
+                .version(random.nextBoolean() ? random.nextInt(10) : random.nextLong() & Long.MAX_VALUE);
+        switch (random.nextInt(3)) {
+            case 0:
+                builder.id(TaskId.of(random.nextLong(), random.nextLong()));
+                break;
+            case 1:
+                builder.id("legacy-" + TEXT[random.nextInt(TEXT.length)] + random.nextInt());
+                break;
+            default:
+                break;
+        }
+        if (random.nextBoolean()) {
+            builder.description(TEXT[random.nextInt(TEXT.length)] + " description");
+        }
+        if (random.nextInt(4) > 0) {
+            LocalDateTime dueDate = LocalDateTime.of(1 + random.nextInt(9999), 1, 1, 0, 0)
+                    .plusSeconds(random.nextInt(365 * 24 * 3600));
+            builder.dueDate(random.nextBoolean() ? dueDate : dueDate.withNano(random.nextInt(1_000_000_000)));
+        }
+        return builder.build();
+    }
+
+    private static void assertSameFields(Task expected, Task actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTaskId(), actual.getTaskId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.getPriority(), actual.getPriority());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getVersion(), actual.getVersion());
+    }
+
+    private static Task task(String title) {
+        return new Task.Builder().id("t-1").title(title).priority(Priority.HIGH).build();
+    }
+
+    @Test
+    @DisplayName("Should round-trip random tasks through arrays, heap and direct buffers and data streams")
+    void shouldRoundTripRandomTasks() throws Exception {
+        Random random = new Random(20);
+        for (int i = 0; i < 2_000; i++) {
+            Task task = randomTask(random);
+            int size = TaskBinaryCodec.encodedSize(task);
+
+            byte[] bytes = TaskBinaryCodec.encode(task);
+            assertEquals(size, bytes.length);
+            assertSameFields(task, TaskBinaryCodec.decode(bytes));
+
+            ByteBuffer heap = ByteBuffer.wrap(new byte[size + 10], 3, size + 7).slice();
+            heap.position(2);
+            TaskBinaryCodec.write(heap, task);
+            assertEquals(2 + size, heap.position());
+            heap.flip().position(2);
+            assertSameFields(task, TaskBinaryCodec.read(heap));
+            assertFalse(heap.hasRemaining());
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(size);
+            TaskBinaryCodec.write(direct, task);
+            assertFalse(direct.hasRemaining());
+            direct.flip();
+            assertArrayEquals(bytes, toArray(direct.duplicate()));
+            assertSameFields(task, TaskBinaryCodec.read(direct));
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            TaskBinaryCodec.write(new DataOutputStream(stream), task);
+            assertArrayEquals(bytes, stream.toByteArray());
+            assertSameFields(task, TaskBinaryCodec.read(new DataInputStream(new ByteArrayInputStream(bytes))));
+        }
+    }
+
+    @Test
+    @DisplayName("Should read consecutive records and fail cleanly when the buffer is too small")
+    void shouldReadConsecutiveRecords() {
+        List<Task> tasks = new ArrayList<>();
+        Random random = new Random(7);
+        int total = 0;
+        for (int i = 0; i < 100; i++) {
+            tasks.add(randomTask(random));
+            total += TaskBinaryCodec.encodedSize(tasks.get(i));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        tasks.forEach(task -> TaskBinaryCodec.write(buffer, task));
+        buffer.flip();
+        for (Task task : tasks) {
+            assertSameFields(task, TaskBinaryCodec.read(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+
+        // Unpaired surrogates are written as '?', the same as String.getBytes.
+        Task lone = task("lone \uD800 surrogate");
+        assertEquals(TaskBinaryCodec.encodedSize(lone), TaskBinaryCodec.encode(lone).length);
+        assertEquals("lone ? surrogate", TaskBinaryCodec.decode(TaskBinaryCodec.encode(lone)).getTitle());
+
+        Task task = task("Too long for the buffer");
+        assertThrows(BufferOverflowException.class,
+                () -> TaskBinaryCodec.write(ByteBuffer.allocate(TaskBinaryCodec.encodedSize(task) - 1), task));
+    }
+
+    @Test
+    @DisplayName("Should skip flags and fields added by a newer schema version")
+    void shouldReadNewerSchemaVersions() {
+        Task task = new Task.Builder().id("t-1").title("Report").description("Q3").priority(Priority.LOW)
+                .dueDate(LocalDateTime.of(2030, 1, 15, 9, 30)).build();
+        byte[] current = TaskBinaryCodec.encode(task);
+        assertEquals(TaskBinaryCodec.SCHEMA_VERSION, current[0]);
+        int bodyLength = current[1];
+        assertEquals(current.length - 2, bodyLength);
+
+        // Schema 2 sets an unknown flag and appends three bytes; a second record follows.
+        ByteBuffer buffer = ByteBuffer.allocate(current.length + 3 + current.length);
+        buffer.put((byte) 2).put((byte) (bodyLength + 3)).put((byte) (current[2] | 0x80))
+                .put(current, 3, bodyLength - 1).put(new byte[] {9, 9, 9}).put(current);
+        buffer.flip();
+        assertSameFields(task, TaskBinaryCodec.read(buffer));
+        assertSameFields(task, TaskBinaryCodec.read(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Should reject truncated records and unknown enum ordinals")
+    void shouldRejectMalformedRecords() {
+        byte[] bytes = TaskBinaryCodec.encode(new Task.Builder().id("t-1").title("Report").description("Q3")
+                .priority(Priority.LOW).build());
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IllegalArgumentException.class, () -> TaskBinaryCodec.decode(truncated));
+        }
+
+        // flags, then the id "t-1" as a 1-byte length and 3 bytes, then "Report" likewise.
+        int priority = 2 + 1 + 4 + 7;
+        byte[] badPriority = bytes.clone();
+        badPriority[priority] = (byte) Priority.values().length;
+        assertThrows(IllegalArgumentException.class, () -> TaskBinaryCodec.decode(badPriority));
+        byte[] badStatus = bytes.clone();
+        badStatus[priority + 1] = (byte) 0xFF;
+        assertThrows(IllegalArgumentException.class, () -> TaskBinaryCodec.decode(badStatus));
+
+        byte[] notARecord = bytes.clone();
+        notARecord[0] = 0;
+        assertThrows(IllegalArgumentException.class, () -> TaskBinaryCodec.decode(notARecord));
+    }
+
+    @Test
+    @DisplayName("Should take a fraction of the space of the JSON form")
+    void shouldBeSmallerThanJson() {
+        TaskJsonCodec json = new TaskJsonCodec();
+        Random random = new Random(3);
+        long binary = 0;
+        long text = 0;
+        for (int i = 0; i < 1_000; i++) {
+            Task task = new Task.Builder().title("Quarterly report " + i).description("Numbers for the board")
+                    .dueDate(LocalDateTime.of(2030, 1, 1, 9, 0).plusMinutes(random.nextInt(100_000)))
+                    .priority(Priority.MEDIUM).version(i % 10).build();
+            binary += TaskBinaryCodec.encodedSize(task);
+            text += json.encode(task).size();
+        }
+        assertTrue(binary * 2 < text, binary + " binary bytes against " + text + " JSON bytes");
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,238 @@
+package com.taskmanagement.storage.btree;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.model.TaskId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BTreeTaskStore Tests")
+class BTreeTaskStoreTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    private BTreeTaskStore open(boolean dueDateIndex) {
+        return new BTreeTaskStore.Builder(directory.resolve("tasks.db"))
+                .pageSize(1024).cachePages(16).dueDateIndex(dueDateIndex).sync(false).build();
+    }
+
+    private static Task task(String id, int i, Random random) {
+        return new Task.Builder().id(id).title("Task " + i + " " + "x".repeat(random.nextInt(60)))
+                .description(random.nextInt(10) == 0 ? "Long ".repeat(200 + random.nextInt(400)) : null)
+                .dueDate(random.nextInt(4) == 0 ? null : BASE.plusMinutes(random.nextInt(10_000)))
+                .priority(Priority.MEDIUM).version(i).build();
+    }
+
+    private static String id(int i) {
+        return i % 3 == 0 ? "id-" + i : TaskId.of(i * 7919L, i).toString();
+    }
+
+    private static void assertMatches(Map<String, Task> expected, BTreeTaskStore store) {
+        assertEquals(expected.size(), store.size());
+        for (Task task : expected.values()) {
+            Task stored = store.get(task.getId());
+            assertNotNull(stored, task.getId());
+            assertEquals(task.getTitle(), stored.getTitle());
+            assertEquals(task.getDescription(), stored.getDescription());
+            assertEquals(task.getDueDate(), stored.getDueDate());
+            assertEquals(task.getVersion(), stored.getVersion());
+        }
+        List<String> scanned = new ArrayList<>();
+        store.scan(null, Integer.MAX_VALUE, task -> scanned.add(task.getId()));
+        assertEquals(expected.size(), scanned.size());
+        assertEquals(expected.keySet(), new HashSet<>(scanned));
+    }
+
+    @Test
+    @DisplayName("Should match a map through random puts, replaces and removes, across reopening")
+    void shouldMatchModel() {
+        Random random = new Random(21);
+        Map<String, Task> expected = new HashMap<>();
+        try (BTreeTaskStore store = open(true)) {
+            for (int round = 0; round < 20; round++) {
+                for (int op = 0; op < 500; op++) {
+                    int i = random.nextInt(3000);
+                    String id = id(i);
+                    if (random.nextInt(3) == 0) {
+                        Task removed = store.remove(id);
+                        assertEquals(expected.remove(id) != null, removed != null);
+                    } else {
+                        Task task = task(id, i, random);
+                        Task previous = store.put(task);
+                        assertEquals(expected.put(id, task) != null, previous != null);
+                    }
+                }
+                store.commit();
+            }
+            assertMatches(expected, store);
+            assertTrue(store.height() > 2);
+        }
+        try (BTreeTaskStore store = open(true)) {
+            assertMatches(expected, store);
+            List<Task> due = new ArrayList<>();
+            store.scanByDueDate(BASE.plusMinutes(1000), BASE.plusMinutes(2000), due::add);
+            List<Task> model = expected.values().stream()
+                    .filter(task -> task.getDueDate().isPresent())
+                    .filter(task -> !task.getDueDate().get().isBefore(BASE.plusMinutes(1000))
+                            && !task.getDueDate().get().isAfter(BASE.plusMinutes(2000)))
+                    .collect(Collectors.toList());
+            assertEquals(model.size(), due.size());
+            for (int i = 1; i < due.size(); i++) {
+                assertFalse(due.get(i).getDueDate().get().isBefore(due.get(i - 1).getDueDate().get()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should touch one page per level for a lookup")
+    void shouldLookUpInLogarithmicPages() {
+        try (BTreeTaskStore store = open(false)) {
+            Random random = new Random(5);
+            for (int i = 0; i < 20_000; i++) {
+                store.put(new Task.Builder().id(id(i)).title("Task " + i).priority(Priority.LOW).build());
+                if (i % 1000 == 999) {
+                    store.commit();
+                }
+            }
+            store.commit();
+            int height = store.height();
+            assertTrue(height >= 3 && height <= 6, "height " + height);
+            for (int i = 0; i < 200; i++) {
+                long before = store.pagesRead();
+                assertNotNull(store.get(id(random.nextInt(20_000))));
+                assertEquals(height, store.pagesRead() - before);
+            }
+            long before = store.pagesRead();
+            assertNull(store.get("id-missing"));
+            assertEquals(height, store.pagesRead() - before);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse freed pages instead of growing the file")
+    void shouldReuseFreedPages() throws Exception {
+        Path file = directory.resolve("tasks.db");
+        try (BTreeTaskStore store = open(true)) {
+            Random random = new Random(8);
+            for (int i = 0; i < 500; i++) {
+                store.put(task(id(i), i, random));
+            }
+            store.commit();
+            long size = Files.size(file);
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < 500; i++) {
+                    store.remove(id(i));
+                }
+                store.commit();
+                assertEquals(0, store.size());
+                for (int i = 0; i < 500; i++) {
+                    store.put(task(id(i), i, random));
+                }
+                store.commit();
+            }
+            assertTrue(Files.size(file) <= size * 2, Files.size(file) + " bytes after starting at " + size);
+            Task big = new Task.Builder().id("big").title("Big").description("0123456789".repeat(10_000))
+                    .priority(Priority.HIGH).build();
+            store.put(big);
+            assertEquals(big.getDescription(), store.get("big").getDescription());
+        }
+    }
+
+    @Test
+    @DisplayName("Should discard uncommitted changes and build or drop the due date index on open")
+    void shouldRollBackAndToggleIndex() {
+        Random random = new Random(3);
+        try (BTreeTaskStore store = open(false)) {
+            for (int i = 0; i < 300; i++) {
+                store.put(task(id(i), i, random));
+            }
+            store.commit();
+            store.put(task("uncommitted", 1, random));
+            store.remove(id(0));
+            store.rollback();
+            assertNull(store.get("uncommitted"));
+            assertNotNull(store.get(id(0)));
+            store.put(task("closed before commit", 1, random));
+            assertThrows(IllegalStateException.class, () -> store.scanByDueDate(null, null, task -> { }));
+        }
+        try (BTreeTaskStore store = open(true)) {
+            assertEquals(300, store.size());
+            assertNull(store.get("closed before commit"));
+            List<Task> due = new ArrayList<>();
+            store.scanByDueDate(null, null, due::add);
+            List<Task> all = new ArrayList<>();
+            store.scan(null, Integer.MAX_VALUE, all::add);
+            assertEquals(all.stream().filter(task -> task.getDueDate().isPresent()).count(), due.size());
+        }
+        try (BTreeTaskStore store = open(false)) {
+            assertFalse(store.hasDueDateIndex());
+            assertEquals(300, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay a complete journal on open and ignore a torn one")
+    void shouldRecoverFromJournal() throws Exception {
+        Path file = directory.resolve("tasks.db");
+        Path journal = directory.resolve("tasks.db.journal");
+        Random random = new Random(4);
+        try (BTreeTaskStore store = open(false)) {
+            store.put(task("first", 1, random));
+            store.commit();
+        }
+        byte[] before = Files.readAllBytes(file);
+        try (BTreeTaskStore store = open(false)) {
+            for (int i = 0; i < 200; i++) {
+                store.put(task(id(i), i, random));
+            }
+            store.commit();
+        }
+        byte[] after = Files.readAllBytes(file);
+
+        // A crash after the journal was synced but before the data file was written.
+        int pages = after.length / 1024;
+        long[] numbers = new long[pages];
+        ByteBuffer[] images = new ByteBuffer[pages];
+        for (int page = 0; page < pages; page++) {
+            numbers[page] = page;
+            images[page] = ByteBuffer.wrap(after, page * 1024, 1024).slice();
+        }
+        try (PageJournal pageJournal = new PageJournal(journal, 1024)) {
+            pageJournal.write(numbers, images, pages, false);
+        }
+        byte[] complete = Files.readAllBytes(journal);
+        Files.write(file, before);
+        try (BTreeTaskStore store = open(false)) {
+            assertEquals(201, store.size());
+            assertNotNull(store.get(id(199)));
+        }
+        assertEquals(0, Files.size(journal));
+
+        // A crash while the journal itself was being written.
+        Files.write(journal, Arrays.copyOf(complete, complete.length - 1));
+        Files.write(file, before);
+        try (BTreeTaskStore store = open(false)) {
+            assertEquals(1, store.size());
+            assertNotNull(store.get("first"));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.taskmanagement.storage.columnar;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ColumnarTaskStore Tests")
+class ColumnarTaskStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should keep strings intact across heap chunk boundaries")
+    void shouldSpanHeapChunks() {
+        try (ColumnarTaskStore store = ColumnarTaskStore.open(directory, 12)) {
+            for (int i = 0; i < 500; i++) {
+                store.save(new Task.Builder().id("id-" + i).title(title(i))
+                        .priority(Priority.LOW).build());
+            }
+            for (int i = 0; i < 500; i++) {
+                Task task = store.read(store.rowOf("id-" + i));
+                assertEquals("id-" + i, task.getId());
+                assertEquals(title(i), task.getTitle());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should find every remaining id after many deletes")
+    void shouldKeepIdTableConsistentAfterDeletes() {
+        try (ColumnarTaskStore store = ColumnarTaskStore.open(directory)) {
+            for (int i = 0; i < 5000; i++) {
+                store.save(new Task.Builder().id(i % 2 == 0 ? "id-" + i : uuid(i)).title("Task").priority(Priority.LOW).build());
+            }
+            for (int i = 0; i < 5000; i += 3) {
+                assertTrue(store.delete(i % 2 == 0 ? "id-" + i : uuid(i)));
+            }
+            for (int i = 0; i < 5000; i++) {
+                int row = store.rowOf(i % 2 == 0 ? "id-" + i : uuid(i));
+                assertEquals(i % 3 != 0, row >= 0, "id " + i);
+            }
+            assertEquals(5000 - 1667, store.size());
+        }
+    }
+
+    private static String title(int i) {
+        return "Title number " + i + "-".repeat(i % 40);
+    }
+
+    private static String uuid(int i) {
+        return new java.util.UUID(i * 31L, i).toString();
+    }
+}
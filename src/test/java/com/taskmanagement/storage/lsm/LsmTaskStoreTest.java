@@ -0,0 +1,157 @@
+package com.taskmanagement.storage.lsm;
+
+import com.taskmanagement.model.Priority;
+import com.taskmanagement.model.Task;
+import com.taskmanagement.storage.DurabilityMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LsmTaskStore Tests")
+class LsmTaskStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private LsmTaskStore open(CompactionStyle style) {
+        return new LsmTaskStore.Builder(directory)
+                .memtableBytes(8 * 1024)
+                .compactionStyle(style)
+                .sizeRatio(3)
+                .level0Runs(2)
+                .blockSize(512)
+                .durabilityMode(DurabilityMode.ASYNC)
+                .build();
+    }
+
+    private static Task task(String id, int version) {
+        return new Task.Builder().id(id).title("Task " + id + " v" + version).priority(Priority.MEDIUM)
+                .version(version).build();
+    }
+
+    private static void assertMatches(Map<String, Task> expected, LsmTaskStore store) {
+        for (int i = 0; i < 2000; i++) {
+            String id = "task-" + i;
+            Task stored = store.get(id);
+            Task model = expected.get(id);
+            assertEquals(model == null ? null : model.getTitle(), stored == null ? null : stored.getTitle(), id);
+        }
+        List<String> scanned = new ArrayList<>();
+        String after = null;
+        int read;
+        do {
+            List<Task> chunk = new ArrayList<>();
+            read = store.scan(after, 100, chunk::add);
+            chunk.forEach(task -> scanned.add(task.getId()));
+            after = chunk.isEmpty() ? after : chunk.get(chunk.size() - 1).getId();
+        } while (read == 100);
+        assertEquals(new ArrayList<>(expected.keySet()), scanned);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CompactionStyle.class)
+    @DisplayName("Should match a map through flushes, compactions and reopening")
+    void shouldMatchModel(CompactionStyle style) {
+        Random random = new Random(22);
+        Map<String, Task> expected = new TreeMap<>();
+        try (LsmTaskStore store = open(style)) {
+            for (int op = 0; op < 20_000; op++) {
+                String id = "task-" + random.nextInt(2000);
+                if (random.nextInt(4) == 0) {
+                    store.delete(id);
+                    expected.remove(id);
+                } else {
+                    Task task = task(id, op);
+                    store.put(task);
+                    expected.put(id, task);
+                }
+            }
+            assertMatches(expected, store);
+            store.flush();
+            assertMatches(expected, store);
+
+            LsmStats stats = store.stats();
+            assertTrue(stats.getFlushCount() > 10, stats.toString());
+            assertTrue(stats.getCompactionCount() > 0, stats.toString());
+            List<Integer> runs = stats.getRunsPerLevel();
+            assertTrue(runs.get(0) < 2, stats.toString());
+            for (int level = 1; level < runs.size(); level++) {
+                assertTrue(style == CompactionStyle.LEVELED ? runs.get(level) <= 1 : runs.get(level) < 3,
+                        stats.toString());
+            }
+        }
+        try (LsmTaskStore store = open(style)) {
+            assertMatches(expected, store);
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover unflushed writes from the log and delete leftover files")
+    void shouldRecoverFromLog() throws Exception {
+        try (LsmTaskStore store = open(CompactionStyle.LEVELED)) {
+            store.put(task("flushed", 1));
+            store.put(task("deleted", 1));
+            store.flush();
+            store.delete("deleted");
+            store.put(task("logged", 1));
+        }
+        Path leftover = SortedRun.path(directory, 1000);
+        Files.write(leftover, new byte[100]);
+        Files.write(directory.resolve(Manifest.FILE + ".tmp"), new byte[10]);
+
+        try (LsmTaskStore store = open(CompactionStyle.LEVELED)) {
+            assertNotNull(store.get("flushed"));
+            assertNotNull(store.get("logged"));
+            assertNull(store.get("deleted"));
+        }
+        assertFalse(Files.exists(leftover));
+        assertFalse(Files.exists(directory.resolve(Manifest.FILE + ".tmp")));
+    }
+
+    @Test
+    @DisplayName("Should skip runs by bloom filter and write less with tiering")
+    void shouldReportAmplification() throws Exception {
+        LsmStats leveled;
+        LsmStats tiered;
+        try (LsmTaskStore store = open(CompactionStyle.LEVELED)) {
+            load(store);
+            leveled = store.stats();
+            for (int i = 0; i < 1000; i++) {
+                assertNull(store.get("missing-" + i));
+            }
+            LsmStats after = store.stats();
+            long lookups = after.getLookupCount() - leveled.getLookupCount();
+            long blockReads = after.getBlockReads() - leveled.getBlockReads();
+            assertTrue(blockReads < lookups / 10, blockReads + " blocks read for " + lookups + " lookups");
+        }
+        for (Path file : Files.list(directory).toArray(Path[]::new)) {
+            Files.delete(file);
+        }
+        try (LsmTaskStore store = open(CompactionStyle.TIERED)) {
+            load(store);
+            tiered = store.stats();
+        }
+        assertTrue(leveled.getWriteAmplification() > 1);
+        assertTrue(tiered.getWriteAmplification() < leveled.getWriteAmplification(), tiered + " vs " + leveled);
+    }
+
+    private static void load(LsmTaskStore store) {
+        Random random = new Random(9);
+        for (int op = 0; op < 20_000; op++) {
+            store.put(task("task-" + random.nextInt(5000), op));
+        }
+        store.flush();
+    }
+}